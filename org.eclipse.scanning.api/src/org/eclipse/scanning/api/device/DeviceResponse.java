@@ -12,6 +12,14 @@
 package org.eclipse.scanning.api.device;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.scanning.api.INameable;
 import org.eclipse.scanning.api.IScannable;
@@ -24,6 +32,7 @@ import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.IResponseProcess;
 import org.eclipse.scanning.api.event.scan.DeviceAction;
+import org.eclipse.scanning.api.event.scan.DeviceAttribute;
 import org.eclipse.scanning.api.event.scan.DeviceInformation;
 import org.eclipse.scanning.api.event.scan.DeviceRequest;
 
@@ -39,11 +48,22 @@ import org.eclipse.scanning.api.event.scan.DeviceRequest;
  * 1. Can work for any client, python and javascript included
  * 2. No JSON serialization issues
  * 
+ * A request with device names is a batch, the devices are read at the same time
+ * and each has the device timeout of the request, or by default
+ * org.eclipse.scanning.api.device.batchTimeout ms, to reply.
  * 
  * @author Matthew Gerring
  *
  */
 public class DeviceResponse implements IResponseProcess<DeviceRequest> {
+
+	private static final long BATCH_TIMEOUT = Long.getLong("org.eclipse.scanning.api.device.batchTimeout", 1000);
+
+	private static final ExecutorService batchExecutor = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "Device batch read");
+		thread.setDaemon(true);
+		return thread;
+	});
 		
 	private IRunnableDeviceService    dservice;
 	private DeviceRequest             bean;
@@ -74,7 +94,9 @@ public class DeviceResponse implements IResponseProcess<DeviceRequest> {
 	@Override
 	public DeviceRequest process(DeviceRequest request) {
 		try {
-			if (request.getDeviceType()==DeviceType.SCANNABLE) {
+			if (request.getDeviceNames()!=null) {
+				processBatch(request, cservice, dservice);
+			} else if (request.getDeviceType()==DeviceType.SCANNABLE) {
 				processScannables(request, cservice);
 			} else {
 				processRunnables(request, dservice);
@@ -153,6 +175,73 @@ public class DeviceResponse implements IResponseProcess<DeviceRequest> {
 	}
 
 
+	/**
+	 * Reads the devices of a batch concurrently, a device which fails or does
+	 * not reply in time has an error rather than failing the request.
+	 */
+	private static void processBatch(DeviceRequest request, IScannableDeviceService cservice, IRunnableDeviceService dservice) {
+
+		final Collection<DeviceAttribute> attributes = request.getDeviceAttributes();
+		final boolean scannables = request.getDeviceType()==DeviceType.SCANNABLE;
+		final boolean values     = scannables && (attributes==null || attributes.contains(DeviceAttribute.VALUE));
+		final boolean infos      = attributes==null || attributes.contains(DeviceAttribute.INFORMATION);
+
+		final Map<String, Future<Object[]>> reads = new LinkedHashMap<>();
+		for (String name : request.getDeviceNames()) {
+			if (name==null || reads.containsKey(name)) continue;
+			reads.put(name, batchExecutor.submit(() -> scannables
+					                                 ? readScannable(name, cservice, values, infos)
+					                                 : readRunnable(name, dservice)));
+		}
+
+		final long timeout = request.getDeviceTimeout()>0 ? request.getDeviceTimeout() : BATCH_TIMEOUT;
+		final long end     = System.nanoTime()+TimeUnit.MILLISECONDS.toNanos(timeout);
+		final Map<String, Object> deviceValues = new LinkedHashMap<>();
+		final Map<String, String> deviceErrors = new LinkedHashMap<>();
+		for (Map.Entry<String, Future<Object[]>> entry : reads.entrySet()) {
+			String name = entry.getKey();
+			try {
+				Object[] read = entry.getValue().get(Math.max(0, end-System.nanoTime()), TimeUnit.NANOSECONDS);
+				if (values) deviceValues.put(name, read[0]);
+				if (infos && read[1]!=null) request.addDeviceInformation((DeviceInformation<?>)read[1]);
+			} catch (TimeoutException ne) {
+				entry.getValue().cancel(true);
+				deviceErrors.put(name, "The device '"+name+"' did not reply in "+timeout+" ms");
+			} catch (ExecutionException ne) {
+				Throwable cause = ne.getCause();
+				deviceErrors.put(name, cause.getMessage()!=null ? cause.getMessage() : cause.toString());
+			} catch (InterruptedException ne) {
+				Thread.currentThread().interrupt();
+				deviceErrors.put(name, "Interrupted reading the device '"+name+"'");
+			}
+		}
+		request.setDeviceValues(values ? deviceValues : null);
+		request.setDeviceErrors(deviceErrors.isEmpty() ? null : deviceErrors);
+	}
+
+	/**
+	 * @return the position and information of the scannable
+	 */
+	private static Object[] readScannable(String name, IScannableDeviceService cservice, boolean value, boolean information) throws Exception {
+		IScannable<?> device = cservice.getScannable(name);
+		if (device==null) throw new EventException("There is no created device called '"+name+"'");
+		DeviceInformation<?> info = null;
+		if (information) {
+			info = new DeviceInformation<Object>(name);
+			merge(info, device);
+		}
+		return new Object[] {value ? device.getPosition() : null, info};
+	}
+
+	/**
+	 * @return the information of the runnable device
+	 */
+	private static Object[] readRunnable(String name, IRunnableDeviceService dservice) throws Exception {
+		IRunnableDevice<Object> device = dservice.getRunnableDevice(name);
+		if (device==null) throw new EventException("There is no created device called '"+name+"'");
+		return new Object[] {null, ((AbstractRunnableDevice<?>)device).getDeviceInformation()};
+	}
+
 	private static void merge(DeviceInformation<?> info, IScannable<?> device) throws Exception {
 		info.setLevel(device.getLevel());
 		info.setUnit(device.getUnit());
@@ -0,0 +1,50 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.device;
+
+import java.util.Collection;
+
+/**
+ * A reservation of the scannables and detectors which a scan uses.
+ * Scans which reserve different devices may run at the same time,
+ * a scan which needs a device reserved by another waits for it.
+ * <p>
+ * An owner, normally the unique id of the scan, may reserve more than
+ * once. Its devices are free again when all its reservations are released.
+ * 
+ * @see IRunnableDeviceService#reserve(String, Collection, long, java.util.concurrent.TimeUnit)
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public interface IDeviceReservation extends AutoCloseable {
+
+	/**
+	 * @return the owner of the reservation, normally the unique id of the scan.
+	 */
+	String getOwner();
+	
+	/**
+	 * @return the names of the devices reserved.
+	 */
+	Collection<String> getNames();
+	
+	/**
+	 * Releases the reservation, releasing more than once does nothing.
+	 */
+	void release();
+	
+	@Override
+	default void close() {
+		release();
+	}
+}
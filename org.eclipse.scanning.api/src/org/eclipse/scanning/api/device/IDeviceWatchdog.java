@@ -113,4 +113,15 @@ public interface IDeviceWatchdog extends IModelProvider<DeviceWatchdogModel>, IN
 	 */
 	void setModel(DeviceWatchdogModel model);
 
+	/**
+	 * Reads the countdown which the watchdog watches, converted with the unit which
+	 * the watchdog is configured with. Used to simulate the watchdog in a dry run.
+	 * 
+	 * @return the countdown in ms or -1 if the watchdog does not watch a countdown.
+	 * @throws Exception if the countdown cannot be read
+	 */
+	default long getCountdown() throws Exception {
+		return -1;
+	}
+
 }
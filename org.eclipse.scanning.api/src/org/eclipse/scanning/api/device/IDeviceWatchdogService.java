@@ -11,6 +11,9 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.device;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * 
    <h3>Welcome to Watchdogs</h3>
@@ -90,4 +93,13 @@ public interface IDeviceWatchdogService {
 	 */
 	IDeviceWatchdog getWatchdog(String name);
 
+	/**
+	 * Get the watchdogs registered, enabled or not.
+	 * 
+	 * @return the watchdogs in the order they were registered
+	 */
+	default List<IDeviceWatchdog> getWatchdogs() {
+		return Collections.emptyList();
+	}
+
 }
@@ -22,6 +22,15 @@ public interface IPausableDevice<T> extends IRunnableDevice<T> {
 	 * IllegalMonitorState Exception will be thrown.
 	 */
 	void pause() throws ScanningException, InterruptedException;
+
+	/**
+	 * Pauses the device for a watchdog, for instance during topup. Devices which learn
+	 * from the time they spend paused may tell these pauses apart from those of users.
+	 * By default the same as {@link #pause()}.
+	 */
+	default void pauseForWatchdog() throws ScanningException, InterruptedException {
+		pause();
+	}
 	
 	/**
 	 * Seek to/from a point number (absolute) in the scan.
@@ -12,6 +12,8 @@
 package org.eclipse.scanning.api.device;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.scanning.api.device.models.DeviceRole;
 import org.eclipse.scanning.api.event.core.IPublisher;
@@ -211,10 +213,37 @@ public interface IRunnableDeviceService extends IPositionerService {
      * to a new location from Jython. The returned scanner will be null unless
      * a scan is currently running, therefore it is of limited usage normally.
      * 
+     * Several scans may run at once, the scanner returned is the one running
+     * in the calling thread if there is one, otherwise the most recently started.
+     * 
      * @return current actively scanning device.
      */
 	default <T> IRunnableDevice<T> getActiveScanner() {
 		throw new IllegalArgumentException("The get active scanner method is not availble!");
 	}
 	
+	/**
+	 * 
+	 * @return all the scanners currently running, in the order they started, never null.
+	 */
+	default Collection<IRunnableDevice<?>> getActiveScanners() {
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * Reserves devices for a scan, waiting if any of them are reserved by a different owner.
+	 * All the devices are reserved together or none are.
+	 * 
+	 * @param owner normally the unique id of the scan
+	 * @param names of the scannables and detectors
+	 * @param time to wait, less than zero to wait until they are free
+	 * @param unit
+	 * @return the reservation or null if this service does not reserve devices.
+	 * @throws ScanningException if the devices are not free in time
+	 * @throws InterruptedException
+	 */
+	default IDeviceReservation reserve(String owner, Collection<String> names, long time, TimeUnit unit) throws ScanningException, InterruptedException {
+		return null;
+	}
+	
 }
@@ -37,6 +37,9 @@ it resets to time before next TopUp fill,
 	{@literal 	<property name="topupTime"              value="15000"/>}
 	{@literal   <!-- End optional, do not usually need to set -->}
 
+    {@literal   <!-- Optional, hold the scan before a point which cannot finish before the cooloff -->}
+	{@literal 	<property name="predictive"             value="true"/>}
+
     {@literal   <property name="bundle"               value="org.eclipse.scanning.api" /> <!-- Delete for real spring? -->}
 	{@literal </bean>}
 	{@literal <bean id="topupWatchdog"    class="org.eclipse.scanning.sequencer.watchdog.TopupWatchdog" init-method="activate">}
@@ -126,6 +129,9 @@ public class DeviceWatchdogModel {
 	// The name of the mode pv, if any. 
 	private String modeName;            // If this is set the PV will be checked to ensure that the topup mode is as expected.
 	
+	// If true the topup watchdog predicts if the next point can complete before the cooloff and holds the scan if it cannot.
+	private boolean predictive;
+	
 	public String getCountdownName() {
 		return countdownName;
 	}
@@ -215,5 +221,11 @@ public class DeviceWatchdogModel {
 	public void setModeName(String modeName) {
 		this.modeName = modeName;
 	}
+	public boolean isPredictive() {
+		return predictive;
+	}
+	public void setPredictive(boolean predictive) {
+		this.predictive = predictive;
+	}
 	
 }
@@ -0,0 +1,236 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.dry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The timeline of a simulated scan, see {@link ScanSimulator}. It has the start and
+ * duration of each point, the pauses made by watchdogs and the end of the scan
+ * predicted from the time at which it would start.
+ * <p>
+ * Times are in ms from the start of the scan unless they are predicted ends,
+ * which are wall clock times in ms.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class DryRunTimeline {
+
+	/**
+	 * A time for which a watchdog held the scan.
+	 */
+	public static final class Pause {
+
+		private final double start;
+		private final double duration;
+		private final String watchdog;
+
+		Pause(double start, double duration, String watchdog) {
+			this.start    = start;
+			this.duration = duration;
+			this.watchdog = watchdog;
+		}
+
+		public double getStart() {
+			return start;
+		}
+
+		public double getDuration() {
+			return duration;
+		}
+
+		public String getWatchdog() {
+			return watchdog;
+		}
+	}
+
+	private final long        startTime;
+	private double[]          starts;
+	private float[]           durations;
+	private int               size;
+	private final List<Pause> pauses;
+
+	private double moveTime;
+	private double runTime;
+	private double overheadTime;
+	private double pauseTime;
+	private double repeatTime;
+	private double end;
+
+	/**
+	 * @param startTime the wall clock time in ms at which the scan would start
+	 */
+	public DryRunTimeline(long startTime) {
+		this.startTime = startTime;
+		this.starts    = new double[1024];
+		this.durations = new float[1024];
+		this.pauses    = new ArrayList<>();
+	}
+
+	void addPoint(double start, double move, double run, double overhead) {
+		if (size==starts.length) {
+			starts    = Arrays.copyOf(starts,    size*2);
+			durations = Arrays.copyOf(durations, size*2);
+		}
+		double duration  = move+run+overhead;
+		starts[size]     = start;
+		durations[size]  = (float)duration;
+		size++;
+		moveTime        += move;
+		runTime         += run;
+		overheadTime    += overhead;
+		end              = Math.max(end, start+duration);
+	}
+
+	void addPause(double start, double duration, String watchdog) {
+		pauses.add(new Pause(start, duration, watchdog));
+		pauseTime += duration;
+		end        = Math.max(end, start+duration);
+	}
+
+	/**
+	 * A point interrupted by a watchdog is run again, the part run first is lost.
+	 */
+	void addRepeat(double time) {
+		repeatTime += time;
+	}
+
+	/**
+	 * @return the number of points simulated
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @param point
+	 * @return time in ms from the start of the scan at which the point starts
+	 */
+	public double getPointStart(int point) {
+		check(point);
+		return starts[point];
+	}
+
+	/**
+	 * @param point
+	 * @return time in ms of the point, moving, running the detectors and the overhead
+	 */
+	public double getPointDuration(int point) {
+		check(point);
+		return durations[point];
+	}
+
+	/**
+	 * @param point
+	 * @return the wall clock time in ms at which the point is predicted to end
+	 */
+	public long getPredictedEnd(int point) {
+		check(point);
+		return startTime + Math.round(starts[point]+durations[point]);
+	}
+
+	private void check(int point) {
+		if (point<0 || point>=size) throw new IndexOutOfBoundsException("Point "+point+" of "+size);
+	}
+
+	/**
+	 * @return the wall clock time in ms at which the scan would start
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return the wall clock time in ms at which the scan is predicted to end
+	 */
+	public long getPredictedEnd() {
+		return startTime + Math.round(end);
+	}
+
+	/**
+	 * @return the time in ms of the whole scan
+	 */
+	public double getDuration() {
+		return end;
+	}
+
+	public double getMoveTime() {
+		return moveTime;
+	}
+
+	public double getRunTime() {
+		return runTime;
+	}
+
+	public double getOverheadTime() {
+		return overheadTime;
+	}
+
+	/**
+	 * @return the time in ms for which watchdogs held the scan
+	 */
+	public double getPauseTime() {
+		return pauseTime;
+	}
+
+	/**
+	 * @return the time in ms lost running points which were interrupted and run again
+	 */
+	public double getRepeatTime() {
+		return repeatTime;
+	}
+
+	public List<Pause> getPauses() {
+		return Collections.unmodifiableList(pauses);
+	}
+
+	/**
+	 * @return the longest point in ms
+	 */
+	public double getMaxPointDuration() {
+		float max = 0;
+		for (int i = 0; i < size; i++) max = Math.max(max, durations[i]);
+		return max;
+	}
+
+	/**
+	 * Writes the timeline as comma separated values, a line for each point and then
+	 * a line for each pause.
+	 * @param writer
+	 * @throws IOException
+	 */
+	public void write(Writer writer) throws IOException {
+		writer.write("point,start,duration,predicted_end\n");
+		for (int i = 0; i < size; i++) {
+			writer.write(i+","+starts[i]+","+durations[i]+","+Instant.ofEpochMilli(getPredictedEnd(i))+"\n");
+		}
+		writer.write("pause,start,duration,watchdog\n");
+		for (int i = 0; i < pauses.size(); i++) {
+			Pause pause = pauses.get(i);
+			writer.write(i+","+pause.getStart()+","+pause.getDuration()+","+pause.getWatchdog()+"\n");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DryRunTimeline [points=" + size + ", duration=" + Math.round(end) + "ms, predictedEnd=" + Instant.ofEpochMilli(getPredictedEnd())
+				+ ", moveTime=" + Math.round(moveTime) + "ms, runTime=" + Math.round(runTime) + "ms, overheadTime=" + Math.round(overheadTime)
+				+ "ms, pauses=" + pauses.size() + ", pauseTime=" + Math.round(pauseTime) + "ms, repeatTime=" + Math.round(repeatTime) + "ms]";
+	}
+}
@@ -0,0 +1,201 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.dry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.scanning.api.device.models.DeviceWatchdogModel;
+import org.eclipse.scanning.api.device.models.IDetectorModel;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.IMoveTimeModel;
+import org.eclipse.scanning.api.scan.IScanCostModel;
+
+/**
+ * Replays the points of a scan against a {@link VirtualClock}. Each point takes
+ * the time to move to it, the time of the slowest detector and the overhead of a point,
+ * as the sequencer would, but the clock is advanced rather than waited for.
+ * <p>
+ * Topup watchdogs are simulated from their models. The fill starts every period and
+ * lasts for the topup time, a scan is held within the cooloff before the fill and the
+ * warmup after it. A predictive watchdog holds a point which would not finish before
+ * the cooloff, otherwise the point is interrupted at the cooloff and run again after the fill.
+ * Watchdogs with an expression depend on live values and are not simulated.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ScanSimulator {
+
+	/**
+	 * The most times that the watchdogs may hold one point, in case they never agree.
+	 */
+	private static final int MAXIMUM_HOLDS = 100;
+
+	private final VirtualClock   clock;
+	private final DryRunTimeline timeline;
+	private final double         runTime;
+	private final List<Topup>    topups;
+
+	private IMoveTimeModel moveTimeModel;
+	private double         pointOverhead;
+	private IPosition      previous;
+
+	/**
+	 * @param detectorModels the models of the detectors, may be null
+	 * @param timePerPoint time in ms of a point, only used if there are no detector models
+	 * @param costs the costs learned by the sequencer, may be null
+	 * @param startTime the wall clock time in ms at which the scan would start
+	 */
+	public ScanSimulator(Collection<Object> detectorModels, long timePerPoint, IScanCostModel costs, long startTime) {
+
+		// The detectors run at the same time so the point waits for the slowest
+		double  run      = 0;
+		boolean detected = false;
+		if (detectorModels!=null) {
+			for (Object model : detectorModels) {
+				if (!(model instanceof IDetectorModel)) continue;
+				IDetectorModel dmodel = (IDetectorModel)model;
+				double overhead = costs!=null ? costs.getDetectorOverhead(dmodel.getName()) : 0;
+				run = Math.max(run, dmodel.getExposureTime()*1000 + overhead);
+				detected = true;
+			}
+		}
+		this.runTime       = detected ? run : timePerPoint;
+		this.pointOverhead = costs!=null ? costs.getPointOverhead() : 0;
+		this.moveTimeModel = costs;
+		this.clock         = new VirtualClock();
+		this.timeline      = new DryRunTimeline(startTime);
+		this.topups        = new ArrayList<>(1);
+	}
+
+	/**
+	 * @param model the times of moves, may be null to use the costs
+	 */
+	public void setMoveTimeModel(IMoveTimeModel model) {
+		if (model!=null) this.moveTimeModel = model;
+	}
+
+	/**
+	 * Adds a topup watchdog to the simulation
+	 * @param name of the watchdog
+	 * @param model
+	 * @param countdown in ms until the next fill when the scan would start, negative if not known
+	 * @return true if the watchdog can be simulated
+	 */
+	public boolean addWatchdog(String name, DeviceWatchdogModel model, long countdown) {
+		if (model.getCountdownName()==null || model.getPeriod()<=0) return false;
+		double open  = model.getTopupTime() + model.getWarmup();
+		double close = model.getPeriod() - model.getCooloff();
+		if (close<=open) return false;
+
+		// The time in the cycle at the start, by default the scan is able to start
+		double phase = open;
+		if (countdown==0) phase = 0;
+		if (countdown>0) phase = Math.max(0, model.getPeriod()-countdown);
+		topups.add(new Topup(name, model.getPeriod(), open, close, model.isPredictive(), phase));
+		return true;
+	}
+
+	/**
+	 * Simulates the next point of the scan.
+	 * @param position
+	 */
+	public void point(IPosition position) {
+
+		final double move     = moveTimeModel!=null ? Math.max(0, moveTimeModel.getMoveTime(previous, position)) : 0;
+		final double duration = move + runTime + pointOverhead;
+		previous = position;
+
+		for (int i = 0; i < MAXIMUM_HOLDS && !topups.isEmpty(); i++) {
+			Topup   hold   = null;
+			double  resume = 0;
+			for (Topup topup : topups) {
+				double time = topup.getResume(clock.now(), duration);
+				if (time>resume) {
+					resume = time;
+					hold   = topup;
+				}
+			}
+			if (hold==null) break;
+
+			double interrupted = hold.getInterruption(clock.now(), duration);
+			timeline.addRepeat(interrupted);
+			clock.advance(interrupted);
+			timeline.addPause(clock.now(), resume-clock.now(), hold.name);
+			clock.advanceTo(resume);
+		}
+
+		timeline.addPoint(clock.now(), move, runTime, pointOverhead);
+		clock.advance(duration);
+	}
+
+	public VirtualClock getClock() {
+		return clock;
+	}
+
+	public DryRunTimeline getTimeline() {
+		return timeline;
+	}
+
+	/**
+	 * The cycle of the topup, in ms since the last fill started. The fill
+	 * is from 0 to the topup time and the scan may run between open and close.
+	 */
+	private static final class Topup {
+
+		private final String  name;
+		private final double  period;
+		private final double  open;
+		private final double  close;
+		private final boolean predictive;
+		private final double  phase;
+
+		Topup(String name, double period, double open, double close, boolean predictive, double phase) {
+			this.name       = name;
+			this.period     = period;
+			this.open       = open;
+			this.close      = close;
+			this.predictive = predictive;
+			this.phase      = phase;
+		}
+
+		private double cycle(double now) {
+			double time = (phase+now) % period;
+			return time<0 ? time+period : time;
+		}
+
+		/**
+		 * @return the time at which a point of the duration may start, 0 if it may start now.
+		 */
+		double getResume(double now, double duration) {
+			double time  = cycle(now);
+			double start = now-time; // When the current cycle started
+			if (time<open)   return start+open;
+			if (time>=close) return start+period+open;
+			if (time+duration<close)    return 0;
+			if (duration>=close-open)   return 0; // The point can never fit, it runs through
+			return start+period+open;
+		}
+
+		/**
+		 * @return the time for which a point runs before it is interrupted, 0 if it is held before it starts.
+		 */
+		double getInterruption(double now, double duration) {
+			if (predictive) return 0;
+			double time = cycle(now);
+			if (time<open || time>=close) return 0;
+			return Math.min(duration, close-time);
+		}
+	}
+}
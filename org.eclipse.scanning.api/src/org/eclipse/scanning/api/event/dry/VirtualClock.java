@@ -0,0 +1,45 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.dry;
+
+/**
+ * The clock of a simulated scan, time only passes when the
+ * simulation advances it so no time is spent waiting.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class VirtualClock {
+
+	private double now;
+
+	/**
+	 * @return the time in ms since the clock started
+	 */
+	public double now() {
+		return now;
+	}
+
+	/**
+	 * @param time in ms, negative times are ignored
+	 */
+	public void advance(double time) {
+		if (time>0) now += time;
+	}
+
+	/**
+	 * @param time in ms since the clock started, times already passed are ignored
+	 */
+	public void advanceTo(double time) {
+		if (time>now) now = time;
+	}
+}
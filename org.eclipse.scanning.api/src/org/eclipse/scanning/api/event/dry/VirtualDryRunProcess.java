@@ -0,0 +1,136 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.dry;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.time.Instant;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.core.AbstractLockingPausableProcess;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+
+/**
+ * A dry run which makes each point of the scan request of the bean and replays it
+ * with a {@link ScanSimulator}, so the scan is checked as fast as its points can be
+ * made rather than at the speed of the scan.
+ * <p>
+ * When complete the bean has the properties dryrun.points, dryrun.duration (ms),
+ * dryrun.predictedEnd, dryrun.pauses, dryrun.pauseTime (ms) and, if the timeline
+ * is written, dryrun.timeline with the path of the file.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class VirtualDryRunProcess<T extends ScanBean> extends AbstractLockingPausableProcess<T> {
+
+	private final IPointGeneratorService gservice;
+	private final ScanSimulator          simulator;
+	private final File                   timelineFile;
+	private volatile boolean             terminated;
+
+	/**
+	 * @param bean
+	 * @param statusPublisher
+	 * @param gservice makes the points of the scan
+	 * @param simulator
+	 * @param timelineFile the file to write the timeline to, may be null
+	 */
+	public VirtualDryRunProcess(T bean, IPublisher<T> statusPublisher, IPointGeneratorService gservice, ScanSimulator simulator, File timelineFile) {
+		super(bean, statusPublisher);
+		this.gservice     = gservice;
+		this.simulator    = simulator;
+		this.timelineFile = timelineFile;
+	}
+
+	@Override
+	public void execute() throws EventException {
+
+		final T bean = getBean();
+		bean.setPreviousStatus(Status.QUEUED);
+		bean.setStatus(Status.RUNNING);
+		bean.setPercentComplete(0d);
+		getPublisher().broadcast(bean);
+
+		terminated = false;
+		try {
+			final ScanRequest<?> req = bean.getScanRequest();
+			if (req==null) throw new EventException("There is no scan request to dry run");
+
+			final IPointGenerator<?> gen = gservice.createCompoundGenerator(req.getCompoundModel());
+			final int size = gen.size();
+			final int step = Math.max(1, size/100);
+			int count = 0;
+			for (IPosition position : gen) {
+				if (terminated) {
+					bean.setPreviousStatus(Status.RUNNING);
+					bean.setStatus(Status.TERMINATED);
+					getPublisher().broadcast(bean);
+					return;
+				}
+				simulator.point(position);
+				if (++count%step==0) {
+					bean.setPercentComplete(Math.min(99d, 100d*count/size));
+					getPublisher().broadcast(bean);
+					checkPaused(); // Blocks if is, sends events
+				}
+			}
+
+			final DryRunTimeline timeline = simulator.getTimeline();
+			bean.setProperty("dryrun.points",       String.valueOf(timeline.getSize()));
+			bean.setProperty("dryrun.duration",     String.valueOf(Math.round(timeline.getDuration())));
+			bean.setProperty("dryrun.predictedEnd", Instant.ofEpochMilli(timeline.getPredictedEnd()).toString());
+			bean.setProperty("dryrun.pauses",       String.valueOf(timeline.getPauses().size()));
+			bean.setProperty("dryrun.pauseTime",    String.valueOf(Math.round(timeline.getPauseTime())));
+			if (timelineFile!=null) {
+				try (Writer writer = new FileWriter(timelineFile)) {
+					timeline.write(writer);
+				}
+				bean.setProperty("dryrun.timeline", timelineFile.getAbsolutePath());
+			}
+
+			bean.setPreviousStatus(Status.RUNNING);
+			bean.setStatus(Status.COMPLETE);
+			bean.setPercentComplete(100);
+			bean.setMessage("Dry run complete (simulated), the scan would take "+Math.round(timeline.getDuration()/1000)+"s and end at "+Instant.ofEpochMilli(timeline.getPredictedEnd()));
+			getPublisher().broadcast(bean);
+
+		} catch (Exception ne) {
+			bean.setPreviousStatus(Status.RUNNING);
+			bean.setStatus(Status.FAILED);
+			bean.setMessage(ne.getMessage());
+			getPublisher().broadcast(bean);
+			if (ne instanceof EventException) throw (EventException)ne;
+			throw new EventException(ne);
+		}
+	}
+
+	@Override
+	public void doTerminate() throws EventException {
+		terminated = true;
+	}
+
+	public DryRunTimeline getTimeline() {
+		return simulator.getTimeline();
+	}
+
+	public boolean isTerminated() {
+		return terminated;
+	}
+}
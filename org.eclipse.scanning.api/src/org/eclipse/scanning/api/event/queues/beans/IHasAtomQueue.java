@@ -107,5 +107,22 @@ public interface IHasAtomQueue<T extends QueueAtom> extends IHasChildQueue {
 	 */
 	public boolean isAtomPresent(T atom);
 	
+	/**
+	 * Whether the atoms in the queue may be processed concurrently. If 
+	 * true, an atom is started as soon as the atoms it depends on (see 
+	 * {@link QueueAtom#getDependencies()}) have completed. Otherwise the 
+	 * atoms are processed one after another in queue order.
+	 * 
+	 * @return true if atoms may be processed concurrently.
+	 */
+	public boolean isParallel();
+	
+	/**
+	 * Set whether the atoms in the queue may be processed concurrently.
+	 * 
+	 * @param parallel true to allow concurrent processing.
+	 */
+	public void setParallel(boolean parallel);
+	
 
 }
@@ -11,6 +11,9 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.event.queues.beans;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Base class for all bean types which exist in active-queues.
  * 
@@ -22,6 +25,67 @@ public abstract class QueueAtom extends Queueable {
 	/**
 	 * Version ID for serialization. Should be updated when class changed. 
 	 */
-	private static final long serialVersionUID = 20161017L;
+	private static final long serialVersionUID = 20171020L;
+	
+	private List<String> dependencies;
+	
+	/**
+	 * Get the unique IDs of the atoms in the same atom queue which must 
+	 * complete before this atom is started. Dependencies are only used when 
+	 * the atom queue is processed in parallel (see 
+	 * {@link IHasAtomQueue#isParallel()}).
+	 * 
+	 * @return List of unique IDs (may be null if there are none).
+	 */
+	public List<String> getDependencies() {
+		return dependencies;
+	}
+	
+	public void setDependencies(List<String> dependencies) {
+		this.dependencies = dependencies;
+	}
+	
+	/**
+	 * Make this atom wait for the given atom to complete before starting.
+	 * 
+	 * @param atom {@link QueueAtom} in the same atom queue.
+	 */
+	public void addDependency(QueueAtom atom) {
+		if (dependencies == null) dependencies = new ArrayList<>();
+		if (!dependencies.contains(atom.getUniqueId())) dependencies.add(atom.getUniqueId());
+	}
+	
+	@Override
+	public void merge(Queueable with) {
+		super.merge(with);
+		if (with instanceof QueueAtom) {
+			this.dependencies = ((QueueAtom)with).dependencies;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((dependencies == null) ? 0 : dependencies.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		QueueAtom other = (QueueAtom) obj;
+		if (dependencies == null) {
+			if (other.dependencies != null)
+				return false;
+		} else if (!dependencies.equals(other.dependencies))
+			return false;
+		return true;
+	}
 
 }
@@ -36,10 +36,11 @@ public class SubTaskAtom extends QueueAtom implements IHasAtomQueue<QueueAtom> {
 	/**
 	 * Version ID for serialization. Should be updated when class changed. 
 	 */
-	private static final long serialVersionUID = 20170503L;
+	private static final long serialVersionUID = 20171020L;
 
 	private LinkedList<QueueAtom> atomQueue;
 	private String queueMessage;
+	private boolean parallel;
 
 	/**
 	 * No argument constructor for JSON
@@ -139,11 +140,22 @@ public class SubTaskAtom extends QueueAtom implements IHasAtomQueue<QueueAtom> {
 		queueMessage = msg;
 	}
 
+	@Override
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	@Override
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((atomQueue == null) ? 0 : atomQueue.hashCode());
+		result = prime * result + (parallel ? 1231 : 1237);
 		result = prime * result + ((queueMessage == null) ? 0 : queueMessage.hashCode());
 		return result;
 	}
@@ -162,6 +174,8 @@ public class SubTaskAtom extends QueueAtom implements IHasAtomQueue<QueueAtom> {
 				return false;
 		} else if (!atomQueue.equals(other.atomQueue))
 			return false;
+		if (parallel != other.parallel)
+			return false;
 		if (queueMessage == null) {
 			if (other.queueMessage != null)
 				return false;
@@ -180,7 +194,7 @@ public class SubTaskAtom extends QueueAtom implements IHasAtomQueue<QueueAtom> {
 		}
 		atomQueueStr = atomQueueStr.replaceAll(", $", "}"); //Replace trailing ", "
 		
-		return clazzName + " [name=" + name + ", atomQueue=" + atomQueueStr + ", status=" + status
+		return clazzName + " [name=" + name + ", atomQueue=" + atomQueueStr + ", parallel=" + parallel + ", status=" + status
 				+ ", message=" + message + ", queueMessage=" + queueMessage + ", percentComplete=" 
 				+ percentComplete + ", previousStatus=" + previousStatus + ", runTime=" + runTime 
 				+ ", userName=" + userName+ ", hostName=" + hostName + ", beamline="+ beamline 
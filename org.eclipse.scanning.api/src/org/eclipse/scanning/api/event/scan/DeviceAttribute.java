@@ -0,0 +1,31 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.scan;
+
+/**
+ * Selects what is read of each device of a batch {@link DeviceRequest}.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public enum DeviceAttribute {
+
+	/**
+	 * The position of a scannable.
+	 */
+	VALUE,
+
+	/**
+	 * The {@link DeviceInformation} of the device, its limits, unit and so on.
+	 */
+	INFORMATION;
+}
@@ -13,6 +13,7 @@ package org.eclipse.scanning.api.event.scan;
 
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.Map;
 
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.ValidationException;
@@ -37,6 +38,8 @@ import org.eclipse.scanning.api.points.IPosition;
  * 3. Set name and model, named device is retrieved and configured.        
  * 4. Set the device model and the configure boolean, get a new device created.  IRunnableDeviceService.createRunnableDevice()
  * 5. Set the device action and the device name to call specific methods.
+ * 6. Set the device names to read many devices in one request, the values
+ *    and errors of each device are returned by name.
  * 
  * </pre>
  * 
@@ -110,6 +113,32 @@ public class DeviceRequest extends IdBean {
 	 * the device itself from a device that is marked as not being alive.
 	 */
 	private boolean includeNonAlive = false;
+
+	/**
+	 * The names of the devices of a batch request, which are read together
+	 * and answered in one reply. When set the device name is not used.
+	 */
+	private Collection<String> deviceNames;
+
+	/**
+	 * What to read of each device of a batch, null to read everything.
+	 */
+	private Collection<DeviceAttribute> deviceAttributes;
+
+	/**
+	 * The time in ms which each device of a batch has to be read, 0 for the default of the server.
+	 */
+	private long deviceTimeout;
+
+	/**
+	 * The values of the devices of a batch by name.
+	 */
+	private Map<String, Object> deviceValues;
+
+	/**
+	 * The errors of the devices of a batch which could not be read, by name.
+	 */
+	private Map<String, String> deviceErrors;
 	
 	@Override
 	public <A extends IdBean> void merge(A with) {
@@ -126,6 +155,11 @@ public class DeviceRequest extends IdBean {
 		errorMessage     = dr.errorMessage;
 		errorFieldNames  = dr.errorFieldNames;
 		includeNonAlive  = dr.includeNonAlive;
+		deviceNames      = dr.deviceNames;
+		deviceAttributes = dr.deviceAttributes;
+		deviceTimeout    = dr.deviceTimeout;
+		deviceValues     = dr.deviceValues;
+		deviceErrors     = dr.deviceErrors;
 	}
 
 	
@@ -189,6 +223,16 @@ public class DeviceRequest extends IdBean {
 	}
 
 
+	/**
+	 * For reading many devices in one request.
+	 * @param names
+	 * @param type
+	 */
+	public DeviceRequest(Collection<String> names, DeviceType type) {
+		this.deviceNames = names;
+		this.deviceType  = type;
+	}
+
 	public DeviceRequest(String name, DeviceType type, DeviceAction action, boolean activated) {
 		this(name, type);
 		this.deviceAction = action;
@@ -223,6 +267,11 @@ public class DeviceRequest extends IdBean {
 		result = prime * result + ((devices == null) ? 0 : devices.hashCode());
 		result = prime * result + ((errorMessage == null) ? 0 : errorMessage.hashCode());
 		result = prime * result + ((position == null) ? 0 : position.hashCode());
+		result = prime * result + ((deviceNames == null) ? 0 : deviceNames.hashCode());
+		result = prime * result + ((deviceAttributes == null) ? 0 : deviceAttributes.hashCode());
+		result = prime * result + (int) (deviceTimeout ^ (deviceTimeout >>> 32));
+		result = prime * result + ((deviceValues == null) ? 0 : deviceValues.hashCode());
+		result = prime * result + ((deviceErrors == null) ? 0 : deviceErrors.hashCode());
 		return result;
 	}
 
@@ -273,6 +322,28 @@ public class DeviceRequest extends IdBean {
 				return false;
 		} else if (!position.equals(other.position))
 			return false;
+		if (deviceNames == null) {
+			if (other.deviceNames != null)
+				return false;
+		} else if (!deviceNames.equals(other.deviceNames))
+			return false;
+		if (deviceAttributes == null) {
+			if (other.deviceAttributes != null)
+				return false;
+		} else if (!deviceAttributes.equals(other.deviceAttributes))
+			return false;
+		if (deviceTimeout != other.deviceTimeout)
+			return false;
+		if (deviceValues == null) {
+			if (other.deviceValues != null)
+				return false;
+		} else if (!deviceValues.equals(other.deviceValues))
+			return false;
+		if (deviceErrors == null) {
+			if (other.deviceErrors != null)
+				return false;
+		} else if (!deviceErrors.equals(other.deviceErrors))
+			return false;
 		return true;
 	}
 
@@ -387,6 +458,46 @@ public class DeviceRequest extends IdBean {
 		this.includeNonAlive = includeNonAlive;
 	}
 
+	public Collection<String> getDeviceNames() {
+		return deviceNames;
+	}
+
+	public void setDeviceNames(Collection<String> deviceNames) {
+		this.deviceNames = deviceNames;
+	}
+
+	public Collection<DeviceAttribute> getDeviceAttributes() {
+		return deviceAttributes;
+	}
+
+	public void setDeviceAttributes(Collection<DeviceAttribute> deviceAttributes) {
+		this.deviceAttributes = deviceAttributes;
+	}
+
+	public long getDeviceTimeout() {
+		return deviceTimeout;
+	}
+
+	public void setDeviceTimeout(long deviceTimeout) {
+		this.deviceTimeout = deviceTimeout;
+	}
+
+	public Map<String, Object> getDeviceValues() {
+		return deviceValues;
+	}
+
+	public void setDeviceValues(Map<String, Object> deviceValues) {
+		this.deviceValues = deviceValues;
+	}
+
+	public Map<String, String> getDeviceErrors() {
+		return deviceErrors;
+	}
+
+	public void setDeviceErrors(Map<String, String> deviceErrors) {
+		this.deviceErrors = deviceErrors;
+	}
+
 	/**
 	 * Checks if this request contains an error message and throws an exception if it does,
 	 * does nothing otherwise
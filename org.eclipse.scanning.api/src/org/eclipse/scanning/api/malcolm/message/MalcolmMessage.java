@@ -12,6 +12,7 @@
 package org.eclipse.scanning.api.malcolm.message;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Class used to define malcolm object which 
@@ -37,6 +38,7 @@ public class MalcolmMessage {
 	private Object arguments;
 	private Object value;
 	private Object rawValue;
+	private transient Supplier<?> rawValueSupplier;
 	
 	public Type getType() {
 		return type;
@@ -70,7 +72,8 @@ public class MalcolmMessage {
 		result = prime * result + ((param == null) ? 0 : param.hashCode());
 		result = prime * result + ((type == null) ? 0 : type.hashCode());
 		result = prime * result + ((value == null) ? 0 : value.hashCode());
-		result = prime * result + ((rawValue == null) ? 0 : rawValue.hashCode());
+		Object raw = getRawValue();
+		result = prime * result + ((raw == null) ? 0 : raw.hashCode());
 		return result;
 	}
 	
@@ -117,10 +120,12 @@ public class MalcolmMessage {
 				return false;
 		} else if (!value.equals(other.value))
 			return false;
-		if (rawValue == null) {
-			if (other.rawValue != null)
+		Object raw = getRawValue();
+		Object otherRaw = other.getRawValue();
+		if (raw == null) {
+			if (otherRaw != null)
 				return false;
-		} else if (!rawValue.equals(other.rawValue))
+		} else if (!raw.equals(otherRaw))
 			return false;
 		return true;
 	}
@@ -169,10 +174,31 @@ public class MalcolmMessage {
 	public void setEndpoint(String endPoint) {
 		this.endpoint = endPoint;
 	}
-	public Object getRawValue() {
+	/**
+	 * The raw value is only rendered from a lazy raw value when it is
+	 * first read, most messages are never asked for it.
+	 * @return raw value
+	 */
+	public synchronized Object getRawValue() {
+		if (rawValueSupplier!=null) {
+			rawValue = rawValueSupplier.get();
+			rawValueSupplier = null;
+		}
 		return rawValue;
 	}
-	public void setRawValue(Object rawValue) {
+	public synchronized void setRawValue(Object rawValue) {
 		this.rawValue = rawValue;
+		this.rawValueSupplier = null;
+	}
+	/**
+	 * Sets a raw value which is rendered the first time that
+	 * {@link #getRawValue()} is called, for instance the string
+	 * form of a large structure received from the connector.
+	 * 
+	 * @param rawValueSupplier
+	 */
+	public synchronized void setLazyRawValue(Supplier<?> rawValueSupplier) {
+		this.rawValue = null;
+		this.rawValueSupplier = rawValueSupplier;
 	}
 }
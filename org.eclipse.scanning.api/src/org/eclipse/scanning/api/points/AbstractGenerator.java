@@ -11,10 +11,21 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.points;
 
+import java.beans.PropertyChangeSupport;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.ValidationException;
@@ -29,6 +40,23 @@ import org.eclipse.scanning.api.points.models.IBoundingBoxModel;
  */
 public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterable<IPosition> {
 
+	// The size and shape are worked out once for the content of a model. Generators made
+	// again for the same content, for instance each time a scan request is validated, share them.
+	private static final int MEMO_SIZE = Integer.getInteger("org.eclipse.scanning.api.points.memoSize", 256);
+	private static final Map<List<Object>, Memo> memos = new LinkedHashMap<List<Object>, Memo>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<Object>, Memo> eldest) {
+			return size() > MEMO_SIZE;
+		}
+	};
+	
+
+	private static final class Memo {
+		private volatile int   size = -1;
+		private volatile int[] shape;
+	}
+
 	protected volatile T model; // Because of the validateModel() method
 	
 	protected List<IPointContainer> containers;
@@ -39,7 +67,6 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 	private String iconPath;
 	private boolean visible=true;
 	private boolean enabled=true;
-	private int[] shape = null;
 	
 	protected AbstractGenerator() {
 		super();
@@ -58,7 +85,6 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 	@Override
 	public void setModel(T model) {
 		this.model = model;
-		this.shape = null; // clear cached shape
 	}
 	
 	@Override
@@ -122,7 +148,14 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 	@Override
 	public final int size() throws GeneratorException {
 		validateModel();
-		return sizeOfValidModel();
+		final Memo memo = getMemo();
+		if (memo==null) return sizeOfValidModel();
+		int size = memo.size;
+		if (size<0) {
+			size = sizeOfValidModel();
+			memo.size = size;
+		}
+		return size;
 	}
 	
 	public int getRank() throws GeneratorException {
@@ -130,11 +163,119 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 	}
 	
 	public int[] getShape() throws GeneratorException {
+		final Memo memo = getMemo();
+		if (memo==null) return calculateShape();
+		int[] shape = memo.shape;
 		if (shape == null) {
 			shape = calculateShape();
+			memo.shape = shape;
 		}
+		return shape.clone();
+	}
+	
+	/**
+	 * The memo of the size and shape for the current content of the model and regions.
+	 * A change to either gives a different memo, so nothing has to be cleared when the
+	 * model is changed.
+	 * <p>
+	 * The key is a copy of the values of the fields of the model and regions, which is compared
+	 * with equals. The hash codes of models are not enough on their own, for instance
+	 * a 10x40 grid and an 11x9 grid have the same hash code.
+	 * 
+	 * @return memo or null if the content cannot be copied
+	 */
+	private Memo getMemo() {
+		final T model = getModel();
+		if (model==null) return null;
+		// Containers are made from the regions, those set without regions cannot be hashed.
+		if (containers!=null && !containers.isEmpty() && (regions==null || regions.isEmpty())) return null;
 		
-		return shape;
+		final List<Object> key;
+		try {
+			final Map<Object,Object> seen = new IdentityHashMap<>();
+			key = Arrays.asList(getClass(), snapshot(model, seen, 0), snapshot(regions, seen, 0));
+		} catch (ReflectiveOperationException | RuntimeException ne) {
+			return null; // Cannot be copied, so it is not memoised.
+		}
+		synchronized (memos) {
+			Memo memo = memos.get(key);
+			if (memo==null) {
+				memo = new Memo();
+				memos.put(key, memo);
+			}
+			return memo;
+		}
+	}
+	
+	/**
+	 * The deepest that the content of a model is copied, deeper content is not memoised.
+	 */
+	private static final int SNAPSHOT_DEPTH = 32;
+
+	/**
+	 * Copies the values in an object to lists, sets and maps which are equal when the values are.
+	 * Changes to the object after the copy do not change the copy.
+	 * 
+	 * @param content
+	 * @param seen the objects already copied, a reference back to one of them is recorded by its class
+	 * @param depth
+	 * @return the copy
+	 */
+	private static Object snapshot(Object content, Map<Object,Object> seen, int depth) throws ReflectiveOperationException {
+		if (depth>SNAPSHOT_DEPTH) throw new IllegalArgumentException("The content is too deep to memoise");
+		if (content==null) return null;
+		if (content instanceof String || content instanceof Number || content instanceof Boolean
+		 || content instanceof Character || content instanceof Enum || content instanceof Class) return content;
+
+		final Class<?> type = content.getClass();
+		if (type.isArray()) {
+			final int length = Array.getLength(content);
+			final List<Object> copy = new ArrayList<>(length+1);
+			copy.add(type);
+			for (int i = 0; i < length; i++) copy.add(snapshot(Array.get(content, i), seen, depth+1));
+			return copy;
+		}
+		if (content instanceof Set) {
+			final Set<Object> copy = new HashSet<>();
+			for (Object item : (Set<?>)content) copy.add(snapshot(item, seen, depth+1));
+			return copy;
+		}
+		if (content instanceof Collection) {
+			final List<Object> copy = new ArrayList<>(((Collection<?>)content).size());
+			for (Object item : (Collection<?>)content) copy.add(snapshot(item, seen, depth+1));
+			return copy;
+		}
+		if (content instanceof Map) {
+			final Map<Object,Object> copy = new HashMap<>();
+			for (Map.Entry<?,?> entry : ((Map<?,?>)content).entrySet()) {
+				copy.put(snapshot(entry.getKey(), seen, depth+1), snapshot(entry.getValue(), seen, depth+1));
+			}
+			return copy;
+		}
+
+		if (seen.containsKey(content)) return Arrays.asList("reference", type);
+		seen.put(content, content);
+		final List<Object> copy = new ArrayList<>();
+		copy.add(type);
+		for (Class<?> c = type; c!=null && c!=Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				final int mod = field.getModifiers();
+				if (Modifier.isStatic(mod) || Modifier.isTransient(mod)) continue;
+				if (PropertyChangeSupport.class.isAssignableFrom(field.getType())) continue; // Listeners are not content
+				field.setAccessible(true);
+				copy.add(snapshot(field.get(content), seen, depth+1));
+			}
+		}
+		return copy;
+	}
+
+
+	/**
+	 * @return true if there are regions which exclude points, in which case the
+	 * size and shape cannot be known from the model alone.
+	 */
+	protected boolean hasRegions() {
+		return (regions!=null && !regions.isEmpty()) || (containers!=null && !containers.isEmpty());
 	}
 	
 	/**
@@ -203,14 +344,18 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 	}
 
 	/**
-	 * Please override this method, the default creates all points and 
-	 * returns their size
+	 * Please override this method if the size is known from the model. The default
+	 * asks a {@link ScanPointIterator} for its size, otherwise counts the points
+	 * in one pass. Either way it is called once for the content of a model.
 	 */
 	protected int sizeOfValidModel() throws GeneratorException {
+		Iterator<IPosition> it = iteratorFromValidModel();
+		if (it instanceof ScanPointIterator) {
+			return ((ScanPointIterator)it).size();
+		}
 		// For those generators which implement an iterator,
 		// doing this loop is *much* faster for large arrays
 		// because memory does not have to be allocated.
-		Iterator<IPosition> it = iterator();
 		int index = -1;
 		while(it.hasNext()) {
 			it.next();
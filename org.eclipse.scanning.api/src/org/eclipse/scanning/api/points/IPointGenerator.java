@@ -96,6 +96,34 @@ public interface IPointGenerator<T> extends Iterable<IPosition>, IValidator<T>,
 	 */
 	List<IPosition> createPoints() throws GeneratorException;
 	
+	/**
+	 * The extent of each axis worked out from the model without
+	 * iterating the points, for instance a grid from its bounding box.
+	 * Used to check limits before the scan without making the points.
+	 * 
+	 * @return the bounds or null if they cannot be known without iterating.
+	 * @throws GeneratorException
+	 */
+	default ScanBounds getBounds() throws GeneratorException {
+		return null;
+	}
+	
+	/**
+	 * A preview of the path of a two dimensional scan for drawing, worked
+	 * out from the model without iterating the points. At most resolution
+	 * points are sampled along each axis of the window, so the cost of a
+	 * preview does not depend on the number of points in the scan. Call
+	 * again with a smaller window to refine the preview when zooming.
+	 * 
+	 * @param window the lower and upper fast axis values then the lower and upper slow axis values to preview, or null for the whole path.
+	 * @param resolution the number of pixels along each axis of the window.
+	 * @return the preview or null if it cannot be made without iterating.
+	 * @throws GeneratorException
+	 */
+	default PathPreview getPathPreview(double[] window, int resolution) throws GeneratorException {
+		return null;
+	}
+	
 	/**
 	 * The id for this generator. Generators defined by extension must set an it.
 	 * Those defined by 
@@ -0,0 +1,160 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.util.Arrays;
+
+/**
+ * A preview of the path of a two dimensional scan for drawing, made by
+ * {@link IPointGenerator#getPathPreview(double[], int)} from the model
+ * without iterating every point.
+ * <p>
+ * The path is a sample of the points in scan order, every stride'th
+ * point along each axis of the lattice of the scan, held in primitive
+ * buffers. The outline is the analytic shape which the points fill, for
+ * instance the rectangle through the corner points of a grid. If regions
+ * exclude points the count may be estimated from the sample.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class PathPreview {
+
+	private double[] x;
+	private double[] y;
+	private int      size;
+
+	private double[] outlineX = new double[0];
+	private double[] outlineY = new double[0];
+
+	private long     pointCount;
+	private boolean  countEstimated;
+	private int      stride = 1;
+
+	private double   smallestXStep   = Double.MAX_VALUE;
+	private double   smallestYStep   = Double.MAX_VALUE;
+	private double   smallestAbsStep = Double.MAX_VALUE;
+
+	public PathPreview(int capacity) {
+		this.x = new double[Math.max(16, capacity)];
+		this.y = new double[x.length];
+	}
+
+	/**
+	 * Adds a point to the end of the sampled path.
+	 * @param xValue
+	 * @param yValue
+	 */
+	public void add(double xValue, double yValue) {
+		if (size==x.length) {
+			x = Arrays.copyOf(x, size*2);
+			y = Arrays.copyOf(y, size*2);
+		}
+		x[size] = xValue;
+		y[size] = yValue;
+		size++;
+	}
+
+	/**
+	 * @return the number of points in the sampled path.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public double[] getX() {
+		return Arrays.copyOf(x, size);
+	}
+
+	public double[] getY() {
+		return Arrays.copyOf(y, size);
+	}
+
+	public double[] getOutlineX() {
+		return outlineX;
+	}
+
+	public double[] getOutlineY() {
+		return outlineY;
+	}
+
+	public void setOutline(double[] outlineX, double[] outlineY) {
+		if (outlineX.length!=outlineY.length) throw new IllegalArgumentException("The outline must have as many x values as y values!");
+		this.outlineX = outlineX;
+		this.outlineY = outlineY;
+	}
+
+	/**
+	 * @return the number of points in the whole scan, not just the sample.
+	 */
+	public long getPointCount() {
+		return pointCount;
+	}
+
+	public void setPointCount(long pointCount) {
+		this.pointCount = pointCount;
+	}
+
+	/**
+	 * @return true if regions exclude points and the count is estimated from the sample.
+	 */
+	public boolean isCountEstimated() {
+		return countEstimated;
+	}
+
+	public void setCountEstimated(boolean countEstimated) {
+		this.countEstimated = countEstimated;
+	}
+
+	/**
+	 * @return the number of scan points between sampled points along an axis, 1 if every point is sampled.
+	 */
+	public int getStride() {
+		return stride;
+	}
+
+	public void setStride(int stride) {
+		this.stride = stride;
+	}
+
+	public double getSmallestXStep() {
+		return smallestXStep;
+	}
+
+	public double getSmallestYStep() {
+		return smallestYStep;
+	}
+
+	public double getSmallestAbsStep() {
+		return smallestAbsStep;
+	}
+
+	/**
+	 * Sets the smallest steps between consecutive points of the scan.
+	 * Steps of zero along an axis are ignored for that axis.
+	 * @param dx
+	 * @param dy
+	 */
+	public void step(double dx, double dy) {
+		dx = Math.abs(dx);
+		dy = Math.abs(dy);
+		if (dx>0) smallestXStep = Math.min(smallestXStep, dx);
+		if (dy>0) smallestYStep = Math.min(smallestYStep, dy);
+		smallestAbsStep = Math.min(smallestAbsStep, Math.sqrt(dx*dx + dy*dy));
+	}
+
+	@Override
+	public String toString() {
+		return "PathPreview [size=" + size + ", pointCount=" + pointCount + (countEstimated ? " (estimated)" : "")
+				+ ", stride=" + stride + "]";
+	}
+}
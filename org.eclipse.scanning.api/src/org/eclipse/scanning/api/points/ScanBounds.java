@@ -0,0 +1,116 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The lower and upper values of each axis of a scan path.
+ * Generators which know their extent from their model, for
+ * instance a grid from its bounding box, return these from
+ * {@link IPointGenerator#getBounds()} so that the extent is
+ * known without iterating the points.
+ * <p>
+ * The bounds may be larger than the points, for instance if
+ * a region excludes some of the points of a grid, but they
+ * are never smaller.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class ScanBounds {
+
+	private final Map<String, double[]> bounds;
+
+	public ScanBounds() {
+		this.bounds = new LinkedHashMap<>(7);
+	}
+
+	/**
+	 * Extends the bounds of the axis to include the value.
+	 * @param name
+	 * @param value
+	 * @return this
+	 */
+	public ScanBounds extend(String name, double value) {
+		return extend(name, value, value);
+	}
+
+	/**
+	 * Extends the bounds of the axis to include the range.
+	 * @param name
+	 * @param lower
+	 * @param upper
+	 * @return this
+	 */
+	public ScanBounds extend(String name, double lower, double upper) {
+		double[] range = bounds.get(name);
+		if (range==null) {
+			bounds.put(name, new double[]{Math.min(lower, upper), Math.max(lower, upper)});
+		} else {
+			range[0] = Math.min(range[0], Math.min(lower, upper));
+			range[1] = Math.max(range[1], Math.max(lower, upper));
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the bounds of other axes, or extends those of the same axis.
+	 * @param other
+	 * @return this
+	 */
+	public ScanBounds extend(ScanBounds other) {
+		for (Map.Entry<String, double[]> entry : other.bounds.entrySet()) {
+			extend(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+		}
+		return this;
+	}
+
+	public Collection<String> getNames() {
+		return Collections.unmodifiableSet(bounds.keySet());
+	}
+
+	public boolean contains(String name) {
+		return bounds.containsKey(name);
+	}
+
+	/**
+	 * @param name
+	 * @return the lowest value of the axis or NaN if the axis is not in the bounds.
+	 */
+	public double getLower(String name) {
+		double[] range = bounds.get(name);
+		return range!=null ? range[0] : Double.NaN;
+	}
+
+	/**
+	 * @param name
+	 * @return the highest value of the axis or NaN if the axis is not in the bounds.
+	 */
+	public double getUpper(String name) {
+		double[] range = bounds.get(name);
+		return range!=null ? range[1] : Double.NaN;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buf = new StringBuilder("ScanBounds [");
+		for (String name : bounds.keySet()) {
+			if (buf.length()>12) buf.append(", ");
+			buf.append(name).append("=").append(getLower(name)).append(" to ").append(getUpper(name));
+		}
+		return buf.append("]").toString();
+	}
+}
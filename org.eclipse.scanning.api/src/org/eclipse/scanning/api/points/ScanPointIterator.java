@@ -37,4 +37,17 @@ public interface ScanPointIterator extends Iterator<IPosition> {
 	 */
 	public int getRank();
 
+	/**
+	 * Gets the position at a step index without iterating to it, for
+	 * instance to keep up with the steps which a Malcolm device has completed.
+	 * The position does not change where this iterator is.
+	 * 
+	 * @param index the step index, from 0
+	 * @return the position or null if this iterator cannot look positions up
+	 * or the index is outside the scan.
+	 */
+	default IPosition getPosition(int index) {
+		return null;
+	}
+
 }
@@ -0,0 +1,50 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan;
+
+import java.util.Map;
+
+import org.eclipse.scanning.api.points.IPosition;
+
+/**
+ * Predicts how long the scannables take to move between two positions of a scan.
+ * The sequencer learns the move times of the scannables as they are moved and
+ * sets its model with {@link ScanEstimator#setMoveTimeModel(IMoveTimeModel)} so
+ * that the estimated time of a scan includes the time taken moving.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public interface IMoveTimeModel {
+
+	/**
+	 * The expected time to move from one position to the next. Scannables whose
+	 * move time is not known do not contribute to the time.
+	 *
+	 * @param from the position moved from, may be null if not known
+	 * @param to the position moved to
+	 * @return time in ms, 0 if the time cannot be estimated.
+	 */
+	double getMoveTime(IPosition from, IPosition to);
+
+	/**
+	 * The expected time of a move in which the scannables named move the given
+	 * distances. Used to estimate the move time of a scan without making its points,
+	 * see {@link ScanMoves}.
+	 *
+	 * @param distances scannable name to the distance it moves
+	 * @return time in ms, 0 if the time cannot be estimated.
+	 */
+	default double getMoveTime(Map<String, Double> distances) {
+		return 0;
+	}
+}
@@ -0,0 +1,47 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan;
+
+/**
+ * The costs of a scan other than exposure, learned by the sequencer from the
+ * timing of the points of previous scans. Used by {@link ScanEstimator} so that
+ * the estimated time of a scan is close to the time that it really takes.
+ * 
+ * All times are in ms.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public interface IScanCostModel extends IMoveTimeModel {
+
+	/**
+	 * @return the time taken by each point which is not spent moving or running
+	 * the detectors, for instance waiting for the previous point to be written.
+	 * 0 if not known.
+	 */
+	double getPointOverhead();
+
+	/**
+	 * The time a detector takes to run a point over and above its exposure time,
+	 * for instance to read out or, for a Malcolm device, to arm and report.
+	 * 
+	 * @param name of the detector
+	 * @return time, 0 if not known.
+	 */
+	double getDetectorOverhead(String name);
+
+	/**
+	 * @return the fraction of the time of a scan for which it is paused,
+	 * for instance by a watchdog while the ring is topped up. 0 if not known.
+	 */
+	double getPauseFraction();
+}
@@ -0,0 +1,279 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.scanning.api.points.IPosition;
+
+/**
+ * The costs of scans on a beamline, calibrated by the sequencer from the timing of the
+ * points of the scans which it runs and kept in a properties file so that they are there
+ * when the server is restarted, and for the client to estimate scans with.
+ * <p>
+ * The file is per beamline, by default:
+ * <pre>
+ *   ${GDA/gda.var or user.home}/.solstice/scan_costs_${BEAMLINE}.properties
+ * </pre>
+ * which may be changed with the system property org.eclipse.scanning.api.scan.costs
+ * <p>
+ * A move of a scannable is costed as overhead + slope*distance. Scannables at the same
+ * level move at the same time, the levels move one after the other.
+ * 
+ * All times are in ms.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ScanCosts implements IScanCostModel {
+
+	private static final String SCANS          = "scans";
+	private static final String POINT_OVERHEAD = "point.overhead";
+	private static final String PAUSE_FRACTION = "pause.fraction";
+	private static final String PAUSE_REGIME   = "pause.regime";
+	private static final String DETECTOR       = "detector.";
+	private static final String MOVE           = "move.";
+
+	private volatile int    scanCount;
+	private volatile double pointOverhead;
+	private volatile double pauseFraction;
+	private volatile String pauseRegime;
+
+	private final Map<String, Double>   detectorOverheads;
+	private final Map<String, MoveCost> moveCosts;
+
+	public ScanCosts() {
+		this.detectorOverheads = new ConcurrentHashMap<>();
+		this.moveCosts         = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * @return the number of scans which the costs have been calibrated from.
+	 */
+	public int getScanCount() {
+		return scanCount;
+	}
+
+	public void setScanCount(int scanCount) {
+		this.scanCount = scanCount;
+	}
+
+	@Override
+	public double getPointOverhead() {
+		return pointOverhead;
+	}
+
+	public void setPointOverhead(double pointOverhead) {
+		this.pointOverhead = pointOverhead;
+	}
+
+	@Override
+	public double getPauseFraction() {
+		return pauseFraction;
+	}
+
+	public void setPauseFraction(double pauseFraction) {
+		this.pauseFraction = pauseFraction;
+	}
+
+	/**
+	 * @return the watchdogs, and their settings, which the pause fraction was learned with.
+	 * Null if it has not been learned.
+	 */
+	public String getPauseRegime() {
+		return pauseRegime;
+	}
+
+	public void setPauseRegime(String pauseRegime) {
+		this.pauseRegime = pauseRegime;
+	}
+
+	@Override
+	public double getDetectorOverhead(String name) {
+		Double overhead = detectorOverheads.get(name);
+		return overhead!=null ? overhead : 0;
+	}
+
+	/**
+	 * @param name
+	 * @return true if the overhead of the detector has been calibrated.
+	 */
+	public boolean hasDetectorOverhead(String name) {
+		return detectorOverheads.containsKey(name);
+	}
+
+	public void setDetectorOverhead(String name, double overhead) {
+		detectorOverheads.put(name, overhead);
+	}
+
+	/**
+	 * Sets the cost of moving a scannable.
+	 * @param name
+	 * @param level of the scannable
+	 * @param overhead time of a move of no distance
+	 * @param slope time per unit moved
+	 */
+	public void setMoveCost(String name, int level, double overhead, double slope) {
+		moveCosts.put(name, new MoveCost(level, overhead, slope));
+	}
+
+	/**
+	 * @param name
+	 * @param distance
+	 * @return the time to move the scannable the distance, -1 if it is not known.
+	 */
+	public double getMoveTime(String name, double distance) {
+		MoveCost cost = moveCosts.get(name);
+		return cost!=null ? cost.getTime(distance) : -1;
+	}
+
+	/**
+	 * @param name
+	 * @return the level of the scannable or -1 if its moves are not known.
+	 */
+	public int getLevel(String name) {
+		MoveCost cost = moveCosts.get(name);
+		return cost!=null ? cost.level : -1;
+	}
+
+	@Override
+	public double getMoveTime(IPosition from, IPosition to) {
+		if (from==null || to==null) return 0;
+		Map<String, Double> distances = new TreeMap<>();
+		for (String name : to.getNames()) {
+			Object start = from.get(name);
+			Object end   = to.get(name);
+			if (!(start instanceof Number) || !(end instanceof Number)) continue;
+			distances.put(name, ((Number)end).doubleValue()-((Number)start).doubleValue());
+		}
+		return getMoveTime(distances);
+	}
+
+	@Override
+	public double getMoveTime(Map<String, Double> distances) {
+		Map<Integer, Double> levels = null;
+		for (Map.Entry<String, Double> entry : distances.entrySet()) {
+			MoveCost cost = moveCosts.get(entry.getKey());
+			if (cost==null) continue;
+			if (levels==null) levels = new TreeMap<>();
+			levels.merge(cost.level, cost.getTime(entry.getValue()), Math::max);
+		}
+		if (levels==null) return 0;
+		double total = 0;
+		for (double time : levels.values()) total+=time;
+		return total;
+	}
+
+	/**
+	 * @return the file of the costs of the beamline.
+	 */
+	public static File getDefaultFile() {
+		String path = System.getProperty("org.eclipse.scanning.api.scan.costs");
+		if (path!=null) return new File(path);
+		String beamline = System.getenv("BEAMLINE");
+		String name     = beamline!=null ? "scan_costs_"+beamline.toLowerCase()+".properties" : "scan_costs.properties";
+		return new File(System.getProperty("GDA/gda.var", System.getProperty("user.home"))+"/.solstice/"+name);
+	}
+
+	/**
+	 * Reads the costs from a file.
+	 * @param file
+	 * @return the costs, empty if the file does not exist.
+	 * @throws IOException
+	 */
+	public static ScanCosts load(File file) throws IOException {
+		ScanCosts costs = new ScanCosts();
+		if (!file.exists()) return costs;
+
+		Properties props = new Properties();
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			props.load(in);
+		}
+		for (String key : props.stringPropertyNames()) {
+			String value = props.getProperty(key);
+			try {
+				if (SCANS.equals(key)) {
+					costs.scanCount = Integer.parseInt(value);
+				} else if (POINT_OVERHEAD.equals(key)) {
+					costs.pointOverhead = Double.parseDouble(value);
+				} else if (PAUSE_FRACTION.equals(key)) {
+					costs.pauseFraction = Double.parseDouble(value);
+				} else if (PAUSE_REGIME.equals(key)) {
+					costs.pauseRegime = value;
+				} else if (key.startsWith(DETECTOR)) {
+					costs.detectorOverheads.put(key.substring(DETECTOR.length()), Double.parseDouble(value));
+				} else if (key.startsWith(MOVE)) {
+					String[] values = value.split(",");
+					costs.moveCosts.put(key.substring(MOVE.length()), new MoveCost(Integer.parseInt(values[0].trim()), Double.parseDouble(values[1]), Double.parseDouble(values[2])));
+				}
+			} catch (RuntimeException ne) {
+				throw new IOException("The cost '"+key+"="+value+"' in "+file+" cannot be read", ne);
+			}
+		}
+		return costs;
+	}
+
+	/**
+	 * Writes the costs to a file, replacing the file when they have all been written.
+	 * @param file
+	 * @throws IOException
+	 */
+	public void save(File file) throws IOException {
+		Properties props = new Properties();
+		props.setProperty(SCANS,          String.valueOf(scanCount));
+		props.setProperty(POINT_OVERHEAD, String.valueOf(pointOverhead));
+		props.setProperty(PAUSE_FRACTION, String.valueOf(pauseFraction));
+		if (pauseRegime!=null) props.setProperty(PAUSE_REGIME, pauseRegime);
+		detectorOverheads.forEach((name, overhead) -> props.setProperty(DETECTOR+name, String.valueOf(overhead)));
+		moveCosts.forEach((name, cost) -> props.setProperty(MOVE+name, cost.level+","+cost.overhead+","+cost.slope));
+
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (!dir.exists()) dir.mkdirs();
+		File tmp = new File(dir, file.getName()+".tmp");
+		try (OutputStream out = Files.newOutputStream(tmp.toPath())) {
+			props.store(out, "Costs of scans in ms, moves are level,overhead,time per unit moved");
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	@Override
+	public String toString() {
+		return "ScanCosts [scans=" + scanCount + ", pointOverhead=" + pointOverhead + ", pauseFraction=" + pauseFraction
+				+ ", detectorOverheads=" + detectorOverheads + ", moveCosts=" + moveCosts.keySet() + "]";
+	}
+
+	private static final class MoveCost {
+
+		private final int    level;
+		private final double overhead;
+		private final double slope;
+
+		MoveCost(int level, double overhead, double slope) {
+			this.level    = level;
+			this.overhead = overhead;
+			this.slope    = slope;
+		}
+
+		double getTime(double distance) {
+			return overhead + slope*Math.abs(distance);
+		}
+	}
+}
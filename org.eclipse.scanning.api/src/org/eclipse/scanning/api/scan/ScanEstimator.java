@@ -33,12 +33,39 @@ import org.eclipse.scanning.api.points.IPosition;
  * 
  * This class is an estimator and not a data holder. Please use ScanInformation
  * to hold data to be sent around.
+ * <p>
+ * The time of a scan is estimated as the exposure time plus, if the estimator is
+ * given them, the costs learned by the sequencer from previous scans, see {@link IScanCostModel},
+ * and the time spent moving, see {@link IMoveTimeModel}. The moves are worked out from the 
+ * models of the scan where possible, see {@link ScanMoves}, rather than by making every point.
+ * Without costs the estimate is the exposure time only.
  * 
  * @author Matthew Gerring
  *
  */
 public class ScanEstimator {
 
+	/**
+	 * The maximum number of points iterated to estimate the time spent moving,
+	 * the time is extrapolated for larger scans.
+	 */
+	private static final int MOVE_SAMPLE_SIZE = 10000;
+
+	/**
+	 * Set by the sequencer, may be null. Only used by estimators which are given it.
+	 */
+	private static volatile IMoveTimeModel moveTimeModel;
+
+	/**
+	 * Set by the sequencer, may be null. Only used by estimators which are given it.
+	 */
+	private static volatile IScanCostModel costModel;
+
+	/**
+	 * The longest part of a scan which is expected to be paused.
+	 */
+	private static final double MAXIMUM_PAUSE_FRACTION = 0.9;
+
 	/**
 	 * Size, number of points in scan
 	 */
@@ -54,6 +81,16 @@ public class ScanEstimator {
 	 */
 	private final long  estimatedScanTime;
 
+	/**
+	 * Estimated part of the time of the scan spent moving
+	 */
+	private final long  estimatedMoveTime;
+
+	/**
+	 * Where the estimated time of the scan goes
+	 */
+	private final ScanTimeEstimate timeEstimate;
+
 	/**
 	 * 
 	 */
@@ -93,6 +130,18 @@ public class ScanEstimator {
 		this(positionIterable, detectorsToModels(detectors), 0);
 	}
 
+	/**
+	 * 
+	 * @param positionIterable
+	 * @param detectors
+	 * @param costs learned from previous scans, may be null
+	 * @param moves the times of moves, may be null to use the costs
+	 * @throws GeneratorException
+	 */
+	public ScanEstimator(Iterable<IPosition> positionIterable, List<IRunnableDevice<?>> detectors, IScanCostModel costs, IMoveTimeModel moves) throws GeneratorException {
+		this(positionIterable, detectorsToModels(detectors), 0, costs, moves);
+	}
+
 	private static Collection<Object> detectorsToModels(List<IRunnableDevice<?>> detectors) {
 		return detectors == null ? null : detectors.stream().map(d -> d.getModel()).collect(Collectors.toList());
 	}
@@ -107,6 +156,19 @@ public class ScanEstimator {
 	public ScanEstimator(IPointGenerator<?> gen, Map<String, Object> detectors, long timePerPoint) throws GeneratorException {
 		this(gen, detectors == null ? null : detectors.values(), timePerPoint);
 	}
+
+	/**
+	 * 
+	 * @param gen
+	 * @param detectors
+	 * @param timePerPoint
+	 * @param costs learned from previous scans, may be null
+	 * @param moves the times of moves, may be null to use the costs
+	 * @throws GeneratorException
+	 */
+	public ScanEstimator(IPointGenerator<?> gen, Map<String, Object> detectors, long timePerPoint, IScanCostModel costs, IMoveTimeModel moves) throws GeneratorException {
+		this(gen, detectors == null ? null : detectors.values(), timePerPoint, costs, moves);
+	}
 	
 	/**
 	 * Create a scan estimator for the given positions, (optional) detectors and (optional) time per point
@@ -116,6 +178,20 @@ public class ScanEstimator {
 	 * @throws GeneratorException if the scan estimator cannot be created
 	 */
 	public ScanEstimator(Iterable<IPosition> positionIterable, Collection<Object> detectorModels, long timePerPoint) throws GeneratorException {
+		this(positionIterable, detectorModels, timePerPoint, null, null);
+	}
+
+	/**
+	 * Create a scan estimator which includes the costs of previous scans, normally those
+	 * set by the sequencer, see {@link #getCostModel()} and {@link #getMoveTimeModel()}.
+	 * @param positionIterable iteratable over positions in the scan
+	 * @param detectorModels detector models, may be <code>null</code>
+	 * @param timePerPoint time per point, only used if <code> detectorModels</code> is <code>null</code>
+	 * @param costs learned from previous scans, may be <code>null</code>
+	 * @param moves the times of moves, may be <code>null</code> to use the costs
+	 * @throws GeneratorException if the scan estimator cannot be created
+	 */
+	public ScanEstimator(Iterable<IPosition> positionIterable, Collection<Object> detectorModels, long timePerPoint, IScanCostModel costs, IMoveTimeModel moves) throws GeneratorException {
 		// TODO FIXME If some detectors are malcolm, they may have a wait time.
 		// If some are malcolm we may wish to ignore the input point time from the user
 		// in favour of the malcolm time per point or maybe the device tells us how long it will take?
@@ -129,7 +205,63 @@ public class ScanEstimator {
 		this.size = getEstimatedSize(positionIterable);
 		this.rank = positionIterable.iterator().next().getScanRank();
 		this.timePerPoint = timePerPoint;
-		this.estimatedScanTime = size * timePerPoint;
+		this.timeEstimate = estimate(positionIterable, detectorModels, size, timePerPoint, costs, moves!=null ? moves : costs);
+		this.estimatedMoveTime = timeEstimate.getMoveTime();
+		this.estimatedScanTime = timeEstimate.getTotalTime();
+	}
+
+	private static ScanTimeEstimate estimate(Iterable<IPosition> gen, Collection<Object> detectorModels, int size, long timePerPoint, IScanCostModel costs, IMoveTimeModel moves) {
+
+		final ScanTimeEstimate estimate = new ScanTimeEstimate();
+		estimate.setExposureTime(size * timePerPoint);
+
+		estimate.setMoveTime(getEstimatedMoveTime(gen, size, moves, estimate));
+		if (costs==null) return estimate;
+
+		// The detectors run at the same time so the point waits for the slowest
+		double runTime = timePerPoint;
+		if (detectorModels != null) {
+			for (Object model : detectorModels) {
+				if (!(model instanceof IDetectorModel)) continue;
+				IDetectorModel dmodel = (IDetectorModel)model;
+				runTime = Math.max(runTime, dmodel.getExposureTime()*1000 + costs.getDetectorOverhead(dmodel.getName()));
+			}
+		}
+		estimate.setDetectorOverhead(Math.round(size * (runTime - timePerPoint)));
+		estimate.setPointOverhead(Math.round(size * costs.getPointOverhead()));
+
+		double pause = Math.min(MAXIMUM_PAUSE_FRACTION, Math.max(0, costs.getPauseFraction()));
+		estimate.setPauseTime(Math.round(estimate.getTotalTime() * pause / (1 - pause)));
+		return estimate;
+	}
+
+	/**
+	 * Sums the expected move time between the points using the model learned by the
+	 * sequencer, if there is one. The moves are worked out from the model of the
+	 * generator if they can be, otherwise up to {@link #MOVE_SAMPLE_SIZE} points are
+	 * made. Iterators which are not generators may check hardware when they are
+	 * iterated, so are not estimated.
+	 */
+	private static long getEstimatedMoveTime(Iterable<IPosition> gen, int size, IMoveTimeModel model, ScanTimeEstimate estimate) {
+
+		if (model==null || !(gen instanceof IPointGenerator) || size<2) return 0;
+
+		final ScanMoves moves = ScanMoves.of(((IPointGenerator<?>)gen).getModel());
+		if (moves!=null && moves.getSize()==size) { // Regions or mutators may remove points
+			estimate.setAnalytic(true);
+			return Math.round(moves.getMoveTime(model));
+		}
+
+		double time  = 0;
+		int    count = 0;
+		IPosition previous = null;
+		for (IPosition pos : gen) {
+			if (previous!=null) time += model.getMoveTime(previous, pos);
+			previous = pos;
+			if (++count>=MOVE_SAMPLE_SIZE) break;
+		}
+		if (count<size) time = time * (size-1) / (count-1);
+		return Math.round(time);
 	}
 
 	private int getEstimatedSize(Iterable<IPosition> gen) throws GeneratorException {
@@ -163,6 +295,49 @@ public class ScanEstimator {
 		return estimatedScanTime;
 	}
 
+	/**
+	 * @return where the estimated time of the scan goes.
+	 */
+	public ScanTimeEstimate getTimeEstimate() {
+		return timeEstimate;
+	}
+
+	/**
+	 * @return the part of the estimated scan time in ms spent moving between points,
+	 * 0 if the move times of the scannables are not known.
+	 */
+	public long getEstimatedMoveTime() {
+		return estimatedMoveTime;
+	}
+
+	/**
+	 * Sets the model of the time spent moving between points learned by the sequencer,
+	 * which the server gives to the estimators it makes.
+	 * @param model may be null if the moves are not known.
+	 */
+	public static void setMoveTimeModel(IMoveTimeModel model) {
+		moveTimeModel = model;
+	}
+
+	public static IMoveTimeModel getMoveTimeModel() {
+		return moveTimeModel;
+	}
+
+	/**
+	 * Sets the costs learned by the sequencer, which the server gives to the estimators it makes.
+	 * @param model may be null if there are none.
+	 */
+	public static void setCostModel(IScanCostModel model) {
+		costModel = model;
+	}
+
+	/**
+	 * @return the costs set by the sequencer or null if there are none.
+	 */
+	public static IScanCostModel getCostModel() {
+		return costModel;
+	}
+
 	public int getRank() {
 		return rank;
 	}
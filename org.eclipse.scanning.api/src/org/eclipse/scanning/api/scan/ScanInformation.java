@@ -36,6 +36,7 @@ public class ScanInformation {
 	private int[] shape;
 	private ScanMode scanMode;
 	private long estimatedScanTime;
+	private ScanTimeEstimate timeEstimate;
 	
 	public ScanInformation() {
 		
@@ -140,6 +141,18 @@ public class ScanInformation {
 		return estimatedScanTime;
 	}
 
+	/**
+	 * @return where the estimated time of the scan goes, may be null.
+	 */
+	public ScanTimeEstimate getTimeEstimate() {
+		if (timeEstimate==null && estimator!=null) timeEstimate = estimator.getTimeEstimate();
+		return timeEstimate;
+	}
+
+	public void setTimeEstimate(ScanTimeEstimate timeEstimate) {
+		this.timeEstimate = timeEstimate;
+	}
+
 	public void setShape(int[] shape) {
 		this.shape = shape;
 	}
@@ -0,0 +1,288 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.scanning.api.points.models.ArrayModel;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CollatedStepModel;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+
+import org.eclipse.scanning.api.points.models.RasterModel;
+import org.eclipse.scanning.api.points.models.RepeatedPointModel;
+import org.eclipse.scanning.api.points.models.SinglePointModel;
+import org.eclipse.scanning.api.points.models.StaticModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+
+/**
+ * The moves made by a scan, worked out from the models without making the points.
+ * Most scans make the same few moves many times, for instance a grid steps along
+ * the fast axis, changes row and flies back. Each different move is held once
+ * with the number of times that it is made so that the time spent moving can be
+ * estimated quickly for scans of any size.
+ * <p>
+ * The models are nested, the first is the outer loop. When a model moves on, the
+ * models inside it return to their start, unless they snake.
+ * <p>
+ * Models with regions or mutators cannot be worked out and {@link #of(Object)}
+ * returns null for them, as it does for models which are not understood.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public final class ScanMoves {
+
+	/**
+	 * A move between two points of the scan.
+	 */
+	public static final class Move {
+		
+		private final long                count;
+		private final Map<String, Double> distances;
+
+		Move(long count, Map<String, Double> distances) {
+			this.count     = count;
+			this.distances = Collections.unmodifiableMap(distances);
+		}
+
+		/**
+		 * @return the number of times the move is made.
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return scannable name to the distance it moves, scannables which do not move are left out.
+		 */
+		public Map<String, Double> getDistances() {
+			return distances;
+		}
+
+		@Override
+		public String toString() {
+			return count+" x "+distances;
+		}
+	}
+
+	private final long       size;
+	private final List<Move> moves;
+
+	private ScanMoves(long size, List<Move> moves) {
+		this.size  = size;
+		this.moves = Collections.unmodifiableList(moves);
+	}
+
+	/**
+	 * Works out the moves of a scan.
+	 * @param model a {@link CompoundModel} or a single scan path model
+	 * @return the moves or null if the model cannot be worked out without making its points.
+	 */
+	public static ScanMoves of(Object model) {
+
+		final List<Object> models;
+		if (model instanceof CompoundModel) {
+			CompoundModel<?> cmodel = (CompoundModel<?>)model;
+			if (cmodel.getRegions()!=null  && !cmodel.getRegions().isEmpty())  return null;
+			if (cmodel.getMutators()!=null && !cmodel.getMutators().isEmpty()) return null;
+			models = cmodel.getModels();
+		} else {
+			models = Collections.singletonList(model);
+		}
+		if (models==null || models.isEmpty()) return null;
+
+		final List<Pass> passes = new ArrayList<>(models.size());
+		for (Object m : models) {
+			Pass pass = Pass.of(m);
+			if (pass==null) return null;
+			passes.add(pass);
+		}
+
+		// Moves of one model happen once per point of the models outside it, with the
+		// models inside it returning to their start.
+		final Map<Map<String, Double>, Long> counts = new LinkedHashMap<>();
+		long outer = 1;
+		for (int i = 0; i < passes.size(); i++) {
+			Map<String, Double> restart = new LinkedHashMap<>();
+			for (int j = i+1; j < passes.size(); j++) merge(restart, passes.get(j).restart);
+
+			for (Move step : passes.get(i).steps) {
+				Map<String, Double> distances = new LinkedHashMap<>(step.getDistances());
+				merge(distances, restart);
+				counts.merge(distances, step.getCount()*outer, Long::sum);
+			}
+			outer*=passes.get(i).size;
+		}
+
+		final List<Move> moves = new ArrayList<>(counts.size());
+		counts.forEach((distances, count) -> moves.add(new Move(count, distances)));
+		return new ScanMoves(outer, moves);
+	}
+
+	/**
+	 * @return the number of points in the scan.
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the different moves made between the points of the scan.
+	 */
+	public List<Move> getMoves() {
+		return moves;
+	}
+
+	/**
+	 * @param name
+	 * @return the total distance moved by the scannable in the scan.
+	 */
+	public double getPathLength(String name) {
+		double length = 0;
+		for (Move move : moves) {
+			Double distance = move.getDistances().get(name);
+			if (distance!=null) length += move.getCount()*distance;
+		}
+		return length;
+	}
+
+	/**
+	 * @param model
+	 * @return the expected time in ms spent moving between the points of the scan.
+	 */
+	public double getMoveTime(IMoveTimeModel model) {
+		double time = 0;
+		for (Move move : moves) time += move.getCount()*model.getMoveTime(move.getDistances());
+		return time;
+	}
+
+	@Override
+	public String toString() {
+		return "ScanMoves [size=" + size + ", moves=" + moves + "]";
+	}
+
+	private static void merge(Map<String, Double> distances, Map<String, Double> other) {
+		other.forEach((name, distance) -> distances.merge(name, distance, Math::max));
+	}
+
+	private static void put(Map<String, Double> distances, String name, double distance) {
+		if (distance!=0) distances.put(name, Math.abs(distance));
+	}
+
+	/**
+	 * One pass over the points of a model.
+	 */
+	private static final class Pass {
+
+		private final long                size;
+		private final List<Move>          steps   = new ArrayList<>(2);
+		private final Map<String, Double> restart = new LinkedHashMap<>(2);
+
+		private Pass(long size) {
+			this.size = size;
+		}
+
+		private void step(long count, Map<String, Double> distances) {
+			if (count>0 && !distances.isEmpty()) steps.add(new Move(count, distances));
+		}
+
+		private static Pass of(Object model) {
+
+			if (model instanceof StepModel) {
+				StepModel smodel = (StepModel)model;
+				Pass pass = new Pass(smodel.size());
+				if (pass.size<1) return null;
+				List<String> names = smodel instanceof CollatedStepModel ? ((CollatedStepModel)smodel).getNames() : smodel.getScannableNames();
+				Map<String, Double> step = new LinkedHashMap<>(2);
+				for (String name : names) {
+					put(step, name, smodel.getStep());
+					put(pass.restart, name, (pass.size-1)*smodel.getStep());
+				}
+				pass.step(pass.size-1, step);
+				return pass;
+
+			} else if (model instanceof GridModel) {
+				GridModel gmodel = (GridModel)model;
+				BoundingBox box  = gmodel.getBoundingBox();
+				if (box==null) return null;
+				return grid(gmodel.getFastAxisName(), gmodel.getSlowAxisName(),
+						    gmodel.getFastAxisPoints(), gmodel.getSlowAxisPoints(),
+						    box.getFastAxisLength()/gmodel.getFastAxisPoints(), box.getSlowAxisLength()/gmodel.getSlowAxisPoints(),
+						    gmodel.isSnake());
+
+			} else if (model instanceof RasterModel) {
+				RasterModel rmodel = (RasterModel)model;
+				BoundingBox box  = rmodel.getBoundingBox();
+				if (box==null) return null;
+				return grid(rmodel.getFastAxisName(), rmodel.getSlowAxisName(),
+						    (int)Math.floor(box.getFastAxisLength()/rmodel.getFastAxisStep() + 1), (int)Math.floor(box.getSlowAxisLength()/rmodel.getSlowAxisStep() + 1),
+						    rmodel.getFastAxisStep(), rmodel.getSlowAxisStep(),
+						    rmodel.isSnake());
+
+			} else if (model instanceof ArrayModel) {
+				ArrayModel amodel = (ArrayModel)model;
+				double[] positions = amodel.getPositions();
+				if (positions==null || positions.length<1) return null;
+				Pass pass = new Pass(positions.length);
+				Map<Double, Long> counts = new LinkedHashMap<>();
+				for (int i = 1; i < positions.length; i++) counts.merge(Math.abs(positions[i]-positions[i-1]), 1L, Long::sum);
+				counts.forEach((distance, count) -> {
+					Map<String, Double> step = new LinkedHashMap<>(1);
+					put(step, amodel.getName(), distance);
+					pass.step(count, step);
+				});
+				put(pass.restart, amodel.getName(), positions[positions.length-1]-positions[0]);
+				return pass;
+
+			} else if (model instanceof StaticModel) {
+				return new Pass(((StaticModel)model).getSize());
+
+			} else if (model instanceof RepeatedPointModel) {
+				return new Pass(((RepeatedPointModel)model).getCount());
+
+			} else if (model instanceof SinglePointModel) {
+				return new Pass(1);
+			}
+			return null;
+		}
+
+		/**
+		 * A grid moves along the fast axis then changes row. If it snakes it goes back along the
+		 * next row and when it is repeated it goes back over the rows, otherwise it flies back.
+		 */
+		private static Pass grid(String fast, String slow, int columns, int rows, double fastStep, double slowStep, boolean snake) {
+			if (columns<1 || rows<1) return null;
+			Pass pass = new Pass((long)columns*rows);
+
+			Map<String, Double> along = new LinkedHashMap<>(1);
+			put(along, fast, fastStep);
+			pass.step((long)rows*(columns-1), along);
+
+			Map<String, Double> row = new LinkedHashMap<>(2);
+			put(row, slow, slowStep);
+			if (!snake) put(row, fast, (columns-1)*fastStep);
+			pass.step(rows-1, row);
+
+			if (!snake) {
+				put(pass.restart, slow, (rows-1)*slowStep);
+				put(pass.restart, fast, (columns-1)*fastStep);
+			}
+			return pass;
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan;
+
+/**
+ * The estimated time of a scan broken down into where the time goes,
+ * made by {@link ScanEstimator} and held on {@link ScanInformation}.
+ * 
+ * All times are in ms.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ScanTimeEstimate {
+
+	private long exposureTime;
+	private long moveTime;
+	private long detectorOverhead;
+	private long pointOverhead;
+	private long pauseTime;
+
+	/**
+	 * True if the moves were worked out from the models rather than by making the points.
+	 */
+	private boolean analytic;
+
+	public ScanTimeEstimate() {
+
+	}
+
+	/**
+	 * @return the time spent exposing the detectors.
+	 */
+	public long getExposureTime() {
+		return exposureTime;
+	}
+
+	public void setExposureTime(long exposureTime) {
+		this.exposureTime = exposureTime;
+	}
+
+	/**
+	 * @return the time spent moving between points.
+	 */
+	public long getMoveTime() {
+		return moveTime;
+	}
+
+	public void setMoveTime(long moveTime) {
+		this.moveTime = moveTime;
+	}
+
+	/**
+	 * @return the time the detectors take over and above their exposure.
+	 */
+	public long getDetectorOverhead() {
+		return detectorOverhead;
+	}
+
+	public void setDetectorOverhead(long detectorOverhead) {
+		this.detectorOverhead = detectorOverhead;
+	}
+
+	/**
+	 * @return the time each point takes which is not moving or running detectors, summed over the scan.
+	 */
+	public long getPointOverhead() {
+		return pointOverhead;
+	}
+
+	public void setPointOverhead(long pointOverhead) {
+		this.pointOverhead = pointOverhead;
+	}
+
+	/**
+	 * @return the time expected to be spent paused.
+	 */
+	public long getPauseTime() {
+		return pauseTime;
+	}
+
+	public void setPauseTime(long pauseTime) {
+		this.pauseTime = pauseTime;
+	}
+
+	public boolean isAnalytic() {
+		return analytic;
+	}
+
+	public void setAnalytic(boolean analytic) {
+		this.analytic = analytic;
+	}
+
+	/**
+	 * @return the time of the scan.
+	 */
+	public long getTotalTime() {
+		return exposureTime + moveTime + detectorOverhead + pointOverhead + pauseTime;
+	}
+
+	/**
+	 * @return the fraction of the time of the scan not spent exposing.
+	 */
+	public double getDeadTimeFraction() {
+		long total = getTotalTime();
+		return total>0 ? (double)(total-exposureTime)/total : 0;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + (analytic ? 1231 : 1237);
+		result = prime * result + (int) (detectorOverhead ^ (detectorOverhead >>> 32));
+		result = prime * result + (int) (exposureTime ^ (exposureTime >>> 32));
+		result = prime * result + (int) (moveTime ^ (moveTime >>> 32));
+		result = prime * result + (int) (pauseTime ^ (pauseTime >>> 32));
+		result = prime * result + (int) (pointOverhead ^ (pointOverhead >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ScanTimeEstimate other = (ScanTimeEstimate) obj;
+		if (analytic != other.analytic)
+			return false;
+		if (detectorOverhead != other.detectorOverhead)
+			return false;
+		if (exposureTime != other.exposureTime)
+			return false;
+		if (moveTime != other.moveTime)
+			return false;
+		if (pauseTime != other.pauseTime)
+			return false;
+		if (pointOverhead != other.pointOverhead)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "ScanTimeEstimate [total(ms)=" + getTotalTime() + ", exposure=" + exposureTime + ", move=" + moveTime
+				+ ", detectorOverhead=" + detectorOverhead + ", pointOverhead=" + pointOverhead + ", pause=" + pauseTime + "]";
+	}
+}
@@ -47,4 +47,16 @@ public interface IPreprocessor {
 	 * @return The processed request. The processor might modify the ScanRequest in place and return it or return an entirely new request.
 	 */
 	<T> ScanRequest<T> preprocess(ScanRequest<T> req) throws ProcessingException;
+	
+	/**
+	 * When the ScanServlet looks ahead, the next scan in the queue is prepared on another
+	 * thread while the current scan runs. A preprocessor which reads the hardware would then
+	 * see the state that the current scan leaves it in, so the next scan is only prepared
+	 * early if every preprocessor returns true here. Otherwise it is preprocessed when it runs.
+	 * 
+	 * @return true if this preprocessor may run while another scan is running, default false.
+	 */
+	default boolean isLookAheadSafe() {
+		return false;
+	}
 }
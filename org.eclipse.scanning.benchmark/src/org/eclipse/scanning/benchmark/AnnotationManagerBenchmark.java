@@ -0,0 +1,89 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.annotation.scan.AnnotationManager;
+import org.eclipse.scanning.api.annotation.scan.PointEnd;
+import org.eclipse.scanning.api.annotation.scan.PointStart;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The cost of calling the annotated methods of the scan participants,
+ * which the scan does at the start and end of every point.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AnnotationManagerBenchmark {
+
+	@Param({"1", "10", "100"})
+	private int participants;
+
+	private AnnotationManager manager;
+	private IPosition         position;
+
+	@Setup
+	public void setup() {
+		manager = new AnnotationManager();
+		for (int i = 0; i < participants; i++) manager.addDevices(new Participant());
+		position = new MapPosition("x", 1, 1.5d);
+	}
+
+	@Benchmark
+	public void pointStart() throws Exception {
+		manager.invoke(PointStart.class, position);
+	}
+
+	@Benchmark
+	public void pointEnd() throws Exception {
+		manager.invoke(PointEnd.class, position);
+	}
+
+	public static class Participant {
+
+		private int count;
+
+		@PointStart
+		public void pointStart(IPosition pos) {
+			count+=pos.getStepIndex();
+		}
+
+		@PointEnd
+		public void pointEnd() {
+			count++;
+		}
+
+		public int getCount() {
+			return count;
+		}
+	}
+}
@@ -0,0 +1,129 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.Arrays;
+
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.usage.SystemUsage;
+import org.eclipse.dawnsci.json.MarshallerService;
+import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.device.IScannableDeviceService;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.example.classregistry.ScanningExampleClassRegistry;
+import org.eclipse.scanning.example.detector.MandelbrotDetector;
+import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.eclipse.scanning.example.scannable.MockScannableConnector;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.points.ScanPointGeneratorFactory;
+import org.eclipse.scanning.points.classregistry.ScanningAPIClassRegistry;
+import org.eclipse.scanning.points.serialization.PointsModelMarshaller;
+import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
+
+/**
+ * Wires the services together without OSGi for the benchmarks,
+ * in the same way that the unit tests do. Each benchmark state
+ * creates its own instance in its @Setup method.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class BenchmarkServices {
+
+	private MarshallerService       marshaller;
+	private IScannableDeviceService connector;
+	private IRunnableDeviceService  dservice;
+	private IPointGeneratorService  gservice;
+	private IEventService           eservice;
+	private BrokerService           broker;
+	private URI                     uri;
+
+	public BenchmarkServices() {
+		marshaller = new MarshallerService(
+				Arrays.asList(new ScanningAPIClassRegistry(),
+						new ScanningExampleClassRegistry()),
+				Arrays.asList(new PointsModelMarshaller())
+				);
+		ActivemqConnectorService.setJsonMarshaller(marshaller);
+	}
+
+	public MarshallerService getMarshaller() {
+		return marshaller;
+	}
+
+	public synchronized IScannableDeviceService getConnector() {
+		if (connector==null) connector = new MockScannableConnector(null);
+		return connector;
+	}
+
+	public synchronized IRunnableDeviceService getRunnableDeviceService() {
+		if (dservice==null) {
+			RunnableDeviceServiceImpl impl = new RunnableDeviceServiceImpl(getConnector());
+			impl._register(MandelbrotModel.class, MandelbrotDetector.class);
+			dservice = impl;
+		}
+		return dservice;
+	}
+
+	public synchronized IPointGeneratorService getPointGeneratorService() {
+		if (gservice==null) {
+			ScanPointGeneratorFactory.init();
+			gservice = new PointGeneratorService();
+		}
+		return gservice;
+	}
+
+	public synchronized IEventService getEventService() {
+		if (eservice==null) eservice = new EventServiceImpl(new ActivemqConnectorService());
+		return eservice;
+	}
+
+	/**
+	 * Starts an embedded, non-persistent broker on a free port.
+	 * @return the uri of the broker
+	 * @throws Exception
+	 */
+	public synchronized URI startBroker() throws Exception {
+		if (broker!=null) return uri;
+		uri = new URI("tcp://localhost:"+getFreePort());
+		broker = new BrokerService();
+		broker.addConnector(uri);
+		broker.setPersistent(false);
+		broker.setUseJmx(false);
+		SystemUsage systemUsage = broker.getSystemUsage();
+		systemUsage.getStoreUsage().setLimit(1024 * 1024 * 8);
+		systemUsage.getTempUsage().setLimit(1024 * 1024 * 8);
+		broker.start();
+		if (!broker.waitUntilStarted()) throw new ScanningException("Broker was not started properly!");
+		return uri;
+	}
+
+	public synchronized void stopBroker() throws Exception {
+		if (broker!=null) {
+			broker.stop();
+			broker.waitUntilStopped();
+			broker = null;
+		}
+	}
+
+	private static int getFreePort() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes the results as JSON so that the
+ * results of two builds may be compared. From the root of the tree:
+ * <pre>
+ *   mvn -q clean install
+ *   mvn -q surefire:test -pl org.eclipse.scanning.benchmark -Dtest.includes=org/eclipse/scanning/benchmark/BenchmarkSuite.java
+ * </pre>
+ * System properties:
+ * <pre>
+ *   org.eclipse.scanning.benchmark.include - regular expression of the benchmarks to run, default all of them.
+ *   org.eclipse.scanning.benchmark.result  - the JSON file written, default target/jmh-result.json
+ *   org.eclipse.scanning.benchmark.forks   - overrides the number of forked JVMs, 0 runs in this JVM.
+ *   org.eclipse.scanning.benchmark.profilers - comma separated JMH profilers, for instance gc for the allocation rate.
+ * </pre>
+ * It is not called Suite so that the build, which runs the Suite classes, does not
+ * run it. It takes many minutes.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class BenchmarkSuite {
+
+	@Test
+	public void runBenchmarks() throws Exception {
+		Collection<RunResult> results = run();
+		assertFalse("No benchmarks were run", results.isEmpty());
+	}
+
+	public static void main(String[] args) throws Exception {
+		run();
+	}
+
+	public static Collection<RunResult> run() throws Exception {
+
+		File result = new File(System.getProperty("org.eclipse.scanning.benchmark.result", "target/jmh-result.json"));
+		if (result.getParentFile()!=null) result.getParentFile().mkdirs();
+
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.include(System.getProperty("org.eclipse.scanning.benchmark.include", BenchmarkSuite.class.getPackage().getName()+".*Benchmark"))
+				.resultFormat(ResultFormatType.JSON)
+				.result(result.getAbsolutePath());
+
+		Integer forks = Integer.getInteger("org.eclipse.scanning.benchmark.forks");
+		if (forks!=null) options = options.forks(forks);
+
+		String profilers = System.getProperty("org.eclipse.scanning.benchmark.profilers");
+		if (profilers!=null) for (String profiler : profilers.split(",")) {
+			if (!profiler.trim().isEmpty()) options = options.addProfiler(profiler.trim());
+		}
+
+		return new Runner(options.build()).run();
+	}
+}
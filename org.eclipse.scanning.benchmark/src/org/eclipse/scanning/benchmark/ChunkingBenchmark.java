@@ -0,0 +1,196 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.api.tree.GroupNode;
+import org.eclipse.dawnsci.hdf5.nexus.NexusFileFactoryHDF5;
+import org.eclipse.dawnsci.nexus.NexusFile;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.eclipse.january.dataset.ILazyWriteableDataset;
+import org.eclipse.january.dataset.LazyWriteableDataset;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner.ReadPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes a snake map scan of frames point by point, as a detector does, and
+ * reads it back as frames and as a map of one element of the frame. The
+ * chunking is that planned for each read pattern or LEGACY, the previous
+ * chunking of one frame per chunk and eight points per chunk of scalars.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChunkingBenchmark {
+
+	/**
+	 * The chunking, LEGACY or a {@link ReadPattern}.
+	 */
+	@Param({"LEGACY", "FRAMES", "MAPS", "BALANCED"})
+	private String chunking;
+
+	/**
+	 * The shape of the frame written at each point, empty for a scalar.
+	 */
+	@Param({"", "4096", "128x128"})
+	private String frame;
+
+	/**
+	 * The number of points along each side of the map.
+	 */
+	@Param({"30"})
+	private int side;
+
+	private int[]     scanShape;
+	private int[]     frameShape;
+	private int[]     chunk;
+	private IDataset  data;
+	private File      written;
+	private NexusFile reader;
+	private ILazyDataset lazy;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		org.eclipse.dawnsci.nexus.ServiceHolder.setNexusFileFactory(new NexusFileFactoryHDF5());
+
+		scanShape  = new int[]{side, side};
+		frameShape = frame.isEmpty() ? new int[0] : Arrays.stream(frame.split("x")).mapToInt(Integer::parseInt).toArray();
+		chunk      = createChunk();
+
+		int[] pointShape = new int[scanShape.length+frameShape.length];
+		Arrays.fill(pointShape, 1);
+		System.arraycopy(frameShape, 0, pointShape, scanShape.length, frameShape.length);
+		int size = 1;
+		for (int i : frameShape) size*=i;
+		Dataset point = DatasetFactory.createRange(size);
+		point.setShape(pointShape);
+		data = point;
+
+		written = write();
+		reader  = org.eclipse.dawnsci.nexus.ServiceHolder.getNexusFileFactory().newNexusFile(written.getAbsolutePath());
+		reader.openToRead();
+		lazy = reader.getData("/entry/data/data").getDataset();
+	}
+
+	@TearDown(Level.Trial)
+	public void dispose() throws Exception {
+		reader.close();
+		written.delete();
+	}
+
+	@Benchmark
+	public void writeScan() throws Exception {
+		write().delete();
+	}
+
+	@Benchmark
+	public void readFrames() throws Exception {
+		int rank = lazy.getRank();
+		int[] start = new int[rank];
+		int[] stop  = lazy.getShape();
+		for (int y = 0; y < side; y++) {
+			for (int x = 0; x < side; x++) {
+				start[0] = y; stop[0] = y+1;
+				start[1] = x; stop[1] = x+1;
+				lazy.getSlice(start, stop, null);
+			}
+		}
+	}
+
+	@Benchmark
+	public IDataset readMap() throws Exception {
+		int rank = lazy.getRank();
+		int[] start = new int[rank];
+		int[] stop  = lazy.getShape();
+		for (int i = scanShape.length; i < rank; i++) {
+			start[i] = stop[i]/2;
+			stop[i]  = start[i]+1;
+		}
+		return lazy.getSlice(start, stop, null);
+	}
+
+	private int[] createChunk() {
+		if ("LEGACY".equals(chunking)) {
+			int[] chunk = new int[scanShape.length+frameShape.length];
+			Arrays.fill(chunk, 1);
+			System.arraycopy(frameShape, 0, chunk, scanShape.length, frameShape.length);
+			if (frameShape.length==0) chunk[chunk.length-1] = 8;
+			return chunk;
+		}
+		ChunkPlanner planner = new ChunkPlanner(ChunkPlanner.DEFAULT_CHUNK_BYTES, ReadPattern.valueOf(chunking));
+		return planner.plan(scanShape, frameShape, 8).getChunk();
+	}
+
+	/**
+	 * Writes the map one point at a time, snaking the fast axis.
+	 */
+	private File write() throws Exception {
+
+		File file = File.createTempFile("chunking_benchmark", ".nxs");
+		file.deleteOnExit();
+
+		int   rank  = scanShape.length+frameShape.length;
+		int[] shape = new int[rank];
+		Arrays.fill(shape, 1);
+		int[] maxShape = new int[rank];
+		Arrays.fill(maxShape, ILazyWriteableDataset.UNLIMITED);
+		System.arraycopy(frameShape, 0, shape,    scanShape.length, frameShape.length);
+		System.arraycopy(frameShape, 0, maxShape, scanShape.length, frameShape.length);
+
+		NexusFile nf = org.eclipse.dawnsci.nexus.ServiceHolder.getNexusFileFactory().newNexusFile(file.getAbsolutePath());
+		nf.createAndOpenToWrite();
+		try {
+			GroupNode group = nf.getGroup("/entry/data", true);
+			LazyWriteableDataset dataset = new LazyWriteableDataset("data", Dataset.FLOAT64, shape, maxShape, chunk, null);
+			nf.createData(group, dataset);
+
+			int[] start = new int[rank];
+			int[] stop  = shape.clone();
+			for (int y = 0; y < side; y++) {
+				for (int i = 0; i < side; i++) {
+					int x = y%2==0 ? i : side-i-1;
+					start[0] = y; stop[0] = y+1;
+					start[1] = x; stop[1] = x+1;
+					dataset.setSlice(null, data, start, stop, null);
+				}
+			}
+		} finally {
+			nf.close();
+		}
+		return file;
+	}
+}
@@ -0,0 +1,130 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
+import org.eclipse.scanning.api.malcolm.message.Type;
+import org.eclipse.scanning.connector.epics.EpicsV4MessageMapper;
+import org.epics.pvdata.factory.FieldFactory;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.pv.FieldCreate;
+import org.epics.pvdata.pv.PVDouble;
+import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.PVInt;
+import org.epics.pvdata.pv.PVString;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.Structure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The conversion of a subscription update from a Malcolm device, built here
+ * without a pvAccess server. Run with the gc profiler to see the allocation
+ * per update:
+ * <pre>
+ *   -Dorg.eclipse.scanning.benchmark.include=.*EpicsV4MessageMapperBenchmark -Dorg.eclipse.scanning.benchmark.profilers=gc
+ * </pre>
+ * renderStructure is the rendering of the raw value which every update used to do.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EpicsV4MessageMapperBenchmark {
+
+	/**
+	 * The length of the array in the value of the attribute, 0 for a scalar.
+	 */
+	@Param({"0", "1000"})
+	private int length;
+
+	private EpicsV4MessageMapper mapper;
+	private MalcolmMessage       subscribe;
+	private PVStructure          update;
+
+	@Setup
+	public void setup() throws Exception {
+
+		mapper = new EpicsV4MessageMapper();
+
+		subscribe = new MalcolmMessage();
+		subscribe.setType(Type.SUBSCRIBE);
+		subscribe.setId(1);
+		subscribe.setEndpoint("value");
+
+		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+		Structure alarm = fieldCreate.createFieldBuilder().
+				add("severity", ScalarType.pvInt).
+				add("status", ScalarType.pvInt).
+				add("message", ScalarType.pvString).
+				setId("alarm_t").
+				createStructure();
+
+		Structure attribute;
+		if (length>0) {
+			attribute = fieldCreate.createFieldBuilder().
+					addArray("value", ScalarType.pvDouble).
+					add("alarm", alarm).
+					setId("epics:nt/NTScalarArray:1.0").
+					createStructure();
+		} else {
+			attribute = fieldCreate.createFieldBuilder().
+					add("value", ScalarType.pvDouble).
+					add("alarm", alarm).
+					setId("epics:nt/NTScalar:1.0").
+					createStructure();
+		}
+
+		update = PVDataFactory.getPVDataCreate().createPVStructure(attribute);
+		if (length>0) {
+			double[] value = new double[length];
+			for (int i = 0; i < length; i++) value[i] = i*0.1;
+			update.getSubField(PVDoubleArray.class, "value").put(0, length, value, 0);
+		} else {
+			update.getSubField(PVDouble.class, "value").put(2.5);
+		}
+		update.getSubField(PVInt.class, "alarm.severity").put(0);
+		update.getSubField(PVString.class, "alarm.message").put("No alarm");
+	}
+
+	@Benchmark
+	public MalcolmMessage subscribeUpdate() throws Exception {
+		return mapper.convertSubscribeUpdatePVStructureToMalcolmMessage(update, subscribe);
+	}
+
+	@Benchmark
+	public Object subscribeUpdateReadRaw() throws Exception {
+		return mapper.convertSubscribeUpdatePVStructureToMalcolmMessage(update, subscribe).getRawValue();
+	}
+
+	@Benchmark
+	public String renderStructure() {
+		return update.toString();
+	}
+}
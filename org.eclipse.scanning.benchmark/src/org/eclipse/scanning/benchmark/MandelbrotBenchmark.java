@@ -0,0 +1,77 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Calculates the image of the mandelbrot detector with no exposure time, so
+ * the time is that of calculating the Julia set for one point of a scan.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MandelbrotBenchmark {
+
+	/**
+	 * The number of rows and columns of the image.
+	 */
+	@Param({"64", "256", "1024"})
+	private int size;
+
+	private IRunnableDevice<MandelbrotModel> detector;
+	private IPosition[] positions;
+	private int         index;
+
+	@Setup
+	public void setup() throws Exception {
+
+		MandelbrotModel mmodel = new MandelbrotModel("xNex", "yNex");
+		mmodel.setName("mandelbrot");
+		mmodel.setExposureTime(0);
+		mmodel.setEnableNoise(false);
+		mmodel.setColumns(size);
+		mmodel.setRows(size);
+		mmodel.setSaveSpectrum(false);
+		mmodel.setSaveValue(false);
+
+		detector  = new BenchmarkServices().getRunnableDeviceService().createRunnableDevice(mmodel);
+		positions = new IPosition[]{new MapPosition("xNex:0:0.1, yNex:0:0.2"), new MapPosition("xNex:0:-0.7, yNex:0:0.3")};
+	}
+
+	@Benchmark
+	public void calculateImage() throws Exception {
+		detector.run(positions[index++%2]);
+	}
+}
@@ -0,0 +1,108 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The JSON marshalling done for each scan event and position published.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MarshallerBenchmark {
+
+	private IEventConnectorService connector;
+
+	private ScanBean    bean;
+	private MapPosition position;
+	private String      beanJson;
+	private String      positionJson;
+
+	@Setup
+	public void setup() throws Exception {
+
+		new BenchmarkServices(); // Sets the marshaller
+		connector = new ActivemqConnectorService();
+
+		GridModel gmodel = new GridModel("x", "y", 100, 100);
+		gmodel.setBoundingBox(new BoundingBox(0, 0, 10, 10));
+		ScanRequest<Object> req = new ScanRequest<>();
+		req.setCompoundModel(new CompoundModel<>(gmodel));
+		req.setMonitorNames(Arrays.asList("beamcurrent"));
+
+		position = new MapPosition();
+		position.put("x", 1.5d);
+		position.putIndex("x", 15);
+		position.put("y", 2.5d);
+		position.putIndex("y", 25);
+		position.setStepIndex(2515);
+
+		bean = new ScanBean(req);
+		bean.setName("Benchmark scan");
+		bean.setStatus(Status.RUNNING);
+		bean.setSize(10000);
+		bean.setPoint(2515);
+		bean.setPercentComplete(25.15);
+		bean.setPosition(position);
+
+		beanJson     = connector.marshal(bean);
+		positionJson = connector.marshal(position);
+	}
+
+	@Benchmark
+	public String marshalScanBean() throws Exception {
+		return connector.marshal(bean);
+	}
+
+	@Benchmark
+	public ScanBean unmarshalScanBean() throws Exception {
+		return connector.unmarshal(beanJson, ScanBean.class);
+	}
+
+	@Benchmark
+	public String marshalPosition() throws Exception {
+		return connector.marshal(position);
+	}
+
+	@Benchmark
+	public MapPosition unmarshalPosition() throws Exception {
+		return connector.unmarshal(positionJson, MapPosition.class);
+	}
+}
@@ -0,0 +1,115 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.LissajousModel;
+import org.eclipse.scanning.api.points.models.RepeatedPointModel;
+import org.eclipse.scanning.api.points.models.SpiralModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Iterates each type of generator. The repeat generator is a plain
+ * Java iterator, the others go through Jython, so the difference
+ * between them is the cost of the Jython path per point.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PointIterationBenchmark {
+
+	@Param({"step", "grid", "spiral", "lissajous", "repeat", "compound"})
+	private String type;
+
+	@Param({"100", "10000"})
+	private int size;
+
+	private IPointGenerator<?> generator;
+
+	@Setup
+	public void setup() throws Exception {
+		IPointGeneratorService gservice = new BenchmarkServices().getPointGeneratorService();
+		Object model = createModel();
+		if (model instanceof CompoundModel) {
+			generator = gservice.createCompoundGenerator((CompoundModel<?>)model);
+		} else {
+			generator = gservice.createGenerator(model);
+		}
+	}
+
+	private Object createModel() {
+
+		// Grids and compounds have (about) the same number of points as the others
+		final int side = (int)Math.max(1, Math.round(Math.sqrt(size)));
+		final BoundingBox box = new BoundingBox(0, 0, 10, 10);
+
+		switch(type) {
+		case "step":
+			return new StepModel("x", 0, size-1, 1);
+		case "grid":
+			GridModel gmodel = new GridModel("x", "y", side, side);
+			gmodel.setBoundingBox(box);
+			return gmodel;
+		case "spiral":
+			// The number of points in a spiral goes as the area over the scale squared
+			return new SpiralModel("x", "y", 10d/Math.sqrt(size), box);
+		case "lissajous":
+			LissajousModel lmodel = new LissajousModel();
+			lmodel.setFastAxisName("x");
+			lmodel.setSlowAxisName("y");
+			lmodel.setPoints(size);
+			lmodel.setBoundingBox(box);
+			return lmodel;
+		case "repeat":
+			return new RepeatedPointModel("T", size, 290, 0);
+		case "compound":
+			return new CompoundModel<>(new StepModel("T", 290, 290+side-1, 1), new StepModel("x", 0, side-1, 1));
+		default:
+			throw new IllegalArgumentException("Unknown generator type "+type);
+		}
+	}
+
+	@Benchmark
+	public void iterate(Blackhole hole) {
+		for (IPosition pos : generator) hole.consume(pos);
+	}
+
+	@Benchmark
+	public int size() throws Exception {
+		return generator.size();
+	}
+}
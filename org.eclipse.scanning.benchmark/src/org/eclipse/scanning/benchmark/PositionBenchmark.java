@@ -0,0 +1,87 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The position methods called for every point of every scan.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PositionBenchmark {
+
+	/**
+	 * The number of axes in each of the positions compounded.
+	 */
+	@Param({"1", "3"})
+	private int axes;
+
+	private MapPosition inner;
+	private MapPosition outer;
+	private IPosition   compound;
+	private IPosition   copy;
+
+	@Setup
+	public void setup() {
+		inner = createPosition("inner", 10);
+		outer = createPosition("outer", 2);
+		compound = inner.compound(outer);
+		copy     = createPosition("inner", 10).compound(createPosition("outer", 2));
+	}
+
+	private MapPosition createPosition(String prefix, int index) {
+		MapPosition pos = new MapPosition();
+		for (int i = 0; i < axes; i++) {
+			pos.put(prefix+i, index*1.5d+i);
+			pos.putIndex(prefix+i, index);
+		}
+		pos.setStepIndex(index);
+		return pos;
+	}
+
+	@Benchmark
+	public IPosition compound() {
+		return inner.compound(outer);
+	}
+
+	@Benchmark
+	public boolean equalsCopy() {
+		return compound.equals(copy);
+	}
+
+	@Benchmark
+	public int hash() {
+		return compound.hashCode();
+	}
+}
@@ -0,0 +1,88 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.device.IScannableDeviceService;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.scan.event.IPositioner;
+import org.eclipse.scanning.example.scannable.MockScannable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Moves mock scannables which do not sleep through the positioner, so
+ * the time is that of the LevelRunner running each level on its pool.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PositionerBenchmark {
+
+	/**
+	 * The number of scannables moved, spread over four levels.
+	 */
+	@Param({"1", "4", "16"})
+	private int scannables;
+
+	private IPositioner positioner;
+	private MapPosition[] positions;
+	private int           index;
+
+	/**
+	 * The mock scannables record every position, so they are made
+	 * again for each iteration to keep the heap the same size.
+	 */
+	@Setup(Level.Iteration)
+	public void setup() throws Exception {
+
+		BenchmarkServices services = new BenchmarkServices();
+		IScannableDeviceService connector = services.getConnector();
+
+		positions = new MapPosition[]{new MapPosition(), new MapPosition()};
+		for (int i = 0; i < scannables; i++) {
+			String name = "bench"+i;
+			connector.register(new MockScannable(name, 0d, i%4+1, false));
+			positions[0].put(name, 0d);
+			positions[1].put(name, 1d);
+		}
+		positioner = services.getRunnableDeviceService().createPositioner();
+	}
+
+	@TearDown(Level.Iteration)
+	public void dispose() {
+		positioner.close();
+	}
+
+	@Benchmark
+	public boolean setPosition() throws Exception {
+		return positioner.setPosition(positions[index++%2]);
+	}
+}
@@ -0,0 +1,80 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.EventConstants;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Broadcasts scan beans, as the scan does for each point,
+ * to a broker running in the same process.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PublisherBenchmark {
+
+	private BenchmarkServices    services;
+	private IPublisher<ScanBean> publisher;
+	private ScanBean             bean;
+	private int                  point;
+
+	@Setup
+	public void setup() throws Exception {
+
+		services = new BenchmarkServices();
+		URI uri  = services.startBroker();
+		publisher = services.getEventService().createPublisher(uri, EventConstants.SCAN_TOPIC);
+
+		bean = new ScanBean();
+		bean.setName("Benchmark scan");
+		bean.setStatus(Status.RUNNING);
+		bean.setSize(10000);
+	}
+
+	@TearDown
+	public void dispose() throws Exception {
+		publisher.disconnect();
+		services.stopBroker();
+	}
+
+	@Benchmark
+	public void broadcast() throws Exception {
+		int p = point++%10000;
+		bean.setPoint(p);
+		bean.setPosition(new MapPosition("x", p, p*0.1d));
+		publisher.broadcast(bean);
+	}
+}
@@ -0,0 +1,94 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs a whole grid scan with a mandelbrot detector which does not sleep
+ * and no file, so the time is the overhead of the scan itself. Divide
+ * by the number of points (side squared) for the dead time per point.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ScanBenchmark {
+
+	/**
+	 * The number of points along each side of the grid.
+	 */
+	@Param({"2", "10", "30"})
+	private int side;
+
+	private IRunnableDevice<ScanModel> scanner;
+
+	/**
+	 * The mock scannables record every position, so they are made
+	 * again for each iteration to keep the heap the same size.
+	 */
+	@Setup(Level.Iteration)
+	public void setup() throws Exception {
+
+		BenchmarkServices services = new BenchmarkServices();
+		IRunnableDeviceService dservice = services.getRunnableDeviceService();
+
+		GridModel gmodel = new GridModel("xNex", "yNex", side, side);
+		gmodel.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		IPointGenerator<?> gen = services.getPointGeneratorService().createGenerator(gmodel);
+
+		MandelbrotModel mmodel = new MandelbrotModel("xNex", "yNex");
+		mmodel.setName("mandelbrot");
+		mmodel.setExposureTime(0);
+		mmodel.setEnableNoise(false);
+		mmodel.setColumns(8);
+		mmodel.setRows(8);
+		mmodel.setPoints(16);
+		mmodel.setMaxIterations(50);
+
+		ScanModel smodel = new ScanModel();
+		smodel.setPositionIterable(gen);
+		smodel.setDetectors(dservice.createRunnableDevice(mmodel));
+
+		scanner = dservice.createRunnableDevice(smodel, null);
+	}
+
+	@Benchmark
+	public void scan() throws Exception {
+		scanner.run(null);
+	}
+}
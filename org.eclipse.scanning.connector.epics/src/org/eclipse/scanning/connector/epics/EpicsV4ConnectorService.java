@@ -249,7 +249,7 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 	    	}
 	        PvaClientGetData pvaData = pvaGet.getData();
 			pvResult = pvaData.getPVStructure();
-			logger.debug("Get response = \n" + pvResult + "\nEND");
+			logger.debug("Get response = \n{}\nEND", pvResult);
 	        returnMessage = mapper.convertGetPVStructureToMalcolmMessage(pvResult, message);
 		} catch (Exception ex) {
 			logger.error(ex.getMessage());
@@ -336,7 +336,7 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 	        	throw new Exception(errMEssage);
 	        }
 
-			logger.debug("Call method = \n" + methodStructure + "\nEND");
+			logger.debug("Call method = \n{}\nEND", methodStructure);
 	        PvaClientRPC rpc = pvaChannel.createRPC(methodStructure);
 	        rpc.issueConnect();
 	        status = rpc.waitConnect();
@@ -344,9 +344,9 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 	        	String errMEssage = "CreateRPC failed for '" + message.getMethod() + "' (" + status.getType() + ": " + status.getMessage() + ")";
 	        	throw new Exception(errMEssage);
 	    	}
-			logger.debug("Call param = \n" + parametersStructure + "\nEND");
+			logger.debug("Call param = \n{}\nEND", parametersStructure);
 	        pvResult = rpc.request(parametersStructure);
-			logger.debug("Call response = \n" + pvResult + "\nEND");
+			logger.debug("Call response = \n{}\nEND", pvResult);
 			returnMessage = mapper.convertCallPVStructureToMalcolmMessage(pvResult, message);
 		} catch (Exception ex) {
 			logger.error(ex.getMessage());
@@ -387,7 +387,7 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 				
 				MalcolmMessage message = new MalcolmMessage();
 				try {
-					message = mapper.convertSubscribeUpdatePVStructureToMalcolmMessage(monitorData.getPVStructure(), subscribeMessage);
+					message = mapper.convertSubscribeUpdatePVStructureToMalcolmMessage(monitorData.getPVStructure(), monitorData.getChangedBitSet(), subscribeMessage);
 				} catch (Exception ex) {
 					logger.error(ex.getMessage());
 					message.setType(Type.ERROR);
@@ -11,6 +11,10 @@
  *******************************************************************************/
 package org.eclipse.scanning.connector.epics;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.EllipticalROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.FreeDrawROI;
@@ -39,6 +43,7 @@ import org.eclipse.scanning.connector.epics.custommarshallers.BoundingBoxDeseria
 import org.eclipse.scanning.connector.epics.custommarshallers.BoundingBoxSerialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.CircularROIDeserialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.CircularROISerialiser;
+import org.eclipse.scanning.connector.epics.custommarshallers.ConvertedValues;
 import org.eclipse.scanning.connector.epics.custommarshallers.EllipticalROIDeserialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.EllipticalROISerialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.FreeDrawROIDeserialiser;
@@ -81,10 +86,14 @@ import org.eclipse.scanning.connector.epics.custommarshallers.XAxisBoxROIDeseria
 import org.eclipse.scanning.connector.epics.custommarshallers.XAxisBoxROISerialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.YAxisBoxROIDeserialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.YAxisBoxROISerialiser;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.misc.BitSet;
+import org.epics.pvdata.pv.PVDataCreate;
 import org.epics.pvdata.pv.PVField;
 import org.epics.pvdata.pv.PVString;
 import org.epics.pvdata.pv.PVStructure;
 import org.epics.pvdata.pv.PVUnion;
+import org.epics.pvdata.pv.Structure;
 import org.epics.pvmarshaller.marshaller.PVMarshaller;
 import org.python.core.PyDictionary;
 
@@ -92,6 +101,10 @@ public class EpicsV4MessageMapper {
 	
 	private PVMarshaller marshaller;
 	
+	private static final PVDataCreate pvDataCreate = PVDataFactory.getPVDataCreate();
+	
+	private final Map<String, EndpointPlan> endpointPlans = new ConcurrentHashMap<>();
+	
 	private static String ERROR_TYPE = "malcolm:core/Error:";
 	
 	private static String TYPE_ID_KEY = "typeid";
@@ -153,7 +166,7 @@ public class EpicsV4MessageMapper {
 	
 	public PVStructure convertMalcolmMessageToPVStructure(MalcolmMessage malcolmMessage) throws Exception {
 				
-		PVStructure pvRequest = marshaller.toPVStructure(malcolmMessage);
+		PVStructure pvRequest = toPVStructure(malcolmMessage);
 				
 		return pvRequest;
 	}
@@ -163,7 +176,7 @@ public class EpicsV4MessageMapper {
 		result.setType(Type.RETURN);
 		result.setEndpoint(message.getEndpoint());
 		result.setId(message.getId());
-		result.setRawValue(structure.toString());
+		result.setLazyRawValue(structure::toString);
 				
 		if (structure.getStructure().getID().startsWith(ERROR_TYPE)) {
 			result.setType(Type.ERROR);
@@ -183,7 +196,10 @@ public class EpicsV4MessageMapper {
 		result.setType(Type.UPDATE);
 		result.setEndpoint(message.getEndpoint());
 		result.setId(message.getId());
-		result.setRawValue(structure.toString());
+		// The monitor reuses its structure once the event is released so the
+		// raw value is rendered from a copy, which is far cheaper than the string.
+		final PVStructure snapshot = pvDataCreate.createPVStructure(structure);
+		result.setLazyRawValue(snapshot::toString);
 				
 		Object returnedObject = getEndpointObjectFromPVStructure(structure, message.getEndpoint());
 		
@@ -192,13 +208,49 @@ public class EpicsV4MessageMapper {
 		return result;
 	}
 	
+	/**
+	 * Converts a subscription update of the whole block, endpoint "", to a message
+	 * of type DELTA whose value holds only the top level fields which have changed.
+	 * The first update of a monitor, or one where the changed bit set is not known,
+	 * has every field and is converted to an UPDATE as normal.
+	 * 
+	 * @param structure the structure of the update
+	 * @param changed the changed bit set of the update or null
+	 * @param message the subscribe message
+	 * @return the update
+	 * @throws Exception
+	 */
+	public MalcolmMessage convertSubscribeUpdatePVStructureToMalcolmMessage(PVStructure structure, BitSet changed, MalcolmMessage message) throws Exception {
+		
+		if (changed==null || changed.get(0) || !message.getEndpoint().isEmpty()) {
+			return convertSubscribeUpdatePVStructureToMalcolmMessage(structure, message);
+		}
+		
+		final Map<String, Object> delta = new LinkedHashMap<>();
+		for (PVField field : structure.getPVFields()) {
+			int bit = changed.nextSetBit(field.getFieldOffset());
+			if (bit<0) break;
+			if (bit>=field.getNextFieldOffset()) continue;
+			delta.put(field.getFieldName(), marshaller.getObjectFromField(structure, field.getFieldName()));
+		}
+		
+		MalcolmMessage result = new MalcolmMessage();
+		result.setType(Type.DELTA);
+		result.setEndpoint(message.getEndpoint());
+		result.setId(message.getId());
+		result.setLazyRawValue(delta::toString);
+		result.setValue(delta);
+		
+		return result;
+	}
+	
 	public MalcolmMessage convertGetPVStructureToMalcolmMessage(PVStructure structure, MalcolmMessage message)
 	{
 		MalcolmMessage result = new MalcolmMessage();
 		result.setType(Type.RETURN);
 		result.setEndpoint(message.getEndpoint());
 		result.setId(message.getId());
-		result.setRawValue(structure.toString());
+		result.setLazyRawValue(structure::toString);
 						
 		if (structure.getStructure().getID().startsWith(ERROR_TYPE)) {
 			result.setType(Type.ERROR);
@@ -222,15 +274,31 @@ public class EpicsV4MessageMapper {
 		if (endPointField.getField().getType().equals(org.epics.pvdata.pv.Type.union)) {
 			// Create from scratch for union
 			PVUnion unionField = (PVUnion)endPointField;
-			PVStructure newStructure = marshaller.toPVStructure(message.getValue());
+			PVStructure newStructure = toPVStructure(message.getValue());
 			unionField.set(newStructure);
 		} else {
-			marshaller.setFieldWithValue(pvStructure, message.getEndpoint(), message.getValue());
+			try {
+				marshaller.setFieldWithValue(pvStructure, message.getEndpoint(), message.getValue());
+			} finally {
+				ConvertedValues.clear();
+			}
 		}
 	}
 	
 	public PVStructure pvMarshal(Object anyObject) throws Exception {
-		return marshaller.toPVStructure(anyObject);
+		return toPVStructure(anyObject);
+	}
+
+	/**
+	 * The serialisers keep the conversions made while the object is marshalled,
+	 * these are forgotten afterwards so the next message is converted afresh.
+	 */
+	private PVStructure toPVStructure(Object object) throws Exception {
+		try {
+			return marshaller.toPVStructure(object);
+		} finally {
+			ConvertedValues.clear();
+		}
 	}
 
 	public <U> U pvUnmarshal(PVStructure anyObject, Class<U> beanClass) throws Exception {
@@ -244,20 +312,47 @@ public class EpicsV4MessageMapper {
 		} else if (endpoint.contains(",")) {
 			return marshaller.fromPVStructure(pvStructure, Object.class);
 		} else {
-			PVStructure parentStructure = null;
+			EndpointPlan plan = endpointPlans.get(endpoint);
+			if (plan==null || plan.structure!=pvStructure.getStructure()) {
+				plan = new EndpointPlan(pvStructure.getStructure(), endpoint);
+				endpointPlans.put(endpoint, plan);
+			}
+			return marshaller.getObjectFromField(plan.getParent(pvStructure), plan.field);
+		}
+	}
+	
+	/**
+	 * The field indices of the parent of an endpoint, worked out once for the
+	 * introspection interface of a channel. Subscription updates from the same
+	 * channel share the same Structure so only the first update looks the path up.
+	 */
+	private static final class EndpointPlan {
+		
+		private final Structure structure;
+		private final int[]     path;
+		private final String    field;
+		
+		EndpointPlan(Structure structure, String endpoint) throws Exception {
+			this.structure = structure;
 			String[] requestArray = endpoint.split("\\.");
+			this.path  = new int[requestArray.length-1];
+			this.field = requestArray[requestArray.length-1];
 			
-			if (requestArray.length == 1) {
-				parentStructure = pvStructure;
-			} else {
-				String parentStructureString = "";
-				for (int i = 0; i < requestArray.length - 1; i++) {
-					parentStructureString += requestArray[i];
+			Structure parent = structure;
+			for (int i = 0; i < path.length; i++) {
+				int index = parent.getFieldIndex(requestArray[i]);
+				if (index<0 || !(parent.getField(index) instanceof Structure)) {
+					throw new Exception("The endpoint '"+endpoint+"' has no structure called '"+requestArray[i]+"'");
 				}
-				parentStructure = pvStructure.getStructureField(parentStructureString);
+				path[i] = index;
+				parent  = (Structure)parent.getField(index);
 			}
-
-			return marshaller.getObjectFromField(parentStructure, requestArray[requestArray.length-1]);
+		}
+		
+		PVStructure getParent(PVStructure pvStructure) {
+			PVStructure parent = pvStructure;
+			for (int index : path) parent = (PVStructure)parent.getPVFields()[index];
+			return parent;
 		}
 	}
 }
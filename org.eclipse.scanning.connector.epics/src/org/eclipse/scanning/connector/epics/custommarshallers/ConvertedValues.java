@@ -0,0 +1,71 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.epics.custommarshallers;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The marshaller calls buildStructure and then populatePVStructure of a
+ * serialiser with the same object. This keeps the conversions made on
+ * each thread so that the populate does not repeat the conversion done to
+ * build the structure, which for a compound generator goes through Jython.
+ * <p>
+ * Objects are matched by identity, which only holds while one message is
+ * converted: the conversions are cleared by {@link #clear()} when each message
+ * has been converted, so an object changed in place and sent again is converted again.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public final class ConvertedValues<K, V> {
+
+	/**
+	 * The conversions of the message being converted on this thread, for every serialiser.
+	 */
+	private static final ThreadLocal<Map<Object, Object>> converted = ThreadLocal.withInitial(IdentityHashMap::new);
+
+	/**
+	 * Forgets the conversions made on this thread, called when each message has been converted.
+	 */
+	public static void clear() {
+		converted.get().clear();
+	}
+
+	/**
+	 * Keeps the conversion of the object being built.
+	 * @param object
+	 * @param value
+	 */
+	void put(K object, V value) {
+		converted.get().put(object, value);
+	}
+
+	/**
+	 * @param object
+	 * @return the conversion of the object, if it has been converted for this message, otherwise null.
+	 */
+	@SuppressWarnings("unchecked")
+	V get(K object) {
+		return (V)converted.get().get(object);
+	}
+
+	/**
+	 * Gets the conversion of the object and forgets it, used when the structure is populated.
+	 * @param object
+	 * @return the conversion of the object, if it has been converted for this message, otherwise null.
+	 */
+	@SuppressWarnings("unchecked")
+	V take(K object) {
+		return (V)converted.get().remove(object);
+	}
+}
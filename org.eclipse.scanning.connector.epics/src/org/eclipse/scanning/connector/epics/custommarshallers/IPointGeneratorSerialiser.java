@@ -27,11 +27,16 @@ import org.python.core.PyDictionary;
  */
 public class IPointGeneratorSerialiser implements IPVStructureSerialiser<IPointGenerator> {
 
+	private final ConvertedValues<IPointGenerator, PyDictionary> dictionaries = new ConvertedValues<>();
+
 	@Override
 	public Structure buildStructure(Serialiser serialiser, IPointGenerator generator) throws Exception {
 		if (generator instanceof PySerializable) {
-			PySerializable pySerializableGenerator = (PySerializable)generator;
-			PyDictionary generatorAsMap = pySerializableGenerator.toDict();
+			PyDictionary generatorAsMap = dictionaries.get(generator);
+			if (generatorAsMap==null) {
+				generatorAsMap = ((PySerializable)generator).toDict();
+				dictionaries.put(generator, generatorAsMap);
+			}
 			return serialiser.buildStructure(generatorAsMap);
 		} else {
 			throw new Exception("IPointGenerator wasn't PySerializable. Unable to serialise");
@@ -41,8 +46,8 @@ public class IPointGeneratorSerialiser implements IPVStructureSerialiser<IPointG
 	@Override
 	public void populatePVStructure(Serialiser serialiser, IPointGenerator generator, PVStructure pvStructure) throws Exception {
 		if (generator instanceof PySerializable) {
-			PySerializable pySerializableGenerator = (PySerializable)generator;
-			PyDictionary generatorAsMap = pySerializableGenerator.toDict();
+			PyDictionary generatorAsMap = dictionaries.take(generator);
+			if (generatorAsMap==null) generatorAsMap = ((PySerializable)generator).toDict();
 			serialiser.setValues(generatorAsMap, pvStructure);
 		} else {
 			throw new Exception("IPointGenerator wasn't PySerializable. Unable to serialise");
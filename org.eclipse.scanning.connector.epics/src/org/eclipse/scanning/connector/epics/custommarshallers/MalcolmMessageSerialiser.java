@@ -15,9 +15,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
-import org.epics.pvdata.factory.ConvertFactory;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.Convert;
 import org.epics.pvdata.pv.Field;
 import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVString;
@@ -35,7 +33,6 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmMessage> {
 
-	private Convert convert = ConvertFactory.getConvert();
 	private FieldCreate fieldCreate = FieldFactory.getFieldCreate();
 	
 	@Override
@@ -104,8 +101,10 @@ public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmM
 				if (msg.getArguments() instanceof Map) {
 					ParamMap paramMap = new ParamMap();
 					paramMap.setParametersFromObject((Map)msg.getArguments());
-					PVStructure params = serialiser.toPVStructure(paramMap);
-					convert.copyStructure(params.getStructureField("parameters"), parameters);
+					// The parameters were built from the same map so are set directly, rather
+					// than building the structure again and copying it, which for configure
+					// converted the whole compound generator twice more.
+					serialiser.getMapSerialiser().setMapValues("parameters", pvStructure, paramMap.getParameters());
 				} else {
 					serialiser.setValues(msg.getArguments(), parameters);
 				}
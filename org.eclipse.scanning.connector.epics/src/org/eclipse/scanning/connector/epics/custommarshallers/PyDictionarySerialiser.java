@@ -36,17 +36,24 @@ import org.python.core.PyUnicode;
  */
 public class PyDictionarySerialiser implements IPVStructureSerialiser<PyDictionary> {
 
+	private final ConvertedValues<PyDictionary, Map<String,?>> maps = new ConvertedValues<>();
+
 	@Override
 	public Structure buildStructure(Serialiser serialiser, PyDictionary dictionary) throws Exception {
 		// Convert to map first
-		Map<String,?> dictionaryAsMap = convertMap(dictionary);
+		Map<String,?> dictionaryAsMap = maps.get(dictionary);
+		if (dictionaryAsMap==null) {
+			dictionaryAsMap = convertMap(dictionary);
+			maps.put(dictionary, dictionaryAsMap);
+		}
 		Structure structure = serialiser.getMapSerialiser().buildStructureFromMap(dictionaryAsMap);
 		return structure;
 	}
 
 	@Override
 	public void populatePVStructure(Serialiser serialiser, PyDictionary dictionary, PVStructure pvStructure) throws Exception {
-		Map<String,?> dictionaryAsMap = convertMap(dictionary);
+		Map<String,?> dictionaryAsMap = maps.take(dictionary);
+		if (dictionaryAsMap==null) dictionaryAsMap = convertMap(dictionary);
 		serialiser.getMapSerialiser().setMapValues(pvStructure, dictionaryAsMap);
 	}
 	
@@ -11,6 +11,8 @@
  *******************************************************************************/
 package org.eclipse.scanning.device.ui.points;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.text.DecimalFormat;
@@ -60,7 +62,9 @@ import org.eclipse.scanning.api.points.models.AbstractPointsModel;
 import org.eclipse.scanning.api.points.models.CompoundModel;
 import org.eclipse.scanning.api.points.models.ScanRegion;
 import org.eclipse.scanning.api.scan.IParserService;
+import org.eclipse.scanning.api.scan.ScanCosts;
 import org.eclipse.scanning.api.scan.ScanEstimator;
+import org.eclipse.scanning.api.scan.ScanTimeEstimate;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.ui.AbstractControl;
 import org.eclipse.scanning.api.script.ScriptRequest;
@@ -129,6 +133,8 @@ public class ExecuteView extends ViewPart implements ISelectionListener {
 	
 	// Data
 	private SampleData sampleData;
+	private ScanCosts  scanCosts;
+	private long       scanCostsModified;
 	
 	public ExecuteView() {
 		
@@ -515,18 +521,19 @@ public class ExecuteView extends ViewPart implements ISelectionListener {
 	            setThreadSafeText(text, styledString);
 	        	
 	            String timeString = "";
+	            String timeTooltip = null;
 	        	if (Activator.getDefault().getPreferenceStore().getBoolean(DevicePreferenceConstants.SHOW_SCAN_TIME)) {
 
 	        		try {
-	        			final ScanEstimator estimator = new ScanEstimator(ServiceHolder.getGeneratorService(), req);
-	        			long time = estimator.getEstimatedScanTime();
-	        			Format format = (time<HOUR_IN_MS) ? new SimpleDateFormat("mm'm' ss's'") : new SimpleDateFormat("h'h' mm'm' ss's'");
-	        			timeString = "   "+format.format(new Date(time));
+	        			final ScanCosts     costs     = getScanCosts();
+	        			final ScanEstimator estimator = new ScanEstimator(pservice.createCompoundGenerator(req.getCompoundModel()), req.getDetectors(), 0, costs, costs);
+	        			timeString = "   "+formatTime(estimator.getEstimatedScanTime());
+	        			timeTooltip = getTimeSummary(estimator.getTimeEstimate(), costs!=null);
 	        		} catch (Exception ne) {
 	        			timeString = ne.getMessage();
 	        		}
 	        	}
-	        	setThreadSafeLabel(timeEstimate, timeString);
+	        	setThreadSafeLabel(timeEstimate, timeString, timeTooltip);
  	        }
 		} catch (ModelValidationException ne) {
 			setThreadSafeEnabled(false);
@@ -577,16 +584,62 @@ public class ExecuteView extends ViewPart implements ISelectionListener {
     		}
     	});	
     }
-	private void setThreadSafeLabel(Label label, String message) {
+	private void setThreadSafeLabel(Label label, String message, String tooltip) {
 		if (label.isDisposed()) return;
 		label.getDisplay().syncExec(new Runnable() {
     		public void run() {
     			if (label.isDisposed()) return;
     			label.setText(message);
+    			label.setToolTipText(tooltip);
     		}
     	});	
     }
 
+	private static String formatTime(long time) {
+		Format format = (time<HOUR_IN_MS) ? new SimpleDateFormat("mm'm' ss's'") : new SimpleDateFormat("h'h' mm'm' ss's'");
+		return format.format(new Date(time));
+	}
+
+	/**
+	 * The costs which the server has learned from the previous scans on the beamline,
+	 * read again when the file they are kept in changes. The server keeps them in the
+	 * file when it is started with -Dorg.eclipse.scanning.sequencer.costs.persist=true
+	 * @return the costs or null if there is no file of them
+	 */
+	private synchronized ScanCosts getScanCosts() {
+		final File file = ScanCosts.getDefaultFile();
+		if (!file.exists()) return null;
+		if (scanCosts==null || file.lastModified()!=scanCostsModified) {
+			try {
+				scanCostsModified = file.lastModified();
+				scanCosts = ScanCosts.load(file);
+			} catch (IOException ne) {
+				logger.warn("Cannot read the costs of the scans from "+file, ne);
+				scanCosts = null;
+			}
+		}
+		return scanCosts;
+	}
+
+	/**
+	 * Where the time of the scan goes.
+	 * @param estimate
+	 * @param costed true if the costs are those of the previous scans on the beamline,
+	 *        otherwise the estimate is the exposure time only.
+	 */
+	private static String getTimeSummary(ScanTimeEstimate estimate, boolean costed) {
+		if (estimate==null) return null;
+		StringBuilder buf = new StringBuilder();
+		if (!costed) buf.append("The beamline has no costs of previous scans, the time is the exposure only.\n\n");
+		buf.append("Exposure:\t\t"+formatTime(estimate.getExposureTime()));
+		buf.append("\nMoving:\t\t"+formatTime(estimate.getMoveTime()));
+		buf.append("\nDetector overhead:\t"+formatTime(estimate.getDetectorOverhead()));
+		buf.append("\nPoint overhead:\t"+formatTime(estimate.getPointOverhead()));
+		buf.append("\nPaused:\t\t"+formatTime(estimate.getPauseTime()));
+		buf.append("\nDead time:\t\t"+Math.round(estimate.getDeadTimeFraction()*100)+"%");
+		return buf.toString();
+	}
+
 	private String getScanRegions(Collection<ScanRegion<IROI>> regions) {
 		
 		final StringBuilder buf = new StringBuilder();
@@ -12,37 +12,76 @@
 
 package org.eclipse.scanning.device.ui.vis;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.january.dataset.DatasetFactory;
 import org.eclipse.january.dataset.IDataset;
+import org.eclipse.scanning.api.points.PathPreview;
 
 /**
  * Simple class to hold information about a scan path
  * The information is held in image coordinates not axis coordinates.
  * Therefore the datasets produces by getX and getY may be
  * directly plotted.
+ * <p>
+ * The coordinates are held in primitive buffers of at most capacity
+ * points. Longer paths are decimated, every stride'th point is kept.
  */
 class PathInfo {
 	
-	// TODO Encapsulate these fields properly...
-	protected int    pointCount      = 0;
-	protected double smallestXStep   = Double.MAX_VALUE;
-	protected double smallestYStep   = Double.MAX_VALUE;
-	protected double smallestAbsStep = Double.MAX_VALUE;
+	private long    pointCount      = 0;
+	private boolean countEstimated  = false;
+	private int     stride          = 1;
+	private double  smallestXStep   = Double.MAX_VALUE;
+	private double  smallestYStep   = Double.MAX_VALUE;
+	private double  smallestAbsStep = Double.MAX_VALUE;
 	
-	// These fields have been encapsulated.
-	private List<Double> xCoordinates = new ArrayList<>();
-	private List<Double> yCoordinates = new ArrayList<>();
+	private final int capacity;
+	private double[]  xCoordinates;
+	private double[]  yCoordinates;
+	private int       size;
+	private double    lastX = Double.NaN;
+	private double    lastY = Double.NaN;
+
+	private double[] outlineX = new double[0];
+	private double[] outlineY = new double[0];
 
 	private String pointCountFormat = "%,d";
 	private String doubleFormat = "%.4g";
 
+	PathInfo(int capacity) {
+		this.capacity     = Math.max(2, capacity);
+		this.xCoordinates = new double[Math.min(this.capacity, 1024)];
+		this.yCoordinates = new double[xCoordinates.length];
+	}
+
+	/**
+	 * Makes the path information from the preview of a generator,
+	 * no points are iterated.
+	 * @param preview
+	 * @return info
+	 */
+	static PathInfo fromPreview(PathPreview preview) {
+		PathInfo info = new PathInfo(preview.size());
+		info.xCoordinates    = preview.getX();
+		info.yCoordinates    = preview.getY();
+		info.size            = preview.size();
+		info.pointCount      = preview.getPointCount();
+		info.countEstimated  = preview.isCountEstimated();
+		info.stride          = preview.getStride();
+		info.smallestXStep   = preview.getSmallestXStep();
+		info.smallestYStep   = preview.getSmallestYStep();
+		info.smallestAbsStep = preview.getSmallestAbsStep();
+		info.outlineX        = preview.getOutlineX();
+		info.outlineY        = preview.getOutlineY();
+		return info;
+	}
+
 	public String getFormattedPointCount() {
-		return String.format(pointCountFormat, pointCount);
+		String count = String.format(pointCountFormat, pointCount);
+		return countEstimated ? "~"+count : count;
 	}
 	public String getFormattedSmallestXStep() {
 		return formatDouble(smallestXStep);
@@ -53,26 +92,32 @@ class PathInfo {
 	public String getFormattedSmallestAbsStep() {
 		return formatDouble(smallestAbsStep);
 	}
-	private double[] getXCoordinates() {
-		double[] xCoords = new double[xCoordinates.size()];
-		for (int index = 0; index < xCoordinates.size(); index++) {
-			xCoords[index] = xCoordinates.get(index).doubleValue();
-		}
-		return xCoords;
-	}
-	private double[] getYCoordinates() {
-		double[] yCoords = new double[yCoordinates.size()];
-		for (int index = 0; index < yCoordinates.size(); index++) {
-			yCoords[index] = yCoordinates.get(index).doubleValue();
-		}
-		return yCoords;
-	}
 	
 	public IDataset getX() {
-		return DatasetFactory.createFromObject(getXCoordinates());
+		return DatasetFactory.createFromObject(Arrays.copyOf(xCoordinates, size));
 	}
 	public IDataset getY() {
-		return DatasetFactory.createFromObject(getYCoordinates());
+		return DatasetFactory.createFromObject(Arrays.copyOf(yCoordinates, size));
+	}
+
+	/**
+	 * @return true if the path has an outline, for instance the rectangle of a grid.
+	 */
+	public boolean hasOutline() {
+		return outlineX.length>0;
+	}
+	public IDataset getOutlineX() {
+		return DatasetFactory.createFromObject(outlineX);
+	}
+	public IDataset getOutlineY() {
+		return DatasetFactory.createFromObject(outlineY);
+	}
+
+	/**
+	 * @return the number of points of the scan between those drawn, 1 if all are drawn.
+	 */
+	public int getStride() {
+		return stride;
 	}
 
 	private String formatDouble(double value) {
@@ -93,11 +138,53 @@ class PathInfo {
 	}
 	
 	public int size() {
-		return xCoordinates.size();
+		return size;
+	}
+
+	/**
+	 * Adds the next point of the scan, recording the step from the last point.
+	 * Every stride'th point is kept. When capacity points are kept every other
+	 * one is dropped and the stride doubles, so the memory does not depend on
+	 * the length of the scan.
+	 * 
+	 * @param x
+	 * @param y
+	 */
+	public void addPoint(double x, double y) {
+		if (pointCount > 0) {
+			double xStep = Math.abs(x - lastX);
+			double yStep = Math.abs(y - lastY);
+			if (xStep > 0) smallestXStep = Math.min(smallestXStep, xStep);
+			if (yStep > 0) smallestYStep = Math.min(smallestYStep, yStep);
+			smallestAbsStep = Math.min(smallestAbsStep, Math.sqrt(xStep*xStep + yStep*yStep));
+		}
+		lastX = x;
+		lastY = y;
+		if (pointCount % stride == 0 && size == capacity) decimate();
+		if (pointCount % stride == 0) add(x, y);
+		pointCount++;
 	}
-	public void add(Double x, Double y) {
-		xCoordinates.add(x);
-		yCoordinates.add(y);
+
+	private void add(double x, double y) {
+		if (size == xCoordinates.length) {
+			int length = Math.min(capacity, size*2);
+			xCoordinates = Arrays.copyOf(xCoordinates, length);
+			yCoordinates = Arrays.copyOf(yCoordinates, length);
+		}
+		xCoordinates[size] = x;
+		yCoordinates[size] = y;
+		size++;
+	}
+
+	private void decimate() {
+		int kept = 0;
+		for (int index = 0; index < size; index+=2) {
+			xCoordinates[kept] = xCoordinates[index];
+			yCoordinates[kept] = yCoordinates[index];
+			kept++;
+		}
+		size    = kept;
+		stride *= 2;
 	}
 
 }
\ No newline at end of file
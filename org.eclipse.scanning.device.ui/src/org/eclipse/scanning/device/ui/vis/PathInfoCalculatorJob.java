@@ -24,17 +24,32 @@ import org.eclipse.dawnsci.analysis.api.roi.IROI;
 import org.eclipse.dawnsci.plotting.api.trace.IImageTrace;
 import org.eclipse.scanning.api.IValidatorService;
 import org.eclipse.scanning.api.ModelValidationException;
+import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPointGeneratorService;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.PathPreview;
 import org.eclipse.scanning.api.points.models.IBoundingBoxModel;
 import org.eclipse.scanning.api.points.models.ScanRegion;
 import org.eclipse.scanning.device.ui.Activator;
 import org.eclipse.scanning.device.ui.ServiceHolder;
 import org.eclipse.swt.widgets.Display;
 
+/**
+ * Calculates the path drawn for the scan. Generators which can preview their
+ * path from the model are sampled at the resolution of the plot in the visible
+ * part of the plot, so the time taken does not depend on the number of points
+ * and the path is refined as the plot is zoomed. Other generators are iterated
+ * and their points are decimated to at most MAX_POINTS_IN_ROI.
+ */
 class PathInfoCalculatorJob extends Job {
 
 	static final int MAX_POINTS_IN_ROI = 100000; // 100,000
+	
+	/**
+	 * The most points sampled along each axis of a preview, so that
+	 * a preview has at most MAX_POINTS_IN_ROI points.
+	 */
+	static final int MAX_RESOLUTION = (int)Math.sqrt(MAX_POINTS_IN_ROI);
 
 	// Services
 	private IPointGeneratorService pointGeneratorFactory;
@@ -43,6 +58,8 @@ class PathInfoCalculatorJob extends Job {
 	// Model
 	private Object                   scanPathModel;
 	private List<ScanRegion<IROI>>   scanRegions;
+	private double[]                 window;
+	private int                      resolution = MAX_RESOLUTION;
 
 	// Controller
 	private PlottingController controller;
@@ -61,6 +78,9 @@ class PathInfoCalculatorJob extends Job {
 	protected void schedule(Object model, List<ScanRegion<IROI>> scanRegions) {
 		this.scanPathModel = model;
 		this.scanRegions   = scanRegions;
+		this.window        = controller.getVisibleWindow();
+		this.resolution    = Math.min(MAX_RESOLUTION, controller.getResolution());
+		cancel(); // A new preview replaces one being calculated.
 		schedule();
 	}
 
@@ -82,7 +102,6 @@ class PathInfoCalculatorJob extends Job {
 		
 		monitor.beginTask("Calculating points for scan path", IProgressMonitor.UNKNOWN);
 		
-		PathInfo pathInfo = new PathInfo();
 		if (!(scanPathModel instanceof IBoundingBoxModel)) {
 			setPathVisible(false);
 			return Status.CANCEL_STATUS;// No path to draw.
@@ -99,38 +118,23 @@ class PathInfoCalculatorJob extends Job {
 				return Status.CANCEL_STATUS;// No path to draw.
 			}
 			
-			final Iterable<IPosition> pointIterable = pointGeneratorFactory.createGenerator(scanPathModel, rois);
-			double lastX = Double.NaN;
-			double lastY = Double.NaN;
-			for (IPosition point : pointIterable) {
-				
-				if (monitor.isCanceled()) {
-					return Status.CANCEL_STATUS;
-				}
-				pathInfo.pointCount++;
-				
-				double[] pnt = new double[]{point.getValue(xAxisName), point.getValue(yAxisName)};
-				//pnt = controller.getPointInImageCoordinates(pnt);
-
-				if (pathInfo.pointCount > 1) {
-					double thisXStep = Math.abs(pnt[0] - lastX);
-					double thisYStep = Math.abs(pnt[1] - lastY);
-					double thisAbsStep = Math.sqrt(Math.pow(thisXStep, 2) + Math.pow(thisYStep, 2));
-					if (thisXStep > 0) {
-						pathInfo.smallestXStep = Math.min(pathInfo.smallestXStep, thisXStep);
-					}
-					if (thisYStep > 0) {
-						pathInfo.smallestYStep = Math.min(pathInfo.smallestYStep, thisYStep);
+			final IPointGenerator<?> generator = pointGeneratorFactory.createGenerator(scanPathModel, rois);
+			final PathPreview        preview   = generator.getPathPreview(window, resolution);
+			final PathInfo           pathInfo;
+			if (preview!=null) {
+				pathInfo = PathInfo.fromPreview(preview);
+			} else {
+				pathInfo = new PathInfo(MAX_POINTS_IN_ROI);
+				for (IPosition point : generator) {
+					if (monitor.isCanceled()) {
+						return Status.CANCEL_STATUS;
 					}
-					pathInfo.smallestAbsStep = Math.min(pathInfo.smallestAbsStep, thisAbsStep);
-				}
-
-				lastX = pnt[0];
-				lastY = pnt[1];
-				if (pathInfo.size() <= MAX_POINTS_IN_ROI) {
-					pathInfo.add(Double.valueOf(lastX), Double.valueOf(lastY));
+					pathInfo.addPoint(point.getValue(xAxisName), point.getValue(yAxisName));
 				}
 			}
+			if (monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
+			}
 			monitor.done();
 			
 			// Update the plot, waiting until it has suceeded before
@@ -24,6 +24,9 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.dawnsci.analysis.api.roi.IROI;
 import org.eclipse.dawnsci.plotting.api.IPlottingSystem;
 import org.eclipse.dawnsci.plotting.api.PlotType;
+import org.eclipse.dawnsci.plotting.api.axis.AxisEvent;
+import org.eclipse.dawnsci.plotting.api.axis.IAxis;
+import org.eclipse.dawnsci.plotting.api.axis.IAxisListener;
 import org.eclipse.dawnsci.plotting.api.region.IROIListener;
 import org.eclipse.dawnsci.plotting.api.region.IRegion;
 import org.eclipse.dawnsci.plotting.api.region.IRegionListener;
@@ -64,6 +67,8 @@ import org.eclipse.scanning.device.ui.util.PageUtil;
 import org.eclipse.scanning.device.ui.util.ScanRegions;
 import org.eclipse.scanning.device.ui.util.ViewUtil;
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.widgets.Composite;
 import org.eclipse.ui.IActionBars;
 import org.eclipse.ui.IViewPart;
 import org.eclipse.ui.IViewReference;
@@ -88,7 +93,8 @@ public class PlottingController implements ISelectionProvider, IAdaptable {
 	private static final Logger logger = LoggerFactory.getLogger(PlottingController.class);
 
 	
-	private static final String MAPPING_PATH_NAME = "Mapping Scan Path";
+	private static final String MAPPING_PATH_NAME    = "Mapping Scan Path";
+	private static final String MAPPING_OUTLINE_NAME = "Mapping Scan Outline";
 	
 	// UI
 	private   IPlottingSystem<?> system;
@@ -101,6 +107,8 @@ public class PlottingController implements ISelectionProvider, IAdaptable {
 	// Events
 	private   IRegionListener    regionListener;
 	private   IROIListener       roiListener;
+	private   IAxisListener      axisListener;
+	private   double[]           pathWindow;
 	
 	// Workers
 	private PathInfoCalculatorJob job;
@@ -361,12 +369,57 @@ public class PlottingController implements ISelectionProvider, IAdaptable {
 			if (!newTrace) system.removeTrace(pathTrace); // We always remove/add it because that puts it on top.
 			system.addTrace(pathTrace);                   // We always remove/add it because that puts it on top.
 			pathTrace.setVisible(true);
+			plotOutline(info);
 			system.setPlotType(PlotType.IMAGE);
 			system.setShowLegend(false);
 		}
 	}
 
 
+	/**
+	 * The outline of the path is drawn when the path is decimated,
+	 * so that the extent of the scan is clear.
+	 */
+	private void plotOutline(PathInfo info) {
+		ILineTrace outlineTrace = (ILineTrace)system.getTrace(MAPPING_OUTLINE_NAME);
+		if (info.getStride()<2 || !info.hasOutline()) {
+			if (outlineTrace!=null) outlineTrace.setVisible(false);
+			return;
+		}
+		if (outlineTrace == null) {
+			outlineTrace = system.createLineTrace(MAPPING_OUTLINE_NAME);
+			outlineTrace.setTraceColor(scanPathColour);
+			outlineTrace.setPointStyle(PointStyle.NONE);
+		} else {
+			system.removeTrace(outlineTrace);
+		}
+		outlineTrace.setData(info.getOutlineX(), info.getOutlineY());
+		system.addTrace(outlineTrace);
+		outlineTrace.setVisible(true);
+	}
+
+	/**
+	 * @return the fast axis lower and upper then the slow axis lower and upper values which are visible.
+	 */
+	double[] getVisibleWindow() {
+		IAxis xAxis = system.getSelectedXAxis();
+		IAxis yAxis = system.getSelectedYAxis();
+		if (xAxis==null || yAxis==null) return null;
+		return new double[]{Math.min(xAxis.getLower(), xAxis.getUpper()), Math.max(xAxis.getLower(), xAxis.getUpper()),
+				            Math.min(yAxis.getLower(), yAxis.getUpper()), Math.max(yAxis.getLower(), yAxis.getUpper())};
+	}
+
+	/**
+	 * @return the number of pixels along the longest side of the plot.
+	 */
+	int getResolution() {
+		Composite plot = system.getPlotComposite();
+		if (plot==null || plot.isDisposed()) return PathInfoCalculatorJob.MAX_RESOLUTION;
+		Point size = plot.getSize();
+		int pixels = Math.max(size.x, size.y);
+		return pixels>0 ? pixels : PathInfoCalculatorJob.MAX_RESOLUTION;
+	}
+
 	private void fireRegion(IRegion region, IROI roi, boolean drawPath) {
 
 		if (region==null) return;
@@ -443,12 +496,18 @@ public class PlottingController implements ISelectionProvider, IAdaptable {
 	void setPathVisible(boolean vis) {
 		ILineTrace pathTrace = (ILineTrace)system.getTrace(MAPPING_PATH_NAME);
         if (pathTrace!=null) pathTrace.setVisible(vis);
+		ILineTrace outlineTrace = (ILineTrace)system.getTrace(MAPPING_OUTLINE_NAME);
+        if (outlineTrace!=null && !vis) outlineTrace.setVisible(false);
 	}
 
 	public void dispose() {
 		clear();
 		if (system!=null) {
 		    system.removeRegionListener(regionListener);
+		    if (axisListener!=null) {
+		    	system.getSelectedXAxis().removeAxisListener(axisListener);
+		    	system.getSelectedYAxis().removeAxisListener(axisListener);
+		    }
 		    for (IRegion region : system.getRegions()) {
 		    	if (region.getUserObject() instanceof ScanRegion) region.removeROIListener(roiListener);
 			}
@@ -475,6 +534,23 @@ public class PlottingController implements ISelectionProvider, IAdaptable {
 			setAxisConfiguration(axisConfig);
 		}
 		
+		// Zooming draws the visible part of the path in more detail
+		axisListener = new IAxisListener() {
+			@Override
+			public void rangeChanged(AxisEvent evt) {
+				double[] window = getVisibleWindow();
+				if (Arrays.equals(window, pathWindow) || !isScanPathModel()) return;
+				pathWindow = window;
+				List<ScanRegion<IROI>> sregions = ScanRegions.getScanRegions(system);
+				if (sregions!=null) job.schedule(model, sregions);
+			}
+			@Override
+			public void revalidated(AxisEvent evt) {
+				// Only the range matters
+			}
+		};
+		system.getSelectedXAxis().addAxisListener(axisListener);
+		system.getSelectedYAxis().addAxisListener(axisListener);
 	}
 
 	private void connectRegions() {
@@ -0,0 +1,153 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event.queues;
+
+import java.net.URI;
+import java.util.EventListener;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IDisconnectable;
+import org.eclipse.scanning.api.event.core.IPublisher;
+
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SharedEventActors holds the publishers and status subscribers which queue 
+ * processes use to talk to other consumers (e.g. the scanning service). 
+ * Rather than each process opening its own connections and filtering every 
+ * bean on a status topic, there is one actor of each kind per (broker URI, 
+ * topic name). Submitters are not shared: each submission opens its own 
+ * connection and a submitter holds the uniqueId and priority of the beans 
+ * it submits, so processes create their own.
+ * 
+ * Status events are routed by the subscriber to listeners registered 
+ * against the uniqueId of the bean they are waiting for, so the cost of a 
+ * waiting process does not depend on the traffic on the topic.
+ * 
+ * The actors are counted; each acquire must be matched by a release and 
+ * the actor is disconnected when the last user releases it.
+ * 
+ * @author Michael Wharmby
+ *
+ */
+public final class SharedEventActors {
+	
+	private static Logger logger = LoggerFactory.getLogger(SharedEventActors.class);
+	
+	private static final Map<String, Shared> publishers  = new HashMap<>();
+
+	private static final Map<String, Shared> subscribers = new HashMap<>();
+	
+	private SharedEventActors() {
+		
+	}
+	
+	/**
+	 * Get the publisher to a topic, creating it if there is none.
+	 * 
+	 * @param uri of the broker.
+	 * @param topicName to publish to.
+	 * @return shared publisher which must be given to {@link #release(URI, String, IPublisher)}
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized <T> IPublisher<T> acquirePublisher(URI uri, String topicName) {
+		Shared shared = publishers.get(key(uri, topicName));
+		if (shared==null || shared.actor.isDisconnected()) {
+			shared = new Shared(getEventService().createPublisher(uri, topicName));
+			publishers.put(key(uri, topicName), shared);
+		}
+		shared.users++;
+		return (IPublisher<T>)shared.actor;
+	}
+	
+	public static synchronized void release(URI uri, String topicName, IPublisher<?> publisher) throws EventException {
+		release(publishers, key(uri, topicName), publisher);
+	}
+	
+
+	/**
+	 * Listen for the status of a bean on a topic. Only beans with the given 
+	 * uniqueId are passed to the listener.
+	 * 
+	 * @param uri of the broker.
+	 * @param topicName the status topic the bean is published on.
+	 * @param uniqueId of the bean to listen for.
+	 * @param listener to notify.
+	 * @throws EventException if the listener could not be added.
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized <T extends StatusBean> void addStatusListener(URI uri, String topicName, String uniqueId, IBeanListener<T> listener) throws EventException {
+		Shared shared = subscribers.get(key(uri, topicName));
+		if (shared==null || shared.actor.isDisconnected()) {
+			shared = new Shared(getEventService().createSubscriber(uri, topicName));
+			subscribers.put(key(uri, topicName), shared);
+		}
+		((ISubscriber<EventListener>)shared.actor).addListener(uniqueId, listener);
+		shared.users++;
+	}
+	
+	/**
+	 * Stop listening for the status of a bean. When there are no more 
+	 * listeners the subscriber to the topic is disconnected.
+	 * 
+	 * @param uri of the broker.
+	 * @param topicName the status topic the bean is published on.
+	 * @param uniqueId of the bean listened for.
+	 * @param listener added with {@link #addStatusListener(URI, String, String, IBeanListener)}
+	 * @throws EventException if the subscriber could not be disconnected.
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized void removeStatusListener(URI uri, String topicName, String uniqueId, IBeanListener<?> listener) throws EventException {
+		Shared shared = subscribers.get(key(uri, topicName));
+		if (shared==null) return;
+		((ISubscriber<EventListener>)shared.actor).removeListener(uniqueId, listener);
+		release(subscribers, key(uri, topicName), shared.actor);
+	}
+	
+	private static void release(Map<String, Shared> actors, String key, IDisconnectable actor) throws EventException {
+		Shared shared = actors.get(key);
+		if (shared==null || shared.actor!=actor) {
+			logger.warn("Released {} which is not shared as {}", actor, key);
+			return;
+		}
+		shared.users--;
+		if (shared.users<1) {
+			actors.remove(key);
+			shared.actor.disconnect();
+		}
+	}
+	
+	private static IEventService getEventService() {
+		return ServicesHolder.getEventService();
+	}
+	
+	private static String key(URI uri, String name) {
+		return uri+"#"+name;
+	}
+	
+	private static class Shared {
+		private final IDisconnectable actor;
+		private int users;
+		
+		Shared(IDisconnectable actor) {
+			this.actor = actor;
+		}
+	}
+
+}
@@ -11,8 +11,13 @@
  *******************************************************************************/
 package org.eclipse.scanning.event.queues.processes;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
 import org.eclipse.scanning.api.event.core.IConsumer;
 import org.eclipse.scanning.api.event.core.ISubscriber;
 import org.eclipse.scanning.api.event.queues.IQueue;
@@ -25,6 +30,7 @@ import org.eclipse.scanning.api.event.queues.beans.QueueBean;
 import org.eclipse.scanning.api.event.queues.beans.Queueable;
 import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.event.queues.Queue;
+import org.eclipse.scanning.event.queues.QueueProcessCreator;
 import org.eclipse.scanning.event.queues.ServicesHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +41,12 @@ import org.slf4j.LoggerFactory;
  * into a new queue  created through the {@link IQueueService}. The new queue 
  * is monitored using the {@link QueueListener} and through the queue service.
  * 
+ * If the {@link IHasAtomQueue} is parallel, atoms are only submitted when the 
+ * atoms they depend on have completed (see {@link AtomScheduler}) and the 
+ * active-queue runs them concurrently. The number of atoms running at once 
+ * is limited by the system property 
+ * org.eclipse.scanning.event.queues.maxParallelAtoms (default 4).
+ * 
  * @author Michael Wharmby
  *
  * @param <P> Bean implementing {@link Queueable}, but must be an  
@@ -53,7 +65,8 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 	private IQueueService queueService;
 	private IQueueControllerService queueController;
 	private QueueListener<P, Q> queueListener;
-	private ISubscriber<QueueListener<P, Q>> queueSubscriber;
+	private ISubscriber<IBeanListener<Q>> queueSubscriber;
+	private AtomScheduler<Q> scheduler;
 	
 	private QueueProcess<P, T> parentProcess;
 	private String activeQueueID; 
@@ -88,6 +101,18 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 		//Everything should be set up by now, so we can get the atomQueue
 		final P atomQueue = parentProcess.getQueueBean();
 		
+		//Check the dependencies before anything is created
+		if (atomQueue.isParallel()) {
+			try {
+				scheduler = new AtomScheduler<>(new ArrayList<>(atomQueue.getAtomQueue()), 
+						Integer.getInteger("org.eclipse.scanning.event.queues.maxParallelAtoms", 4));
+			} catch (EventException evEx) {
+				parentProcess.broadcast(Status.FAILED, "Cannot run atoms in parallel: \""+evEx.getMessage()+"\".");
+				logger.error("Cannot run atoms of '"+atomQueue.getName()+"' in parallel: \""+evEx.getMessage()+"\".");
+				throw evEx;
+			}
+		}
+		
 		//Create a new active queue to submit the atoms into
 		logger.debug("Registering active-queue for "+parentProcess.getQueueBean().getClass().getSimpleName()+" '"+parentProcess.getQueueBean().getName()+"'");
 		parentProcess.broadcast(Status.RUNNING, 0d, "Registering new active queue.");
@@ -113,18 +138,23 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 		parentProcess.broadcast(Status.RUNNING, 1d, "Submitting atoms to active queue.");
 		Queueable parentBean = parentProcess.getQueueBean();//TODO This is not needed - see atomQueue
 		int initialQueueSize = atomQueue.atomQueueSize();
-		while (atomQueue.atomQueueSize() > 0) {
-			QueueAtom nextAtom = atomQueue.viewNextAtom();
-			if (nextAtom.getBeamline() != parentBean.getBeamline()) {
-				nextAtom.setBeamline(parentBean.getBeamline());
-			}
-			if (nextAtom.getHostName() != parentBean.getHostName()) {
-				nextAtom.setHostName(parentBean.getHostName());
-			}
-			if (nextAtom.getUserName() != parentBean.getUserName()) {
-				nextAtom.setUserName(parentBean.getUserName());
+		if (scheduler != null) {
+			/*
+			 * Atoms are processed concurrently by the active-queue. Only 
+			 * those which are ready are submitted now; the rest are 
+			 * submitted as the atoms they depend on complete.
+			 */
+			@SuppressWarnings("unchecked")
+			IQueue<QueueAtom> activeQueue = (IQueue<QueueAtom>)queueService.getQueue(activeQueueID);
+			activeQueue.getConsumer().setRunner(new QueueProcessCreator<QueueAtom>(false));
+			while (atomQueue.atomQueueSize() > 0) atomQueue.nextAtom();
+			queueSubscriber.addListener(new SchedulingListener());
+			submitAtoms(scheduler.nextAtoms());
+		} else {
+			while (atomQueue.atomQueueSize() > 0) {
+				prepareAtom(atomQueue.viewNextAtom());
+				queueController.submit(atomQueue.nextAtom(), activeQueueID);
 			}
-			queueController.submit(atomQueue.nextAtom(), activeQueueID);
 		}
 		logger.debug(initialQueueSize+" atoms submitted from "+parentProcess.getQueueBean().getClass().getSimpleName()+" '"+parentBean.getName()+"'");
 		
@@ -137,6 +167,58 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 		parentProcess.broadcast(Status.RUNNING, 5d, "Waiting for active queue to complete");
 	}
 	
+	/**
+	 * Atoms inherit the beamline, host and user of the parent bean.
+	 */
+	private void prepareAtom(QueueAtom atom) {
+		Queueable parentBean = parentProcess.getQueueBean();
+		if (atom.getBeamline() != parentBean.getBeamline()) {
+			atom.setBeamline(parentBean.getBeamline());
+		}
+		if (atom.getHostName() != parentBean.getHostName()) {
+			atom.setHostName(parentBean.getHostName());
+		}
+		if (atom.getUserName() != parentBean.getUserName()) {
+			atom.setUserName(parentBean.getUserName());
+		}
+	}
+	
+	/**
+	 * Submit atoms of a parallel atom queue to the active-queue. If this 
+	 * fails, no more atoms are started and the parent process is released 
+	 * so that it fails.
+	 */
+	private void submitAtoms(List<Q> atoms) {
+		for (Q atom : atoms) {
+			prepareAtom(atom);
+			try {
+				queueController.submit(atom, activeQueueID);
+			} catch (EventException evEx) {
+				logger.error("Failed to submit '"+atom.getName()+"' to active-queue "+activeQueueID+": "+evEx.getMessage());
+				scheduler.stop();
+				parentProcess.getProcessLatch().countDown();
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Starts atoms of a parallel atom queue when the atoms they depend on 
+	 * complete. If an atom fails or is terminated, no more atoms are started;
+	 * the {@link QueueListener} reports the failure to the parent.
+	 */
+	private class SchedulingListener implements IBeanListener<Q> {
+		@Override
+		public void beanChangePerformed(BeanEvent<Q> evt) {
+			Q atom = evt.getBean();
+			if (atom.getStatus() == Status.COMPLETE) {
+				submitAtoms(scheduler.completed(atom.getUniqueId()));
+			} else if (atom.getStatus().isFinal() && atom.getStatus() != Status.NONE) {
+				scheduler.stop();
+			}
+		}
+	}
+	
 	/**
 	 * Instructs {@link IQueueService} to terminate the {@link IConsumer} 
 	 * instance (using the stop() method - this terminates all beans in the 
@@ -146,6 +228,7 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 	 */
 	protected void terminate() throws EventException {
 		//Calling IConsumer.stop() causes all jobs being processed to terminate
+		if (scheduler != null) scheduler.stop();
 		queueService.stopActiveQueue(activeQueueID, false);
 	}
 	
@@ -158,6 +241,7 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 	protected void tidyQueue() throws EventException {
 		logger.debug("Cleaning up queue infrastructure for "+parentProcess.getQueueBean().getClass().getSimpleName()+" '"+parentProcess.getQueueBean().getName()+"'...");
 		//This should happen first to avoid spurious messages about termination
+		if (scheduler != null) scheduler.stop();
 		queueSubscriber.disconnect();
 		
 		//Tidy up our processes, before handing back control
@@ -0,0 +1,159 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event.queues.processes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.queues.beans.IHasAtomQueue;
+import org.eclipse.scanning.api.event.queues.beans.QueueAtom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AtomScheduler decides which atoms of a parallel {@link IHasAtomQueue} may 
+ * be started. An atom is ready when all the atoms it depends on (see 
+ * {@link QueueAtom#getDependencies()}) have completed. At most maxRunning 
+ * atoms are started at any one time; ready atoms are started in queue order.
+ * 
+ * The dependencies are checked when the scheduler is created, so unknown 
+ * atoms and cycles are reported before anything has been submitted.
+ * 
+ * @author Michael Wharmby
+ *
+ * @param <Q> Bean from within the AtomQueue - implements {@link QueueAtom}.
+ */
+public class AtomScheduler<Q extends QueueAtom> {
+	
+	private static Logger logger = LoggerFactory.getLogger(AtomScheduler.class);
+	
+	private final Map<String, Q> waiting;
+	private final Set<String> running, completed;
+	private final int maxRunning;
+	private boolean stopped;
+	
+	/**
+	 * Create a scheduler for the given atoms.
+	 * 
+	 * @param atoms {@link QueueAtom}s in queue order.
+	 * @param maxRunning maximum number of atoms to run concurrently (at 
+	 *        least 1).
+	 * @throws EventException if an atom depends on an atom which is not in 
+	 *         the queue or if the dependencies have a cycle.
+	 */
+	public AtomScheduler(List<Q> atoms, int maxRunning) throws EventException {
+		this.waiting = new LinkedHashMap<>();
+		this.running = new HashSet<>();
+		this.completed = new HashSet<>();
+		this.maxRunning = Math.max(1, maxRunning);
+		for (Q atom : atoms) waiting.put(atom.getUniqueId(), atom);
+		checkDependencies();
+	}
+	
+	private void checkDependencies() throws EventException {
+		for (Q atom : waiting.values()) {
+			for (String dependency : getDependencies(atom)) {
+				if (!waiting.containsKey(dependency)) {
+					throw new EventException("Atom '"+atom.getName()+"' depends on '"+dependency+"' which is not in the atom queue");
+				}
+			}
+		}
+		//Repeatedly remove atoms whose dependencies have all been removed; anything left is in a cycle 
+		Set<String> resolved = new HashSet<>();
+		boolean progress = true;
+		while (progress) {
+			progress = false;
+			for (Q atom : waiting.values()) {
+				if (!resolved.contains(atom.getUniqueId()) && resolved.containsAll(getDependencies(atom))) {
+					resolved.add(atom.getUniqueId());
+					progress = true;
+				}
+			}
+		}
+		if (resolved.size() < waiting.size()) {
+			List<String> cycle = new ArrayList<>();
+			for (Q atom : waiting.values()) {
+				if (!resolved.contains(atom.getUniqueId())) cycle.add(atom.getName());
+			}
+			throw new EventException("Atoms "+cycle+" have cyclic dependencies");
+		}
+	}
+	
+	/**
+	 * Get the atoms which may be started now and mark them as running.
+	 * 
+	 * @return List of atoms to start (may be empty).
+	 */
+	public synchronized List<Q> nextAtoms() {
+		if (stopped) return Collections.emptyList();
+		
+		List<Q> ready = new ArrayList<>();
+		for (Q atom : waiting.values()) {
+			if (running.size()+ready.size() >= maxRunning) break;
+			if (completed.containsAll(getDependencies(atom))) ready.add(atom);
+		}
+		for (Q atom : ready) {
+			waiting.remove(atom.getUniqueId());
+			running.add(atom.getUniqueId());
+		}
+		return ready;
+	}
+	
+	/**
+	 * Record that an atom completed successfully.
+	 * 
+	 * @param uniqueId of the completed atom.
+	 * @return List of atoms which may now be started.
+	 */
+	public synchronized List<Q> completed(String uniqueId) {
+		if (!running.remove(uniqueId)) return Collections.emptyList(); //Not ours, or already completed
+		completed.add(uniqueId);
+		return nextAtoms();
+	}
+	
+	/**
+	 * Do not start any more atoms, for example because one has failed or 
+	 * been terminated.
+	 */
+	public synchronized void stop() {
+		if (!stopped && !waiting.isEmpty()) {
+			logger.debug("Stopping scheduler with "+waiting.size()+" atoms not started");
+		}
+		stopped = true;
+	}
+	
+	/**
+	 * @return true if every atom has been started.
+	 */
+	public synchronized boolean isAllStarted() {
+		return waiting.isEmpty();
+	}
+	
+	/**
+	 * @return number of atoms currently running.
+	 */
+	public synchronized int getRunningCount() {
+		return running.size();
+	}
+	
+	private List<String> getDependencies(Q atom) {
+		List<String> dependencies = atom.getDependencies();
+		return dependencies == null ? Collections.<String>emptyList() : dependencies;
+	}
+
+}
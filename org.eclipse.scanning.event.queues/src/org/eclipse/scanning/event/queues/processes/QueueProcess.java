@@ -216,6 +216,16 @@ public abstract class QueueProcess<Q extends Queueable, T extends Queueable>
 	public boolean isExecuted() {
 		return executed;
 	}
+	
+	/**
+	 * Non-blocking processes are started in their own thread by the 
+	 * consumer, so that it can take the next bean (used when an atom queue 
+	 * is processed in parallel).
+	 */
+	@Override
+	public boolean isBlocking() {
+		return blocking;
+	}
 
 	@Override
 	public boolean isTerminated() {
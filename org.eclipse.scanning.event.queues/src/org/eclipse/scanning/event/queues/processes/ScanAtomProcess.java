@@ -21,7 +21,6 @@ import org.eclipse.scanning.api.event.IEventService;
 import org.eclipse.scanning.api.event.core.IConsumer;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.ISubmitter;
-import org.eclipse.scanning.api.event.core.ISubscriber;
 import org.eclipse.scanning.api.event.queues.beans.QueueAtom;
 import org.eclipse.scanning.api.event.queues.beans.Queueable;
 import org.eclipse.scanning.api.event.queues.beans.ScanAtom;
@@ -30,6 +29,7 @@ import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.ui.CommandConstants;
 import org.eclipse.scanning.event.queues.QueueProcessFactory;
 import org.eclipse.scanning.event.queues.ServicesHolder;
+import org.eclipse.scanning.event.queues.SharedEventActors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,7 +38,9 @@ import org.slf4j.LoggerFactory;
  * a {@link ScanBean}, which is then submitted to the scan event service.
  * 
  * The process uses a {@link QueueListener} to monitor the process of the 
- * scan and pass up messages to the rest of the queue.
+ * scan and pass up messages to the rest of the queue. The publisher and 
+ * status subscriber to the scan broker are shared between processes by 
+ * {@link SharedEventActors}.
  * 
  * @author Michael Wharmby
  * 
@@ -58,9 +60,11 @@ public class ScanAtomProcess<T extends Queueable> extends QueueProcess<ScanAtom,
 	
 	//Scanning infrastructure
 	private IEventService eventService;
+	private URI scanBrokerURI;
+	private String scanStatusTopicName;
 	private IPublisher<ScanBean> scanCommandPublisher;
-	private ISubscriber<QueueListener<ScanAtom, ScanBean>> scanSubscriber;
 	private QueueListener<ScanAtom, ScanBean> queueListener;
+	private boolean listening;
 	
 	//For processor operation
 	private ScanBean scanBean;
@@ -68,9 +72,10 @@ public class ScanAtomProcess<T extends Queueable> extends QueueProcess<ScanAtom,
 	/**
 	 * Create a ScanAtomProcessor which can be used by a {@link QueueProcess}. 
 	 * Constructor configures the {@link IEventService} using the instance 
-	 * specified in the {@link ServicesHolder}. Additionally, a new 
-	 * {@link ScanBean} is created which will be configured with the details 
-	 * of from the {@link ScanAtom}.
+	 * specified in the {@link ServicesHolder}; the shared event actors are 
+	 * taken from {@link SharedEventActors}, which uses the same service. 
+	 * Additionally, a new {@link ScanBean} is created which will be 
+	 * configured with the details of from the {@link ScanAtom}.
 	 */
 	public ScanAtomProcess(T bean, IPublisher<T> publisher, Boolean blocking) throws EventException {
 		super(bean, publisher, blocking);
@@ -80,8 +85,7 @@ public class ScanAtomProcess<T extends Queueable> extends QueueProcess<ScanAtom,
 	@Override
 	protected void run() throws EventException, InterruptedException {
 		//Get config for scanning infrastructure
-		URI scanBrokerURI;
-		String scanStatusTopicName, scanSubmitQueueName;
+		String scanSubmitQueueName;
 		logger.debug("Getting scan service config...");
 		broadcast(Status.RUNNING, "Getting scanning service configuration.");
 		try {
@@ -118,14 +122,16 @@ public class ScanAtomProcess<T extends Queueable> extends QueueProcess<ScanAtom,
 		scanBean.setScanRequest(queueBean.getScanReq());
 		
 		broadcast(Status.RUNNING, 3d, "Creating scanning infrastructure.");
-		logger.debug("Creating scan command publisher, submitter and subscriber...");
-		ISubmitter<ScanBean> scanSubmitter = eventService.createSubmitter(scanBrokerURI, scanSubmitQueueName);
-		scanCommandPublisher = eventService.createPublisher(scanBrokerURI, scanStatusTopicName);
-		scanSubscriber = eventService.createSubscriber(scanBrokerURI, scanStatusTopicName);
+		logger.debug("Getting shared scan command publisher and subscriber...");
+		scanCommandPublisher = SharedEventActors.acquirePublisher(scanBrokerURI, scanStatusTopicName);
 		queueListener = new QueueListener<>(this, queueBean, processLatch, scanBean);
 		try {
-			scanSubscriber.addListener(queueListener);
+			//Only events for our ScanBean are passed to the listener
+			SharedEventActors.addStatusListener(scanBrokerURI, scanStatusTopicName, scanBean.getUniqueId(), queueListener);
+			listening = true;
 		} catch (EventException evEx) {
+			SharedEventActors.release(scanBrokerURI, scanStatusTopicName, scanCommandPublisher);
+			scanCommandPublisher = null;
 			broadcast(Status.FAILED, "Failed to add QueueListener to scan subscriber; unable to monitor queue. Cannot continue: \""+evEx.getMessage()+"\".");
 			logger.error("Failed to add QueueListener to scan subscriber for '"+queueBean.getName()+"'; unable to monitor queue. Cannot continue: \""+evEx.getMessage()+"\".");
 			throw new EventException("Failed to add QueueListener to scan subscriber", evEx);
@@ -133,6 +139,7 @@ public class ScanAtomProcess<T extends Queueable> extends QueueProcess<ScanAtom,
 		
 		broadcast(Status.RUNNING, 4d, "Submitting bean to scanning service.");
 		scanBean.setStatus(Status.SUBMITTED);
+		ISubmitter<ScanBean> scanSubmitter = eventService.createSubmitter(scanBrokerURI, scanSubmitQueueName);
 		try {
 			scanSubmitter.submit(scanBean);
 			scanSubmitter.disconnect();
@@ -229,8 +236,14 @@ public class ScanAtomProcess<T extends Queueable> extends QueueProcess<ScanAtom,
 	private void tidyScanActors() throws EventException {
 		logger.debug("Cleaning up queue infrastructure for '"+queueBean.getName()+"'...");
 		
-		scanCommandPublisher.disconnect();
-		scanSubscriber.disconnect();
+		if (listening) {
+			SharedEventActors.removeStatusListener(scanBrokerURI, scanStatusTopicName, scanBean.getUniqueId(), queueListener);
+			listening = false;
+		}
+		if (scanCommandPublisher != null) {
+			SharedEventActors.release(scanBrokerURI, scanStatusTopicName, scanCommandPublisher);
+			scanCommandPublisher = null;
+		}
 	}
 
 }
@@ -0,0 +1,157 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event.remote;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.annotation.ui.DeviceType;
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.core.IRequester;
+import org.eclipse.scanning.api.event.scan.DeviceInformation;
+import org.eclipse.scanning.api.event.scan.DeviceRequest;
+
+/**
+ * Puts the reads of remote scannables into batch {@link DeviceRequest}s, so that
+ * reading many scannables is a few round trips to the server rather than one for each.
+ * <p>
+ * A read is sent at once when no other batch is being sent, so a scannable read
+ * alone does not wait. The reads made while a batch is being sent are put into
+ * the next batch, which is sent when the reply comes back.
+ * <p>
+ * System properties:
+ * <pre>
+ *   org.eclipse.scanning.event.remote.batchReads - whether to batch the reads, default true, false reads each scannable alone.
+ * </pre>
+ *
+ * @author Matthew Gerring
+ *
+ */
+class ScannableReadBatcher {
+
+	static final boolean BATCH = Boolean.parseBoolean(System.getProperty("org.eclipse.scanning.event.remote.batchReads", "true"));
+
+	private final IRequester<DeviceRequest> requester;
+	private final long                      timeout;
+	private final ExecutorService           sender;
+	private Batch                           pending;
+	private boolean                         sending;
+
+	private static class Batch {
+		private final Set<String>                      names = new LinkedHashSet<>();
+		private final CompletableFuture<DeviceRequest> reply = new CompletableFuture<>();
+	}
+
+	/**
+	 * @param requester used only by the batcher
+	 * @param timeout in ms that each scannable has to reply
+	 */
+	ScannableReadBatcher(IRequester<DeviceRequest> requester, long timeout) {
+		this.requester = requester;
+		this.timeout   = timeout;
+		requester.setTimeout(2*timeout, TimeUnit.MILLISECONDS);
+		this.sender    = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "Scannable read batcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Reads the scannable with any others read at the same time
+	 * @param name
+	 * @return the reply for the scannable alone, as if it had been read with its own request.
+	 * @throws Exception if the batch cannot be sent
+	 */
+	DeviceRequest read(String name) throws Exception {
+		Batch   batch;
+		boolean send = false;
+		synchronized (this) {
+			if (pending==null) pending = new Batch();
+			batch = pending;
+			batch.names.add(name);
+			if (!sending) {
+				sending = true;
+				pending = null;
+				send    = true;
+			}
+		}
+		if (send) send(batch);
+		try {
+			// The batch may wait for the one being sent, each may take the timeout of the requester.
+			return extract(batch.reply.get(4*timeout, TimeUnit.MILLISECONDS), name);
+		} catch (ExecutionException ne) {
+			throw ne.getCause() instanceof Exception ? (Exception)ne.getCause() : ne;
+		}
+	}
+
+	private void send(Batch batch) {
+		try {
+			DeviceRequest req = new DeviceRequest(new ArrayList<>(batch.names), DeviceType.SCANNABLE);
+			req.setDeviceTimeout(timeout);
+			batch.reply.complete(requester.post(req));
+		} catch (Exception ne) {
+			batch.reply.completeExceptionally(ne);
+		} finally {
+			sendPending();
+		}
+	}
+
+	/**
+	 * Sends the reads made while the last batch was sent, if there are any.
+	 */
+	private void sendPending() {
+		final Batch next;
+		synchronized (this) {
+			next    = pending;
+			pending = null;
+			sending = next!=null;
+		}
+		if (next==null) return;
+		try {
+			sender.execute(() -> send(next));
+		} catch (RejectedExecutionException ne) {
+			synchronized (this) {
+				sending = false;
+			}
+			next.reply.completeExceptionally(ne);
+		}
+	}
+
+	private static DeviceRequest extract(DeviceRequest reply, String name) {
+		DeviceRequest req = new DeviceRequest(name, DeviceType.SCANNABLE);
+		if (reply.getErrorMessage()!=null) {
+			req.setErrorMessage(reply.getErrorMessage());
+			return req;
+		}
+		if (reply.getDeviceErrors()!=null) req.setErrorMessage(reply.getDeviceErrors().get(name));
+		if (reply.getDeviceValues()!=null) req.setDeviceValue(reply.getDeviceValues().get(name));
+		if (reply.getDevices()!=null) {
+			for (DeviceInformation<?> info : reply.getDevices()) {
+				if (name.equals(info.getName())) req.addDeviceInformation(info);
+			}
+		}
+		return req;
+	}
+
+	void disconnect() throws EventException {
+		sender.shutdownNow();
+		requester.disconnect();
+	}
+}
@@ -45,14 +45,21 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 
 	private final static Logger logger = LoggerFactory.getLogger(_Scannable.class);
 
+	static final long TIMEOUT = Long.getLong("org.eclipse.scanning.event.remote.scannableTimeout", 250);
+
 	private final ISubscriber<ILocationListener> subscriber;
+	private final ScannableReadBatcher           batcher;
 	
-	_Scannable(DeviceRequest req, URI uri, ISubscriber<ILocationListener> positionListener, IEventService eservice) throws EventException, InterruptedException {
+	/**
+	 * @param batcher reads the scannable with others read at the same time, may be null to read it alone.
+	 */
+	_Scannable(DeviceRequest req, URI uri, ISubscriber<ILocationListener> positionListener, ScannableReadBatcher batcher, IEventService eservice) throws EventException, InterruptedException {
 		super(req, 
-			  Long.getLong("org.eclipse.scanning.event.remote.scannableTimeout", 250),
+			  TIMEOUT,
 			  uri,
 			  eservice);
 		this.subscriber = positionListener;
+		this.batcher    = batcher;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -115,7 +122,9 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 	@Override
 	protected DeviceRequest update() {
 		try {
-			DeviceRequest req = requester.post(new DeviceRequest(name, DeviceType.SCANNABLE));
+			DeviceRequest req = batcher!=null
+					          ? batcher.read(name)
+					          : requester.post(new DeviceRequest(name, DeviceType.SCANNABLE));
 			this.merge(req.getDeviceInformation()!=null ? (DeviceInformation<T>)req.getDeviceInformation() : this.info);
 			return req;
 		} catch (Exception ne) {
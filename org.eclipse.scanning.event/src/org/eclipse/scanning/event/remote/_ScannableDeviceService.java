@@ -37,6 +37,7 @@ class _ScannableDeviceService extends AbstractRemoteService implements IScannabl
 	private IRequester<DeviceRequest>  requester;
 	private Map<String, IScannable<?>> scannables;
 	private ISubscriber<ILocationListener> subscriber;
+	private ScannableReadBatcher           batcher;
 	
 	public void init() throws EventException {
 		requester = eservice.createRequestor(uri, IEventService.DEVICE_REQUEST_TOPIC, IEventService.DEVICE_RESPONSE_TOPIC);
@@ -46,6 +47,9 @@ class _ScannableDeviceService extends AbstractRemoteService implements IScannabl
 	    scannables = new HashMap<>();
 	    
 		subscriber = eservice.createSubscriber(uri, EventConstants.POSITION_TOPIC);
+		if (ScannableReadBatcher.BATCH) {
+			batcher = new ScannableReadBatcher(eservice.createRequestor(uri, IEventService.DEVICE_REQUEST_TOPIC, IEventService.DEVICE_RESPONSE_TOPIC), _Scannable.TIMEOUT);
+		}
 	}
 	
 	@Override
@@ -56,6 +60,7 @@ class _ScannableDeviceService extends AbstractRemoteService implements IScannabl
 			if (scannable instanceof IDisconnectable) ((IDisconnectable)scannable).disconnect();
 		}
 		subscriber.disconnect();
+		if (batcher!=null) batcher.disconnect();
 		scannables.clear();
 		setDisconnected(true);
 	}
@@ -89,7 +94,7 @@ class _ScannableDeviceService extends AbstractRemoteService implements IScannabl
 		
 		if (scannables.containsKey(name)) return (IScannable<T>)scannables.get(name);
 		try {
-			_Scannable<T> ret = new _Scannable<T>(new DeviceRequest(name, DeviceType.SCANNABLE), uri, subscriber, eservice);
+			_Scannable<T> ret = new _Scannable<T>(new DeviceRequest(name, DeviceType.SCANNABLE), uri, subscriber, batcher, eservice);
 			scannables.put(name, ret);
 			return ret;
 		} catch (EventException | InterruptedException e) { // If no Scannable
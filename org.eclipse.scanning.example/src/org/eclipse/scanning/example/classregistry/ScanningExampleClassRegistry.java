@@ -23,6 +23,9 @@ import org.eclipse.scanning.example.detector.MandelbrotModel;
 import org.eclipse.scanning.example.malcolm.DummyMalcolmModel;
 import org.eclipse.scanning.example.malcolm.DummyMalcolmTriggeredModel;
 import org.eclipse.scanning.example.scannable.MockScannableModel;
+import org.eclipse.scanning.example.simulation.SimulatedDetectorModel;
+import org.eclipse.scanning.example.simulation.SimulatedFlyScanModel;
+import org.eclipse.scanning.example.simulation.SimulatedPandAModel;
 
 public class ScanningExampleClassRegistry implements IClassRegistry {
 
@@ -37,6 +40,11 @@ public class ScanningExampleClassRegistry implements IClassRegistry {
 		registerClass(tmp, DummyMalcolmModel.class);
 		registerClass(tmp, DummyMalcolmTriggeredModel.class);
 
+		// simulation
+		registerClass(tmp, SimulatedDetectorModel.class);
+		registerClass(tmp, SimulatedFlyScanModel.class);
+		registerClass(tmp, SimulatedPandAModel.class);
+
 		// scannable
 		registerClass(tmp, MockScannableModel.class);
 
@@ -31,6 +31,7 @@ import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.example.Services;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
 
 /**
  * This device mimicks telling EPICS to do a constant velcity scan down a line.
@@ -73,7 +74,7 @@ public class ConstantVelocityDevice extends AbstractRunnableDevice<ConstantVeloc
 		context = detector.initializeLazyDataset(NXdetector.NX_DATA, rank, Double.class);
 		
 		// Setting chunking is a very good idea if speed is required.
-		int[] chunk = info.createChunk(model.getLineSize(), model.getChannelCount(), model.getSpectraSize());
+		int[] chunk = ChunkPlanner.createChunk(info, Double.class, model.getLineSize(), model.getChannelCount(), model.getSpectraSize());
 		context.setChunking(chunk);
 		
 		Attributes.registerAttributes(detector, this);
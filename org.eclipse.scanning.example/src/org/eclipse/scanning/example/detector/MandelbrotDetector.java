@@ -13,7 +13,10 @@
 package org.eclipse.scanning.example.detector;
 
 import java.io.IOException;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.eclipse.dawnsci.nexus.INexusDevice;
 import org.eclipse.dawnsci.nexus.NXdetector;
@@ -24,7 +27,7 @@ import org.eclipse.dawnsci.nexus.builder.NexusObjectProvider;
 import org.eclipse.dawnsci.nexus.builder.NexusObjectWrapper;
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
-import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.DoubleDataset;
 import org.eclipse.january.dataset.ILazyWriteableDataset;
 import org.eclipse.january.dataset.SliceND;
 import org.eclipse.scanning.api.annotation.scan.ScanFinally;
@@ -36,12 +39,17 @@ import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.example.Services;
+import org.eclipse.scanning.example.simulation.SimulationClock;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
 
 /**
  * A dummy detector which must be set up with references to two Scannables representing X and Y positions. When used in a step scan, this detector generates a
  * value of 0 if the point (x, y) is in the Mandelbrot set, and greater than zero otherwise.
  * <p>
  * Note: values will always be high if used at (x, y) positions more than 2 units away from the origin.
+ * <p>
+ * The image is calculated straight into the double[] of a dataset which is reused for each point,
+ * with the rows split between the threads of the fork/join pool when it is large.
  */
 public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel> implements IWritableDetector<MandelbrotModel>, INexusDevice<NXdetector> {
 
@@ -52,16 +60,21 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 	private static final String FIELD_NAME_IMAGINARY_AXIS = "imaginary";
 	private static final String FIELD_NAME_REAL_AXIS = "real";
 
-	// Data to be passed from run() to write()
-	private IDataset image;
-	private IDataset spectrum;
+	/**
+	 * The number of pixels below which a block of rows is not split further between threads.
+	 */
+	private static final int PARALLEL_THRESHOLD = Integer.getInteger("org.eclipse.scanning.example.mandelbrot.parallelThreshold", 16384);
+
+	// Data to be passed from run() to write(), the write of the last point has
+	// returned before run() is called again so the datasets are reused.
+	private DoubleDataset image;
+	private DoubleDataset spectrum;
 	private double value;
 
 	// Writable datasets
 	private ILazyWriteableDataset imageData;
 	private ILazyWriteableDataset spectrumData;
 	private ILazyWriteableDataset valueData;
-	private final Random random = new Random();
 
 	public MandelbrotDetector() throws IOException, ScanningException {
 		super(Services.getRunnableDeviceService()); // Necessary if you are going to spring it
@@ -135,8 +148,8 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 		}
 
 		// Setting chunking is a very good idea if speed is required.
-		if (model.isSaveImage()) imageData.setChunking(info.createChunk(model.getRows(), model.getColumns()));
-		if (model.isSaveSpectrum())spectrumData.setChunking(info.createChunk(model.getPoints()));
+		if (model.isSaveImage()) imageData.setChunking(ChunkPlanner.createChunk(info, Double.class, model.getRows(), model.getColumns()));
+		if (model.isSaveSpectrum())spectrumData.setChunking(ChunkPlanner.createChunk(info, Double.class, model.getPoints()));
 
 		// Write detector metadata
 		detector.setField("exposure_time", model.getExposureTime());
@@ -169,7 +182,6 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 		setDeviceState(DeviceState.RUNNING);
 
 		final long startTime = System.nanoTime();
-		final long targetDuration = (long) (model.getExposureTime() * 1000000000.0); // nanoseconds
 
 		// Find out where we are in the scan. This is unique to the Mandelbrot
 		// detector as it's a dummy in general a detector shouldn't need to get
@@ -189,13 +201,8 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 		if (model.isSaveSpectrum()) spectrum = calculateJuliaSetLine(a, b, 0.0, 0.0, model.getMaxRealCoordinate(), model.getPoints());
 		if (model.isSaveValue()) value = mandelbrot(a, b);
 
-		// See if we need to sleep to honour the requested exposure time
-		long currentTime = System.nanoTime();
-		long duration = currentTime - startTime;
-		if (duration < targetDuration) {
-			long millisToWait = (targetDuration - duration) / 1000000;
-			Thread.sleep(millisToWait);
-		}
+		// Wait for the rest of the requested exposure time, if any
+		SimulationClock.waitUntil(startTime + SimulationClock.toNanos(model.getExposureTime()));
 
 		// TODO Should device state be set back to ready here? The device has finished acquiring (calculating) but the data is not in the file yet?
 	}
@@ -236,36 +243,85 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 	/**
 	 * Fill a Julia set around the origin for the value C = a + bi
 	 */
-	private IDataset calculateJuliaSet(final double a, final double b, int columns, int rows) {
+	private DoubleDataset calculateJuliaSet(final double a, final double b, int columns, int rows) {
 		final double xStart = -model.getMaxRealCoordinate();
 		final double xStop = model.getMaxRealCoordinate();
 		final double yStart = -model.getMaxImaginaryCoordinate();
 		final double yStop = model.getMaxImaginaryCoordinate();
 		final double yStep = (yStop - yStart) / (rows - 1);
-		double y;
-		IDataset juliaSet = DatasetFactory.zeros(rows,columns);
-		for (int yIndex = 0; yIndex < rows; yIndex++) {
-			y = yStart + yIndex * yStep;
-			IDataset line = calculateJuliaSetLine(a, b, y, xStart, xStop, columns);
-			for (int x = 0; x < line.getSize(); x++) {
-				juliaSet.set(line.getObject(x), yIndex, x);	
-			}
+
+		DoubleDataset juliaSet = reuse(image, rows, columns);
+		final double[] data = juliaSet.getData();
+		JuliaRows task = new JuliaRows(data, a, b, yStart, yStep, xStart, xStop, columns, 0, rows);
+		if (rows > 1 && rows * columns >= PARALLEL_THRESHOLD) {
+			ForkJoinPool.commonPool().invoke(task);
+		} else {
+			task.compute();
 		}
 		return juliaSet;
 	}
 
+	/**
+	 * Calculates a block of rows of the Julia set, splitting it in two until it is small enough.
+	 */
+	private class JuliaRows extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final double[] data;
+		private final double a, b, yStart, yStep, xStart, xStop;
+		private final int columns, fromRow, toRow;
+
+		JuliaRows(double[] data, double a, double b, double yStart, double yStep, double xStart, double xStop, int columns, int fromRow, int toRow) {
+			this.data    = data;
+			this.a       = a;
+			this.b       = b;
+			this.yStart  = yStart;
+			this.yStep   = yStep;
+			this.xStart  = xStart;
+			this.xStop   = xStop;
+			this.columns = columns;
+			this.fromRow = fromRow;
+			this.toRow   = toRow;
+		}
+
+		@Override
+		protected void compute() {
+			int rows = toRow - fromRow;
+			if (rows > 1 && rows * columns >= PARALLEL_THRESHOLD) {
+				int middle = fromRow + rows / 2;
+				invokeAll(new JuliaRows(data, a, b, yStart, yStep, xStart, xStop, columns, fromRow, middle),
+						  new JuliaRows(data, a, b, yStart, yStep, xStart, xStop, columns, middle, toRow));
+				return;
+			}
+			for (int yIndex = fromRow; yIndex < toRow; yIndex++) {
+				fillJuliaSetLine(data, yIndex * columns, a, b, yStart + yIndex * yStep, xStart, xStop, columns);
+			}
+		}
+	}
+
 	/**
 	 * Fill a Julia set line between xStart and xStop at the given y value, for the value C = a + bi
 	 */
-	private IDataset calculateJuliaSetLine(final double a, final double b, final double y, final double xStart, final double xStop, final int numPoints) {
+	private DoubleDataset calculateJuliaSetLine(final double a, final double b, final double y, final double xStart, final double xStop, final int numPoints) {
+		DoubleDataset juliaSetLine = reuse(spectrum, numPoints);
+		fillJuliaSetLine(juliaSetLine.getData(), 0, a, b, y, xStart, xStop, numPoints);
+		return juliaSetLine;
+	}
+
+	private void fillJuliaSetLine(final double[] data, final int offset, final double a, final double b, final double y, final double xStart, final double xStop, final int numPoints) {
 		final double xStep = (xStop - xStart) / (numPoints - 1);
-		double x;
-		IDataset juliaSetLine = DatasetFactory.zeros(numPoints);
 		for (int xIndex = 0; xIndex < numPoints; xIndex++) {
-			x = xStart + xIndex * xStep;
-			juliaSetLine.set(julia(x, y, a, b), xIndex);
+			data[offset + xIndex] = julia(xStart + xIndex * xStep, y, a, b);
 		}
-		return juliaSetLine;
+	}
+
+	/**
+	 * @return the dataset if it has the shape, otherwise a new one.
+	 */
+	private static DoubleDataset reuse(DoubleDataset dataset, int... shape) {
+		if (dataset != null && Arrays.equals(dataset.getShapeRef(), shape)) return dataset;
+		return DatasetFactory.zeros(DoubleDataset.class, shape);
 	}
 
 	/**
@@ -281,7 +337,8 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 	private double julia(double x, double y, final double a, final double b) {
 		int iteration = 0;
 		double xSquared, ySquared, tempX;
-		double escapeRadiusSquared = model.getEscapeRadius() * model.getEscapeRadius();
+		final double escapeRadiusSquared = model.getEscapeRadius() * model.getEscapeRadius();
+		final int    maxIterations       = model.getMaxIterations();
 		do {
 			xSquared = x * x;
 			ySquared = y * y;
@@ -289,7 +346,7 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 			y = 2 * x * y + b;
 			x = tempX;
 			iteration++;
-		} while (iteration < model.getMaxIterations() && xSquared + ySquared < escapeRadiusSquared);
+		} while (iteration < maxIterations && xSquared + ySquared < escapeRadiusSquared);
 
 		double modulus = Math.sqrt(x * x + y * y);
 
@@ -326,7 +383,8 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 			// noiseFraction is between 0 and 1 where 0 is pure signal and 1 means pure noise
 			double noiseFraction = (model.getNoiseFreeExposureTime() - model.getExposureTime())
 					/ model.getNoiseFreeExposureTime();
-			return value * (1 - noiseFraction) + value * random.nextDouble() * noiseFraction;
+			// The image is calculated on several threads, which must not contend for one Random
+			return value * (1 - noiseFraction) + value * ThreadLocalRandom.current().nextDouble() * noiseFraction;
 		}
 	}
 
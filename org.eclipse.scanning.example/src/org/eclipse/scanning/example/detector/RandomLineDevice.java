@@ -37,6 +37,7 @@ import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.example.Services;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
 
 /**
  * This device mimicks telling EPICS to do a scan down a line.
@@ -82,7 +83,7 @@ public class RandomLineDevice extends AbstractRunnableDevice<RandomLineModel> im
 		context = detector.initializeLazyDataset(NXdetector.NX_DATA, rank, Double.class);
 		
 		// Setting chunking is a very good idea if speed is required.
-		int[] chunk = info.createChunk(model.getLineSize());
+		int[] chunk = ChunkPlanner.createChunk(info, Double.class, model.getLineSize());
 		context.setChunking(chunk);
 		
 		Attributes.registerAttributes(detector, this);
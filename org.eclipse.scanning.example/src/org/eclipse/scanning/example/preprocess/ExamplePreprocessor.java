@@ -35,6 +35,14 @@ public class ExamplePreprocessor implements IPreprocessor {
 		return "example";
 	}
 
+	/**
+	 * Only the request is changed, no hardware is read.
+	 */
+	@Override
+	public boolean isLookAheadSafe() {
+		return true;
+	}
+
 	@Override
 	public <T> ScanRequest<T> preprocess(ScanRequest<T> req) throws ProcessingException {
 	
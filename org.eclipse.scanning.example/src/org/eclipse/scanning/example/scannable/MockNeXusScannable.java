@@ -32,6 +32,7 @@ import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.Scalar;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
 
 /**
  * 
@@ -93,7 +94,7 @@ public class MockNeXusScannable extends MockScannable implements INexusDevice<NX
 			
 			this.lzValue  = positioner.initializeLazyDataset(NXpositioner.NX_VALUE, info.getRank(), Double.class);
 			lzValue.setFillValue(fill);
-			lzValue.setChunking(info.createChunk(false, 8)); // TODO Might be slow, need to check this
+			lzValue.setChunking(ChunkPlanner.createChunk(info, Double.class));
 			lzValue.setWritingAsync(true);
 		}
 
@@ -33,6 +33,7 @@ import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.Scalar;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
 
 /**
  * A class to generate take a set of scannables which represent simple slits then write to a NeXus file
@@ -100,8 +101,8 @@ public class MockNeXusSlit extends MockScannable implements INexusDevice<NXslit>
 			yLzValue = positioner.initializeLazyDataset(NXslit.NX_Y_GAP, info.getRank(), Double.class);
 			xLzValue.setFillValue(fill);
 			yLzValue.setFillValue(fill);
-			xLzValue.setChunking(info.createChunk(false, 8)); // Might be slow, need to check this
-			yLzValue.setChunking(info.createChunk(false, 8)); // Might be slow, need to check this
+			xLzValue.setChunking(ChunkPlanner.createChunk(info, Double.class));
+			yLzValue.setChunking(ChunkPlanner.createChunk(info, Double.class));
 			xLzValue.setWritingAsync(true);
 			yLzValue.setWritingAsync(true);
 		}
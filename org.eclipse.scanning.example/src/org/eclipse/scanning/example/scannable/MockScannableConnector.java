@@ -35,6 +35,7 @@ import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.Location;
 import org.eclipse.scanning.example.Services;
+import org.eclipse.scanning.example.simulation.SimulatedMotor;
 
 public class MockScannableConnector implements IScannableDeviceService, IDisconnectable {
 
@@ -131,6 +132,18 @@ public class MockScannableConnector implements IScannableDeviceService, IDisconn
 		register(new MockNeXusScannable("stage_z", 2d,  3, "mm"));
 		register(new MockNeXusScannable("xNex", 0d,  3, "mm"));
 		register(new MockNeXusScannable("yNex", 0d,  3, "mm"));
+
+		// Motors which take the time of a trapezoidal move, for soak testing.
+		SimulatedMotor sim = new SimulatedMotor("sim_x", 0d,  3, "mm");
+		sim.setVelocity(20);      // mm/s
+		sim.setAcceleration(200); // mm/s/s
+		register(sim);
+		sim = new SimulatedMotor("sim_y", 0d,  3, "mm");
+		sim.setVelocity(5);
+		sim.setAcceleration(50);
+		sim.setSettleTime(0.0005);
+		register(sim);
+
 		register(new MockScannable("benchmark1",  0.0,  -1, false));
 		register(new MockScannable("myScannable",  0.0,  -1, false));
 		
@@ -19,6 +19,7 @@ import org.eclipse.scanning.api.IScanAttributeContainer;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
 
 public class MockStringNexusScannable extends MockStringScannable implements INexusDevice<NXpositioner> {
 
@@ -42,7 +43,7 @@ public class MockStringNexusScannable extends MockStringScannable implements INe
 			}
 		} else {
 			lzValue = positioner.initializeLazyDataset(NXpositioner.NX_VALUE, info.getRank(), String.class);
-			lzValue.setChunking(info.createChunk(false, 8));
+			lzValue.setChunking(ChunkPlanner.createChunk(info, String.class));
 			lzValue.setWritingAsync(true);
 		}
 		
@@ -0,0 +1,32 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.example.simulation;
+
+/**
+ * A simulated device which counts the data it writes, so that
+ * the {@link SoakTestHarness} can report the throughput of a scan.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public interface ISimulatedDevice {
+
+	/**
+	 * @return the bytes of data written since the last {@link #resetCounts()}
+	 */
+	long getBytesWritten();
+
+	/**
+	 * Sets the counts back to zero.
+	 */
+	void resetCounts();
+}
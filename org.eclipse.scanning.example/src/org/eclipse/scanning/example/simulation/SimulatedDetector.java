@@ -0,0 +1,194 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.example.simulation;
+
+import org.eclipse.dawnsci.nexus.INexusDevice;
+import org.eclipse.dawnsci.nexus.NXdetector;
+import org.eclipse.dawnsci.nexus.NexusException;
+import org.eclipse.dawnsci.nexus.NexusNodeFactory;
+import org.eclipse.dawnsci.nexus.NexusScanInfo;
+import org.eclipse.dawnsci.nexus.builder.NexusObjectProvider;
+import org.eclipse.dawnsci.nexus.builder.NexusObjectWrapper;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.ILazyWriteableDataset;
+import org.eclipse.january.dataset.IntegerDataset;
+import org.eclipse.january.dataset.SliceND;
+import org.eclipse.scanning.api.annotation.scan.ScanFinally;
+import org.eclipse.scanning.api.device.AbstractRunnableDevice;
+import org.eclipse.scanning.api.device.IWritableDetector;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.rank.IScanRankService;
+import org.eclipse.scanning.api.scan.rank.IScanSlice;
+import org.eclipse.scanning.example.Services;
+import org.eclipse.scanning.example.detector.Attributes;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
+
+/**
+ * A detector which can run at the frame rates and sizes of real area detectors.
+ * The frames are computed once when the detector is configured, directly into
+ * the int[] of the dataset, and written in turn so that a scan measures the
+ * cost of the scanning and writing rather than the cost of calculating data,
+ * which MandelbrotDetector does for each point.
+ * <p>
+ * Each frame takes exposureTime+readoutTime measured from the start of run(...)
+ * using {@link SimulationClock}, so the time spent writing the previous frame
+ * is not added to it.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SimulatedDetector extends AbstractRunnableDevice<SimulatedDetectorModel> implements IWritableDetector<SimulatedDetectorModel>, INexusDevice<NXdetector>, ISimulatedDevice {
+
+	public static final String FIELD_NAME_TOTAL = "total";
+
+	private IntegerDataset[]      frames;
+	private long[]                totals;
+	private int                   frameIndex;
+
+	private ILazyWriteableDataset imageData;
+	private ILazyWriteableDataset totalData;
+
+	private volatile long frameCount;
+	private volatile long bytesWritten;
+
+	public SimulatedDetector() throws ScanningException {
+		super(Services.getRunnableDeviceService()); // So that spring will work.
+		this.model = new SimulatedDetectorModel();
+		setDeviceState(DeviceState.IDLE);
+	}
+
+	@ScanFinally
+	public void clean() {
+		imageData = null;
+		totalData = null;
+	}
+
+	@Override
+	public NexusObjectProvider<NXdetector> getNexusProvider(NexusScanInfo info) throws NexusException {
+		NXdetector detector = createNexusObject(info);
+		return new NexusObjectWrapper<NXdetector>(getName(), detector, NXdetector.NX_DATA);
+	}
+
+	private NXdetector createNexusObject(NexusScanInfo info) throws NexusException {
+		final NXdetector detector = NexusNodeFactory.createNXdetector();
+		detector.setCount_timeScalar(model.getExposureTime());
+
+		int scanRank = info.getRank();
+		if (model.isWriteFrames()) {
+			// We add 2 to the scan rank to include the image
+			imageData = detector.initializeLazyDataset(NXdetector.NX_DATA, scanRank + 2, Integer.class);
+			imageData.setChunking(ChunkPlanner.createChunk(info, Integer.class, model.getRows(), model.getColumns()));
+			totalData = detector.initializeLazyDataset(FIELD_NAME_TOTAL, scanRank, Long.class);
+		} else {
+			totalData = detector.initializeLazyDataset(NXdetector.NX_DATA, scanRank, Long.class);
+		}
+
+		detector.setField("readout_time", model.getReadoutTime());
+		detector.setAttribute("readout_time", "units", "seconds");
+		Attributes.registerAttributes(detector, this);
+
+		return detector;
+	}
+
+	@Override
+	public void configure(SimulatedDetectorModel model) throws ScanningException {
+		setDeviceState(DeviceState.CONFIGURING);
+		setName(model.getName());
+		if (model.getRows()<1 || model.getColumns()<1) throw new ScanningException("The frame size of "+model.getName()+" must be at least 1x1");
+		if (model.getFrameCount()<1) throw new ScanningException("The detector "+model.getName()+" must precompute at least one frame");
+
+		// Only recompute the frames if their size has changed
+		if (frames==null || frames.length!=model.getFrameCount() || this.model==null
+			|| this.model.getRows()!=model.getRows() || this.model.getColumns()!=model.getColumns()) {
+			computeFrames(model.getFrameCount(), model.getRows(), model.getColumns());
+		}
+		frameIndex = 0;
+		super.configure(model);
+	}
+
+	private void computeFrames(int count, int rows, int columns) {
+		frames = new IntegerDataset[count];
+		totals = new long[count];
+		for (int f = 0; f < count; f++) {
+			IntegerDataset frame = DatasetFactory.zeros(IntegerDataset.class, rows, columns);
+			// A gaussian spot which moves with the frame, filled straight into the backing array.
+			final int[]  data = frame.getData();
+			final double cy = rows*(f+1d)/(count+1d), cx = columns*(f+1d)/(count+1d);
+			final double width = 2d*Math.pow(Math.max(rows, columns)/8d, 2);
+			long total = 0;
+			for (int y = 0; y < rows; y++) {
+				final double dy2 = (y-cy)*(y-cy);
+				final int    row = y*columns;
+				for (int x = 0; x < columns; x++) {
+					int value = (int)(1000d*Math.exp(-((x-cx)*(x-cx)+dy2)/width)) + ((x^y)&0x7);
+					data[row+x] = value;
+					total += value;
+				}
+			}
+			frames[f] = frame;
+			totals[f] = total;
+		}
+	}
+
+	@Override
+	public void run(IPosition pos) throws ScanningException, InterruptedException {
+		setDeviceState(DeviceState.RUNNING);
+		final long deadline = System.nanoTime() + SimulationClock.toNanos(model.getExposureTime()+model.getReadoutTime());
+		SimulationClock.waitUntil(deadline);
+		frameCount++;
+	}
+
+	@Override
+	public boolean write(IPosition pos) throws ScanningException {
+		final int index = frameIndex;
+		frameIndex = (frameIndex+1) % frames.length;
+		try {
+			if (imageData!=null) {
+				IScanSlice rslice = IScanRankService.getScanRankService().createScanSlice(pos, model.getRows(), model.getColumns());
+				SliceND sliceND = new SliceND(imageData.getShape(), imageData.getMaxShape(), rslice.getStart(), rslice.getStop(), rslice.getStep());
+				imageData.setSlice(null, frames[index], sliceND);
+				bytesWritten += 4L*model.getRows()*model.getColumns();
+			}
+			if (totalData!=null) {
+				IScanSlice rslice = IScanRankService.getScanRankService().createScanSlice(pos);
+				SliceND sliceND = new SliceND(totalData.getShape(), totalData.getMaxShape(), rslice.getStart(), rslice.getStop(), rslice.getStep());
+				totalData.setSlice(null, DatasetFactory.createFromObject(totals[index]), sliceND);
+				bytesWritten += 8L;
+			}
+		} catch (Exception e) {
+			setDeviceState(DeviceState.FAULT);
+			throw new ScanningException("Failed to write the data to the NeXus file", e);
+		}
+		setDeviceState(DeviceState.READY);
+		return true;
+	}
+
+	/**
+	 * @return the frames acquired since the last {@link #resetCounts()}
+	 */
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	@Override
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	@Override
+	public void resetCounts() {
+		frameCount   = 0;
+		bytesWritten = 0;
+	}
+}
@@ -0,0 +1,119 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.example.simulation;
+
+import org.eclipse.scanning.api.annotation.ui.FieldDescriptor;
+import org.eclipse.scanning.api.device.models.AbstractDetectorModel;
+
+/**
+ * Model for {@link SimulatedDetector}. The frame rate is 1/(exposureTime+readoutTime),
+ * for instance 4 megapixels at 500Hz is rows=2048, columns=2048, exposureTime=0.002.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SimulatedDetectorModel extends AbstractDetectorModel {
+
+	@FieldDescriptor(label="Columns", minimum=1, hint="The width of a frame in pixels.")
+	private int columns = 256;
+
+	@FieldDescriptor(label="Rows", minimum=1, hint="The height of a frame in pixels.")
+	private int rows = 256;
+
+	@FieldDescriptor(label="Precomputed Frames", minimum=1, hint="The number of different frames which are computed when the detector is configured and written in turn.")
+	private int frameCount = 8;
+
+	@FieldDescriptor(label="Readout Time", unit="s", minimum=0, hint="The dead time after each exposure.")
+	private double readoutTime = 0;
+
+	@FieldDescriptor(label="Write Frames", hint="Write the frames to NeXus, if false only the frame sum is written.")
+	private boolean writeFrames = true;
+
+	public SimulatedDetectorModel() {
+		setName("simDetector");
+		setExposureTime(0.002);
+	}
+
+	public SimulatedDetectorModel(String name, int rows, int columns, double exposureTime) {
+		this.rows    = rows;
+		this.columns = columns;
+		setName(name);
+		setExposureTime(exposureTime);
+	}
+
+	public int getColumns() {
+		return columns;
+	}
+	public void setColumns(int columns) {
+		this.columns = columns;
+	}
+	public int getRows() {
+		return rows;
+	}
+	public void setRows(int rows) {
+		this.rows = rows;
+	}
+	public int getFrameCount() {
+		return frameCount;
+	}
+	public void setFrameCount(int frameCount) {
+		this.frameCount = frameCount;
+	}
+	public double getReadoutTime() {
+		return readoutTime;
+	}
+	public void setReadoutTime(double readoutTime) {
+		this.readoutTime = readoutTime;
+	}
+	public boolean isWriteFrames() {
+		return writeFrames;
+	}
+	public void setWriteFrames(boolean writeFrames) {
+		this.writeFrames = writeFrames;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + columns;
+		result = prime * result + frameCount;
+		long temp;
+		temp = Double.doubleToLongBits(readoutTime);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + rows;
+		result = prime * result + (writeFrames ? 1231 : 1237);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SimulatedDetectorModel other = (SimulatedDetectorModel) obj;
+		if (columns != other.columns)
+			return false;
+		if (frameCount != other.frameCount)
+			return false;
+		if (Double.doubleToLongBits(readoutTime) != Double.doubleToLongBits(other.readoutTime))
+			return false;
+		if (rows != other.rows)
+			return false;
+		if (writeFrames != other.writeFrames)
+			return false;
+		return true;
+	}
+}
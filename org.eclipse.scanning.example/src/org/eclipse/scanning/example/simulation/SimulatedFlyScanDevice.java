@@ -0,0 +1,188 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.example.simulation;
+
+import org.eclipse.dawnsci.nexus.INexusDevice;
+import org.eclipse.dawnsci.nexus.NXdetector;
+import org.eclipse.dawnsci.nexus.NexusException;
+import org.eclipse.dawnsci.nexus.NexusNodeFactory;
+import org.eclipse.dawnsci.nexus.NexusScanInfo;
+import org.eclipse.dawnsci.nexus.builder.NexusObjectProvider;
+import org.eclipse.dawnsci.nexus.builder.NexusObjectWrapper;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.ILazyWriteableDataset;
+import org.eclipse.january.dataset.SliceND;
+import org.eclipse.scanning.api.annotation.scan.ScanFinally;
+import org.eclipse.scanning.api.device.AbstractRunnableDevice;
+import org.eclipse.scanning.api.device.IWritableDetector;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.rank.IScanRankService;
+import org.eclipse.scanning.api.scan.rank.IScanSlice;
+import org.eclipse.scanning.example.Services;
+import org.eclipse.scanning.example.detector.Attributes;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
+
+/**
+ * Mimics a Malcolm device flying an axis for each point of the outer scan, like
+ * {@link org.eclipse.scanning.example.detector.ConstantVelocityDevice} but timed.
+ * Each frame of the line has a deadline measured from the start of the line, so
+ * frames are not delayed by the time taken to calculate the previous one and a
+ * line of N frames takes N/frameRate however fast the frame rate.
+ * <p>
+ * The positions of the fast axis and the value of each frame are written as lines.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SimulatedFlyScanDevice extends AbstractRunnableDevice<SimulatedFlyScanModel> implements IWritableDetector<SimulatedFlyScanModel>, INexusDevice<NXdetector>, ISimulatedDevice {
+
+	public static final String FIELD_NAME_POSITIONS = "positions";
+
+	private ILazyWriteableDataset valueData;
+	private ILazyWriteableDataset positionData;
+	private DoubleDataset         values;
+	private DoubleDataset         positions;
+
+	private volatile long frameCount;
+	private volatile long lineCount;
+	private volatile long lateFrames;
+	private volatile long bytesWritten;
+
+	public SimulatedFlyScanDevice() throws ScanningException {
+		super(Services.getRunnableDeviceService()); // So that spring will work.
+		this.model = new SimulatedFlyScanModel();
+		setDeviceState(DeviceState.IDLE);
+	}
+
+	@ScanFinally
+	public void clean() {
+		valueData    = null;
+		positionData = null;
+	}
+
+	@Override
+	public NexusObjectProvider<NXdetector> getNexusProvider(NexusScanInfo info) throws NexusException {
+		NXdetector detector = createNexusObject(info);
+		return new NexusObjectWrapper<NXdetector>(getName(), detector, NXdetector.NX_DATA);
+	}
+
+	private NXdetector createNexusObject(NexusScanInfo info) throws NexusException {
+		final NXdetector detector = NexusNodeFactory.createNXdetector();
+
+		int rank = info.getRank()+1; // scan rank plus the line
+		valueData    = detector.initializeLazyDataset(NXdetector.NX_DATA, rank, Double.class);
+		positionData = detector.initializeLazyDataset(FIELD_NAME_POSITIONS, rank, Double.class);
+
+		int[] chunk = ChunkPlanner.createChunk(info, Double.class, model.getFramesPerLine());
+		valueData.setChunking(chunk);
+		positionData.setChunking(chunk);
+
+		detector.setField("frame_rate", model.getFrameRate());
+		detector.setAttribute("frame_rate", "units", "Hz");
+		detector.setField("fast_axis", model.getAxisName());
+		Attributes.registerAttributes(detector, this);
+
+		return detector;
+	}
+
+	@Override
+	public void configure(SimulatedFlyScanModel model) throws ScanningException {
+		setDeviceState(DeviceState.CONFIGURING);
+		setName(model.getName());
+		if (model.getFramesPerLine()<1) throw new ScanningException("The fly scan "+model.getName()+" must have at least one frame per line");
+		if (model.getFrameRate()<=0)    throw new ScanningException("The frame rate of "+model.getName()+" must be positive");
+
+		final int frames = model.getFramesPerLine();
+		values    = DatasetFactory.zeros(DoubleDataset.class, frames);
+		positions = DatasetFactory.zeros(DoubleDataset.class, frames);
+
+		// The positions are the same for every line, the controller is given them once.
+		final double[] pdata = positions.getData();
+		final double   step  = frames>1 ? (model.getStop()-model.getStart())/(frames-1) : 0;
+		for (int i = 0; i < frames; i++) pdata[i] = model.getStart()+i*step;
+
+		super.configure(model);
+	}
+
+	@Override
+	public void run(IPosition pos) throws ScanningException, InterruptedException {
+		setDeviceState(DeviceState.RUNNING);
+
+		final int      frames = model.getFramesPerLine();
+		final long     period = SimulationClock.toNanos(1d/model.getFrameRate());
+		final double[] vdata  = values.getData();
+		final double[] pdata  = positions.getData();
+		final double   phase  = pos!=null ? pos.getStepIndex() : 0;
+
+		final long start = System.nanoTime();
+		for (int i = 0; i < frames; i++) {
+			vdata[i] = Math.sin(pdata[i]+phase)*Math.cos(0.1*phase);
+			final long deadline = start + (i+1)*period;
+			if (System.nanoTime()>deadline) lateFrames++;
+			SimulationClock.waitUntil(deadline);
+		}
+		SimulationClock.waitFor(model.getTurnaroundTime());
+		frameCount+= frames;
+		lineCount++;
+	}
+
+	@Override
+	public boolean write(IPosition pos) throws ScanningException {
+		try {
+			final IScanSlice rslice = IScanRankService.getScanRankService().createScanSlice(pos, model.getFramesPerLine());
+			SliceND sliceND = new SliceND(valueData.getShape(), valueData.getMaxShape(), rslice.getStart(), rslice.getStop(), rslice.getStep());
+			valueData.setSlice(null, values, sliceND);
+			sliceND = new SliceND(positionData.getShape(), positionData.getMaxShape(), rslice.getStart(), rslice.getStop(), rslice.getStep());
+			positionData.setSlice(null, positions, sliceND);
+		} catch (Exception e) {
+			setDeviceState(DeviceState.FAULT);
+			throw new ScanningException("Failed to write the line to the NeXus file", e);
+		}
+		bytesWritten += 16L*model.getFramesPerLine();
+		setDeviceState(DeviceState.READY);
+		return true;
+	}
+
+	/**
+	 * @return the frames taken since the last {@link #resetCounts()}
+	 */
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	public long getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * @return the number of frames whose deadline had passed before they were calculated.
+	 */
+	public long getLateFrames() {
+		return lateFrames;
+	}
+
+	@Override
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	@Override
+	public void resetCounts() {
+		frameCount   = 0;
+		lineCount    = 0;
+		lateFrames   = 0;
+		bytesWritten = 0;
+	}
+}
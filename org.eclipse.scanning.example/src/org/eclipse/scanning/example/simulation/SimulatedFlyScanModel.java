@@ -0,0 +1,151 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.example.simulation;
+
+import org.eclipse.scanning.api.annotation.ui.FieldDescriptor;
+import org.eclipse.scanning.api.device.models.AbstractDetectorModel;
+
+/**
+ * Model for {@link SimulatedFlyScanDevice}. For each point of the outer scan the
+ * device flies the axis from start to stop taking framesPerLine frames at frameRate.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SimulatedFlyScanModel extends AbstractDetectorModel {
+
+	@FieldDescriptor(label="Fast Axis", hint="The name of the axis which is flown.")
+	private String axisName = "flyX";
+
+	@FieldDescriptor(label="Start", hint="The position of the fast axis at the first frame.")
+	private double start = 0;
+
+	@FieldDescriptor(label="Stop", hint="The position of the fast axis at the last frame.")
+	private double stop  = 1;
+
+	@FieldDescriptor(label="Frames per Line", minimum=1)
+	private int framesPerLine = 1000;
+
+	@FieldDescriptor(label="Frame Rate", unit="Hz", minimum=1)
+	private double frameRate = 10000;
+
+	@FieldDescriptor(label="Turnaround Time", unit="s", minimum=0, hint="The time between lines taken by the motion controller to turn the axis around.")
+	private double turnaroundTime = 0;
+
+	public SimulatedFlyScanModel() {
+		setName("simFlyScan");
+	}
+
+	public SimulatedFlyScanModel(String name, String axisName, double start, double stop, int framesPerLine, double frameRate) {
+		setName(name);
+		this.axisName      = axisName;
+		this.start         = start;
+		this.stop          = stop;
+		this.framesPerLine = framesPerLine;
+		this.frameRate     = frameRate;
+	}
+
+	/**
+	 * The exposure of a point of the outer scan is the time of the line.
+	 */
+	@Override
+	public double getExposureTime() {
+		return framesPerLine/frameRate + turnaroundTime;
+	}
+
+	@Override
+	public void setExposureTime(double exposureTime) {
+		// The exposure is defined by the frames and frame rate
+	}
+
+	public String getAxisName() {
+		return axisName;
+	}
+	public void setAxisName(String axisName) {
+		this.axisName = axisName;
+	}
+	public double getStart() {
+		return start;
+	}
+	public void setStart(double start) {
+		this.start = start;
+	}
+	public double getStop() {
+		return stop;
+	}
+	public void setStop(double stop) {
+		this.stop = stop;
+	}
+	public int getFramesPerLine() {
+		return framesPerLine;
+	}
+	public void setFramesPerLine(int framesPerLine) {
+		this.framesPerLine = framesPerLine;
+	}
+	public double getFrameRate() {
+		return frameRate;
+	}
+	public void setFrameRate(double frameRate) {
+		this.frameRate = frameRate;
+	}
+	public double getTurnaroundTime() {
+		return turnaroundTime;
+	}
+	public void setTurnaroundTime(double turnaroundTime) {
+		this.turnaroundTime = turnaroundTime;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((axisName == null) ? 0 : axisName.hashCode());
+		long temp;
+		temp = Double.doubleToLongBits(frameRate);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + framesPerLine;
+		temp = Double.doubleToLongBits(start);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(stop);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(turnaroundTime);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SimulatedFlyScanModel other = (SimulatedFlyScanModel) obj;
+		if (axisName == null) {
+			if (other.axisName != null)
+				return false;
+		} else if (!axisName.equals(other.axisName))
+			return false;
+		if (Double.doubleToLongBits(frameRate) != Double.doubleToLongBits(other.frameRate))
+			return false;
+		if (framesPerLine != other.framesPerLine)
+			return false;
+		if (Double.doubleToLongBits(start) != Double.doubleToLongBits(other.start))
+			return false;
+		if (Double.doubleToLongBits(stop) != Double.doubleToLongBits(other.stop))
+			return false;
+		if (Double.doubleToLongBits(turnaroundTime) != Double.doubleToLongBits(other.turnaroundTime))
+			return false;
+		return true;
+	}
+}
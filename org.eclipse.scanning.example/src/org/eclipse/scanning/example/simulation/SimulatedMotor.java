@@ -0,0 +1,125 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.example.simulation;
+
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.example.scannable.MockNeXusScannable;
+
+/**
+ * A motor whose moves take the time of a trapezoidal velocity profile:
+ * it accelerates to its velocity, travels and decelerates, then settles.
+ * Short moves which cannot reach the velocity follow a triangular profile.
+ * The wait uses {@link SimulationClock} so that moves of microseconds are
+ * timed properly, unlike MockScannable which sleeps for at least 1ms.
+ * <p>
+ * The position is written to NeXus as for {@link MockNeXusScannable}.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SimulatedMotor extends MockNeXusScannable {
+
+	private double velocity     = 10;  // units/s, zero or less for instantaneous moves
+	private double acceleration = 100; // units/s/s
+	private double settleTime   = 0;   // s
+
+	private volatile long moveCount;
+	private volatile long moveNanos;
+
+	public SimulatedMotor() {
+		super();
+		setRequireSleep(false);
+	}
+
+	public SimulatedMotor(String name, double position, int level, String unit) {
+		super(name, position, level, unit);
+		setRequireSleep(false);
+	}
+
+	@Override
+	public Number setPosition(Number value, IPosition position) throws Exception {
+		if (value!=null) {
+			Number current = getPosition();
+			double time = getMoveTime(current!=null ? current.doubleValue() : 0d, value.doubleValue());
+			long start = System.nanoTime();
+			SimulationClock.waitFor(time);
+			moveNanos+= System.nanoTime()-start;
+			moveCount++;
+		}
+		return super.setPosition(value, position);
+	}
+
+	/**
+	 * The time to move between two positions, including the settle time.
+	 * @param from
+	 * @param to
+	 * @return time in s
+	 */
+	public double getMoveTime(double from, double to) {
+		double distance = Math.abs(to-from);
+		if (distance==0 || velocity<=0) return 0;
+		if (acceleration<=0) return distance/velocity + settleTime;
+
+		// Distance used up accelerating to the velocity and decelerating again
+		double rampDistance = velocity*velocity/acceleration;
+		double time = distance<rampDistance
+				    ? 2*Math.sqrt(distance/acceleration)
+				    : distance/velocity + velocity/acceleration;
+		return time + settleTime;
+	}
+
+	public long getMoveCount() {
+		return moveCount;
+	}
+
+	/**
+	 * @return the total time in s spent moving.
+	 */
+	public double getMoveTime() {
+		return moveNanos/1e9;
+	}
+
+	public void resetCounts() {
+		moveCount = 0;
+		moveNanos = 0;
+	}
+
+	public double getVelocity() {
+		return velocity;
+	}
+
+	public void setVelocity(double velocity) {
+		this.velocity = velocity;
+	}
+
+	public double getAcceleration() {
+		return acceleration;
+	}
+
+	public void setAcceleration(double acceleration) {
+		this.acceleration = acceleration;
+	}
+
+	public double getSettleTime() {
+		return settleTime;
+	}
+
+	public void setSettleTime(double settleTime) {
+		this.settleTime = settleTime;
+	}
+
+	@Override
+	public String toString() {
+		return "SimulatedMotor [name=" + getName() + ", position=" + position + ", velocity=" + velocity
+				+ ", acceleration=" + acceleration + ", settleTime=" + settleTime + "]";
+	}
+}
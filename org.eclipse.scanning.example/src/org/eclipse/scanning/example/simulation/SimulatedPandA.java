@@ -0,0 +1,170 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.example.simulation;
+
+import java.util.List;
+
+import org.eclipse.dawnsci.nexus.INexusDevice;
+import org.eclipse.dawnsci.nexus.NXdetector;
+import org.eclipse.dawnsci.nexus.NexusException;
+import org.eclipse.dawnsci.nexus.NexusNodeFactory;
+import org.eclipse.dawnsci.nexus.NexusScanInfo;
+import org.eclipse.dawnsci.nexus.builder.NexusObjectProvider;
+import org.eclipse.dawnsci.nexus.builder.NexusObjectWrapper;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.ILazyWriteableDataset;
+import org.eclipse.january.dataset.SliceND;
+import org.eclipse.scanning.api.annotation.scan.ScanFinally;
+import org.eclipse.scanning.api.device.AbstractRunnableDevice;
+import org.eclipse.scanning.api.device.IWritableDetector;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.rank.IScanRankService;
+import org.eclipse.scanning.api.scan.rank.IScanSlice;
+import org.eclipse.scanning.example.Services;
+import org.eclipse.scanning.example.detector.Attributes;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
+
+/**
+ * Mimics a PandA box streaming encoder positions. For each point it writes
+ * samples x channels positions, the motion from the previous point to this one
+ * sampled at the sample rate of the model. The samples and the positions are
+ * filled into buffers sized in configure and reused for every point so that a
+ * 100kHz stream does not allocate for each point.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SimulatedPandA extends AbstractRunnableDevice<SimulatedPandAModel> implements IWritableDetector<SimulatedPandAModel>, INexusDevice<NXdetector>, ISimulatedDevice {
+
+	private ILazyWriteableDataset context;
+	private DoubleDataset         samples;
+	private double[]              previous, current;
+	private boolean               first;
+
+	private volatile long sampleCount;
+	private volatile long bytesWritten;
+
+	public SimulatedPandA() throws ScanningException {
+		super(Services.getRunnableDeviceService()); // So that spring will work.
+		this.model = new SimulatedPandAModel();
+		setDeviceState(DeviceState.IDLE);
+	}
+
+	@ScanFinally
+	public void clean() {
+		context  = null;
+		first    = true;
+	}
+
+	@Override
+	public NexusObjectProvider<NXdetector> getNexusProvider(NexusScanInfo info) throws NexusException {
+		NXdetector detector = createNexusObject(info);
+		return new NexusObjectWrapper<NXdetector>(getName(), detector, NXdetector.NX_DATA);
+	}
+
+	private NXdetector createNexusObject(NexusScanInfo info) throws NexusException {
+		final NXdetector detector = NexusNodeFactory.createNXdetector();
+
+		// We add 2 to the scan rank for the samples and channels
+		context = detector.initializeLazyDataset(NXdetector.NX_DATA, info.getRank()+2, Double.class);
+		context.setChunking(ChunkPlanner.createChunk(info, Double.class, model.getSamplesPerPoint(), model.getAxisNames().size()));
+
+		detector.setField("sample_rate", model.getSampleRate());
+		detector.setAttribute("sample_rate", "units", "Hz");
+		detector.setField("channel_names", String.join(",", model.getAxisNames()));
+		Attributes.registerAttributes(detector, this);
+
+		return detector;
+	}
+
+	@Override
+	public void configure(SimulatedPandAModel model) throws ScanningException {
+		setDeviceState(DeviceState.CONFIGURING);
+		setName(model.getName());
+		if (model.getAxisNames()==null || model.getAxisNames().isEmpty()) throw new ScanningException("The PandA "+model.getName()+" must sample at least one axis");
+		samples  = DatasetFactory.zeros(DoubleDataset.class, model.getSamplesPerPoint(), model.getAxisNames().size());
+		previous = new double[model.getAxisNames().size()];
+		current  = new double[model.getAxisNames().size()];
+		first    = true;
+		super.configure(model);
+	}
+
+	@Override
+	public void run(IPosition pos) throws ScanningException, InterruptedException {
+		setDeviceState(DeviceState.RUNNING);
+		SimulationClock.waitUntil(System.nanoTime() + SimulationClock.toNanos(model.getExposureTime()));
+	}
+
+	@Override
+	public boolean write(IPosition pos) throws ScanningException {
+
+		final List<String> names    = model.getAxisNames();
+		final int          channels = names.size();
+		final int          count    = samples.getShapeRef()[0];
+		final double[]     data     = samples.getData();
+
+		for (int c = 0; c < channels; c++) {
+			Object value = pos.get(names.get(c));
+			current[c] = value instanceof Number ? ((Number)value).doubleValue() : 0d;
+		}
+		if (first) {
+			System.arraycopy(current, 0, previous, 0, channels);
+			first = false;
+		}
+
+		// Linear motion from the previous position, sample-major like the hardware.
+		for (int s = 0; s < count; s++) {
+			final double fraction = (s+1d)/count;
+			final int    row      = s*channels;
+			for (int c = 0; c < channels; c++) {
+				data[row+c] = previous[c] + fraction*(current[c]-previous[c]);
+			}
+		}
+		final double[] swap = previous;
+		previous = current;
+		current  = swap;
+
+		try {
+			IScanSlice rslice = IScanRankService.getScanRankService().createScanSlice(pos, count, channels);
+			SliceND sliceND = new SliceND(context.getShape(), context.getMaxShape(), rslice.getStart(), rslice.getStop(), rslice.getStep());
+			context.setSlice(null, samples, sliceND);
+		} catch (Exception e) {
+			setDeviceState(DeviceState.FAULT);
+			throw new ScanningException("Failed to write the positions to the NeXus file", e);
+		}
+		sampleCount  += count;
+		bytesWritten += 8L*count*channels;
+		setDeviceState(DeviceState.READY);
+		return true;
+	}
+
+	/**
+	 * @return the samples of each channel written since the last {@link #resetCounts()}
+	 */
+	public long getSampleCount() {
+		return sampleCount;
+	}
+
+	@Override
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	@Override
+	public void resetCounts() {
+		sampleCount  = 0;
+		bytesWritten = 0;
+	}
+}
@@ -0,0 +1,98 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.example.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.scanning.api.annotation.ui.FieldDescriptor;
+import org.eclipse.scanning.api.device.models.AbstractDetectorModel;
+
+/**
+ * Model for {@link SimulatedPandA}, a box which samples the encoders of the
+ * axes at sampleRate during each exposure.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SimulatedPandAModel extends AbstractDetectorModel {
+
+	@FieldDescriptor(label="Sample Rate", unit="Hz", minimum=1, hint="The rate at which the encoder positions are sampled.")
+	private double sampleRate = 10000;
+
+	@FieldDescriptor(label="Axes", hint="The names of the axes whose positions are sampled, one channel for each.")
+	private List<String> axisNames;
+
+	public SimulatedPandAModel() {
+		setName("simPandA");
+		setExposureTime(0.001);
+		axisNames = new ArrayList<>(Arrays.asList("x", "y"));
+	}
+
+	public SimulatedPandAModel(String name, double sampleRate, String... axisNames) {
+		setName(name);
+		setExposureTime(0.001);
+		this.sampleRate = sampleRate;
+		this.axisNames  = new ArrayList<>(Arrays.asList(axisNames));
+	}
+
+	/**
+	 * @return the number of samples of each channel in an exposure, at least one.
+	 */
+	public int getSamplesPerPoint() {
+		return Math.max(1, (int)Math.round(getExposureTime()*sampleRate));
+	}
+
+	public double getSampleRate() {
+		return sampleRate;
+	}
+	public void setSampleRate(double sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+	public List<String> getAxisNames() {
+		return axisNames;
+	}
+	public void setAxisNames(List<String> axisNames) {
+		this.axisNames = axisNames;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((axisNames == null) ? 0 : axisNames.hashCode());
+		long temp;
+		temp = Double.doubleToLongBits(sampleRate);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SimulatedPandAModel other = (SimulatedPandAModel) obj;
+		if (axisNames == null) {
+			if (other.axisNames != null)
+				return false;
+		} else if (!axisNames.equals(other.axisNames))
+			return false;
+		if (Double.doubleToLongBits(sampleRate) != Double.doubleToLongBits(other.sampleRate))
+			return false;
+		return true;
+	}
+}
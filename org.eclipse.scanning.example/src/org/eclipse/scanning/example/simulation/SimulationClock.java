@@ -0,0 +1,66 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.example.simulation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits for simulated hardware with microsecond resolution.
+ * Thread.sleep(...) has millisecond granularity and usually oversleeps
+ * by one or two ms, so a device sleeping for each 100us frame of a 10kHz
+ * fly scan would run at a fraction of the rate. Instead the thread is parked
+ * until shortly before the deadline and then spins for the remainder.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class SimulationClock {
+
+	/**
+	 * The time before the deadline at which we stop parking and spin, 
+	 * parkNanos is not accurate to less than ~50us on most systems.
+	 */
+	private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private SimulationClock() {
+
+	}
+
+	/**
+	 * Waits until System.nanoTime() reaches the deadline.
+	 * @param deadline in ns from System.nanoTime()
+	 * @throws InterruptedException if the thread is interrupted while waiting.
+	 */
+	public static void waitUntil(long deadline) throws InterruptedException {
+		long remaining = deadline - System.nanoTime();
+		while (remaining > 0) {
+			if (Thread.interrupted()) throw new InterruptedException("Simulated hardware interrupted while waiting");
+			if (remaining > SPIN_NANOS) LockSupport.parkNanos(remaining - SPIN_NANOS); // Otherwise spin
+			remaining = deadline - System.nanoTime();
+		}
+	}
+
+	/**
+	 * Waits for a time from now.
+	 * @param seconds
+	 * @throws InterruptedException
+	 */
+	public static void waitFor(double seconds) throws InterruptedException {
+		if (seconds <= 0) return;
+		waitUntil(System.nanoTime() + toNanos(seconds));
+	}
+
+	public static long toNanos(double seconds) {
+		return Math.round(seconds * 1e9);
+	}
+}
@@ -0,0 +1,97 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.example.simulation;
+
+/**
+ * The throughput and dead time of the scans run by a {@link SoakTestHarness}.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SoakReport {
+
+	private int    scans;
+	private long   points;
+	private long   bytes;
+	private long   elapsedNanos;
+	private double exposureTime;
+
+	void add(long points, long bytes, long elapsedNanos) {
+		this.scans++;
+		this.points       += points;
+		this.bytes        += bytes;
+		this.elapsedNanos += elapsedNanos;
+	}
+
+	void setExposureTime(double exposureTime) {
+		this.exposureTime = exposureTime;
+	}
+
+	public int getScans() {
+		return scans;
+	}
+
+	public long getPoints() {
+		return points;
+	}
+
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return the time spent running scans in s, not including their configuration.
+	 */
+	public double getElapsedTime() {
+		return elapsedNanos/1e9;
+	}
+
+	/**
+	 * @return the longest exposure of the detectors in s, the time a point must take.
+	 */
+	public double getExposureTime() {
+		return exposureTime;
+	}
+
+	public double getPointsPerSecond() {
+		return elapsedNanos>0 ? points/getElapsedTime() : 0;
+	}
+
+	public double getBytesPerSecond() {
+		return elapsedNanos>0 ? bytes/getElapsedTime() : 0;
+	}
+
+	/**
+	 * The dead time is the time a point takes over and above the exposure,
+	 * the time spent moving, writing and scanning rather than measuring.
+	 * @return mean dead time of a point in s
+	 */
+	public double getDeadTimePerPoint() {
+		if (points==0) return 0;
+		return Math.max(0, getElapsedTime()/points - exposureTime);
+	}
+
+	/**
+	 * @return the fraction of the time which is dead time, from 0 to 1.
+	 */
+	public double getDeadTimeFraction() {
+		if (points==0) return 0;
+		return getDeadTimePerPoint()/(getElapsedTime()/points);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("SoakReport [scans=%d, points=%d, time=%.3fs, rate=%.1f points/s, throughput=%.2f MB/s, dead time=%.1fus/point (%.1f%%)]",
+				             scans, points, getElapsedTime(), getPointsPerSecond(), getBytesPerSecond()/1e6,
+				             getDeadTimePerPoint()*1e6, getDeadTimeFraction()*100);
+	}
+}
@@ -0,0 +1,154 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.example.simulation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.device.models.IDetectorModel;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a scan request repeatedly against the simulated hardware and reports the
+ * rate, throughput and dead time. This is intended for soak testing the scanning
+ * at the rates of real beamlines without the hardware, for instance:
+ * <pre>
+ * ScanRequest&lt;IROI&gt; req = new ScanRequest&lt;&gt;();
+ * req.setCompoundModel(new CompoundModel&lt;&gt;(new StepModel("sim_x", 0, 10, 0.01)));
+ * req.putDetector("simDetector", new SimulatedDetectorModel("simDetector", 512, 512, 0.001));
+ * SoakReport report = new SoakTestHarness(dservice, gservice).run(req, 100);
+ * </pre>
+ * Each scan is written to a temporary NeXus file which is deleted after the scan
+ * unless {@link #setKeepFiles(boolean)} is set.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SoakTestHarness {
+
+	private static final Logger logger = LoggerFactory.getLogger(SoakTestHarness.class);
+
+	private final IRunnableDeviceService dservice;
+	private final IPointGeneratorService gservice;
+
+	private boolean keepFiles;
+
+	public SoakTestHarness(IRunnableDeviceService dservice, IPointGeneratorService gservice) {
+		this.dservice = dservice;
+		this.gservice = gservice;
+	}
+
+	/**
+	 * Runs the scan a number of times.
+	 * @param req
+	 * @param repeats
+	 * @return report of the scans
+	 * @throws Exception if a scan fails.
+	 */
+	public SoakReport run(ScanRequest<?> req, int repeats) throws Exception {
+		final SoakReport report = new SoakReport();
+		for (int i = 0; i < repeats; i++) runScan(req, report);
+		return report;
+	}
+
+	/**
+	 * Runs the scan repeatedly until the time has passed, the last scan is finished.
+	 * @param req
+	 * @param seconds
+	 * @return report of the scans
+	 * @throws Exception if a scan fails.
+	 */
+	public SoakReport runFor(ScanRequest<?> req, double seconds) throws Exception {
+		final SoakReport report = new SoakReport();
+		final long end = System.nanoTime() + SimulationClock.toNanos(seconds);
+		do {
+			runScan(req, report);
+		} while (System.nanoTime() < end);
+		return report;
+	}
+
+	private void runScan(ScanRequest<?> req, SoakReport report) throws Exception {
+
+		final IPointGenerator<?> gen = gservice.createCompoundGenerator(req.getCompoundModel());
+
+		final ScanModel smodel = new ScanModel();
+		smodel.setPositionIterable(gen);
+		smodel.setDetectors(getDetectors(req.getDetectors()));
+		smodel.setScanMetadata(req.getScanMetadata());
+
+		double exposure = 0;
+		for (IRunnableDevice<?> device : smodel.getDetectors()) {
+			Object model = device.getModel();
+			if (model instanceof IDetectorModel) exposure = Math.max(exposure, ((IDetectorModel)model).getExposureTime());
+			if (device instanceof ISimulatedDevice) ((ISimulatedDevice)device).resetCounts();
+		}
+		report.setExposureTime(exposure);
+
+		final File output = File.createTempFile("soak_test", ".nxs");
+		smodel.setFilePath(output.getAbsolutePath());
+		try {
+			final IRunnableDevice<ScanModel> scanner = dservice.createRunnableDevice(smodel, null);
+
+			final long start = System.nanoTime();
+			scanner.run(null);
+			final long elapsed = System.nanoTime()-start;
+
+			long bytes = 0;
+			for (IRunnableDevice<?> device : smodel.getDetectors()) {
+				if (device instanceof ISimulatedDevice) bytes += ((ISimulatedDevice)device).getBytesWritten();
+			}
+			report.add(gen.size(), bytes, elapsed);
+			logger.debug("Soak scan {} of {} points took {}ms", report.getScans(), gen.size(), elapsed/1000000);
+
+		} finally {
+			if (!keepFiles && !output.delete()) output.deleteOnExit();
+		}
+	}
+
+	private List<IRunnableDevice<?>> getDetectors(Map<String, ?> detectors) throws ScanningException {
+		final List<IRunnableDevice<?>> ret = new ArrayList<>(3);
+		if (detectors==null) return ret;
+		for (String name : detectors.keySet()) {
+			Object dmodel = detectors.get(name);
+			IRunnableDevice<Object> detector = dservice.getRunnableDevice(name);
+			if (detector==null) {
+				detector = dservice.createRunnableDevice(dmodel);
+				detector.setName(name);
+			} else {
+				detector.configure(dmodel);
+			}
+			ret.add(detector);
+		}
+		return ret;
+	}
+
+	public boolean isKeepFiles() {
+		return keepFiles;
+	}
+
+	/**
+	 * @param keepFiles true to keep the NeXus file of each scan for inspection.
+	 */
+	public void setKeepFiles(boolean keepFiles) {
+		this.keepFiles = keepFiles;
+	}
+}
@@ -195,6 +195,13 @@ public abstract class AbstractMalcolmDevice<M extends IMalcolmModel> extends Abs
 	protected MalcolmMessage unsubscribe(MalcolmMessage message, IMalcolmListener<MalcolmMessage> listener) throws MalcolmDeviceException {
     	return connector.unsubscribe(this, message, listener);
     }
+    /**
+     * Removes every listener of the subscription and stops it.
+     */
+    @SuppressWarnings("unchecked")
+	protected MalcolmMessage unsubscribeAll(MalcolmMessage message) throws MalcolmDeviceException {
+    	return connector.unsubscribe(this, message, (IMalcolmListener<MalcolmMessage>[])null);
+    }
     protected void subscribeToConnectionStateChange(IMalcolmListener<Boolean> listener) throws MalcolmDeviceException {
     	connector.subscribeToConnectionStateChange(this, listener);
     }
@@ -0,0 +1,113 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.malcolm.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.scanning.api.malcolm.attributes.IDeviceAttribute;
+import org.eclipse.scanning.api.malcolm.attributes.MalcolmAttribute;
+
+/**
+ * The attributes of a Malcolm block, kept by a subscription to the whole block.
+ * 
+ * The cache is valid once it has had every attribute of the block, either from the
+ * first update of the subscription or from a refresh. After that each update of the
+ * subscription merges the attributes which have changed. A value read from the cache
+ * is therefore the value of the latest update which has been received, it is never
+ * older than the subscription. When the connection is lost the cache is invalidated
+ * and nothing is read from it until it is refreshed on reconnection.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+class MalcolmAttributeCache {
+	
+	private final Map<String, Object> attributes = new LinkedHashMap<>();
+	private boolean valid;
+	private long    version;
+	
+	/**
+	 * Merges an update from the subscription.
+	 * 
+	 * @param update the values of the attributes which have changed
+	 * @param complete true if the update has every attribute of the block
+	 */
+	synchronized void update(Map<String, ?> update, boolean complete) {
+		if (complete) attributes.clear();
+		attributes.putAll(update);
+		if (complete) valid = true;
+		version++;
+	}
+	
+	/**
+	 * The version changes with every update from the subscription. 
+	 * @return version
+	 */
+	synchronized long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Replaces the attributes with those read from the block, unless an update
+	 * from the subscription has arrived since the version was read. In that case
+	 * the block may be older than the update and the cache is left as it is, if
+	 * it is not valid the reads go to the device until the subscription fills it.
+	 * 
+	 * @param block every attribute of the block
+	 * @param readVersion the version before the block was read
+	 * @return true if the cache was refreshed
+	 */
+	synchronized boolean refresh(Map<String, ?> block, long readVersion) {
+		if (version!=readVersion) return false;
+		attributes.clear();
+		attributes.putAll(block);
+		valid = true;
+		return true;
+	}
+	
+	/**
+	 * Called when the connection is lost, the cache is not used until it is refreshed.
+	 */
+	synchronized void invalidate() {
+		attributes.clear();
+		valid = false;
+		version++;
+	}
+	
+	synchronized boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * @param name
+	 * @return the value of the attribute or null if the cache is not valid
+	 * or does not have the attribute.
+	 */
+	synchronized Object get(String name) {
+		return valid ? attributes.get(name) : null;
+	}
+	
+	/**
+	 * @return the attributes or null if the cache is not valid.
+	 */
+	synchronized List<IDeviceAttribute<?>> getAll() {
+		if (!valid) return null;
+		final List<IDeviceAttribute<?>> all = new ArrayList<>(attributes.size());
+		for (Object value : attributes.values()) {
+			if (value instanceof MalcolmAttribute) all.add((IDeviceAttribute<?>)value);
+		}
+		return all;
+	}
+}
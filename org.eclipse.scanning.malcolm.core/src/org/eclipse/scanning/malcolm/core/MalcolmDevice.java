@@ -45,6 +45,7 @@ import org.eclipse.scanning.api.malcolm.message.Type;
 import org.eclipse.scanning.api.points.IMutator;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.CompoundModel;
 import org.eclipse.scanning.sequencer.SubscanModerator;
 import org.slf4j.Logger;
@@ -69,11 +70,16 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	private static String HEALTH_ENDPOINT = "health";
 	private static String BUSY_ENDPOINT = "busy";
 	private static String CURRENT_STEP_ENDPOINT = "completedSteps";
+	private static String BLOCK_ENDPOINT = "";
 	private static String FILE_EXTENSION_H5 = "h5";
 
 	// Frequencies and Timeouts
 	// broadcast every 250 milliseconds
 	private final static long POSITION_COMPLETE_FREQ = Long.getLong("org.eclipse.scanning.malcolm.core.positionCompleteFrequency", 250); 
+	// the most percent of the time which the position listeners may take, the broadcast is less frequent if they are slow
+	private final static int  POSITION_COMPLETE_LOAD = Integer.getInteger("org.eclipse.scanning.malcolm.core.positionCompleteLoad", 10);
+	// read the state and attributes from a subscription to the whole block rather than by a get each time
+	private final static boolean ATTRIBUTE_CACHE = Boolean.parseBoolean(System.getProperty("org.eclipse.scanning.malcolm.core.attributeCache", "true"));
 	
 	// Standard timeout for Malcolm Calls
 	private final long getTimeout() {
@@ -89,6 +95,10 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	// Subscriber messages
     private MalcolmMessage                      stateSubscriber;
     private MalcolmMessage                      scanSubscriber;
+    private MalcolmMessage                      blockSubscriber;
+    
+    // The attributes of the block from blockSubscriber
+    private final MalcolmAttributeCache         attributeCache = new MalcolmAttributeCache();
 
     // Our connection to the outside.
 	private IPublisher<ScanBean>             publisher;
@@ -96,10 +106,13 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	// Data should be in model?
 	private MalcolmEventBean    meb;
 	private Iterator<IPosition> scanPositionIterator;
+	private boolean             scanPositionLookup;
 	
 	// Local data.
 	private long    lastBroadcastTime = System.currentTimeMillis();
 	private int     lastUpdateCount = 0;
+	private long    positionCompleteInterval = POSITION_COMPLETE_FREQ;
+	private double  positionCompleteTime = -1; // ms, smoothed
 	private boolean succesfullyInitialised = false;	
 	private boolean subscribedToStateChange = false;
 	
@@ -158,6 +171,18 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 					}
 				}
 			});		
+			
+			if (ATTRIBUTE_CACHE) {
+				blockSubscriber = createSubscribeMessage(BLOCK_ENDPOINT);
+				subscribe(blockSubscriber, new IMalcolmListener<MalcolmMessage>() {
+					
+					@Override
+					public void eventPerformed(MalcolmEvent<MalcolmMessage> e) {				
+						updateAttributeCache(e.getBean());
+					}
+				});
+				refreshAttributeCache();
+			}
 			succesfullyInitialised = true;
 			setAlive(true);
 		
@@ -195,6 +220,9 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
     public void scanPoint(SubscanModerator moderator) {
     	Iterable<IPosition> scanPositions = moderator.getInnerIterable();
         scanPositionIterator = scanPositions.iterator();
+        // Positions are looked up by the completed steps if possible, rather than iterated to
+        scanPositionLookup   = scanPositionIterator instanceof ScanPointIterator
+        		            && ((ScanPointIterator)scanPositionIterator).getPosition(0)!=null;
     }
 
 	protected void sendScanEvent(MalcolmEvent<MalcolmMessage> e) throws Exception {
@@ -226,28 +254,67 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 		if (newPoint && scanPositionIterator != null) {
 			long currentTime = System.currentTimeMillis();
 			
-			int positionDiff = point - lastUpdateCount;
-			
-			IPosition scanPosition = null;
-			for (int i = 0; i < positionDiff; i++) {
-				if (scanPositionIterator.hasNext()) {
-					scanPosition = scanPositionIterator.next();
+			// The position is only worked out when it is broadcast
+			if (currentTime - lastBroadcastTime >= positionCompleteInterval) {
+				IPosition scanPosition = getScanPosition(point);
+				if (scanPosition != null) {
+					scanPosition.setStepIndex(point);
+					long start = System.nanoTime();
+	            	firePositionComplete(scanPosition);
+	            	updatePositionCompleteInterval((System.nanoTime()-start)/1000000d);
+	            	
+		            lastBroadcastTime = System.currentTimeMillis();
 				}
 			}
-			
-			lastUpdateCount = point;
-			
-			if (scanPosition != null && currentTime - lastBroadcastTime >= POSITION_COMPLETE_FREQ) {
-				scanPosition.setStepIndex(point);
-            	firePositionComplete(scanPosition);
-            	
-	            lastBroadcastTime = System.currentTimeMillis();
-			}
 		}
 		
 		if (publisher!=null) publisher.broadcast(bean);
 	}
 
+	/**
+	 * The position of the last completed step. A scan point generator looks the
+	 * position up from the index, which costs the same however many steps Malcolm
+	 * has done since the last update. Other iterators are moved on to it.
+	 * 
+	 * @param point the number of steps completed
+	 * @return position or null
+	 */
+	private IPosition getScanPosition(int point) {
+		if (point < 1) return null;
+		if (scanPositionLookup) {
+			return ((ScanPointIterator)scanPositionIterator).getPosition(point-1);
+		}
+		IPosition scanPosition = null;
+		for (int i = lastUpdateCount; i < point; i++) {
+			if (scanPositionIterator.hasNext()) {
+				scanPosition = scanPositionIterator.next();
+			}
+		}
+		lastUpdateCount = point;
+		return scanPosition;
+	}
+	
+	/**
+	 * Makes the position complete broadcast less frequent if the listeners
+	 * take longer than POSITION_COMPLETE_LOAD percent of the time, and back
+	 * to POSITION_COMPLETE_FREQ when they are quick again.
+	 * 
+	 * @param time the listeners took in ms
+	 */
+	private void updatePositionCompleteInterval(double time) {
+		positionCompleteTime = positionCompleteTime < 0 ? time : 0.8*positionCompleteTime + 0.2*time;
+		long interval = Math.round(positionCompleteTime * 100d / Math.max(1, POSITION_COMPLETE_LOAD));
+		positionCompleteInterval = Math.max(POSITION_COMPLETE_FREQ, interval);
+	}
+	
+	/**
+	 * @return the time in ms between position complete events, at least
+	 * org.eclipse.scanning.malcolm.core.positionCompleteFrequency and longer when the listeners are slow.
+	 */
+	public long getPositionCompleteInterval() {
+		return positionCompleteInterval;
+	}
+
 	protected void sendScanStateChange(MalcolmEvent<MalcolmMessage> e) throws Exception {
 		
 		MalcolmMessage msg = e.getBean();
@@ -292,6 +359,8 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 						try {
 							if (!succesfullyInitialised) {
 								initialize();
+							} else if (blockSubscriber!=null) {
+								refreshAttributeCache();
 							} else {
 								getDeviceState();
 							}
@@ -301,6 +370,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 			        }
 			    });
 			} else {
+				attributeCache.invalidate();
 				logger.warn("Malcolm Device '" + getName() + "' connection state changed to not connected");
 			}
 		} catch (Exception ne) {
@@ -308,11 +378,68 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 		}
 	}
 
+	/**
+	 * Merges an update of the whole block into the attribute cache. An update of
+	 * type DELTA has only the attributes which have changed.
+	 * @param update
+	 */
+	private void updateAttributeCache(MalcolmMessage update) {
+		if (update.getType()==Type.ERROR || !(update.getValue() instanceof Map)) {
+			logger.warn("Cannot cache attributes of '" + getName() + "' from " + update.getMessage());
+			attributeCache.invalidate();
+			return;
+		}
+		@SuppressWarnings("unchecked")
+		Map<String, Object> attributes = (Map<String, Object>)update.getValue();
+		attributeCache.update(attributes, update.getType()!=Type.DELTA);
+	}
+	
+	/**
+	 * Reads the whole block into the attribute cache, this is done when the
+	 * cache is made and on reconnection, after that the subscription keeps it.
+	 */
+	private void refreshAttributeCache() {
+		final long version = attributeCache.getVersion();
+		try {
+			final MalcolmMessage reply = send(createGetMessage(BLOCK_ENDPOINT), getTimeout());
+			if (reply==null || reply.getType()==Type.ERROR || !(reply.getValue() instanceof Map)) {
+				logger.warn("Cannot read attributes of '" + getName() + "' " + (reply!=null ? reply.getMessage() : ""));
+				return;
+			}
+			@SuppressWarnings("unchecked")
+			Map<String, Object> block = (Map<String, Object>)reply.getValue();
+			attributeCache.refresh(block, version);
+		} catch (Exception ne) {
+			logger.warn("Cannot read attributes of '" + getName() + "'", ne);
+		}
+	}
+	
+	/**
+	 * Gets an endpoint from the attribute cache if it is valid, otherwise from the device.
+	 * @param endpoint
+	 * @return the reply
+	 */
+	private MalcolmMessage get(String endpoint) throws MalcolmDeviceException, InterruptedException, ExecutionException, TimeoutException {
+		final Object value = attributeCache.get(endpoint);
+		if (value!=null) {
+			final MalcolmMessage reply = new MalcolmMessage();
+			reply.setType(Type.RETURN);
+			reply.setEndpoint(endpoint);
+			reply.setValue(value);
+			return reply;
+		}
+		return send(createGetMessage(endpoint), getTimeout());
+	}
+
+	/**
+	 * Gets the state, once the device is initialised this is the state from the latest 
+	 * update of its subscription to the block and there is no round trip to the device.
+	 * When the connection is lost the state is read from the device until it is back.
+	 */
 	@Override
 	public DeviceState getDeviceState() throws MalcolmDeviceException {
 		try {
-			final MalcolmMessage message = createGetMessage(STATE_ENDPOINT);
-			final MalcolmMessage reply   = send(message, getTimeout());
+			final MalcolmMessage reply   = get(STATE_ENDPOINT);
 			if (reply.getType()==Type.ERROR) {
 				throw new MalcolmDeviceException("Error from Malcolm Device Connection: " + reply.getMessage());
 			}
@@ -329,8 +456,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	@Override
 	public String getDeviceHealth() throws MalcolmDeviceException {
 		try {
-			final MalcolmMessage message = createGetMessage(HEALTH_ENDPOINT);
-			final MalcolmMessage reply   = send(message, getTimeout());
+			final MalcolmMessage reply   = get(HEALTH_ENDPOINT);
 			if (reply.getType()==Type.ERROR) {
 				throw new MalcolmDeviceException("Error from Malcolm Device Connection: " + reply.getMessage());
 			}
@@ -403,6 +529,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	 */
 	private void resetProgressCounting() {
 		scanPositionIterator = null;
+		scanPositionLookup = false;
 		lastUpdateCount = 0;
 	}
 
@@ -485,6 +612,8 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	public void dispose() throws MalcolmDeviceException {
 		unsubscribe(stateSubscriber);
 		unsubscribe(scanSubscriber);
+		unsubscribe(blockSubscriber);
+		attributeCache.invalidate();
 
 		setAlive(false);
 	}
@@ -493,7 +622,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 		if (subscriber!=null) {
 			final MalcolmMessage unsubscribeStatus = createUnsubscribeMessage();
 			unsubscribeStatus.setId(subscriber.getId());
-			unsubscribe(subscriber);
+			unsubscribeAll(subscriber);
 			logger.debug("Unsubscription "+getName()+" made "+unsubscribeStatus);
 		}
 	}
@@ -566,8 +695,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	}
 	
 	public <T> IDeviceAttribute<T> getAttribute(String attributeName) throws MalcolmDeviceException {
-		final MalcolmMessage message = createGetMessage(attributeName);
-		final MalcolmMessage reply   = wrap(()->send(message, getTimeout()));
+		final MalcolmMessage reply   = wrap(()->get(attributeName));
 		if (reply.getType()==Type.ERROR) {
 			throw new MalcolmDeviceException("Error from Malcolm Device Connection: " + reply.getMessage());
 		}
@@ -583,7 +711,10 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	}
 	
 	public List<IDeviceAttribute<?>> getAllAttributes() throws MalcolmDeviceException {
-		final MalcolmMessage message = createGetMessage("");
+		final List<IDeviceAttribute<?>> cached = attributeCache.getAll();
+		if (cached!=null) return cached;
+		
+		final MalcolmMessage message = createGetMessage(BLOCK_ENDPOINT);
 		final MalcolmMessage reply   = wrap(()->send(message, getTimeout()));
 		if (reply.getType()==Type.ERROR) {
 			throw new MalcolmDeviceException("Error from Malcolm Device Connection: " + reply.getMessage());
@@ -85,6 +85,9 @@ class JavaIteratorWrapper(ScanPointIterator, PySerializable):
         return self.generator.shape
     def getRank(self):
         return len(self.generator.shape)
+    
+    def getPosition(self, index):
+        return None
 
 
 class JLineGenerator1D(JavaIteratorWrapper):
@@ -289,42 +292,53 @@ class JCompoundGenerator(JavaIteratorWrapper):
     def _iterator(self):
         
         for point in self.generator.iterator():
+            yield self._java_point(point)
+    
+    def getPosition(self, index):
+        if index < 0 or index >= self.generator.size:
+            return None
+        # get_point works the point out from the index, the points before are not made
+        java_point = self._java_point(self.generator.get_point(index))
+        java_point.setStepIndex(index)
+        return java_point
+    
+    def _java_point(self, point):
+        
+        if len(point.positions.keys()) == 1:
+            name = point.positions.keys()[0]
+            index = point.indexes[0]
+            position = point.positions[name]
+            java_point = Scalar(name, index, position)
             
-            if len(point.positions.keys()) == 1:
-                name = point.positions.keys()[0]
-                index = point.indexes[0]
-                position = point.positions[name]
-                java_point = Scalar(name, index, position)
-                
-            elif len(point.positions.keys()) == 2:
-                logging.debug([point.indexes, point.positions])
-                
-                names = []
-                indexes = []
-                values = []
-                for axis in self.axes_ordering:
-                    index = self.index_locations[axis]
-                    indexes.append(point.indexes[index])
-                    logging.debug([axis, index])
-                    values.append(point.positions[axis])
-                    names.append(axis)
-                    
-                java_point = Point(names[1], indexes[1], values[1], 
-                                   names[0], indexes[0], values[0])
-                java_point.setDimensionNames(self.dimension_names)
-            else:
-                java_point = MapPosition()
-                
-                for axis in self.axes_ordering:
-                    index = self.index_locations[axis]
-                    logging.debug([axis, index])
-                    value = point.positions[axis]
-                    java_point.put(axis, value)
-                    java_point.putIndex(axis, point.indexes[index])
-                
-                java_point.setDimensionNames(self.dimension_names)
+        elif len(point.positions.keys()) == 2:
+            logging.debug([point.indexes, point.positions])
+            
+            names = []
+            indexes = []
+            values = []
+            for axis in self.axes_ordering:
+                index = self.index_locations[axis]
+                indexes.append(point.indexes[index])
+                logging.debug([axis, index])
+                values.append(point.positions[axis])
+                names.append(axis)
                 
-            yield java_point
+            java_point = Point(names[1], indexes[1], values[1], 
+                               names[0], indexes[0], values[0])
+            java_point.setDimensionNames(self.dimension_names)
+        else:
+            java_point = MapPosition()
+            
+            for axis in self.axes_ordering:
+                index = self.index_locations[axis]
+                logging.debug([axis, index])
+                value = point.positions[axis]
+                java_point.put(axis, value)
+                java_point.putIndex(axis, point.indexes[index])
+            
+            java_point.setDimensionNames(self.dimension_names)
+            
+        return java_point
 
 
 class JRandomOffsetMutator(object):
@@ -15,6 +15,7 @@ import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.ValidationException;
 import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.ScanBounds;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.ArrayModel;
 
@@ -51,4 +52,12 @@ public class ArrayGenerator extends AbstractGenerator<ArrayModel> {
 		return new int[] { size() };
 	}
 
+	@Override
+	public ScanBounds getBounds() throws GeneratorException {
+		validateModel();
+		ScanBounds bounds = new ScanBounds();
+		for (double position : model.getPositions()) bounds.extend(model.getName(), position);
+		return bounds;
+	}
+
 }
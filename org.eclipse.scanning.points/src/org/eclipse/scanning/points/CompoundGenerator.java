@@ -24,8 +24,11 @@ import org.eclipse.scanning.api.points.AbstractPosition;
 import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanBounds;
 import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.models.AbstractPointsModel;
 import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
 import org.python.core.PyDictionary;
 
 /**
@@ -90,8 +93,17 @@ class CompoundGenerator extends AbstractGenerator<CompoundModel> implements PySe
 		// explicit validation here.
 	}
 	
+	/**
+	 * When each region excludes points from one of the generators, its size
+	 * already allows for them and the size is the product of the sizes.
+	 */
 	@Override
 	public int sizeOfValidModel() throws GeneratorException {
+		if (isRegionsOfGenerators()) {
+			int size = 1;
+			for (IPointGenerator<?> gen : generators) size *= gen.size();
+			return size;
+		}
 		Iterator<IPosition> it = (Iterator<IPosition>) iteratorFromValidModel();
 		int size = 1;
 		if (it instanceof CompoundSpgIterator) {
@@ -104,6 +116,24 @@ class CompoundGenerator extends AbstractGenerator<CompoundModel> implements PySe
 		return size;
 	}
 
+	private boolean isRegionsOfGenerators() {
+		Collection<ScanRegion<Object>> regions = model.getRegions();
+		if (regions==null) return true;
+		for (ScanRegion<Object> region : regions) {
+			if (region.getScannables()==null) return false;
+			boolean found = false;
+			for (IPointGenerator<?> gen : generators) {
+				if (AbstractPointsModel.getScannableNames(gen.getModel()).containsAll(region.getScannables())
+						&& gen.getRegions()!=null && gen.getRegions().contains(region.getRoi())) {
+					found = true;
+					break;
+				}
+			}
+			if (!found) return false;
+		}
+		return true;
+	}
+
     public PyDictionary toDict() {
 		Iterator<?> it = iteratorFromValidModel();
 		if (it instanceof PySerializable) return ((PySerializable)it).toDict();
@@ -187,6 +217,22 @@ class CompoundGenerator extends AbstractGenerator<CompoundModel> implements PySe
 	
 	}
 
+	/**
+	 * The bounds of each of the generators, or null if any of them
+	 * is not known or mutators may move the points.
+	 */
+	@Override
+	public ScanBounds getBounds() throws GeneratorException {
+		if (model.getMutators()!=null && !model.getMutators().isEmpty()) return null;
+		ScanBounds bounds = new ScanBounds();
+		for (IPointGenerator<?> gen : generators) {
+			ScanBounds gbounds = gen.getBounds();
+			if (gbounds==null) return null;
+			bounds.extend(gbounds);
+		}
+		return bounds;
+	}
+
 	public IPointGenerator<?>[] getGenerators() {
 		return generators;
 	}
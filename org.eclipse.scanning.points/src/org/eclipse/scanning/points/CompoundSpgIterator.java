@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.scanning.points;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -29,6 +30,7 @@ import org.eclipse.scanning.api.points.MapPosition;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.ScanRegion;
 import org.eclipse.scanning.jython.JythonObjectFactory;
+import org.eclipse.scanning.points.mutators.PathOptimisationMutator;
 import org.python.core.PyDictionary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +54,14 @@ public class CompoundSpgIterator extends AbstractScanPointIterator {
 	private IPosition currentPoint;
 	private int index = -1;
 
+	/**
+	 * The points in the order made by path mutators, null if there are none.
+	 * They are ordered when first iterated as the size may be all that is needed.
+	 */
+	private List<IPosition>     orderedPoints;
+	private Iterator<IPosition> ordered;
+	private boolean             reordered;
+
 	public CompoundSpgIterator(CompoundGenerator gen) throws GeneratorException {
 		this.gen       = gen;
 		this.iterators = initIterators();
@@ -77,6 +87,32 @@ public class CompoundSpgIterator extends AbstractScanPointIterator {
         pyIterator = iterator;
 	}
 
+	/**
+	 * Mutators which change the order of the points need all of them, so the
+	 * points are made here, the indices of each point are not changed.
+	 */
+	private List<IPosition> reorder(Collection<IMutator> mutators) {
+		if (mutators==null) return null;
+		List<IPosition> points = null;
+		for (IMutator mutator : mutators) {
+			if (!(mutator instanceof PathOptimisationMutator)) continue;
+			if (points==null) {
+				points = new ArrayList<>();
+				while (pyIterator.hasNext()) points.add(pyIterator.next());
+			}
+			points = ((PathOptimisationMutator)mutator).mutate(points);
+		}
+		return points;
+	}
+	
+	private void reorder() {
+		if (!reordered) {
+			orderedPoints = reorder(gen.getModel().getMutators());
+			ordered       = orderedPoints!=null ? orderedPoints.iterator() : null;
+			reordered     = true;
+		}
+	}
+
 	private IPosition createFirstPosition() throws GeneratorException {
 		
 	    IPosition pos = new MapPosition();
@@ -94,8 +130,10 @@ public class CompoundSpgIterator extends AbstractScanPointIterator {
     
 	@Override
 	public boolean hasNext() {
-		if (pyIterator.hasNext()) {
-			currentPoint = pyIterator.next();
+		reorder();
+		Iterator<IPosition> it = ordered!=null ? ordered : pyIterator;
+		if (it.hasNext()) {
+			currentPoint = it.next();
 			index++;
 			currentPoint.setStepIndex(index);
 			return true;
@@ -117,6 +155,22 @@ public class CompoundSpgIterator extends AbstractScanPointIterator {
 		return point;
 	}
 	
+	/**
+	 * Looks the position up from its index in the scan point generator,
+	 * or in the reordered points if there is a path mutator.
+	 */
+	@Override
+	public IPosition getPosition(int index) {
+		reorder();
+		if (orderedPoints!=null) {
+			if (index<0 || index>=orderedPoints.size()) return null;
+			IPosition position = orderedPoints.get(index);
+			position.setStepIndex(index);
+			return position;
+		}
+		return pyIterator.getPosition(index);
+	}
+	
 	public IPosition getNext() {
 		
 		for (int i = iterators.length-1; i > -1; i--) {
@@ -159,7 +213,8 @@ public class CompoundSpgIterator extends AbstractScanPointIterator {
 		LinkedList<Object> pyMutators = new LinkedList<Object>();
 		if (mutators != null) {
 			for (IMutator mutator : mutators) {
-				pyMutators.add(mutator.getMutatorAsJythonObject());
+				Object pyMutator = mutator.getMutatorAsJythonObject();
+				if (pyMutator!=null) pyMutators.add(pyMutator); // Some mutators are done in Java
 			}
 		}
 		return pyMutators.toArray();
@@ -13,7 +13,11 @@ package org.eclipse.scanning.points;
 
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.points.AbstractGenerator;
+import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.PathPreview;
+import org.eclipse.scanning.api.points.ScanBounds;
 import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.models.BoundingBox;
 import org.eclipse.scanning.api.points.models.GridModel;
 
 class GridGenerator extends AbstractGenerator<GridModel> {
@@ -38,4 +42,47 @@ class GridGenerator extends AbstractGenerator<GridModel> {
 		return new GridIterator(this);
 	}
 
+	/**
+	 * Without regions the grid is rows by columns, see {@link GridIterator}
+	 */
+	@Override
+	protected int sizeOfValidModel() throws GeneratorException {
+		if (hasRegions()) return super.sizeOfValidModel();
+		return model.getSlowAxisPoints()*model.getFastAxisPoints();
+	}
+
+	@Override
+	protected int[] calculateShape() throws GeneratorException {
+		if (hasRegions()) return super.calculateShape();
+		return new int[] { model.getSlowAxisPoints(), model.getFastAxisPoints() };
+	}
+
+	/**
+	 * The points are in the middle of each cell so they are inside the box.
+	 */
+	@Override
+	public ScanBounds getBounds() {
+		validateModel();
+		BoundingBox box = model.getBoundingBox();
+		return new ScanBounds()
+				.extend(model.getFastAxisName(), box.getFastAxisStart(), box.getFastAxisStart()+box.getFastAxisLength())
+				.extend(model.getSlowAxisName(), box.getSlowAxisStart(), box.getSlowAxisStart()+box.getSlowAxisLength());
+	}
+
+	/**
+	 * The lattice of points in the middle of each cell, see {@link GridIterator}
+	 */
+	@Override
+	public PathPreview getPathPreview(double[] window, int resolution) {
+		validateModel();
+		BoundingBox box = model.getBoundingBox();
+		int    columns = model.getFastAxisPoints();
+		int    rows    = model.getSlowAxisPoints();
+		double xStep   = box.getFastAxisLength() / columns;
+		double yStep   = box.getSlowAxisLength() / rows;
+		return PathPreviews.lattice(this, model.getFastAxisName(), model.getSlowAxisName(),
+				box.getFastAxisStart() + xStep / 2, xStep, columns,
+				box.getSlowAxisStart() + yStep / 2, yStep, rows,
+				model.isSnake(), window, resolution);
+	}
 }
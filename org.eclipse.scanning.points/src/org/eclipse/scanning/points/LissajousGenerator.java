@@ -13,7 +13,10 @@ package org.eclipse.scanning.points;
 
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.points.AbstractGenerator;
+import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.ScanBounds;
 import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.models.BoundingBox;
 import org.eclipse.scanning.api.points.models.LissajousModel;
 
 public class LissajousGenerator extends AbstractGenerator<LissajousModel> {
@@ -29,6 +32,21 @@ public class LissajousGenerator extends AbstractGenerator<LissajousModel> {
 		return new LissajousIterator(this);
 	}
 
+	/**
+	 * Without regions the curve has the points of the model, see {@link LissajousIterator}
+	 */
+	@Override
+	protected int sizeOfValidModel() throws GeneratorException {
+		if (hasRegions()) return super.sizeOfValidModel();
+		return model.getPoints();
+	}
+
+	@Override
+	protected int[] calculateShape() throws GeneratorException {
+		if (hasRegions()) return super.calculateShape();
+		return new int[] { model.getPoints() };
+	}
+
 	@Override
 	protected void validateModel() {
 		if (model.getPoints() < 1) throw new ModelValidationException("Must have one or more points in model!", model, "points");
@@ -36,4 +54,16 @@ public class LissajousGenerator extends AbstractGenerator<LissajousModel> {
 		if (model.getSlowAxisName()==null) throw new ModelValidationException("The model must have a slow axis!\nIt is the motor name used for this axis.", model, "slowAxisName");
 	}
 
+	/**
+	 * The curve is a sine on each axis between the sides of the box.
+	 */
+	@Override
+	public ScanBounds getBounds() {
+		validateModel();
+		BoundingBox box = model.getBoundingBox();
+		if (box==null) return null;
+		return new ScanBounds()
+				.extend(model.getFastAxisName(), box.getFastAxisStart(), box.getFastAxisStart()+box.getFastAxisLength())
+				.extend(model.getSlowAxisName(), box.getSlowAxisStart(), box.getSlowAxisStart()+box.getSlowAxisLength());
+	}
 }
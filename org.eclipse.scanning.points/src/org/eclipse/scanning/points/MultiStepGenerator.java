@@ -15,6 +15,7 @@ import java.text.MessageFormat;
 
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.points.AbstractGenerator;
+import org.eclipse.scanning.api.points.ScanBounds;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.MultiStepModel;
 import org.eclipse.scanning.api.points.models.StepModel;
@@ -40,6 +41,14 @@ class MultiStepGenerator extends AbstractGenerator<MultiStepModel> {
 		return new MultiStepIterator(model);
 	}
 
+	@Override
+	public ScanBounds getBounds() {
+		validateModel();
+		ScanBounds bounds = new ScanBounds();
+		for (StepModel stepModel : model.getStepModels()) StepGenerator.extend(bounds, stepModel);
+		return bounds;
+	}
+
 	protected void validateModel() {
 		super.validateModel();
 		
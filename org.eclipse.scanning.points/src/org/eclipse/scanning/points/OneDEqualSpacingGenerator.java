@@ -13,6 +13,7 @@ package org.eclipse.scanning.points;
 
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.points.AbstractGenerator;
+import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.OneDEqualSpacingModel;
 
@@ -35,6 +36,12 @@ public class OneDEqualSpacingGenerator extends AbstractGenerator<OneDEqualSpacin
 		return new LineIterator(this);
 	}
 	
+	@Override
+	protected int sizeOfValidModel() throws GeneratorException {
+		if (hasRegions()) return super.sizeOfValidModel();
+		return getModel().getPoints();
+	}
+	
 	public int[] getShape() {
 		return new int[] { getModel().getPoints() };
 	}
@@ -36,6 +36,16 @@ class OneDStepGenerator extends AbstractGenerator<OneDStepModel> {
 		return new LineIterator(this);
 	}
 
+	@Override
+	protected int sizeOfValidModel() throws GeneratorException {
+		BoundingLine line = getModel().getBoundingLine();
+		if (line != null && !hasRegions()) {
+			return (int) Math.floor(line.getLength() / getModel().getStep()) + 1;
+		}
+		
+		return super.sizeOfValidModel();
+	}
+
 	@Override
 	public int[] getShape() throws GeneratorException {
 		BoundingLine line = getModel().getBoundingLine();
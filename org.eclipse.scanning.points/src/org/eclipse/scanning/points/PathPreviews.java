@@ -0,0 +1,259 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points;
+
+import java.util.List;
+
+import org.eclipse.scanning.api.points.AbstractGenerator;
+import org.eclipse.scanning.api.points.IPointContainer;
+import org.eclipse.scanning.api.points.PathPreview;
+import org.eclipse.scanning.api.points.Point;
+
+/**
+ * Makes the previews of grids, rasters and spirals from their models without
+ * iterating the points, see {@link org.eclipse.scanning.api.points.IPointGenerator#getPathPreview(double[], int)}.
+ * At most resolution points are sampled along each axis of the lattice, or
+ * resolution squared points along a spiral, whatever the size of the scan.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class PathPreviews {
+
+	/**
+	 * The number of sides of the polygon drawn as the outline of a spiral.
+	 */
+	private static final int CIRCLE_SIDES = 72;
+
+	/**
+	 * The number of steps of a spiral looked at for the smallest step,
+	 * the steps tend to the scale as the spiral grows.
+	 */
+	private static final int SPIRAL_STEPS = 1000;
+
+	private PathPreviews() {
+		// Static methods only
+	}
+
+	/**
+	 * The preview of a lattice of columns by rows points in the order of a grid scan.
+	 * Point i,j is at minX+i*xStep, minY+j*yStep and if snake is set, odd rows are reversed.
+	 */
+	static PathPreview lattice(AbstractGenerator<?> gen, String xName, String yName,
+			                   double minX, double xStep, int columns,
+			                   double minY, double yStep, int rows,
+			                   boolean snake, double[] window, int resolution) {
+
+		int res = Math.max(1, resolution);
+		int[] xRange = range(window, 0, minX, xStep, columns);
+		int[] yRange = range(window, 2, minY, yStep, rows);
+		int xStride  = stride(xRange, res);
+		int yStride  = stride(yRange, res);
+
+		PathPreview preview = new PathPreview((int)Math.min((long)res*res, (long)columns*rows));
+		preview.setStride(Math.max(xStride, yStride));
+
+		boolean     contained = !hasContainers(gen);
+		RegionIndex index     = getIndex(gen);
+		if (xRange!=null && yRange!=null) {
+			int last = (xRange[1]-xRange[0])/xStride;
+			for (int j = yRange[0]; j <= yRange[1]; j+=yStride) {
+				double  y         = minY + j*yStep;
+				boolean reverse   = snake && j%2==1;
+				int[]   intervals = index!=null ? index.getIntervals(y, minX, xStep, columns) : null;
+				for (int k = 0; k <= last; k++) {
+					int    i = xRange[0] + (reverse ? last-k : k)*xStride;
+					double x = minX + i*xStep;
+					boolean inside = contained || (intervals!=null ? isInside(intervals, i) : gen.containsPoint(new Point(xName, i, x, yName, j, y)));
+					if (inside) preview.add(x, y);
+				}
+			}
+		}
+
+		long total = (long)columns*rows;
+		if (contained) {
+			preview.setPointCount(total);
+		} else if (window==null && xStride==1 && yStride==1) {
+			preview.setPointCount(preview.size());
+		} else if (index!=null) {
+			// Each row is counted exactly from its intervals, only the rows are sampled
+			int rStride = (rows+res-1)/res;
+			long inside = 0, sampled = 0;
+			for (int j = 0; j < rows; j+=rStride) {
+				sampled++;
+				inside += count(index.getIntervals(minY + j*yStep, minX, xStep, columns));
+			}
+			preview.setPointCount(rStride==1 ? inside : Math.round((double)inside/sampled*rows));
+			preview.setCountEstimated(rStride>1);
+		} else {
+			// Count the points inside the regions over a sample of the whole lattice
+			int cStride = (columns+res-1)/res;
+			int rStride = (rows+res-1)/res;
+			long inside = 0, sampled = 0;
+			for (int j = 0; j < rows; j+=rStride) {
+				for (int i = 0; i < columns; i+=cStride) {
+					sampled++;
+					if (gen.containsPoint(new Point(xName, i, minX + i*xStep, yName, j, minY + j*yStep))) inside++;
+				}
+			}
+			preview.setPointCount(cStride==1 && rStride==1 ? inside : Math.round((double)inside/sampled*total));
+			preview.setCountEstimated(cStride>1 || rStride>1);
+		}
+
+		if (columns>1) preview.step(xStep, 0);
+		if (rows>1)    preview.step(snake || columns==1 ? 0 : (columns-1)*xStep, yStep);
+
+		double maxX = minX + (columns-1)*xStep;
+		double maxY = minY + (rows-1)*yStep;
+		preview.setOutline(new double[]{minX, maxX, maxX, minX, minX}, new double[]{minY, minY, maxY, maxY, minY});
+		return preview;
+	}
+
+	/**
+	 * The preview of the spiral of the scanpointgenerator, point t of which is at
+	 * phi=k*sqrt(t+0.5), x=xCentre+b*phi*sin(phi) and y=yCentre+b*phi*cos(phi)
+	 * where k=sqrt(4*pi) and b=scale/(2*pi).
+	 */
+	static PathPreview spiral(AbstractGenerator<?> gen, String xName, String yName,
+			                  double xCentre, double yCentre, double radius, double scale,
+			                  double[] window, int resolution) {
+
+		final double k    = Math.sqrt(4*Math.PI);
+		final double b    = scale/(2*Math.PI);
+		final long   size = (long)Math.pow(radius/(k*b), 2) + 1;
+		final long   res  = Math.max(1, resolution);
+
+		// Only the part of the spiral between the nearest and furthest point of the window is sampled
+		long first = 0, last = size-1;
+		if (window!=null) {
+			double dx = Math.max(0, Math.max(window[0]-xCentre, xCentre-window[1]));
+			double dy = Math.max(0, Math.max(window[2]-yCentre, yCentre-window[3]));
+			double fx = Math.max(Math.abs(window[0]-xCentre), Math.abs(window[1]-xCentre));
+			double fy = Math.max(Math.abs(window[2]-yCentre), Math.abs(window[3]-yCentre));
+			first = Math.max(first, (long)Math.floor(index(Math.hypot(dx, dy), k, b)));
+			last  = Math.min(last,  (long)Math.ceil(index(Math.hypot(fx, fy), k, b)));
+		}
+		long stride = Math.max(1, (last-first+res*res)/(res*res));
+
+		PathPreview preview = new PathPreview((int)Math.min(res*res, size));
+		preview.setStride((int)Math.min(Integer.MAX_VALUE, stride));
+
+		boolean contained = !hasContainers(gen);
+		for (long t = first; t <= last; t+=stride) {
+			double phi = k*Math.sqrt(t+0.5);
+			double x   = xCentre + b*phi*Math.sin(phi);
+			double y   = yCentre + b*phi*Math.cos(phi);
+			if (window!=null && (x<window[0] || x>window[1] || y<window[2] || y>window[3])) continue;
+			if (contained || gen.containsPoint(new Point(xName, (int)t, x, yName, (int)t, y, false))) preview.add(x, y);
+		}
+
+		if (contained) {
+			preview.setPointCount(size);
+		} else if (window==null && stride==1) {
+			preview.setPointCount(preview.size());
+		} else {
+			long cStride = Math.max(1, (size+res*res-1)/(res*res));
+			long inside = 0, sampled = 0;
+			for (long t = 0; t < size; t+=cStride) {
+				sampled++;
+				double phi = k*Math.sqrt(t+0.5);
+				if (gen.containsPoint(new Point(xName, (int)t, xCentre + b*phi*Math.sin(phi), yName, (int)t, yCentre + b*phi*Math.cos(phi), false))) inside++;
+			}
+			preview.setPointCount(cStride==1 ? inside : Math.round((double)inside/sampled*size));
+			preview.setCountEstimated(cStride>1);
+		}
+
+		double lastX = Double.NaN, lastY = Double.NaN;
+		for (long t = 0; t < Math.min(size, SPIRAL_STEPS+1); t++) {
+			double phi = k*Math.sqrt(t+0.5);
+			double x   = xCentre + b*phi*Math.sin(phi);
+			double y   = yCentre + b*phi*Math.cos(phi);
+			if (t>0) preview.step(x-lastX, y-lastY);
+			lastX = x;
+			lastY = y;
+		}
+
+		double outer = Math.abs(b)*k*Math.sqrt(size-0.5);
+		double[] outlineX = new double[CIRCLE_SIDES+1];
+		double[] outlineY = new double[CIRCLE_SIDES+1];
+		for (int i = 0; i <= CIRCLE_SIDES; i++) {
+			double angle = 2*Math.PI*i/CIRCLE_SIDES;
+			outlineX[i] = xCentre + outer*Math.sin(angle);
+			outlineY[i] = yCentre + outer*Math.cos(angle);
+		}
+		preview.setOutline(outlineX, outlineY);
+		return preview;
+	}
+
+	/**
+	 * The index t of the spiral at which it reaches radius r.
+	 */
+	private static double index(double r, double k, double b) {
+		return Math.max(0, Math.pow(r/(k*Math.abs(b)), 2) - 0.5);
+	}
+
+	/**
+	 * The indices from 0 to n-1 of the lattice values min+i*step which are inside
+	 * the window, or all of them if there is no window.
+	 * @return the first and last index or null if none are in the window.
+	 */
+	private static int[] range(double[] window, int offset, double min, double step, int n) {
+		if (window==null) return new int[]{0, n-1};
+		double a  = (window[offset]-min)/step;
+		double b  = (window[offset+1]-min)/step;
+		int    lo = (int)Math.max(0,   Math.ceil(Math.min(a, b)));
+		int    hi = (int)Math.min(n-1, Math.floor(Math.max(a, b)));
+		return lo<=hi ? new int[]{lo, hi} : null;
+	}
+
+	private static int stride(int[] range, int resolution) {
+		if (range==null) return 1;
+		return (range[1]-range[0]+resolution)/resolution;
+	}
+
+	private static boolean hasContainers(AbstractGenerator<?> gen) {
+		List<IPointContainer> containers = gen.getContainers();
+		return containers!=null && !containers.isEmpty();
+	}
+
+	/**
+	 * @return the index of the regions if they are all in one, otherwise null.
+	 */
+	private static RegionIndex getIndex(AbstractGenerator<?> gen) {
+		List<IPointContainer> containers = gen.getContainers();
+		if (containers==null || containers.size()!=1) return null;
+		if (!(containers.get(0) instanceof RegionContainer)) return null;
+		return ((RegionContainer)containers.get(0)).getIndex();
+	}
+
+	/**
+	 * @param intervals the pairs of first and last index, in order
+	 * @param i
+	 * @return true if i is in one of the intervals.
+	 */
+	private static boolean isInside(int[] intervals, int i) {
+		int lo = 0, hi = intervals.length/2-1;
+		while (lo<=hi) {
+			int mid = (lo+hi)>>>1;
+			if (i<intervals[2*mid])        hi = mid-1;
+			else if (i>intervals[2*mid+1]) lo = mid+1;
+			else return true;
+		}
+		return false;
+	}
+
+	private static long count(int[] intervals) {
+		long count = 0;
+		for (int p = 0; p < intervals.length; p+=2) count += intervals[p+1]-intervals[p]+1;
+		return count;
+	}
+}
@@ -199,9 +199,19 @@ public class PointGeneratorService implements IPointGeneratorService {
 		if (regions==null || regions.isEmpty()) return null;
 		
 		List<IPointContainer> ret = new ArrayList<>();
+
+		// Polygons are looked up in an index of all the regions rather than tested edge by edge
+		List<IROI> indexed = null;
+		if (regions.stream().anyMatch(RegionIndex::isIndexed)) {
+			indexed = new ArrayList<>();
+			for (Object region : regions) if (region instanceof IROI) indexed.add((IROI)region);
+			ret.add(new RegionContainer(indexed));
+		}
+
 		for (Object region : regions) {
 			IPointContainer container = null;
 			if (region instanceof IROI) {
+				if (indexed!=null) continue;
 				final IROI roi = (IROI)region;
 				container = new IPointContainer() {
 					@Override
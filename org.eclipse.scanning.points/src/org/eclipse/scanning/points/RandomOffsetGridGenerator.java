@@ -12,6 +12,8 @@
 package org.eclipse.scanning.points;
 
 import org.eclipse.scanning.api.ModelValidationException;
+import org.eclipse.scanning.api.points.PathPreview;
+import org.eclipse.scanning.api.points.ScanBounds;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.RandomOffsetGridModel;
 
@@ -36,4 +38,26 @@ public class RandomOffsetGridGenerator extends GridGenerator {
 		return new GridIterator(this);
 	}
 
+	/**
+	 * The grid bounds made larger by the largest offset, see {@link GridIterator}
+	 */
+	@Override
+	public ScanBounds getBounds() {
+		ScanBounds bounds = super.getBounds();
+		RandomOffsetGridModel rmodel = (RandomOffsetGridModel)model;
+		double offset = Math.abs(rmodel.getBoundingBox().getFastAxisLength() / rmodel.getFastAxisPoints() * rmodel.getOffset() / 100);
+		for (String name : rmodel.getScannableNames()) {
+			bounds.extend(name, bounds.getLower(name)-offset, bounds.getUpper(name)+offset);
+		}
+		return bounds;
+	}
+
+	/**
+	 * The offsets are made by a random mutator, so the points are iterated to draw them.
+	 */
+	@Override
+	public PathPreview getPathPreview(double[] window, int resolution) {
+		return null;
+	}
+
 }
\ No newline at end of file
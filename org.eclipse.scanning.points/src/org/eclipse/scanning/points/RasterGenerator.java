@@ -13,7 +13,11 @@ package org.eclipse.scanning.points;
 
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.points.AbstractGenerator;
+import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.PathPreview;
+import org.eclipse.scanning.api.points.ScanBounds;
 import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.models.BoundingBox;
 import org.eclipse.scanning.api.points.models.RasterModel;
 
 class RasterGenerator extends AbstractGenerator<RasterModel> {
@@ -44,4 +48,52 @@ class RasterGenerator extends AbstractGenerator<RasterModel> {
 		return new GridIterator(this);
 	}
 
+	/**
+	 * Without regions the raster is rows by columns, see {@link GridIterator}
+	 */
+	@Override
+	protected int sizeOfValidModel() throws GeneratorException {
+		if (hasRegions()) return super.sizeOfValidModel();
+		return getRows()*getColumns();
+	}
+
+	@Override
+	protected int[] calculateShape() throws GeneratorException {
+		if (hasRegions()) return super.calculateShape();
+		return new int[] { getRows(), getColumns() };
+	}
+
+	private int getColumns() {
+		return (int) Math.floor(model.getBoundingBox().getFastAxisLength() / model.getFastAxisStep() + 1);
+	}
+
+	private int getRows() {
+		return (int) Math.floor(model.getBoundingBox().getSlowAxisLength() / model.getSlowAxisStep() + 1);
+	}
+
+	/**
+	 * The points start at the edge of the box and do not go past the other edge.
+	 */
+	@Override
+	public ScanBounds getBounds() {
+		validateModel();
+		BoundingBox box = model.getBoundingBox();
+		return new ScanBounds()
+				.extend(model.getFastAxisName(), box.getFastAxisStart(), box.getFastAxisStart()+box.getFastAxisLength())
+				.extend(model.getSlowAxisName(), box.getSlowAxisStart(), box.getSlowAxisStart()+box.getSlowAxisLength());
+	}
+
+	/**
+	 * The lattice of points from the edge of the box, see {@link GridIterator}
+	 */
+	@Override
+	public PathPreview getPathPreview(double[] window, int resolution) {
+		validateModel();
+		BoundingBox box = model.getBoundingBox();
+		return PathPreviews.lattice(this, model.getFastAxisName(), model.getSlowAxisName(),
+				box.getFastAxisStart(), model.getFastAxisStep(), getColumns(),
+				box.getSlowAxisStart(), model.getSlowAxisStep(), getRows(),
+				model.isSnake(), window, resolution);
+	}
+
 }
@@ -0,0 +1,48 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points;
+
+import java.util.Collection;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.scanning.api.points.IPointContainer;
+import org.eclipse.scanning.api.points.IPosition;
+
+/**
+ * Contains the points in any of a set of regions, looked up
+ * in a {@link RegionIndex} of them.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class RegionContainer implements IPointContainer {
+
+	private final RegionIndex index;
+
+	RegionContainer(Collection<IROI> rois) {
+		this.index = new RegionIndex(rois);
+	}
+
+	@Override
+	public boolean containsPoint(IPosition pos) {
+		// Important, this assumes that the IROI is in axis coordinates
+		String dim0Name = pos.getNames().get(0);
+		String dim1Name = pos.getNames().get(1);
+		double x = pos.getValue(dim1Name);
+		double y = pos.getValue(dim0Name);
+		return index.containsPoint(x, y);
+	}
+
+	RegionIndex getIndex() {
+		return index;
+	}
+}
@@ -0,0 +1,303 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.api.roi.IRectangularROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.FreeDrawROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.PointROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.PolygonalROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.PolylineROI;
+
+/**
+ * A uniform grid of cells over the bounds of some regions, each cell is inside
+ * a region, outside all of them or on a boundary. A point in an inside or outside
+ * cell is classified from its cell, only points in boundary cells are tested
+ * against the regions.
+ * <p>
+ * The edges of polygonal and free draw regions mark the cells which they pass
+ * through as boundary cells, so the cells between two boundary cells of a row are
+ * all inside or all outside and one test of the region decides them. The cells
+ * of other regions, which are cheap to test, are boundary cells within their bounds.
+ * <p>
+ * Rows of a lattice, as in a grid or raster scan, are given as intervals of the
+ * points inside so that a row may be used without testing each point.
+ * <p>
+ * System properties:
+ * <pre>
+ *   org.eclipse.scanning.points.regionIndexCells - the cells along each side of the index, default 256.
+ * </pre>
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class RegionIndex {
+
+	private static final int CELLS = Integer.getInteger("org.eclipse.scanning.points.regionIndexCells", 256);
+
+	private static final byte OUTSIDE  = 0;
+	private static final byte INSIDE   = 1;
+	private static final byte BOUNDARY = 2;
+
+	private final List<IROI> rois;
+	private final double     minX, minY, maxX, maxY;
+	private final double     cellWidth, cellHeight;
+	private final int        columns, rows;
+	private final byte[]     cells;
+
+	/**
+	 * @param rois the regions, a point is contained if it is in any of them.
+	 */
+	public RegionIndex(Collection<? extends IROI> rois) {
+		this(rois, CELLS);
+	}
+
+	RegionIndex(Collection<? extends IROI> rois, int cellsPerSide) {
+
+		this.rois = new ArrayList<>(rois);
+
+		double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+		double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+		for (IROI roi : this.rois) {
+			double[] b = getBounds(roi);
+			x0 = Math.min(x0, b[0]);
+			y0 = Math.min(y0, b[1]);
+			x1 = Math.max(x1, b[2]);
+			y1 = Math.max(y1, b[3]);
+		}
+		this.minX = x0;
+		this.minY = y0;
+		this.maxX = x1;
+		this.maxY = y1;
+
+		int n = Math.max(1, cellsPerSide);
+		this.columns    = x1>x0 ? n : 1;
+		this.rows       = y1>y0 ? n : 1;
+		this.cellWidth  = x1>x0 ? (x1-x0)/columns : 1;
+		this.cellHeight = y1>y0 ? (y1-y0)/rows    : 1;
+		this.cells      = new byte[columns*rows];
+
+		if (!this.rois.isEmpty()) classify();
+	}
+
+	/**
+	 * @return true if the index is worth making for the region,
+	 * the regions which are polygons with many vertices to test.
+	 */
+	public static boolean isIndexed(Object roi) {
+		return roi instanceof PolygonalROI || roi instanceof FreeDrawROI;
+	}
+
+	/**
+	 * @param x
+	 * @param y
+	 * @return true if the point is in any of the regions.
+	 */
+	public boolean containsPoint(double x, double y) {
+		if (x<minX || x>maxX || y<minY || y>maxY || Double.isNaN(x) || Double.isNaN(y)) return false;
+		byte cell = cells[row(y)*columns+column(x)];
+		if (cell==OUTSIDE) return false;
+		if (cell==INSIDE)  return true;
+		return test(x, y);
+	}
+
+	/**
+	 * The points x=minX+i*step, for i from 0 to n-1, of the row at y which are in the regions.
+	 *
+	 * @param y
+	 * @param minX
+	 * @param step
+	 * @param n
+	 * @return pairs of the first and last index of each interval of points inside, in order.
+	 */
+	public int[] getIntervals(double y, double minX, double step, int n) {
+
+		int[] intervals = new int[8];
+		int   size      = 0;
+		if (n<1 || y<minY || y>maxY || Double.isNaN(y)) return new int[0];
+
+		final int row = row(y);
+		int start = -1;
+		for (int i = 0; i < n; ) {
+			double x    = minX + i*step;
+			boolean in;
+			int     end; // The last index with the same classification
+			if (x<this.minX || x>this.maxX) {
+				in  = false;
+				end = i;
+			} else {
+				int  column = column(x);
+				byte cell   = cells[row*columns+column];
+				if (cell==BOUNDARY) {
+					in  = test(x, y);
+					end = i;
+				} else {
+					in  = cell==INSIDE;
+					end = lastInCell(column, minX, step, i, n);
+				}
+			}
+			if (in && start<0) start = i;
+			if (!in && start>=0) {
+				if (size+2>intervals.length) intervals = Arrays.copyOf(intervals, intervals.length*2);
+				intervals[size++] = start;
+				intervals[size++] = i-1;
+				start = -1;
+			}
+			i = end+1;
+		}
+		if (start>=0) {
+			if (size+2>intervals.length) intervals = Arrays.copyOf(intervals, intervals.length*2);
+			intervals[size++] = start;
+			intervals[size++] = n-1;
+		}
+		return Arrays.copyOf(intervals, size);
+	}
+
+	/**
+	 * The last index from i of the points in the same cell column, they
+	 * move monotonically through the cells for either sign of step.
+	 */
+	private int lastInCell(int column, double x0, double step, int i, int n) {
+		if (step==0) return n-1;
+		double edge = step>0 ? minX+(column+1)*cellWidth : minX+column*cellWidth;
+		int last = (int)Math.ceil((edge-x0)/step)-1;
+		last = Math.max(i, Math.min(n-1, last));
+		// Rounding may put the last point in the next cell
+		while (last>i && column(x0+last*step)!=column) last--;
+		return last;
+	}
+
+	private boolean test(double x, double y) {
+		for (IROI roi : rois) {
+			if (roi.containsPoint(x, y)) return true;
+		}
+		return false;
+	}
+
+	private int column(double x) {
+		return Math.max(0, Math.min(columns-1, (int)((x-minX)/cellWidth)));
+	}
+
+	private int row(double y) {
+		return Math.max(0, Math.min(rows-1, (int)((y-minY)/cellHeight)));
+	}
+
+	/**
+	 * Marks the boundary cells of each region then works out whether
+	 * each run of other cells in a row is inside or outside.
+	 */
+	private void classify() {
+
+		final boolean[] boundary = new boolean[cells.length];
+		final byte[]    state    = new byte[cells.length];
+		for (IROI roi : rois) {
+			Arrays.fill(boundary, false);
+			if (roi instanceof PolylineROI && isIndexed(roi)) {
+				markEdges((PolylineROI)roi, boundary);
+				for (int row = 0; row < rows; row++) {
+					int column = 0;
+					while (column < columns) {
+						int index = row*columns+column;
+						if (boundary[index]) {
+							if (state[index]!=INSIDE) state[index] = BOUNDARY;
+							column++;
+							continue;
+						}
+						int end = column;
+						while (end+1<columns && !boundary[index+end+1-column]) end++;
+						if (roi.containsPoint(minX+(column+0.5)*cellWidth, minY+(row+0.5)*cellHeight)) {
+							Arrays.fill(state, index, index+end-column+1, INSIDE);
+						}
+						column = end+1;
+					}
+				}
+			} else {
+				// Cheap regions are tested within their bounds
+				double[] b = getBounds(roi);
+				for (int row = row(b[1]); row <= row(b[3]); row++) {
+					for (int column = column(b[0]); column <= column(b[2]); column++) {
+						int index = row*columns+column;
+						if (state[index]!=INSIDE) state[index] = BOUNDARY;
+					}
+				}
+			}
+		}
+		System.arraycopy(state, 0, cells, 0, cells.length);
+	}
+
+	/**
+	 * Marks the cells which each edge of the closed polygon passes through, or
+	 * comes within a small margin of, so that the other cells are uniform.
+	 */
+	private void markEdges(PolylineROI roi, boolean[] boundary) {
+		final int npoints = roi.getNumberOfPoints();
+		if (npoints<1) return;
+		final double margin = 1e-6;
+		for (int p = 0; p < npoints; p++) {
+			PointROI a = roi.getPoint(p);
+			PointROI b = roi.getPoint((p+1)%npoints);
+			double ax = (a.getPointX()-minX)/cellWidth, ay = (a.getPointY()-minY)/cellHeight;
+			double bx = (b.getPointX()-minX)/cellWidth, by = (b.getPointY()-minY)/cellHeight;
+
+			// Each row the edge crosses, from the part of the edge inside the row
+			int r0 = clamp((int)Math.floor(Math.min(ay, by)-margin), rows);
+			int r1 = clamp((int)Math.floor(Math.max(ay, by)+margin), rows);
+			for (int row = r0; row <= r1; row++) {
+				double lo = Math.max(row-margin,   Math.min(ay, by));
+				double hi = Math.min(row+1+margin, Math.max(ay, by));
+				double xlo, xhi;
+				if (ay==by) {
+					xlo = Math.min(ax, bx);
+					xhi = Math.max(ax, bx);
+				} else {
+					double xa = ax + (lo-ay)*(bx-ax)/(by-ay);
+					double xb = ax + (hi-ay)*(bx-ax)/(by-ay);
+					xlo = Math.min(xa, xb);
+					xhi = Math.max(xa, xb);
+				}
+				int c0 = clamp((int)Math.floor(xlo-margin), columns);
+				int c1 = clamp((int)Math.floor(xhi+margin), columns);
+				for (int column = c0; column <= c1; column++) boundary[row*columns+column] = true;
+			}
+		}
+	}
+
+	private static int clamp(int value, int n) {
+		return Math.max(0, Math.min(n-1, value));
+	}
+
+	/**
+	 * @return minX, minY, maxX, maxY of the region
+	 */
+	private static double[] getBounds(IROI roi) {
+		if (roi instanceof PolylineROI && isIndexed(roi)) {
+			PolylineROI poly = (PolylineROI)roi;
+			double[] b = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+			for (int p = 0; p < poly.getNumberOfPoints(); p++) {
+				PointROI point = poly.getPoint(p);
+				b[0] = Math.min(b[0], point.getPointX());
+				b[1] = Math.min(b[1], point.getPointY());
+				b[2] = Math.max(b[2], point.getPointX());
+				b[3] = Math.max(b[3], point.getPointY());
+			}
+			return b;
+		}
+		IRectangularROI bounds = roi.getBounds();
+		double x = bounds.getPoint()[0], y = bounds.getPoint()[1];
+		return new double[] {x, y, x+bounds.getLength(0), y+bounds.getLength(1)};
+	}
+}
@@ -20,6 +20,7 @@ import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.IDeviceDependentIterable;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.Scalar;
+import org.eclipse.scanning.api.points.ScanBounds;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.RepeatedPointModel;
 
@@ -68,6 +69,12 @@ class RepeatedPointGenerator extends AbstractGenerator<RepeatedPointModel> imple
 		return new Scalar<>(model.getName(), 0, model.getValue());
 	}
 
+	@Override
+	public ScanBounds getBounds() {
+		validateModel();
+		return new ScanBounds().extend(model.getName(), model.getValue());
+	}
+
 	@Override
 	public int[] getShape() throws GeneratorException {
 		return new int[] { model.getCount() };
@@ -13,7 +13,10 @@ package org.eclipse.scanning.points;
 
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.points.AbstractGenerator;
+import org.eclipse.scanning.api.points.PathPreview;
+import org.eclipse.scanning.api.points.ScanBounds;
 import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.models.BoundingBox;
 import org.eclipse.scanning.api.points.models.SpiralModel;
 
 class SpiralGenerator extends AbstractGenerator<SpiralModel> {
@@ -34,4 +37,33 @@ class SpiralGenerator extends AbstractGenerator<SpiralModel> {
 		super.validateModel();
 		if (model.getScale() == 0.0) throw new ModelValidationException("Scale must be non-zero!", model, "scale");
 	}
+
+	/**
+	 * The spiral fills the circle around the bounding box, see {@link SpiralIterator}
+	 */
+	@Override
+	public ScanBounds getBounds() {
+		validateModel();
+		BoundingBox box = model.getBoundingBox();
+		double radiusX = box.getFastAxisLength() / 2;
+		double radiusY = box.getSlowAxisLength() / 2;
+		double radius  = Math.sqrt(radiusX * radiusX + radiusY * radiusY);
+		double xCentre = box.getFastAxisStart() + radiusX;
+		double yCentre = box.getSlowAxisStart() + radiusY;
+		return new ScanBounds()
+				.extend(model.getFastAxisName(), xCentre-radius, xCentre+radius)
+				.extend(model.getSlowAxisName(), yCentre-radius, yCentre+radius);
+	}
+
+	@Override
+	public PathPreview getPathPreview(double[] window, int resolution) {
+		validateModel();
+		BoundingBox box = model.getBoundingBox();
+		double radiusX = box.getFastAxisLength() / 2;
+		double radiusY = box.getSlowAxisLength() / 2;
+		return PathPreviews.spiral(this, model.getFastAxisName(), model.getSlowAxisName(),
+				box.getFastAxisStart() + radiusX, box.getSlowAxisStart() + radiusY,
+				Math.sqrt(radiusX * radiusX + radiusY * radiusY), model.getScale(),
+				window, resolution);
+	}
 }
@@ -15,6 +15,7 @@ import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanBounds;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.StaticPosition;
 import org.eclipse.scanning.api.points.models.StaticModel;
@@ -90,8 +91,21 @@ class StaticGenerator extends AbstractGenerator<StaticModel> {
 		return false;
 	}
 
+	@Override
+	protected int sizeOfValidModel() throws GeneratorException {
+		return model.getSize();
+	}
+
 	@Override
 	public int[] getShape() throws GeneratorException {
 		return new int[] { model.getSize() };
 	}
+
+	/**
+	 * Nothing moves.
+	 */
+	@Override
+	public ScanBounds getBounds() {
+		return new ScanBounds();
+	}
 }
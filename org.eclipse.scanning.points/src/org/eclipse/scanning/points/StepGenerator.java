@@ -11,10 +11,14 @@
  *******************************************************************************/
 package org.eclipse.scanning.points;
 
+import java.util.List;
+
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.ScanBounds;
 import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.models.CollatedStepModel;
 import org.eclipse.scanning.api.points.models.StepModel;
 
 class StepGenerator extends AbstractGenerator<StepModel> {
@@ -49,4 +53,23 @@ class StepGenerator extends AbstractGenerator<StepModel> {
 		return new int[] { sizeOfValidModel() };
 	}
 
+	@Override
+	public ScanBounds getBounds() {
+		validateModel();
+		return extend(new ScanBounds(), model);
+	}
+
+	/**
+	 * Extends the bounds by the first and last points of the step model.
+	 * The last point may be just past the stop, see {@link StepModel#size()}
+	 * @param bounds
+	 * @param smodel
+	 * @return bounds
+	 */
+	static ScanBounds extend(ScanBounds bounds, StepModel smodel) {
+		double last = smodel.getStart() + (smodel.size()-1)*smodel.getStep();
+		List<String> names = smodel instanceof CollatedStepModel ? ((CollatedStepModel)smodel).getNames() : smodel.getScannableNames();
+		for (String name : names) bounds.extend(name, smodel.getStart(), last);
+		return bounds;
+	}
 }
@@ -0,0 +1,260 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.mutators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.scanning.api.points.IMutator;
+import org.eclipse.scanning.api.points.IPosition;
+
+/**
+ * Changes the order of the points of a step scan so that less time is spent moving
+ * between them. It is useful when regions have removed many of the points of a grid
+ * or when the points of an ArrayModel are not in a sensible order. The points
+ * themselves are not changed, so their indices still say where their data is written.
+ * <p>
+ * The time of a move is the time of the slowest axis, |distance|/speed, as the axes
+ * move together. A path is made going to the nearest point next, starting from the first
+ * point, then improved by reversing parts of it, first those nearby and then
+ * parts chosen at random. The path is the same for the same points and seed.
+ * <p>
+ * Unlike other mutators the points are reordered in Java, as they are iterated by the
+ * compound generator, and scanpointgenerator does not know about it. Scans where the
+ * points are made elsewhere, for instance by Malcolm, are not reordered.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class PathOptimisationMutator implements IMutator {
+
+	private long                seed;
+	private List<String>        axes;
+	private Map<String, Double> speeds;
+
+	/**
+	 * The number of random reversals tried.
+	 */
+	private int iterations = 10000;
+
+	/**
+	 * The number of points after each point which nearby reversals may end at.
+	 */
+	private int window = 50;
+
+	/**
+	 * Scans with more points are left in their order, making the path is O(n^2).
+	 */
+	private int maxPoints = 10000;
+
+	public PathOptimisationMutator() {
+
+	}
+
+	/**
+	 * @param seed for the random reversals
+	 * @param axes the axes to reduce the moves of, if null all the axes of the points are used.
+	 * @param speeds axis name to speed in units/s, axes which are not given have a speed of 1.
+	 */
+	public PathOptimisationMutator(long seed, List<String> axes, Map<String, Double> speeds) {
+		this.seed   = seed;
+		this.axes   = axes;
+		this.speeds = speeds;
+	}
+
+	/**
+	 * The points are reordered in Java as they are iterated, see {@link #mutate(List)}.
+	 * @return null
+	 */
+	@Override
+	public Object getMutatorAsJythonObject() {
+		return null;
+	}
+
+	/**
+	 * Reorders the points.
+	 * @param points
+	 * @return the same points in a new list, in the order which is quickest to move through.
+	 */
+	public List<IPosition> mutate(List<IPosition> points) {
+
+		final int n = points.size();
+		if (n<3 || n>maxPoints) return new ArrayList<>(points);
+
+		final double[][] coords = getCoordinates(points);
+		final int[]      path   = nearestNeighbour(coords);
+
+		// Reverse nearby parts until none of them make the path shorter
+		boolean improved = true;
+		for (int pass = 0; improved && pass < 100; pass++) {
+			improved = false;
+			for (int i = 0; i < n-2; i++) {
+				int last = Math.min(n-1, i+window);
+				for (int j = i+2; j <= last; j++) {
+					if (reverseIfShorter(coords, path, i, j)) improved = true;
+				}
+			}
+		}
+
+		// Then try parts chosen at random, which may be long
+		final Random random = new Random(seed);
+		for (int k = 0; k < iterations; k++) {
+			int i = random.nextInt(n-2);
+			int j = i+2+random.nextInt(n-i-2);
+			reverseIfShorter(coords, path, i, j);
+		}
+
+		final List<IPosition> ordered = new ArrayList<>(n);
+		for (int index : path) ordered.add(points.get(index));
+		return ordered;
+	}
+
+	/**
+	 * @param points
+	 * @return the time in s to move through the points in the order given.
+	 */
+	public double getMoveTime(List<IPosition> points) {
+		if (points.size()<2) return 0;
+		double[][] coords = getCoordinates(points);
+		double time = 0;
+		for (int i = 1; i < coords.length; i++) time += cost(coords[i-1], coords[i]);
+		return time;
+	}
+
+	/**
+	 * The positions divided by the speeds, so that the distance between two points is the time of the move.
+	 */
+	private double[][] getCoordinates(List<IPosition> points) {
+		final List<String> names = axes!=null ? axes : new ArrayList<>(points.get(0).getNames());
+		final double[]     scale = new double[names.size()];
+		for (int k = 0; k < scale.length; k++) {
+			Double speed = speeds!=null ? speeds.get(names.get(k)) : null;
+			scale[k] = speed!=null && speed>0 ? 1d/speed : 1d;
+		}
+
+		final double[][] coords = new double[points.size()][names.size()];
+		for (int i = 0; i < coords.length; i++) {
+			IPosition point = points.get(i);
+			for (int k = 0; k < scale.length; k++) {
+				Object value = point.get(names.get(k));
+				coords[i][k] = value instanceof Number ? ((Number)value).doubleValue()*scale[k] : 0;
+			}
+		}
+		return coords;
+	}
+
+	private static double cost(double[] a, double[] b) {
+		double max = 0;
+		for (int k = 0; k < a.length; k++) max = Math.max(max, Math.abs(a[k]-b[k]));
+		return max;
+	}
+
+	/**
+	 * Starting from the first point goes to the nearest point not yet been to.
+	 * Ties go to the earliest point so that the path is always the same.
+	 */
+	private static int[] nearestNeighbour(double[][] coords) {
+		final int       n       = coords.length;
+		final int[]     path    = new int[n];
+		final boolean[] visited = new boolean[n];
+		int current = 0;
+		visited[0] = true;
+		for (int step = 1; step < n; step++) {
+			int    nearest  = -1;
+			double shortest = Double.MAX_VALUE;
+			for (int i = 0; i < n; i++) {
+				if (visited[i]) continue;
+				double cost = cost(coords[current], coords[i]);
+				if (cost<shortest) {
+					shortest = cost;
+					nearest  = i;
+				}
+			}
+			path[step] = nearest;
+			visited[nearest] = true;
+			current = nearest;
+		}
+		return path;
+	}
+
+	/**
+	 * Reverses the part of the path from i+1 to j if that makes it shorter.
+	 * The path is open so the last point has nothing after it.
+	 */
+	private static boolean reverseIfShorter(double[][] coords, int[] path, int i, int j) {
+		final int n = path.length;
+		double before = cost(coords[path[i]], coords[path[i+1]]);
+		double after  = cost(coords[path[i]], coords[path[j]]);
+		if (j<n-1) {
+			before += cost(coords[path[j]],   coords[path[j+1]]);
+			after  += cost(coords[path[i+1]], coords[path[j+1]]);
+		}
+		if (after >= before-1e-12) return false;
+		for (int a = i+1, b = j; a < b; a++, b--) {
+			int tmp = path[a];
+			path[a] = path[b];
+			path[b] = tmp;
+		}
+		return true;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public List<String> getAxes() {
+		return axes;
+	}
+
+	public void setAxes(List<String> axes) {
+		this.axes = axes;
+	}
+
+	public Map<String, Double> getSpeeds() {
+		return speeds!=null ? speeds : Collections.emptyMap();
+	}
+
+	public void setSpeeds(Map<String, Double> speeds) {
+		this.speeds = speeds;
+	}
+
+	public int getIterations() {
+		return iterations;
+	}
+
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	public int getWindow() {
+		return window;
+	}
+
+	public void setWindow(int window) {
+		this.window = window;
+	}
+
+	public int getMaxPoints() {
+		return maxPoints;
+	}
+
+	public void setMaxPoints(int maxPoints) {
+		this.maxPoints = maxPoints;
+	}
+}
@@ -0,0 +1,75 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.validation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.scanning.api.ValidationException;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.eclipse.scanning.points.RegionIndex;
+
+/**
+ * Checks that each point is inside one of the regions of its axes.
+ * The excluders remove the points outside the regions, so this is only
+ * needed if mutators might move the points afterwards.
+ *
+ * @author Matthew Gerring
+ *
+ */
+class ContainmentCheck implements IPointCheck {
+
+	private final Map<List<String>, RegionIndex> regions;
+
+	ContainmentCheck(CompoundModel<?> cmodel) {
+		this.regions = new LinkedHashMap<>();
+		if (cmodel.getRegions()==null) return;
+		Map<List<String>, List<IROI>> rois = new LinkedHashMap<>();
+		for (ScanRegion<?> region : cmodel.getRegions()) {
+			if (!(region.getRoi() instanceof IROI)) continue;
+			List<String> names = region.getScannables();
+			if (names==null || names.size()<2) continue;
+			List<IROI> axes = rois.get(names);
+			if (axes==null) {
+				axes = new ArrayList<>();
+				rois.put(names, axes);
+			}
+			axes.add((IROI)region.getRoi());
+		}
+		// Most points are then checked against a cell of the index rather than each region
+		for (Map.Entry<List<String>, List<IROI>> entry : rois.entrySet()) {
+			regions.put(entry.getKey(), new RegionIndex(entry.getValue()));
+		}
+	}
+
+	boolean isEmpty() {
+		return regions.isEmpty();
+	}
+
+	@Override
+	public void check(IPosition position, int index) throws ValidationException {
+		for (Map.Entry<List<String>, RegionIndex> entry : regions.entrySet()) {
+			String xName = entry.getKey().get(0);
+			String yName = entry.getKey().get(1);
+			if (!position.getNames().contains(xName) || !position.getNames().contains(yName)) continue;
+			double x = position.getValue(xName);
+			double y = position.getValue(yName);
+			if (entry.getValue().containsPoint(x, y)) continue;
+			throw new ValidationException("The point "+index+" at "+xName+"="+x+", "+yName+"="+y+" is outside the regions of the scan");
+		}
+	}
+}
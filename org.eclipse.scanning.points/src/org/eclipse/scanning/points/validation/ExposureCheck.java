@@ -0,0 +1,71 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.scanning.api.ModelValidationException;
+import org.eclipse.scanning.api.ValidationException;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanBounds;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.MultiStepModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+
+/**
+ * Checks the exposure time of each point is not negative and not more
+ * than the maximum, which may be set with the system property
+ * org.eclipse.scanning.points.validation.maximumExposureTime in seconds.
+ * <p>
+ * The exposure time of a point comes from its step model, so the models
+ * are checked instead of the points when the scan starts.
+ *
+ * @author Matthew Gerring
+ *
+ */
+class ExposureCheck implements IPointCheck {
+
+	private final List<StepModel> models;
+	private final double          maximum;
+
+	ExposureCheck(CompoundModel<?> cmodel) {
+		this.models  = new ArrayList<>();
+		for (Object model : cmodel.getModels()) {
+			if (model instanceof StepModel)      models.add((StepModel)model);
+			if (model instanceof MultiStepModel) models.addAll(((MultiStepModel)model).getStepModels());
+		}
+		String max = System.getProperty("org.eclipse.scanning.points.validation.maximumExposureTime");
+		this.maximum = max!=null ? Double.parseDouble(max) : Double.POSITIVE_INFINITY;
+	}
+
+	@Override
+	public boolean check(ScanBounds bounds) throws ValidationException {
+		for (StepModel model : models) {
+			if (!isLegal(model.getExposureTime())) {
+				throw new ModelValidationException("The exposure time "+model.getExposureTime()+"s of '"+model.getName()+"' must be between 0 and "+maximum+"s", model, "exposureTime");
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void check(IPosition position, int index) throws ValidationException {
+		if (!isLegal(position.getExposureTime())) {
+			throw new ValidationException("The exposure time "+position.getExposureTime()+"s at point "+index+" must be between 0 and "+maximum+"s");
+		}
+	}
+
+	private boolean isLegal(double time) {
+		return time >= 0 && time <= maximum;
+	}
+}
@@ -0,0 +1,46 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.validation;
+
+import org.eclipse.scanning.api.ValidationException;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanBounds;
+
+/**
+ * A check made on every point of a scan by the {@link PointValidator}.
+ * Checks are called from more than one thread at the same time.
+ *
+ * @author Matthew Gerring
+ *
+ */
+interface IPointCheck {
+
+	/**
+	 * Called before the points are iterated, with the bounds of the
+	 * scan if the generator knows them.
+	 *
+	 * @param bounds or null if they are not known
+	 * @return true if the bounds show that all points pass, so that
+	 *         the points do not need to be checked one by one.
+	 * @throws ValidationException if the scan cannot pass whatever the points are.
+	 */
+	default boolean check(ScanBounds bounds) throws ValidationException {
+		return false;
+	}
+
+	/**
+	 * @param position
+	 * @param index the number of the point in the scan
+	 * @throws ValidationException if the point cannot be scanned.
+	 */
+	void check(IPosition position, int index) throws ValidationException;
+}
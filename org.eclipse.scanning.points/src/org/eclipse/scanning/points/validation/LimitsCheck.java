@@ -0,0 +1,91 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.validation;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.scanning.api.IScannable;
+import org.eclipse.scanning.api.ValidationException;
+import org.eclipse.scanning.api.device.IScannableDeviceService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanBounds;
+import org.eclipse.scanning.api.scan.ScanningException;
+
+/**
+ * Checks that the scannables are moved inside their limits,
+ * called limit checking in GDA.
+ *
+ * @author Matthew Gerring
+ *
+ */
+class LimitsCheck implements IPointCheck {
+
+	private final Map<String, double[]> limits;
+
+	LimitsCheck(Map<String, double[]> limits) {
+		this.limits = limits;
+	}
+
+	/**
+	 * Reads the limits of the scannables which have them.
+	 * @param connector
+	 * @param names
+	 * @return check
+	 * @throws ScanningException
+	 */
+	static LimitsCheck create(IScannableDeviceService connector, Collection<String> names) throws ScanningException {
+		Map<String, double[]> limits = new HashMap<>(names.size());
+		for (String name : names) {
+			IScannable<?> scannable = connector.getScannable(name);
+			if (scannable==null) continue;
+			Object min = scannable.getMinimum();
+			Object max = scannable.getMaximum();
+			if (!(min instanceof Number) && !(max instanceof Number)) continue;
+			limits.put(name, new double[]{
+					min instanceof Number ? ((Number)min).doubleValue() : Double.NEGATIVE_INFINITY,
+					max instanceof Number ? ((Number)max).doubleValue() : Double.POSITIVE_INFINITY});
+		}
+		return new LimitsCheck(limits);
+	}
+
+	boolean isEmpty() {
+		return limits.isEmpty();
+	}
+
+	@Override
+	public boolean check(ScanBounds bounds) {
+		if (bounds==null) return false;
+		for (Map.Entry<String, double[]> entry : limits.entrySet()) {
+			String name = entry.getKey();
+			if (!bounds.contains(name)) continue; // Not moved
+			if (bounds.getLower(name) < entry.getValue()[0]) return false;
+			if (bounds.getUpper(name) > entry.getValue()[1]) return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void check(IPosition position, int index) throws ValidationException {
+		for (String name : position.getNames()) {
+			double[] range = limits.get(name);
+			if (range==null) continue;
+			Object pos = position.get(name);
+			if (!(pos instanceof Number)) continue;
+			double value = ((Number)pos).doubleValue();
+			if (value < range[0] || value > range[1]) {
+				throw new ValidationException("The value "+value+" of '"+name+"' at point "+index+" is outside the limits "+range[0]+" to "+range[1]);
+			}
+		}
+	}
+}
@@ -0,0 +1,176 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.validation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.ValidationException;
+import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks every point of a scan without making a list of the points,
+ * so that scans of millions of points may be checked in constant memory.
+ * <p>
+ * First the checks are given the bounds of the generator, if it knows them
+ * without iterating. A grid inside the limits of its motors, for instance,
+ * needs no more checking. If any check cannot be decided from the bounds,
+ * the points are iterated in this thread and given in chunks to a pool of
+ * daemon threads, shared by all validations, which run the checks. The
+ * iteration stops at the first failure, and the failure reported is that
+ * of the lowest point which failed.
+ * <p>
+ * System properties:
+ * <pre>
+ *   org.eclipse.scanning.points.validation.threads   - the threads checking points, default the number of processors.
+ *   org.eclipse.scanning.points.validation.chunkSize - the number of points checked by a thread at a time, default 1024.
+ * </pre>
+ *
+ * @author Matthew Gerring
+ *
+ */
+class PointValidator {
+
+	private static final Logger logger = LoggerFactory.getLogger(PointValidator.class);
+
+	private static final int             THREADS  = Math.max(1, Integer.getInteger("org.eclipse.scanning.points.validation.threads", Runtime.getRuntime().availableProcessors()));
+	private static final ExecutorService EXECUTOR = createExecutor(THREADS);
+
+	private static ExecutorService createExecutor(int threads) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), r -> {
+			Thread thread = new Thread(r, "Point validation");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true); // No threads are kept when nothing is validated
+		return executor;
+	}
+
+	private final List<IPointCheck> checks;
+	private final int               threads;
+	private final int               chunkSize;
+
+	private volatile Failure failure;
+
+	PointValidator(List<IPointCheck> checks) {
+		this(checks, THREADS, Integer.getInteger("org.eclipse.scanning.points.validation.chunkSize", 1024));
+	}
+
+	PointValidator(List<IPointCheck> checks, int threads, int chunkSize) {
+		this.checks    = checks;
+		this.threads   = Math.max(1, threads);
+		this.chunkSize = Math.max(1, chunkSize);
+	}
+
+	/**
+	 * Checks the points of the generator.
+	 * @param gen
+	 * @throws ValidationException the failure of the lowest point which failed.
+	 * @throws GeneratorException
+	 * @throws InterruptedException
+	 */
+	void validate(IPointGenerator<?> gen) throws ValidationException, GeneratorException, InterruptedException {
+
+		final ScanBounds bounds = gen.getBounds();
+		final List<IPointCheck> remaining = new ArrayList<>(checks.size());
+		for (IPointCheck check : checks) {
+			if (!check.check(bounds)) remaining.add(check);
+		}
+		if (remaining.isEmpty()) {
+			logger.debug("Points of {} validated from their bounds {}", gen, bounds);
+			return;
+		}
+
+		failure = null;
+		final IPointCheck[] toCheck = remaining.toArray(new IPointCheck[remaining.size()]);
+		final Iterator<IPosition> it = gen.iterator();
+		if (threads == 1) {
+			int index = 0;
+			while(it.hasNext() && failure==null) {
+				check(toCheck, it.next(), index++);
+			}
+		} else {
+			validate(toCheck, it);
+		}
+		if (failure!=null) throw failure.exception;
+	}
+
+	private void validate(final IPointCheck[] toCheck, final Iterator<IPosition> it) throws InterruptedException {
+
+		// At most two chunks per thread are in memory at once
+		final int       permits = threads*2;
+		final Semaphore chunks  = new Semaphore(permits);
+		try {
+			int index = 0;
+			while(it.hasNext() && failure==null) {
+				final int start = index;
+				final IPosition[] chunk = new IPosition[chunkSize];
+				int size = 0;
+				while(size<chunkSize && it.hasNext()) chunk[size++] = it.next();
+				index+=size;
+
+				final int end = size;
+				chunks.acquire();
+				EXECUTOR.execute(() -> {
+					try {
+						// A failure later in the scan does not stop this chunk, it might fail first.
+						for (int i = 0; i < end && !isFailedBefore(start+i); i++) check(toCheck, chunk[i], start+i);
+					} finally {
+						chunks.release();
+					}
+				});
+			}
+		} finally {
+			// Every chunk has been checked when all the permits are back
+			chunks.acquire(permits);
+		}
+	}
+
+	private void check(IPointCheck[] toCheck, IPosition pos, int index) {
+		try {
+			for (IPointCheck check : toCheck) check.check(pos, index);
+		} catch (ValidationException ne) {
+			fail(ne, index);
+		} catch (RuntimeException ne) {
+			fail(new ValidationException("Point "+index+" cannot be checked", ne), index);
+		}
+	}
+
+	private boolean isFailedBefore(int index) {
+		Failure f = failure;
+		return f!=null && f.index < index;
+	}
+
+	private synchronized void fail(ValidationException ne, int index) {
+		if (failure==null || index<failure.index) failure = new Failure(ne, index);
+	}
+
+	private static final class Failure {
+		private final ValidationException exception;
+		private final int                 index;
+		Failure(ValidationException exception, int index) {
+			this.exception = exception;
+			this.index     = index;
+		}
+	}
+}
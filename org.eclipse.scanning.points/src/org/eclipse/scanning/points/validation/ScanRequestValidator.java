@@ -14,7 +14,11 @@ package org.eclipse.scanning.points.validation;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.beanutils.BeanMap;
@@ -26,11 +30,15 @@ import org.eclipse.scanning.api.annotation.ui.DeviceType;
 import org.eclipse.scanning.api.annotation.ui.FieldDescriptor;
 import org.eclipse.scanning.api.device.IRunnableDevice;
 import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.device.IScannableDeviceService;
 import org.eclipse.scanning.api.device.models.DeviceRole;
 import org.eclipse.scanning.api.device.models.IMalcolmModel;
 import org.eclipse.scanning.api.device.models.ScanMode;
 import org.eclipse.scanning.api.event.scan.DeviceInformation;
 import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.models.AbstractPointsModel;
 import org.eclipse.scanning.api.points.models.CompoundModel;
 import org.eclipse.scanning.api.scan.ScanningException;
 
@@ -53,6 +61,7 @@ class ScanRequestValidator implements IValidator<ScanRequest<?>> {
 		} else {
 			throw new ModelValidationException("There is no compound model available", req, "compoundModel");
 		}
+		validatePoints(cm);
 		try {
 			Map<String, Object> dmodels = req.getDetectors();
 			if (dmodels!=null && !dmodels.isEmpty()) { // No detectors is allowed.
@@ -66,6 +75,47 @@ class ScanRequestValidator implements IValidator<ScanRequest<?>> {
 		}
 	}
 	
+	/**
+	 * Checks the limits, exposure times and regions of every point without
+	 * making all the points, see {@link PointValidator}
+	 * 
+	 * @param cm
+	 * @throws ValidationException
+	 */
+	private void validatePoints(CompoundModel<?> cm) throws ValidationException {
+		
+		// The limits are only known where the scannables are, on the server.
+		IScannableDeviceService connector = ValidatorService.getScannableDeviceService();
+		if (connector==null || Boolean.getBoolean("org.eclipse.scanning.points.validation.disablePoints")) return;
+		
+		try {
+			IPointGenerator<?> gen = ValidatorService.getPointGeneratorService().createCompoundGenerator(cm);
+			
+			List<IPointCheck> checks = new ArrayList<>(3);
+			Collection<String> names = new LinkedHashSet<>();
+			for (Object model : cm.getModels()) names.addAll(AbstractPointsModel.getScannableNames(model));
+			LimitsCheck limits = LimitsCheck.create(connector, names);
+			if (!limits.isEmpty()) checks.add(limits);
+			
+			checks.add(new ExposureCheck(cm));
+			
+			// Mutators may move points out of the regions
+			CompoundModel<?> gmodel = (CompoundModel<?>)gen.getModel();
+			if (gmodel.getMutators()!=null && !gmodel.getMutators().isEmpty()) {
+				ContainmentCheck containment = new ContainmentCheck(cm);
+				if (!containment.isEmpty()) checks.add(containment);
+			}
+			
+			new PointValidator(checks).validate(gen);
+			
+		} catch (ScanningException | GeneratorException ne) {
+			throw new ValidationException(ne);
+		} catch (InterruptedException ne) {
+			Thread.currentThread().interrupt();
+			throw new ValidationException(ne);
+		}
+	}
+	
 	private void validateAnnotations(Map<String, Object> dmodels) throws ValidationException, IllegalArgumentException, IllegalAccessException, ScanningException {
 		
 		for (String name : dmodels.keySet()) {
@@ -24,6 +24,7 @@ import org.eclipse.scanning.api.IValidatorService;
 import org.eclipse.scanning.api.ValidationException;
 import org.eclipse.scanning.api.device.IRunnableDevice;
 import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.device.IScannableDeviceService;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventService;
 import org.eclipse.scanning.api.event.scan.ScanRequest;
@@ -53,13 +54,27 @@ public class ValidatorService implements IValidatorService {
 		factory = pservice;
 	}
 	
-	private static IRunnableDeviceService dservice;
-	private static IEventService          eservice;
+	private static IRunnableDeviceService  dservice;
+	private static IEventService           eservice;
+	private static IScannableDeviceService connector;
 	
 	public void setEventService(IEventService leservice) {
 		eservice = leservice;
 	}
 	
+	/**
+	 * The scannables are only available on the server. If they are, the
+	 * points of a scan request are checked against the scannable limits.
+	 * @param lconnector
+	 */
+	public void setScannableDeviceService(IScannableDeviceService lconnector) {
+		connector = lconnector;
+	}
+	
+	public static IScannableDeviceService getScannableDeviceService() {
+		return connector;
+	}
+	
 	private static ComponentContext context;
 	
 	public static IPointGeneratorService getPointGeneratorService() {
@@ -0,0 +1,316 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+
+package org.eclipse.scanning.scisoftpy.python;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Python process which runs the code sent to it, it is started once and
+ * then used for many calls, see {@link PythonWorkerPool}.
+ * <p>
+ * Each request is an operation byte, 'x' to exec the code or 'r' to reset the
+ * globals, followed by the length of the UTF-8 code as a big endian int and the code.
+ * Each reply is the output and then the error of the call, each as a length and
+ * UTF-8 text. The worker replies READY when it has started.
+ * <p>
+ * The protocol is spoken over copies of the standard input and output made when
+ * the worker starts, the standard output is then pointed at the standard error and
+ * the input at the null device. Anything written straight to file descriptor 1, for
+ * instance by C code, goes to the errors rather than breaking the replies.
+ * <p>
+ * A reset gives new globals and puts back sys.path, sys.argv, os.environ and the
+ * working directory as they were when the worker started. Modules imported by a call
+ * stay imported, with any state they hold, so that the next call does not pay for them again.
+ * <p>
+ * The script runs in Python 2 or 3. The output of a call is captured as text,
+ * byte strings written under Python 2 are decoded as UTF-8 so that any output
+ * can be sent back.
+ */
+class PythonWorker {
+
+	private static final Logger logger = LoggerFactory.getLogger(PythonWorker.class);
+
+	private static final String SCRIPT =
+		"import os, sys, struct, traceback\n" +
+		"def text(s):\n" +
+		"  if isinstance(s, bytes):\n" +
+		"    return s.decode('utf-8', 'replace')\n" +
+		"  return s\n" +
+		"class Capture(object):\n" +
+		"  encoding = 'utf-8'\n" +
+		"  def __init__(self):\n" +
+		"    self.parts = []\n" +
+		"  def write(self, s):\n" +
+		"    self.parts.append(text(s))\n" +
+		"  def writelines(self, lines):\n" +
+		"    for s in lines:\n" +
+		"      self.write(s)\n" +
+		"  def flush(self):\n" +
+		"    pass\n" +
+		"  def isatty(self):\n" +
+		"    return False\n" +
+		"  def getvalue(self):\n" +
+		"    return u''.join(self.parts)\n" +
+		"sys.stdout.flush()\n" +
+		"inp = os.fdopen(os.dup(0), 'rb')\n" +
+		"out = os.fdopen(os.dup(1), 'wb')\n" +
+		"os.dup2(2, 1)\n" +
+		"nul = os.open(os.devnull, os.O_RDONLY)\n" +
+		"os.dup2(nul, 0)\n" +
+		"os.close(nul)\n" +
+		"path, argv, environ, cwd = list(sys.path), list(sys.argv), dict(os.environ), os.getcwd()\n" +
+		"def reset():\n" +
+		"  sys.path[:] = path\n" +
+		"  sys.argv[:] = argv\n" +
+		"  if dict(os.environ) != environ:\n" +
+		"    os.environ.clear()\n" +
+		"    os.environ.update(environ)\n" +
+		"  os.chdir(cwd)\n" +
+		"  return {'__name__': '__main__'}\n" +
+		"def write(s):\n" +
+		"  b = s.encode('utf-8')\n" +
+		"  out.write(struct.pack('>i', len(b)))\n" +
+		"  out.write(b)\n" +
+		"scope = reset()\n" +
+		"write(u'READY')\n" +
+		"out.flush()\n" +
+		"while True:\n" +
+		"  h = inp.read(5)\n" +
+		"  if len(h) < 5:\n" +
+		"    break\n" +
+		"  code = inp.read(struct.unpack('>i', h[1:])[0]).decode('utf-8')\n" +
+		"  if h[0:1] == b'r':\n" +
+		"    try:\n" +
+		"      scope = reset()\n" +
+		"      write(u'')\n" +
+		"      write(u'')\n" +
+		"    except BaseException:\n" +
+		"      write(u'')\n" +
+		"      write(text(traceback.format_exc()))\n" +
+		"  else:\n" +
+		"    o, e = Capture(), Capture()\n" +
+		"    so, se = sys.stdout, sys.stderr\n" +
+		"    sys.stdout, sys.stderr = o, e\n" +
+		"    try:\n" +
+		"      exec(compile(code, '<python>', 'exec'), scope)\n" +
+		"    except BaseException:\n" +
+		"      traceback.print_exc()\n" +
+		"    finally:\n" +
+		"      sys.stdout, sys.stderr = so, se\n" +
+		"    write(o.getvalue())\n" +
+		"    write(e.getvalue())\n" +
+		"  out.flush()\n";
+
+	static final char EXEC  = 'x';
+	static final char RESET = 'r';
+
+	private static final String READY = "READY";
+
+	/**
+	 * The longest reply frame read, a longer or negative length means the replies are corrupt.
+	 */
+	private static final int MAX_FRAME = Integer.getInteger("org.eclipse.scanning.scisoftpy.python.maxReply", 64*1024*1024);
+
+	/**
+	 * Put in the replies when the worker stops.
+	 */
+	private static final String[] STOPPED = new String[0];
+
+	private final Process                   process;
+	private final DataOutputStream          stdin;
+	private final BlockingQueue<String[]>   replies;
+	private final List<String>              errors;
+	private volatile boolean                alive;
+	private int                             calls;
+	private long                            released;
+
+	/**
+	 * Starts the process and waits for it to be ready
+	 * @param exec path to Python executable
+	 * @param env
+	 * @param timeout in ms to wait for the worker to start
+	 */
+	PythonWorker(String exec, Map<String, String> env, long timeout) {
+		List<String> cmds = new ArrayList<String>();
+		cmds.add(exec);
+		cmds.add("-c");
+		cmds.add(SCRIPT);
+		ProcessBuilder pb = new ProcessBuilder(cmds);
+		if (env != null && env.size() > 0) {
+			pb.environment().putAll(env);
+		}
+		this.replies = new LinkedBlockingQueue<String[]>();
+		this.errors  = new ArrayList<String>();
+		try {
+			process = pb.start();
+			stdin   = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+			alive   = true;
+
+			// read output and errors in threads to ensure process does not deadlock
+			Thread reader = new Thread(this::readReplies, "Python worker reader");
+			reader.setDaemon(true);
+			reader.start();
+			Thread errorReader = new Thread(this::readErrors, "Python worker errors");
+			errorReader.setDaemon(true);
+			errorReader.start();
+
+			// make sure it's ready
+			String[] ready = replies.poll(timeout, TimeUnit.MILLISECONDS);
+			if (ready == null || ready.length < 1 || !READY.equals(ready[0])) {
+				stop();
+				throw new IllegalStateException("Problem with python subprocess not being ready: " + getErrors());
+			}
+		} catch (IllegalStateException ne) {
+			throw ne;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	private void readReplies() {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream()))) {
+			// The first reply is the single READY frame
+			replies.add(new String[] {readFrame(in)});
+			while (alive) {
+				String out = readFrame(in);
+				String err = readFrame(in);
+				replies.add(new String[] {out, err.isEmpty() ? null : err});
+			}
+		} catch (IOException ne) {
+			// die if stream has ended
+			if (alive) logger.debug("Python worker replies ended", ne);
+		} finally {
+			stop();
+			replies.add(STOPPED);
+		}
+	}
+
+	private static String readFrame(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > MAX_FRAME) {
+			throw new IOException("The python subprocess sent a reply of "+length+" bytes, the most read is "+MAX_FRAME);
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Errors written outside a call, for instance if Python cannot start, are kept to report.
+	 */
+	private void readErrors() {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				synchronized (errors) {
+					errors.add(line);
+					if (errors.size() > 100) errors.remove(0);
+				}
+			}
+		} catch (IOException ne) {
+			// die if stream has ended
+		}
+	}
+
+	private String getErrors() {
+		synchronized (errors) {
+			return String.join("\n", errors);
+		}
+	}
+
+	/**
+	 * Send command and retrieve results
+	 * @param op {@link #EXEC} or {@link #RESET}
+	 * @param text
+	 * @param timeout in ms, the worker is stopped if there is no reply in time.
+	 * @return output and error - each string is empty or concatenated lines or null when there is no error
+	 * @throws IllegalStateException if the worker does not reply
+	 */
+	synchronized String[] call(char op, String text, long timeout) {
+		if (!alive) throw new IllegalStateException("The python subprocess has stopped: " + getErrors());
+		calls++;
+		try {
+			byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+			stdin.writeByte(op);
+			stdin.writeInt(bytes.length);
+			stdin.write(bytes);
+			stdin.flush();
+
+			String[] reply = timeout > 0 ? replies.poll(timeout, TimeUnit.MILLISECONDS) : replies.take();
+			if (reply == null) {
+				stop();
+				throw new IllegalStateException("The python subprocess did not reply in " + timeout + "ms and has been stopped");
+			}
+			if (reply == STOPPED) {
+				throw new IllegalStateException("The python subprocess has stopped: " + getErrors());
+			}
+			return reply;
+
+		} catch (IOException ne) {
+			stop();
+			throw new IllegalStateException("Cannot send to the python subprocess", ne);
+		} catch (InterruptedException ne) {
+			stop();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted waiting for the python subprocess", ne);
+		}
+	}
+
+	boolean isAlive() {
+		return alive && process.isAlive();
+	}
+
+	/**
+	 * @return the number of calls made of the worker
+	 */
+	int getCalls() {
+		return calls;
+	}
+
+	long getReleased() {
+		return released;
+	}
+
+	void setReleased(long released) {
+		this.released = released;
+	}
+
+	/**
+	 * Stop subprocess
+	 */
+	void stop() {
+		alive = false;
+		try {
+			stdin.close();
+		} catch (IOException e) {
+			logger.trace("Cannot close python subprocess", e);
+		}
+		process.destroy();
+	}
+}
@@ -0,0 +1,198 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+
+package org.eclipse.scanning.scisoftpy.python;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps warm Python workers so that a {@link PythonSubProcess} does not have to
+ * start Python and pay for its imports. There is a pool for each executable and
+ * environment, each pool keeps up to its size of idle workers and starts another
+ * in the background when one is taken.
+ * <p>
+ * A worker is checked when it is taken and reset when it is given back, one which
+ * has stopped, does not reset, or has made too many calls is thrown away. A worker
+ * given back is kept in preference to an idle one which has not been used.
+ * <p>
+ * The reset gives new globals and puts back the path, arguments, environment and
+ * working directory of the process, see {@link PythonWorker}. It does not unload modules:
+ * state kept in a module, threads it started or handlers it installed carry over to the
+ * next user of the worker. Code which must not share these should use a pool size of 0.
+ * <p>
+ * System properties:
+ * <pre>
+ *   org.eclipse.scanning.scisoftpy.python.poolSize     - the idle workers kept, default 2, 0 starts a process each time.
+ *   org.eclipse.scanning.scisoftpy.python.timeout      - the ms to wait for a worker to start, check or reset, default 60000, 0 waits for ever.
+ *   org.eclipse.scanning.scisoftpy.python.callTimeout  - the ms to wait for a call, default 0 which waits for ever, see {@link PythonSubProcess#communicate(String, long)}.
+ *   org.eclipse.scanning.scisoftpy.python.recycleAfter - the calls after which a worker is stopped, default 1000.
+ * </pre>
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class PythonWorkerPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(PythonWorkerPool.class);
+
+	static final int  POOL_SIZE     = Integer.getInteger("org.eclipse.scanning.scisoftpy.python.poolSize", 2);
+	static final long TIMEOUT       = Long.getLong("org.eclipse.scanning.scisoftpy.python.timeout", 60000);
+	static final long CALL_TIMEOUT  = Long.getLong("org.eclipse.scanning.scisoftpy.python.callTimeout", 0);
+	static final int  RECYCLE_AFTER = Integer.getInteger("org.eclipse.scanning.scisoftpy.python.recycleAfter", 1000);
+
+	/**
+	 * The time a worker may be idle before it is checked with a call when it is taken.
+	 */
+	private static final long CHECK_AFTER = 1000;
+
+	private static final Map<List<Object>, PythonWorkerPool> pools = new HashMap<>();
+
+	private static final ExecutorService starter = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "Python worker starter");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final String              exec;
+	private final Map<String, String> env;
+	private final Deque<PythonWorker> idle;
+	private int                       starting;
+
+	private PythonWorkerPool(String exec, Map<String, String> env) {
+		this.exec = exec;
+		this.env  = env;
+		this.idle = new ArrayDeque<>();
+	}
+
+	/**
+	 * @param exec path to Python executable
+	 * @param env may be null
+	 * @return the pool for the executable and environment
+	 */
+	static synchronized PythonWorkerPool getPool(String exec, Map<String, String> env) {
+		List<Object> key = Arrays.asList(exec, env == null || env.isEmpty() ? null : new HashMap<>(env));
+		PythonWorkerPool pool = pools.get(key);
+		if (pool == null) {
+			pool = new PythonWorkerPool(exec, env == null ? null : new HashMap<>(env));
+			pools.put(key, pool);
+		}
+		return pool;
+	}
+
+	/**
+	 * Takes an idle worker or starts one if there are none.
+	 * @return worker, which must be given back with {@link #release(PythonWorker)}
+	 */
+	PythonWorker take() {
+		PythonWorker worker;
+		while ((worker = poll()) != null) {
+			if (isHealthy(worker)) break;
+			worker.stop();
+		}
+		fill();
+		return worker != null ? worker : new PythonWorker(exec, env, TIMEOUT);
+	}
+
+	private synchronized PythonWorker poll() {
+		return idle.pollFirst();
+	}
+
+	private boolean isHealthy(PythonWorker worker) {
+		if (!worker.isAlive()) return false;
+		if (System.currentTimeMillis() - worker.getReleased() < CHECK_AFTER) return true;
+		try {
+			String[] reply = worker.call(PythonWorker.EXEC, "", TIMEOUT);
+			return reply[1] == null;
+		} catch (IllegalStateException ne) {
+			logger.debug("Python worker failed its check", ne);
+			return false;
+		}
+	}
+
+	/**
+	 * Gives back a worker, it is reset and kept if there is room and it has not made too many calls.
+	 * @param worker
+	 */
+	void release(PythonWorker worker) {
+		if (!worker.isAlive()) return;
+		if (POOL_SIZE < 1 || worker.getCalls() >= RECYCLE_AFTER) {
+			worker.stop();
+			fill();
+			return;
+		}
+		try {
+			String[] reply = worker.call(PythonWorker.RESET, "", TIMEOUT);
+			if (reply[1] != null) throw new IllegalStateException(reply[1]);
+		} catch (IllegalStateException ne) {
+			logger.debug("Python worker did not reset", ne);
+			worker.stop();
+			fill();
+			return;
+		}
+		worker.setReleased(System.currentTimeMillis());
+		PythonWorker extra = null;
+		synchronized (this) {
+			idle.addFirst(worker);
+			if (idle.size() > POOL_SIZE) extra = idle.pollLast();
+		}
+		if (extra != null) extra.stop();
+	}
+
+	/**
+	 * Starts workers in the background until the pool is full.
+	 */
+	private void fill() {
+		synchronized (this) {
+			if (idle.size() + starting >= POOL_SIZE) return;
+			starting++;
+		}
+		starter.execute(() -> {
+			PythonWorker worker = null;
+			try {
+				worker = new PythonWorker(exec, env, TIMEOUT);
+			} catch (IllegalStateException ne) {
+				logger.warn("Cannot start a python worker with "+exec, ne);
+			}
+			boolean added = false;
+			synchronized (this) {
+				starting--;
+				if (worker != null && idle.size() < POOL_SIZE) {
+					worker.setReleased(System.currentTimeMillis());
+					idle.addLast(worker);
+					added = true;
+				}
+			}
+			if (added) {
+				fill();
+			} else if (worker != null) {
+				worker.stop();
+			}
+		});
+	}
+
+	/**
+	 * @return the number of idle workers
+	 */
+	synchronized int getIdleCount() {
+		return idle.size();
+	}
+}
@@ -63,6 +63,9 @@ import org.eclipse.scanning.api.scan.event.IPositioner;
 import org.eclipse.scanning.api.scan.models.ScanModel;
 import org.eclipse.scanning.sequencer.nexus.INexusScanFileManager;
 import org.eclipse.scanning.sequencer.nexus.NexusScanFileManagerFactory;
+import org.eclipse.scanning.sequencer.timing.PointPhase;
+import org.eclipse.scanning.sequencer.timing.PointTimer;
+import org.eclipse.scanning.sequencer.timing.PointTimingMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,6 +87,8 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 	private LevelRunner<IRunnableDevice<?>>      writers;
 	private AnnotationManager                    annotationManager;
 	private ExposureTimeManager                  exposureManager;
+	private PointDurationEstimator               pointEstimator;
+	private PointTimer                           timer;
 	
 	// the nexus file
 	private INexusScanFileManager nexusScanFileManager = null;
@@ -98,6 +103,12 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 	private ReentrantLock    lock;
 	private Condition        paused;
 	private volatile boolean awaitPaused;
+
+	/**
+	 * True if the scan has been paused other than by a watchdog, the
+	 * time paused then does not tell us about the next scans.
+	 */
+	private volatile boolean userPaused;
 	
 	/**
 	 * Used for clients that would like to wait until the run. Most useful
@@ -176,14 +187,21 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		// create the location manager
 		location = new LocationManager(getBean(), model, annotationManager);
 		
-		// add the scan information to the context - it is created if not set on the scan model
+		// add the scan information to the context - it is created if not set on the scan model.
+		// The calibrator sets the costs of previous scans which the server estimates scans with.
+		ScanCostCalibrator.getInstance();
 		annotationManager.addContext(getScanInformation(location.getTotalSize()));
 		annotationManager.addContext(getPublisher());
 		exposureManager = new ExposureTimeManager();
 		exposureManager.addDevices(model.getDetectors());
+		pointEstimator = new PointDurationEstimator(exposureManager);
+		annotationManager.addContext(pointEstimator);
+		timer = new PointTimer(getBean().getName()!=null ? getBean().getName() : getName());
+		annotationManager.addContext(timer);
 		
 		// create the nexus file, if appropriate
 		nexusScanFileManager = NexusScanFileManagerFactory.createNexusScanFileManager(this);
+		nexusScanFileManager.setPointTimer(timer);
 		nexusScanFileManager.configure(model);
 		nexusScanFileManager.createNexusFile(Boolean.getBoolean("org.eclipse.scanning.sequencer.nexus.async"));
 		
@@ -199,6 +217,9 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 			runners = LevelRunner.createEmptyRunner();
 			writers = LevelRunner.createEmptyRunner();
 		}
+		if (positioner instanceof LevelRunner) ((LevelRunner<?>)positioner).setPointTimer(timer, PointPhase.POSITION.getPhaseName());
+		runners.setPointTimer(timer, PointPhase.RUN.getPhaseName());
+		writers.setPointTimer(timer, PointPhase.WRITE.getPhaseName());
 		
 		// notify that the device is now ready
 		setDeviceState(DeviceState.READY); 
@@ -231,6 +252,7 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		
 		if (getDeviceState()!=DeviceState.READY) throw new ScanningException("The device '"+getName()+"' is not ready. It is in state "+getDeviceState());
 		createScanLatch();
+		userPaused = false;
 		
 		ScanModel model = getModel();
 		if (model.getPositionIterable()==null) throw new ScanningException("The model must contain some points to scan!");
@@ -240,15 +262,16 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 	
 		boolean errorFound = false;
 		IPosition pos = null;
+		// Each scan publishes its own timing, for as long as it runs.
+		PointTimingMonitor timing = PointTimingMonitor.register(timer, getBean().getUniqueId());
 		try {
 			this.positionIterator = location.createPositionIterator();
 
-			RunnableDeviceServiceImpl.setCurrentScanningDevice(this); // Alows Jython to get and pause/seek.
+			RunnableDeviceServiceImpl.addActiveScanner(this); // Alows Jython to get and pause/seek.
 			
-	        // TODO Should we validate the position iterator that all
-	        // the positions are valid before running the scan?
-	        // It was called limit checking in GDA.
-	        // Sometimes logic is needed to implement collision avoidance
+	        // The limits of every position are checked when the scan request
+	        // is validated, without making the positions, see PointValidator.
+	        // TODO Sometimes logic is needed to implement collision avoidance
 			
     		// Set the size and declare a count
     		fireStart(location.getTotalSize());
@@ -277,23 +300,36 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 	        	}
 	        	
 	        	// Check if we are paused, blocks until we are not
+	        	long time = timer.start();
 	        	boolean continueRunning = checkPaused();
 	        	if (!continueRunning) return;  // finally block performed 
+	        	time = timer.lap(PointPhase.CHECK_PAUSED, time);
+	        	final long pointStart = time;
+	        	pointEstimator.pointStarted();
 
 	        	// Run to the position
         		annotationManager.invoke(PointStart.class, pos);
+        		time = timer.lap(PointPhase.POINT_START, time);
 	        	positioner.setPosition(pos);          // moveTo in GDA8
+	        	time = timer.lap(PointPhase.POSITION, time);
 	        	exposureManager.setExposureTime(pos); // most of the time this does nothing.
+	        	time = timer.lap(PointPhase.EXPOSURE, time);
 	        	
 	        	IPosition written = writers.await();  // Wait for the previous write out to return, if any
 	       		if (written!=null) annotationManager.invoke(WriteComplete.class, written);
+	       		time = timer.lap(PointPhase.WRITE_AWAIT, time);
 	        	
  	        	runners.run(pos);                     // GDA8: collectData() / GDA9: run() for Malcolm
+ 	        	time = timer.lap(PointPhase.RUN, time);
 	        	writers.run(pos, false);              // Do not block on the readout, move to the next position immediately.
+	        	time = timer.lap(PointPhase.WRITE, time);
 	        	
 	        	// Send an event about where we are in the scan
         		annotationManager.invoke(PointEnd.class, pos);
 	        	positionComplete(pos);
+	        	pointEstimator.pointFinished();
+	        	timer.lap(PointPhase.POINT_END, time);
+	        	timer.lap(PointPhase.POINT, pointStart);
 	        	
 	        	logger.info("Scanning completed step "+location.getStepNumber()+". Position was "+pos);
 	        }
@@ -314,8 +350,12 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 			throw new ScanningException(ne);
 			
 		} finally {
-			close(errorFound, pos);
-			RunnableDeviceServiceImpl.setCurrentScanningDevice(null);
+			try {
+				close(errorFound, pos);
+			} finally {
+				RunnableDeviceServiceImpl.removeActiveScanner(this);
+				if (timing!=null) timing.unregister();
+			}
 		}
 	}
 
@@ -382,6 +422,7 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 				positioner.close();
 				runners.close();
 				writers.close();
+				if (!errorFound) calibrate();
 				
 				nexusScanFileManager.scanFinished(); // writes scanFinished and closes nexus file
 	        	
@@ -404,6 +445,18 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		}
 	}
 	
+	/**
+	 * The costs of this scan are learned to estimate the next ones, a
+	 * problem doing so must not fail the scan.
+	 */
+	private void calibrate() {
+		try {
+			ScanCostCalibrator.getInstance().calibrate(timer, model.getDetectors(), model.getAnnotationParticipants(), userPaused);
+		} catch (Exception ne) {
+			logger.warn("Cannot calibrate the costs of scans from "+getName(), ne);
+		}
+	}
+
 	private void createScanLatch() {
 		if (latch==null || latch.getCount()<1) {
 			latch = new CountDownLatch(1);
@@ -453,7 +506,8 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		if (scanInfo == null) {
 			ScanEstimator estimator;
 			try {
-				estimator = new ScanEstimator(model.getPositionIterable(), model.getDetectors());
+				// The costs are those learned by the calibrator from the scans run before
+				estimator = new ScanEstimator(model.getPositionIterable(), model.getDetectors(), ScanEstimator.getCostModel(), ScanEstimator.getMoveTimeModel());
 			} catch (GeneratorException e) {
 				logger.error("Could not create scan estimator", e);
 				throw new ScanningException("Could not create scan estimator", e);
@@ -570,12 +624,21 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		} catch (Exception other) {
 			throw new ScanningException(other);
 		}
-		RunnableDeviceServiceImpl.setCurrentScanningDevice(null);
+		RunnableDeviceServiceImpl.removeActiveScanner(this);
 	}
 
 	@Override
 	public void pause() throws ScanningException, InterruptedException {
 		
+		work(()-> {
+			pauseInternal();
+			userPaused = true;
+		}, DeviceState.RUNNING, "pause", true, false);
+	}
+
+	@Override
+	public void pauseForWatchdog() throws ScanningException, InterruptedException {
+		
 		work(()-> pauseInternal(), DeviceState.RUNNING, "pause", true, false);
 	}
 	private void pauseInternal() throws ScanningException, InterruptedException {
@@ -0,0 +1,178 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.device.IDeviceReservation;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reserves the scannables and detectors used by scans so that scans
+ * on different devices may run at the same time. A reservation takes
+ * all of its devices or none of them, so waiting for a reservation
+ * cannot deadlock with another scan.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class DeviceReservationManager {
+	
+	private static final Logger logger = LoggerFactory.getLogger(DeviceReservationManager.class);
+
+	private final Map<String, Owner> reserved; // Device name to owner
+	private final Map<String, Owner> owners;   // Owner name to owner
+	
+	private static class Owner {
+		private final String      name;
+		private final Set<String> devices = new LinkedHashSet<>();
+		private int               holds;
+		Owner(String name) {
+			this.name = name;
+		}
+	}
+
+	public DeviceReservationManager() {
+		this.reserved = new HashMap<>();
+		this.owners   = new HashMap<>();
+	}
+
+	/**
+	 * Reserves devices, waiting if any of them are reserved by a different owner.
+	 * 
+	 * @param owner
+	 * @param names
+	 * @param time to wait, less than zero to wait until the devices are free.
+	 * @param unit
+	 * @return reservation
+	 * @throws ScanningException if the devices are not free in time.
+	 * @throws InterruptedException
+	 */
+	public synchronized IDeviceReservation reserve(String owner, Collection<String> names, long time, TimeUnit unit) throws ScanningException, InterruptedException {
+		
+		if (owner==null) throw new ScanningException("A reservation must have an owner!");
+		final Collection<String> devices = names!=null ? new LinkedHashSet<>(names) : Collections.emptySet();
+		final long end = time<0 ? Long.MAX_VALUE : System.nanoTime()+unit.toNanos(time);
+		
+		List<String> conflicts = getConflicts(owner, devices);
+		if (!conflicts.isEmpty()) logger.info("'{}' is waiting for {} which are reserved by {}", owner, conflicts, getOwners(conflicts));
+		while(!conflicts.isEmpty()) {
+			if (time<0) {
+				wait();
+			} else {
+				long remaining = end-System.nanoTime();
+				if (remaining<=0) {
+					throw new ScanningException("Cannot reserve "+conflicts+" for '"+owner+"', they are reserved by "+getOwners(conflicts));
+				}
+				TimeUnit.NANOSECONDS.timedWait(this, remaining);
+			}
+			conflicts = getConflicts(owner, devices);
+		}
+		
+		final Owner reservedBy = owners.computeIfAbsent(owner, Owner::new);
+		reservedBy.holds++;
+		reservedBy.devices.addAll(devices);
+		for (String name : devices) reserved.put(name, reservedBy);
+		logger.debug("'{}' reserved {}", owner, devices);
+		return new Reservation(owner, devices);
+	}
+
+	private List<String> getConflicts(String owner, Collection<String> names) {
+		List<String> conflicts = new ArrayList<>();
+		for (String name : names) {
+			Owner other = reserved.get(name);
+			if (other!=null && !other.name.equals(owner)) conflicts.add(name);
+		}
+		return conflicts;
+	}
+
+	private Collection<String> getOwners(Collection<String> names) {
+		Set<String> ret = new LinkedHashSet<>();
+		for (String name : names) {
+			Owner other = reserved.get(name);
+			if (other!=null) ret.add(other.name);
+		}
+		return ret;
+	}
+
+	private synchronized void release(Reservation reservation) {
+		
+		final Owner owner = owners.get(reservation.owner);
+		if (owner==null) return;
+		owner.holds--;
+		if (owner.holds>0) return;
+		
+		for (String name : owner.devices) reserved.remove(name);
+		owners.remove(owner.name);
+		logger.debug("'{}' released {}", owner.name, owner.devices);
+		notifyAll();
+	}
+
+	/**
+	 * 
+	 * @return the name of each reserved device and the owner which reserved it.
+	 */
+	public synchronized Map<String, String> getReservations() {
+		Map<String, String> ret = new LinkedHashMap<>(reserved.size());
+		for (Owner owner : owners.values()) {
+			for (String name : owner.devices) ret.put(name, owner.name);
+		}
+		return ret;
+	}
+
+	private class Reservation implements IDeviceReservation {
+
+		private final String             owner;
+		private final Collection<String> names;
+		private boolean                  released;
+
+		Reservation(String owner, Collection<String> names) {
+			this.owner = owner;
+			this.names = Collections.unmodifiableCollection(names);
+		}
+
+		@Override
+		public String getOwner() {
+			return owner;
+		}
+
+		@Override
+		public Collection<String> getNames() {
+			return names;
+		}
+
+		@Override
+		public void release() {
+			synchronized (DeviceReservationManager.this) {
+				if (released) return;
+				released = true;
+				DeviceReservationManager.this.release(this);
+			}
+		}
+		
+		@Override
+		public String toString() {
+			return "Reservation of "+names+" by '"+owner+"'";
+		}
+	}
+}
@@ -91,6 +91,23 @@ class ExposureTimeManager extends LevelRunner<IRunnableDevice<?>> {
 		run(location);
 	}
 
+	/**
+	 * The exposure time which will be used at a given point. This is
+	 * the time of the position if it has one, otherwise the longest
+	 * exposure of the detectors.
+	 *
+	 * @param location may be null
+	 * @return time in seconds or 0 if there are no detectors with an exposure time.
+	 */
+	public double getExposureTime(IPosition location) {
+		if (location!=null && location.getExposureTime()>0) return location.getExposureTime();
+		double time = 0;
+		for (IRunnableDevice<?> device : devices) {
+			time = Math.max(time, ((IDetectorModel)device.getModel()).getExposureTime());
+		}
+		return time;
+	}
+
 	private boolean isTimeDifferent(IRunnableDevice<?> device, double val) {
 		double cur = ((IDetectorModel)device.getModel()).getExposureTime();
 		boolean ok = cur>(val-tolerance) && cur<(val+tolerance);
@@ -38,6 +38,8 @@ import org.eclipse.scanning.api.scan.LevelRole;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.IPositionListener;
 import org.eclipse.scanning.api.scan.event.PositionDelegate;
+import org.eclipse.scanning.sequencer.timing.PointTimer;
+import org.eclipse.scanning.sequencer.timing.TimingPhase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,6 +65,12 @@ abstract class LevelRunner<L extends ILevel> {
 	private PositionDelegate            pDelegate;
 	private boolean                     levelCachingAllowed=true;
 	
+	// Timing, only used by the thread calling run(...)
+	private PointTimer                  timer;
+	private String                      timingName;
+	private Map<Integer, TimingPhase>   levelPhases;
+	private Map<L, TimingPhase>         devicePhases;
+	
 	protected LevelRunner() {
 		pDelegate = new PositionDelegate();
 	}
@@ -139,10 +147,13 @@ abstract class LevelRunner<L extends ILevel> {
 				int level = it.next();
 				List<L> lobjects = positionMap.get(level);
 				Collection<Callable<IPosition>> tasks = new ArrayList<>(lobjects.size());
-				for (L lobject : lobjects) {
+				List<L>                         run   = new ArrayList<>(lobjects.size());
+				for (L lobject : order(lobjects, loc)) {
 					Callable<IPosition> c = create(lobject, loc);
 					if (c==null) continue; // legal to say that there is nothing to do for a given object.
+					if (timer!=null) c = timed(lobject, c);
 					tasks.add(c);
+					run.add(lobject);
 				}
 				
 				managerMap.get(level).invoke(LevelStart.class, loc, new LevelInformation(getLevelRole(), level, lobjects));
@@ -152,12 +163,19 @@ abstract class LevelRunner<L extends ILevel> {
 				} else {
 					// Normally we block until done.
 					// Blocks until level has run
-				    List<Future<IPosition>> pos = eservice.invokeAll(tasks, getTimeout(lobjects), TimeUnit.SECONDS);
+					long start = timer!=null ? timer.start() : 0;
+					long levelTimeout = getTimeout(lobjects);
+				    List<Future<IPosition>> pos = eservice.invokeAll(tasks, levelTimeout, TimeUnit.SECONDS);
+				    if (timer!=null) getLevelPhase(level).stop(start);
 				    
 				    // If timed out, some isDone will be false.
-				    for (Future<IPosition> future : pos) {
-						if (!future.isDone()) throw new ScanningException("The timeout of "+timeout+"s has been reached waiting for level "+level+" objects "+toString(lobjects));
+				    List<L> incomplete = null;
+				    for (int i = 0; i < pos.size(); i++) {
+						if (pos.get(i).isDone()) continue;
+						if (incomplete==null) incomplete = new ArrayList<>(pos.size());
+						incomplete.add(run.get(i));
 					}
+				    if (incomplete!=null) throw new ScanningException(getTimeoutMessage(level, incomplete, levelTimeout));
 				    pDelegate.fireLevelPerformed(level, lobjects, getPosition(loc, pos));
 				}
 				managerMap.get(level).invoke(LevelEnd.class, loc, new LevelInformation(getLevelRole(), level, lobjects));
@@ -180,8 +198,71 @@ abstract class LevelRunner<L extends ILevel> {
 		return true;
 	}
 
+	/**
+	 * Records the time taken by each level and by each object at that level. 
+	 * The phases are called name.levelN and name.objectName
+	 * 
+	 * @param timer may be null to stop timing
+	 * @param name the prefix of the phase names
+	 */
+	public void setPointTimer(PointTimer timer, String name) {
+		this.timer        = timer!=null && timer.isEnabled() ? timer : null;
+		this.timingName   = name;
+		this.levelPhases  = new HashMap<>();
+		this.devicePhases = new HashMap<>();
+	}
+	
+	private TimingPhase getLevelPhase(Integer level) {
+		TimingPhase phase = levelPhases.get(level);
+		if (phase==null) {
+			phase = timer.getPhase(timingName+".level"+level);
+			levelPhases.put(level, phase);
+		}
+		return phase;
+	}
+
+	private Callable<IPosition> timed(L lobject, Callable<IPosition> task) {
+		TimingPhase phase = devicePhases.get(lobject);
+		if (phase==null) {
+			String name = lobject instanceof INameable ? ((INameable)lobject).getName() : lobject.toString();
+			phase = timer.getPhase(timingName+"."+name);
+			devicePhases.put(lobject, phase);
+		}
+		final TimingPhase devicePhase = phase;
+		return ()->{
+			long start = System.nanoTime();
+			try {
+				return task.call();
+			} finally {
+				devicePhase.stop(start);
+			}
+		};
+	}
+
 	protected abstract LevelRole getLevelRole();
 
+	/**
+	 * The order in which the objects at a level are started, by default the order
+	 * of the devices. If there are more objects than threads the first are started first.
+	 * @param lobjects at a level, must not be modified
+	 * @param position being run
+	 * @return objects in the order to start them
+	 */
+	protected List<L> order(List<L> lobjects, IPosition position) {
+		return lobjects;
+	}
+
+	/**
+	 * 
+	 * @param level
+	 * @param incomplete the objects which had not finished
+	 * @param timeout in s
+	 * @return message of the exception thrown when a level times out
+	 */
+	protected String getTimeoutMessage(int level, List<L> incomplete, long timeout) {
+		return "The timeout of "+timeout+"s has been reached waiting for level "+level+" objects "+toString(incomplete);
+	}
+
 	protected String toString(List<L> lobjects) {
 		final  StringBuilder buf = new StringBuilder("[");
 		for (L l : lobjects) {
@@ -0,0 +1,290 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.IMoveTimeModel;
+import org.eclipse.scanning.api.scan.ScanCosts;
+import org.eclipse.scanning.api.scan.ScanEstimator;
+
+/**
+ * Learns how long each scannable takes to move as it is moved by the positioner.
+ * The time of a move is modelled as t = overhead + distance/velocity, fitted by a
+ * regression of time on distance which uses exponentially weighted moving averages
+ * (EWMA) so that recent moves count most and a change in the hardware is followed.
+ * <p>
+ * The estimates are used to:
+ * <ol>
+ * <li>Set a deadline for each level of a move in proportion to the expected time,
+ * instead of a fixed timeout, once a scannable has been moved a few times.</li>
+ * <li>Start the slowest moves at a level first.</li>
+ * <li>Estimate the time of a scan spent moving, see {@link ScanEstimator}.</li>
+ * </ol>
+ * System properties:
+ * <pre>
+ *   org.eclipse.scanning.sequencer.move.alpha          - weight of the latest move, default 0.2
+ *   org.eclipse.scanning.sequencer.move.minimumMoves   - moves learned before deadlines are used, default 5
+ *   org.eclipse.scanning.sequencer.move.timeoutFactor  - multiple of the expected time allowed, default 5
+ *   org.eclipse.scanning.sequencer.move.minimumTimeout - shortest deadline in s, default 10
+ * </pre>
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class MoveTimeEstimator implements IMoveTimeModel {
+
+	private static final double ALPHA           = Double.parseDouble(System.getProperty("org.eclipse.scanning.sequencer.move.alpha", "0.2"));
+	private static final int    MINIMUM_MOVES   = Integer.getInteger("org.eclipse.scanning.sequencer.move.minimumMoves", 5);
+	private static final double TIMEOUT_FACTOR  = Double.parseDouble(System.getProperty("org.eclipse.scanning.sequencer.move.timeoutFactor", "5"));
+	private static final long   MINIMUM_TIMEOUT = Long.getLong("org.eclipse.scanning.sequencer.move.minimumTimeout", 10);
+
+	private static MoveTimeEstimator instance;
+
+	private final Map<String, MoveStatistics> statistics;
+
+	private volatile ScanCosts defaults;
+
+	MoveTimeEstimator() {
+		this.statistics = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Gets the estimator, setting it as the move time model
+	 * of the ScanEstimator the first time.
+	 * @return estimator
+	 */
+	public static synchronized MoveTimeEstimator getInstance() {
+		if (instance==null) {
+			instance = new MoveTimeEstimator();
+			ScanEstimator.setMoveTimeModel(instance);
+		}
+		return instance;
+	}
+
+	/**
+	 * Records a move which has completed.
+	 * @param name of the scannable
+	 * @param level of the scannable
+	 * @param distance moved
+	 * @param nanos time taken
+	 */
+	public void record(String name, int level, double distance, long nanos) {
+		MoveStatistics stats = statistics.computeIfAbsent(name, n->new MoveStatistics());
+		stats.record(level, Math.abs(distance), nanos/1e9);
+	}
+
+	/**
+	 * @param name
+	 * @return the statistics of the scannable or null if it has not been moved.
+	 */
+	public MoveStatistics getStatistics(String name) {
+		return statistics.get(name);
+	}
+
+	/**
+	 * @param name
+	 * @param distance
+	 * @return the expected time of the move in s or -1 if the scannable has not been moved.
+	 */
+	public double getExpectedTime(String name, double distance) {
+		MoveStatistics stats = statistics.get(name);
+		return stats!=null ? stats.getExpectedTime(Math.abs(distance)) : -1;
+	}
+
+	/**
+	 * The time allowed for a move before it is considered to have failed.
+	 * @param name
+	 * @param distance
+	 * @return the deadline in s, or -1 if not enough moves have been learned to set one.
+	 */
+	public long getTimeout(String name, double distance) {
+		MoveStatistics stats = statistics.get(name);
+		if (stats==null || stats.getCount()<MINIMUM_MOVES) return -1;
+		double allowed = TIMEOUT_FACTOR*(stats.getExpectedTime(Math.abs(distance)) + 3*stats.getDeviation());
+		return Math.max(MINIMUM_TIMEOUT, (long)Math.ceil(allowed));
+	}
+
+	/**
+	 * Scannables at the same level move at the same time, the levels move one after the other.
+	 */
+	@Override
+	public double getMoveTime(IPosition from, IPosition to) {
+		if (from==null || to==null) return 0;
+		Map<String, Double> distances = new TreeMap<>();
+		for (String name : to.getNames()) {
+			Object start = from.get(name);
+			Object end   = to.get(name);
+			if (!(start instanceof Number) || !(end instanceof Number)) continue;
+			distances.put(name, ((Number)end).doubleValue()-((Number)start).doubleValue());
+		}
+		return getMoveTime(distances);
+	}
+
+	/**
+	 * Scannables which have not been moved since the server started are
+	 * costed from the defaults, if there are any.
+	 */
+	@Override
+	public double getMoveTime(Map<String, Double> distances) {
+		final ScanCosts costs = defaults;
+		Map<Integer, Double> levels = null;
+		for (Map.Entry<String, Double> entry : distances.entrySet()) {
+			String name     = entry.getKey();
+			double distance = Math.abs(entry.getValue());
+			MoveStatistics stats = statistics.get(name);
+			int    level;
+			double time;
+			if (stats!=null) {
+				level = stats.getLevel();
+				time  = stats.getExpectedTime(distance)*1000;
+			} else if (costs!=null && costs.getLevel(name)>-1) {
+				level = costs.getLevel(name);
+				time  = costs.getMoveTime(name, distance);
+			} else {
+				continue;
+			}
+			if (levels==null) levels = new TreeMap<>();
+			levels.merge(level, time, Math::max);
+		}
+		if (levels==null) return 0;
+		double total = 0;
+		for (double time : levels.values()) total+=time;
+		return total;
+	}
+
+	/**
+	 * Sets the costs of moving scannables which were learned before the server
+	 * started. They are used until a scannable has been moved.
+	 * @param costs may be null
+	 */
+	public void setDefaults(ScanCosts costs) {
+		this.defaults = costs;
+	}
+
+	/**
+	 * @return the names of the scannables which have been moved.
+	 */
+	public Set<String> getScannableNames() {
+		return statistics.keySet();
+	}
+
+	/**
+	 * Forgets everything learned.
+	 */
+	public void clear() {
+		statistics.clear();
+	}
+
+	/**
+	 * The moving averages of the moves of one scannable.
+	 */
+	public static final class MoveStatistics {
+
+		private int    count;
+		private int    level;
+		private double meanDistance, meanTime, meanDistanceSquared, meanDistanceTime;
+		private double residualVariance;
+
+		synchronized void record(int level, double distance, double time) {
+			this.level = level;
+			if (count==0) {
+				meanDistance        = distance;
+				meanTime            = time;
+				meanDistanceSquared = distance*distance;
+				meanDistanceTime    = distance*time;
+			} else {
+				double error = time - getExpectedTime(distance);
+				residualVariance    += ALPHA*(error*error - residualVariance);
+				meanDistance        += ALPHA*(distance - meanDistance);
+				meanTime            += ALPHA*(time - meanTime);
+				meanDistanceSquared += ALPHA*(distance*distance - meanDistanceSquared);
+				meanDistanceTime    += ALPHA*(distance*time - meanDistanceTime);
+			}
+			count++;
+		}
+
+		/**
+		 * @param distance
+		 * @return the expected time in s
+		 */
+		public synchronized double getExpectedTime(double distance) {
+			if (count==0) return 0;
+			double[] fit = fit();
+			return Math.max(0, fit[0] + fit[1]*distance);
+		}
+
+		/**
+		 * @return the time of a move of no distance in s
+		 */
+		public synchronized double getOverhead() {
+			return count>0 ? Math.max(0, fit()[0]) : 0;
+		}
+
+		/**
+		 * @return the time per unit moved in s
+		 */
+		public synchronized double getSlope() {
+			return count>0 ? fit()[1] : 0;
+		}
+
+		/**
+		 * @return the overhead and slope
+		 */
+		private double[] fit() {
+			double variance = meanDistanceSquared - meanDistance*meanDistance;
+			double slope, overhead;
+			if (count>1 && variance > 1e-9*meanDistanceSquared) {
+				slope    = Math.max(0, (meanDistanceTime - meanDistance*meanTime)/variance);
+				overhead = meanTime - slope*meanDistance;
+				if (overhead<0) { // Fit through the origin
+					overhead = 0;
+					slope    = meanDistanceTime/meanDistanceSquared;
+				}
+			} else if (meanDistance>0) {
+				// All the moves have been the same size
+				slope    = meanTime/meanDistance;
+				overhead = 0;
+			} else {
+				slope    = 0;
+				overhead = meanTime;
+			}
+			return new double[]{overhead, slope};
+		}
+
+		/**
+		 * @return the standard deviation of the measured times from the expected times in s
+		 */
+		public synchronized double getDeviation() {
+			return Math.sqrt(residualVariance);
+		}
+
+		public synchronized int getCount() {
+			return count;
+		}
+
+		public synchronized int getLevel() {
+			return level;
+		}
+
+		@Override
+		public synchronized String toString() {
+			return "MoveStatistics [count=" + count + ", level=" + level + ", meanDistance=" + meanDistance
+					+ ", meanTime(ms)=" + TimeUnit.NANOSECONDS.toMillis(Math.round(meanTime*1e9)) + ", deviation=" + getDeviation() + "]";
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.points.IPosition;
+
+/**
+ * Measures how long the points of a scan take and predicts how long
+ * the next one will take. The scan loop tells this class when a point
+ * starts and finishes, time spent paused is not counted because it is
+ * outside of those calls.
+ * <p>
+ * The estimator is added to the context of the scan so that annotated
+ * participants like the TopupWatchdog may have it injected, for instance:
+ * <pre>
+ * {@literal @ScanStart}
+ * public void start(ScanBean bean, PointDurationEstimator estimator) {
+ * </pre>
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class PointDurationEstimator {
+
+	/**
+	 * Weight of the latest point in the moving average.
+	 */
+	private static final double ALPHA = 0.2;
+
+	private final ExposureTimeManager exposureManager;
+
+	private volatile long   startNanos = -1;
+	private volatile double meanNanos  = -1;
+	private volatile long   lastNanos  = -1;
+	private volatile int    count;
+
+	PointDurationEstimator(ExposureTimeManager exposureManager) {
+		this.exposureManager = exposureManager;
+	}
+
+	/**
+	 * Called by the scan loop once it is not paused and the point is about to start.
+	 */
+	void pointStarted() {
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Called by the scan loop once the point is complete.
+	 */
+	void pointFinished() {
+		if (startNanos<0) return;
+		long duration = System.nanoTime()-startNanos;
+		startNanos = -1;
+		lastNanos  = duration;
+		meanNanos  = meanNanos<0 ? duration : ALPHA*duration + (1-ALPHA)*meanNanos;
+		count++;
+	}
+
+	/**
+	 *
+	 * @param location, may be null
+	 * @return the exposure time in seconds which the detectors will use at this location.
+	 */
+	public double getExposureTime(IPosition location) {
+		return exposureManager!=null ? exposureManager.getExposureTime(location) : 0;
+	}
+
+	/**
+	 *
+	 * @return the moving average of the measured point durations in ms or -1 if no point has completed.
+	 */
+	public long getMeasuredPointTime() {
+		double mean = meanNanos;
+		return mean<0 ? -1 : TimeUnit.NANOSECONDS.toMillis(Math.round(mean));
+	}
+
+	/**
+	 *
+	 * @return the duration of the last point in ms or -1 if no point has completed.
+	 */
+	public long getLastPointTime() {
+		long last = lastNanos;
+		return last<0 ? -1 : TimeUnit.NANOSECONDS.toMillis(last);
+	}
+
+	/**
+	 * The time that a point is expected to take, this is the longer of
+	 * the measured time of the points so far and the exposure time.
+	 *
+	 * @param location the point or a point like it, may be null
+	 * @return time in ms
+	 */
+	public long getEstimatedPointTime(IPosition location) {
+		long exposure = Math.round(getExposureTime(location)*1000);
+		return Math.max(exposure, getMeasuredPointTime());
+	}
+
+	/**
+	 *
+	 * @return the number of points which have been measured.
+	 */
+	public int getPointCount() {
+		return count;
+	}
+}
@@ -19,7 +19,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.CoreException;
@@ -32,6 +35,7 @@ import org.eclipse.scanning.api.annotation.scan.AnnotationManager;
 import org.eclipse.scanning.api.annotation.scan.PostConfigure;
 import org.eclipse.scanning.api.annotation.scan.PreConfigure;
 import org.eclipse.scanning.api.device.AbstractRunnableDevice;
+import org.eclipse.scanning.api.device.IDeviceReservation;
 import org.eclipse.scanning.api.device.IRunnableDevice;
 import org.eclipse.scanning.api.device.IRunnableDeviceService;
 import org.eclipse.scanning.api.device.IScannableDeviceService;
@@ -87,9 +91,13 @@ public final class RunnableDeviceServiceImpl implements IRunnableDeviceService,
 	private static final Map<String, IRunnableDevice> namedDevices;
 	
 	
-	// This field is used to provide the getActiveScanner() method on the service.
-	// It should not be accessed from elsewhere.
-	private static IRunnableDevice<?> currentScanningDevice;
+	// These fields are used to provide the getActiveScanner() methods on the service.
+	// They should not be accessed from elsewhere. Each scan has its own context,
+	// the scan run by a thread and the threads it creates.
+	private static final List<IRunnableDevice<?>>                activeScanners = new CopyOnWriteArrayList<>();
+	private static final InheritableThreadLocal<IRunnableDevice<?>> scanContext = new InheritableThreadLocal<>();
+	
+	private static final DeviceReservationManager reservations = new DeviceReservationManager();
 
 	
 	// Use a factory pattern to register the types.
@@ -431,15 +439,48 @@ public final class RunnableDeviceServiceImpl implements IRunnableDeviceService,
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T> IRunnableDevice<T> getActiveScanner() {
-		return (IRunnableDevice<T>)RunnableDeviceServiceImpl.currentScanningDevice; // Package private method. Do not use globally!
+		IRunnableDevice<?> current = scanContext.get();
+		if (current!=null && activeScanners.contains(current)) return (IRunnableDevice<T>)current;
+		
+		final Object[] active = activeScanners.toArray();
+		return active.length>0 ? (IRunnableDevice<T>)active[active.length-1] : null;
+	}
+	
+	@Override
+	public Collection<IRunnableDevice<?>> getActiveScanners() {
+		return Collections.unmodifiableList(new ArrayList<>(activeScanners));
+	}
+
+	/**
+	 * Package private, think before stopping this.
+	 * Called by the scan when it starts to run, in the thread which runs it.
+	 * @param scanner
+	 */
+	static void addActiveScanner(IRunnableDevice<?> scanner) {
+		if (!activeScanners.contains(scanner)) activeScanners.add(scanner);
+		scanContext.set(scanner);
 	}
 
 	/**
 	 * Package private, think before stopping this.
-	 * @param currentScanningDevice
+	 * @param scanner
+	 */
+	static void removeActiveScanner(IRunnableDevice<?> scanner) {
+		activeScanners.remove(scanner);
+		if (scanContext.get()==scanner) scanContext.remove();
+	}
+	
+	@Override
+	public IDeviceReservation reserve(String owner, Collection<String> names, long time, TimeUnit unit) throws ScanningException, InterruptedException {
+		return reservations.reserve(owner, names, time, unit);
+	}
+	
+	/**
+	 * 
+	 * @return the reservations of the scans on this server.
 	 */
-	static void setCurrentScanningDevice(IRunnableDevice<?> currentScanningDevice) {
-		RunnableDeviceServiceImpl.currentScanningDevice = currentScanningDevice;
+	public static DeviceReservationManager getReservationManager() {
+		return reservations;
 	}
 
 }
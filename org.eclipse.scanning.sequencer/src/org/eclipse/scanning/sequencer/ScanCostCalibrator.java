@@ -0,0 +1,209 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.TreeSet;
+
+import org.eclipse.scanning.api.device.IDeviceWatchdog;
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.models.DeviceWatchdogModel;
+import org.eclipse.scanning.api.device.models.IDetectorModel;
+import org.eclipse.scanning.api.scan.ScanCosts;
+import org.eclipse.scanning.api.scan.ScanEstimator;
+import org.eclipse.scanning.sequencer.MoveTimeEstimator.MoveStatistics;
+import org.eclipse.scanning.sequencer.timing.PointPhase;
+import org.eclipse.scanning.sequencer.timing.PointTimer;
+import org.eclipse.scanning.sequencer.timing.TimingPhase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calibrates the costs of scans on the beamline from the timing of the points
+ * of each scan when it finishes, see {@link PointTimer}. The costs are
+ * exponentially weighted moving averages over the scans so that a change in
+ * the hardware is followed, the first scan is blended in like the others.
+ * <ol>
+ * <li>The overhead of a detector is the mean time it took to run a point less its exposure time.</li>
+ * <li>The overhead of a point is the mean time of a point less the time spent moving and running the detectors.</li>
+ * <li>The pause fraction is the part of the scan spent blocked in checkPaused() by watchdogs.
+ *     A scan paused by a user is not learned from and the fraction starts again
+ *     when the watchdogs, or their settings, change.</li>
+ * <li>The move costs are those learned by the {@link MoveTimeEstimator}.</li>
+ * </ol>
+ * The costs are only kept in the file of the beamline, see {@link ScanCosts#getDefaultFile()},
+ * if the server sets the persist property. Otherwise they are learned again each time
+ * the server starts and nothing is read from or written to the file.
+ * <p>
+ * System properties:
+ * <pre>
+ *   org.eclipse.scanning.sequencer.costs.alpha         - weight of the latest scan, default 0.2
+ *   org.eclipse.scanning.sequencer.costs.minimumPoints - points a scan must have to be calibrated from, default 2
+ *   org.eclipse.scanning.sequencer.costs.persist       - read and write the costs in the file, default false
+ * </pre>
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ScanCostCalibrator {
+
+	private static final Logger logger = LoggerFactory.getLogger(ScanCostCalibrator.class);
+
+	private static final double  ALPHA          = Double.parseDouble(System.getProperty("org.eclipse.scanning.sequencer.costs.alpha", "0.2"));
+	private static final int     MINIMUM_POINTS = Integer.getInteger("org.eclipse.scanning.sequencer.costs.minimumPoints", 2);
+	private static final boolean PERSIST        = Boolean.getBoolean("org.eclipse.scanning.sequencer.costs.persist");
+
+	private static ScanCostCalibrator instance;
+
+	private final File      file;
+	private final ScanCosts costs;
+
+	/**
+	 * Makes a calibrator which keeps its costs in a file of its own, the sequencer
+	 * uses {@link #getInstance()}.
+	 * @param file may be null to keep the costs in memory only
+	 */
+	public ScanCostCalibrator(File file) {
+		this.file  = file;
+		this.costs = file!=null ? read(file) : new ScanCosts();
+	}
+
+	/**
+	 * Gets the calibrator, reading the costs of the beamline if they are persisted and
+	 * setting them as the cost model of the ScanEstimator the first time.
+	 * @return calibrator
+	 */
+	public static synchronized ScanCostCalibrator getInstance() {
+		if (instance==null) {
+			instance = new ScanCostCalibrator(PERSIST ? ScanCosts.getDefaultFile() : null);
+			ScanEstimator.setCostModel(instance.costs);
+			MoveTimeEstimator.getInstance().setDefaults(instance.costs);
+		}
+		return instance;
+	}
+
+	private static ScanCosts read(File file) {
+		try {
+			return ScanCosts.load(file);
+		} catch (IOException ne) {
+			logger.warn("Cannot read the costs of scans from "+file+", they will be calibrated again", ne);
+			return new ScanCosts();
+		}
+	}
+
+	/**
+	 * @return the costs calibrated so far.
+	 */
+	public ScanCosts getCosts() {
+		return costs;
+	}
+
+	/**
+	 * @return the file the costs are kept in, null if they are not persisted.
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Calibrates the costs from a scan which has finished and was not paused by a user.
+	 * @param timer of the scan
+	 * @param detectors of the scan, may be null
+	 */
+	public void calibrate(PointTimer timer, Collection<IRunnableDevice<?>> detectors) {
+		calibrate(timer, detectors, null, false);
+	}
+
+	/**
+	 * Calibrates the costs from a scan which has finished.
+	 * @param timer of the scan
+	 * @param detectors of the scan, may be null
+	 * @param participants of the scan, the watchdogs in them may pause it, may be null
+	 * @param userPaused true if the scan was paused other than by a watchdog, the pause fraction is then not learned
+	 */
+	public void calibrate(PointTimer timer, Collection<IRunnableDevice<?>> detectors, Collection<?> participants, boolean userPaused) {
+
+		if (timer==null || timer.getPointCount()<MINIMUM_POINTS) return;
+
+		synchronized (costs) {
+			TimingPhase point = timer.getPhase(PointPhase.POINT);
+			double overhead   = point.getMeanTime() - timer.getPhase(PointPhase.POSITION).getMeanTime() - timer.getPhase(PointPhase.RUN).getMeanTime();
+			costs.setPointOverhead(average(costs.getPointOverhead(), Math.max(0, overhead)));
+
+			if (!userPaused) {
+				// The pauses of other watchdogs, or other settings, do not tell us about these.
+				String regime = getPauseRegime(participants);
+				if (!regime.equals(costs.getPauseRegime())) {
+					costs.setPauseRegime(regime);
+					costs.setPauseFraction(0);
+				}
+				double paused = timer.getPhase(PointPhase.CHECK_PAUSED).getTotalTime();
+				double total  = paused + point.getTotalTime();
+				costs.setPauseFraction(average(costs.getPauseFraction(), total>0 ? paused/total : 0));
+			}
+
+			if (detectors!=null) for (IRunnableDevice<?> device : detectors) {
+				if (!(device.getModel() instanceof IDetectorModel)) continue;
+				TimingPhase run = timer.findPhase(PointPhase.RUN.getPhaseName()+"."+device.getName());
+				if (run==null || run.getCount()<1) continue;
+				double exposure = ((IDetectorModel)device.getModel()).getExposureTime()*1000;
+				double readout  = Math.max(0, run.getMeanTime() - exposure);
+				String name     = device.getName();
+				costs.setDetectorOverhead(name, average(costs.getDetectorOverhead(name), readout));
+			}
+
+			MoveTimeEstimator moves = MoveTimeEstimator.getInstance();
+			for (String name : moves.getScannableNames()) {
+				MoveStatistics stats = moves.getStatistics(name);
+				if (stats==null || stats.getCount()<1) continue;
+				costs.setMoveCost(name, stats.getLevel(), stats.getOverhead()*1000, stats.getSlope()*1000);
+			}
+			costs.setScanCount(costs.getScanCount()+1);
+		}
+
+		if (file!=null) {
+			try {
+				costs.save(file);
+			} catch (IOException ne) {
+				logger.warn("Cannot write the costs of scans to "+file, ne);
+			}
+		}
+	}
+
+	private static double average(double average, double value) {
+		return average + ALPHA*(value - average);
+	}
+
+	/**
+	 * @param participants
+	 * @return the enabled watchdogs and the settings which decide when they pause, empty if there are none.
+	 */
+	static String getPauseRegime(Collection<?> participants) {
+		if (participants==null) return "";
+		final Collection<String> dogs = new TreeSet<>();
+		for (Object participant : participants) {
+			if (!(participant instanceof IDeviceWatchdog)) continue;
+			IDeviceWatchdog dog = (IDeviceWatchdog)participant;
+			DeviceWatchdogModel model = dog.getModel();
+			String name = String.valueOf(dog.getName());
+			if (model==null) {
+				dogs.add(name);
+			} else {
+				dogs.add(name+"("+model.getExpression()+","+model.getPeriod()+","+model.getTopupTime()+","
+			                          +model.getCooloff()+","+model.getWarmup()+","+model.isPredictive()+")");
+			}
+		}
+		return String.join(";", dogs);
+	}
+}
@@ -14,8 +14,11 @@ package org.eclipse.scanning.sequencer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.scanning.api.IScannable;
 import org.eclipse.scanning.api.device.IScannableDeviceService;
@@ -28,6 +31,9 @@ import org.eclipse.scanning.api.scan.event.IPositioner;
 /**
  * Positions several scannables by level, returning after all the blocking IScannable.setPosition(...)
  * methods have returned.
+ * <p>
+ * The time of each move is given to the {@link MoveTimeEstimator} which then sets the timeout of
+ * a level from the moves expected, and the slowest moves of a level are started first.
  * 
  * @author Matthew Gerring
  *
@@ -36,11 +42,16 @@ final class ScannablePositioner extends LevelRunner<IScannable<?>> implements IP
 		
 	private IScannableDeviceService     connectorService;
 	private List<IScannable<?>>         monitors;
+	
+	private final MoveTimeEstimator     moveEstimator;
+	private final Map<String, Double>   lastPositions; // The last demand of each scannable, so that we do not read the position to learn a move.
 
 	ScannablePositioner(IScannableDeviceService service) {	
 		
 		setLevelCachingAllowed(false);
 		this.connectorService = service;
+		this.moveEstimator    = MoveTimeEstimator.getInstance();
+		this.lastPositions    = new ConcurrentHashMap<>();
 		
 		// This is setting the default but the actual value of the timeout
 		// is set by implementing ITimeoutable in your IScannable. The devices
@@ -50,21 +61,73 @@ final class ScannablePositioner extends LevelRunner<IScannable<?>> implements IP
 	
 	/**
 	 * Objects at a given level are checked to find their maximum timeout.
-	 * By default those objects will return -1 so the three minute wait time is used.
+	 * By default those objects will return -1 and the timeout is that learned
+	 * for the move, or the three minute wait time if the move is not yet known.
 	 */
 	@Override
 	public long getTimeout(List<IScannable<?>> objects) {
 		long defaultTimeout = super.getTimeout(objects); // Three minutes (see above)
 		if (objects==null) return defaultTimeout;
+		if (defaultTimeout==Long.MAX_VALUE) return defaultTimeout; // Debugging
 		
 		long time = Long.MIN_VALUE;
 		for (IScannable<?> device : objects) {
-			time = Math.max(time, device.getTimeout());
+			long timeout = device.getTimeout();
+			if (timeout<0) {
+				double distance = getDistance(device, position);
+				timeout = Double.isNaN(distance) ? -1 : moveEstimator.getTimeout(device.getName(), distance);
+				if (timeout<0) timeout = defaultTimeout;
+			}
+			time = Math.max(time, timeout);
 		}
 		if (time<0) time = defaultTimeout; // seconds
 		return time;
 	}
 
+	/**
+	 * The slowest moves are started first.
+	 */
+	@Override
+	protected List<IScannable<?>> order(List<IScannable<?>> lobjects, IPosition position) {
+		if (lobjects.size()<2) return lobjects;
+		List<IScannable<?>> ordered = new ArrayList<>(lobjects);
+		ordered.sort(Comparator.comparingDouble((IScannable<?> s)->getExpectedTime(s, position)).reversed());
+		return ordered;
+	}
+
+	@Override
+	protected String getTimeoutMessage(int level, List<IScannable<?>> incomplete, long timeout) {
+		final StringBuilder buf = new StringBuilder(super.getTimeoutMessage(level, incomplete, timeout));
+		for (IScannable<?> s : incomplete) {
+			double expected = getExpectedTime(s, position);
+			if (expected>=0 && expected<Double.MAX_VALUE) {
+				buf.append("\n'"+s.getName()+"' was expected to take "+String.format("%.3f", expected)+"s");
+			}
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * @return expected time in s, Double.MAX_VALUE if not known so that unknown moves start first. 
+	 */
+	private double getExpectedTime(IScannable<?> scannable, IPosition position) {
+		double distance = getDistance(scannable, position);
+		if (Double.isNaN(distance)) return position!=null && position.get(scannable.getName())==null ? 0 : Double.MAX_VALUE;
+		double time = moveEstimator.getExpectedTime(scannable.getName(), distance);
+		return time<0 ? Double.MAX_VALUE : time;
+	}
+
+	/**
+	 * @return the distance of the move or NaN if not known.
+	 */
+	private double getDistance(IScannable<?> scannable, IPosition position) {
+		if (position==null) return Double.NaN;
+		Object demand = position.get(scannable.getName());
+		Double last   = lastPositions.get(scannable.getName());
+		if (!(demand instanceof Number) || last==null) return Double.NaN;
+		return Math.abs(((Number)demand).doubleValue()-last);
+	}
+
 	@Override
 	protected String toString(List<IScannable<?>> lobjects) {
 		final StringBuilder buf = new StringBuilder("[");
@@ -117,6 +180,7 @@ final class ScannablePositioner extends LevelRunner<IScannable<?>> implements IP
 
 		private IScannable<?> scannable;
 		private IPosition     position;
+		private boolean       moved;
 
 		public MoveTask(IScannable<?> iScannable, IPosition position) {
 			this.scannable = iScannable;
@@ -130,7 +194,10 @@ final class ScannablePositioner extends LevelRunner<IScannable<?>> implements IP
 			Object value    = position.get(scannable.getName());
 			Object achieved = value;
 			try {
+				long start = System.nanoTime();
+				moved    = true;
 				achieved = setPosition(scannable, value, position);
+				if (value instanceof Number) learn(((Number)value).doubleValue(), System.nanoTime()-start);
 			    
 			} catch (Exception ne) {
 				abort(scannable, value, position, ne);
@@ -141,6 +208,11 @@ final class ScannablePositioner extends LevelRunner<IScannable<?>> implements IP
 			return new MapPosition(scannable.getName(), position.getIndex(scannable.getName()), achieved); 
 		}
 
+		private void learn(double demand, long nanos) {
+			Double last = lastPositions.put(scannable.getName(), demand);
+			if (moved && last!=null) moveEstimator.record(scannable.getName(), scannable.getLevel(), demand-last, nanos);
+		}
+
 		@SuppressWarnings({ "rawtypes", "unchecked" })
 		private Object setPosition(IScannable scannable, Object value, IPosition position) throws Exception {
 			
@@ -160,6 +232,7 @@ final class ScannablePositioner extends LevelRunner<IScannable<?>> implements IP
 			if (cur<(val+tol) && 
 			    cur>(val-tol)) { 
 				
+				moved = false;
 				return currentValue;
 			}
 			
@@ -15,6 +15,7 @@ import org.eclipse.scanning.api.device.models.SlicingModel;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
 
 /**
  * <pre>
@@ -43,7 +44,7 @@ public class AveragingSlicingDevice extends SlicingRunnableDevice<SlicingModel>
 	@Override
 	public boolean process(SliceDeviceContext context) throws ScanningException {
 		
-		averaged.setChunking(info.createChunk(getDataShape(context.getData())));
+		averaged.setChunking(ChunkPlanner.createChunk(info, Double.class, getDataShape(context.getData())));
 		 		
 		double mean = (Double)context.getSlice().squeeze().mean();
 
@@ -16,6 +16,7 @@ import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.jython.JythonObjectFactory;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
 
 public class JythonDevice extends SlicingRunnableDevice<JythonModel>  implements INexusDevice<NXdetector> {
 	
@@ -32,7 +33,7 @@ public class JythonDevice extends SlicingRunnableDevice<JythonModel>  implements
 	@Override
 	boolean process(SliceDeviceContext context) throws ScanningException {
 		
-		processed.setChunking(info.createChunk(getDataShape(context.getData())));
+		processed.setChunking(ChunkPlanner.createChunk(info, Double.class, getDataShape(context.getData())));
 
 		IJythonFunction jython = factory.createObject();
 		IDataset ret = jython.process(context.getSlice());
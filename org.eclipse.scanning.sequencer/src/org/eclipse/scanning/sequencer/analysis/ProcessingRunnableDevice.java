@@ -37,6 +37,7 @@ import org.eclipse.scanning.api.device.models.ProcessingModel;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.sequencer.ServiceHolder;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
 
 /**
  * A runnable device that can be executed inline with the scan.
@@ -107,7 +108,7 @@ public class ProcessingRunnableDevice extends SlicingRunnableDevice<ProcessingMo
 			
 			if (context==null) {
 				createOperationService();
-				processed.setChunking(info.createChunk(getDataShape(data)));
+				processed.setChunking(ChunkPlanner.createChunk(info, Double.class, getDataShape(data)));
 			}
 			
 			context.setData(sdcontext.getSlice()); // Just this frame.
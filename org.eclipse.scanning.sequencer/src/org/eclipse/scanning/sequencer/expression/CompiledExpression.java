@@ -0,0 +1,213 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.expression;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.commons.jexl2.Expression;
+import org.apache.commons.jexl2.JexlContext;
+import org.apache.commons.jexl2.JexlEngine;
+import org.apache.commons.jexl2.Script;
+
+/**
+ *
+ * An expression which is parsed once and then evaluated many times against
+ * a fixed set of variables. Each variable has a slot, numeric values are held
+ * as primitive doubles and other values as objects. Setting a variable reports
+ * if the value actually changed so that callers may avoid reevaluating an
+ * expression whose inputs are the same.
+ * <p>
+ * This class is thread safe, variables may be set from the threads notifying
+ * position changes while the expression is evaluated on another.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class CompiledExpression {
+
+	private static final JexlEngine jexl = new JexlEngine();
+
+	private static final byte UNSET  = 0;
+	private static final byte NUMBER = 1;
+	private static final byte OBJECT = 2;
+
+	private final String               source;
+	private final Expression           expression;
+	private final Map<String, Integer> slots;
+	private final String[]             names;
+
+	private final byte[]   kinds;
+	private final double[] numbers;
+	private final Object[] objects;
+
+	private final JexlContext context;
+
+	/**
+	 * Compiles the expression, reading the variable names from it.
+	 * @param expr
+	 */
+	public CompiledExpression(String expr) {
+		this(expr, null);
+	}
+
+	/**
+	 * Compiles the expression.
+	 * @param expr
+	 * @param variableNames the variables of the expression or null to read them from the expression.
+	 */
+	public CompiledExpression(String expr, Collection<String> variableNames) {
+		this.source     = expr;
+		this.expression = jexl.createExpression(expr);
+		if (variableNames==null) variableNames = getVariableNames(expr);
+
+		this.names   = variableNames.toArray(new String[variableNames.size()]);
+		this.slots   = new HashMap<>(names.length);
+		for (int i = 0; i < names.length; i++) slots.put(names[i], i);
+		this.kinds   = new byte[names.length];
+		this.numbers = new double[names.length];
+		this.objects = new Object[names.length];
+		this.context = new SlotContext();
+	}
+
+	/**
+	 *
+	 * @return the names of the variables which have slots in this expression.
+	 */
+	public Collection<String> getVariableNames() {
+		return Collections.unmodifiableList(Arrays.asList(names));
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @return true if the name is a variable of this expression.
+	 */
+	public boolean isVariable(String name) {
+		return slots.containsKey(name);
+	}
+
+	/**
+	 * Sets a numeric variable without boxing it.
+	 *
+	 * @param name
+	 * @param value
+	 * @return true if the value was changed, false if it is the same as the value already held or
+	 * the name is not a variable of the expression.
+	 */
+	public synchronized boolean setVariable(String name, double value) {
+		Integer slot = slots.get(name);
+		if (slot==null) return false;
+		int i = slot;
+		if (kinds[i]==NUMBER && Double.doubleToLongBits(numbers[i])==Double.doubleToLongBits(value)) return false;
+		kinds[i]   = NUMBER;
+		numbers[i] = value;
+		objects[i] = null;
+		return true;
+	}
+
+	/**
+	 * Sets a variable, numbers are stored as primitives.
+	 *
+	 * @param name
+	 * @param value
+	 * @return true if the value was changed, false if it is the same as the value already held or
+	 * the name is not a variable of the expression.
+	 */
+	public synchronized boolean setVariable(String name, Object value) {
+		if (value instanceof Number) return setVariable(name, ((Number)value).doubleValue());
+		Integer slot = slots.get(name);
+		if (slot==null) return false;
+		int i = slot;
+		if (kinds[i]==OBJECT && Objects.equals(objects[i], value)) return false;
+		kinds[i]   = OBJECT;
+		objects[i] = value;
+		return true;
+	}
+
+	/**
+	 * Evaluates the expression against the current values of the variables.
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T> T evaluate() {
+		return (T)expression.evaluate(context);
+	}
+
+	/**
+	 * Evaluates the expression which must return a boolean.
+	 * @return
+	 * @throws IllegalArgumentException if the expression is not a boolean one.
+	 */
+	public boolean evaluateBoolean() {
+		Object ret = evaluate();
+		if (!(ret instanceof Boolean)) throw new IllegalArgumentException("The expression '"+source+"' did not evaluate to a boolean, the value was "+ret);
+		return (Boolean)ret;
+	}
+
+	public String getExpression() {
+		return source;
+	}
+
+	@Override
+	public String toString() {
+		return "CompiledExpression [" + source + "]";
+	}
+
+	/**
+	 * Reads the slots directly, JEXL will only ever see objects
+	 * so the numbers are boxed here, on evaluation, and not when
+	 * a new value is set.
+	 */
+	private class SlotContext implements JexlContext {
+
+		@Override
+		public Object get(String name) {
+			Integer slot = slots.get(name);
+			if (slot==null) return null;
+			switch(kinds[slot]) {
+			case NUMBER: return numbers[slot];
+			case OBJECT: return objects[slot];
+			default:     return null;
+			}
+		}
+
+		@Override
+		public void set(String name, Object value) {
+			setVariable(name, value);
+		}
+
+		@Override
+		public boolean has(String name) {
+			Integer slot = slots.get(name);
+			return slot!=null && kinds[slot]!=UNSET;
+		}
+	}
+
+	private static Collection<String> getVariableNames(String expr) {
+		final Script script = jexl.createScript(expr);
+		Set<List<String>> dottednames = script.getVariables();
+		Collection<String> ret = new LinkedHashSet<String>();
+		for (List<String> dottedname : dottednames) {
+			if (dottedname.size() == 0) continue;
+			ret.add(String.join(".", dottedname));
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,280 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.nexus;
+
+import java.util.Arrays;
+
+import org.eclipse.dawnsci.nexus.NexusScanInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Chooses the chunk shape of the datasets written by a scan from the shape of
+ * the scan, the shape and type of the data written at each point and how the
+ * file is expected to be read afterwards.
+ * <p>
+ * Points are written in scan order with the last (fastest) scan dimension
+ * changing most often, so a chunk is grown along the fastest dimension first
+ * and only grows along a slower dimension once it spans the whole of the faster
+ * ones. Each chunk is then filled and finished in turn and only the chunks of
+ * the current point are partially written. A snake scan fills the chunks of
+ * alternate rows from the other end but they are the same chunks, so the
+ * direction of the fast axis does not change the plan.
+ * <p>
+ * The NeXus file API does not allow the chunk cache of a dataset to be set.
+ * Chunks which hold one point are written whole, but those filled over several
+ * points stay in the cache until they are full, so when frames are kept whole
+ * the plan keeps them small enough for the HDF5 default cache. When maps are
+ * read, split frames may need more and this is logged.
+ * <p>
+ * System properties:
+ * <pre>
+ *   org.eclipse.scanning.sequencer.nexus.chunkBytes  - the target size of a chunk, default 512KiB
+ *   org.eclipse.scanning.sequencer.nexus.readPattern - FRAMES, MAPS or BALANCED, default BALANCED
+ * </pre>
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ChunkPlanner {
+
+	private static Logger logger = LoggerFactory.getLogger(ChunkPlanner.class);
+
+	/**
+	 * How the datasets are expected to be read once they are written.
+	 */
+	public enum ReadPattern {
+
+		/**
+		 * Whole frames are read, for instance the image at a point. Each chunk holds one frame.
+		 */
+		FRAMES,
+
+		/**
+		 * Part of each frame is read over the whole scan, for instance a region of a spectrum
+		 * as a map. Frames are split so that each chunk holds many points.
+		 */
+		MAPS,
+
+		/**
+		 * Frames are kept whole and each chunk holds as many points as fit in the target size.
+		 */
+		BALANCED;
+	}
+
+	/**
+	 * Half of the 1MiB HDF5 default chunk cache, chunks larger than the cache are not cached at all.
+	 */
+	public static final long DEFAULT_CHUNK_BYTES = 512*1024;
+
+	/**
+	 * The size of the chunk cache which HDF5 uses if it is not set.
+	 */
+	public static final long DEFAULT_CACHE_BYTES = 1024*1024;
+
+	/**
+	 * The chunk extent used for scan dimensions of unknown size, for instance those of unbounded scans.
+	 */
+	private static final int UNKNOWN_EXTENT = 64;
+
+	/**
+	 * The number of points which a chunk should hold when maps are read.
+	 */
+	private static final int MAP_POINTS = 64;
+
+
+	private final long        targetBytes;
+	private final ReadPattern pattern;
+
+	public ChunkPlanner(long targetBytes, ReadPattern pattern) {
+		if (targetBytes<1) throw new IllegalArgumentException("The target chunk size must be positive!");
+		if (pattern==null) throw new IllegalArgumentException("The read pattern must be set!");
+		this.targetBytes = targetBytes;
+		this.pattern     = pattern;
+	}
+
+	/**
+	 * @return a planner configured from the system properties.
+	 */
+	public static ChunkPlanner getDefault() {
+		long bytes = Long.getLong("org.eclipse.scanning.sequencer.nexus.chunkBytes", DEFAULT_CHUNK_BYTES);
+		String name = System.getProperty("org.eclipse.scanning.sequencer.nexus.readPattern", ReadPattern.BALANCED.name());
+		ReadPattern pattern;
+		try {
+			pattern = ReadPattern.valueOf(name.trim().toUpperCase());
+		} catch (IllegalArgumentException ne) {
+			logger.warn("Unknown read pattern '{}', using {}", name, ReadPattern.BALANCED);
+			pattern = ReadPattern.BALANCED;
+		}
+		return new ChunkPlanner(bytes, pattern);
+	}
+
+	/**
+	 * Convenience method for the chunking of a dataset written by a device, replacing
+	 * {@link NexusScanInfo#createChunk(int...)}.
+	 *
+	 * @param info of the scan
+	 * @param clazz of the elements, for instance Double.class
+	 * @param frameShape the shape written at each point, empty for a scalar
+	 * @return the chunk, of rank scan rank plus frame rank
+	 */
+	public static int[] createChunk(NexusScanInfo info, Class<?> clazz, int... frameShape) {
+		return getDefault().plan(info, clazz, frameShape).getChunk();
+	}
+
+	/**
+	 * @param info of the scan
+	 * @param clazz of the elements, for instance Double.class
+	 * @param frameShape the shape written at each point, empty for a scalar
+	 * @return the plan for the dataset
+	 */
+	public ChunkPlan plan(NexusScanInfo info, Class<?> clazz, int... frameShape) {
+		int[] scanShape = info.getShape();
+		if (scanShape==null || scanShape.length!=info.getRank()) {
+			scanShape = new int[info.getRank()];
+			Arrays.fill(scanShape, -1);
+		}
+		return plan(scanShape, frameShape, getElementBytes(clazz));
+	}
+
+	/**
+	 * Plans the chunking of a dataset.
+	 *
+	 * @param scanShape the shape of the scan, sizes which are not known are zero or negative
+	 * @param frameShape the shape written at each point, empty for a scalar
+	 * @param elementBytes the size of one element
+	 * @return the plan
+	 */
+	public ChunkPlan plan(int[] scanShape, int[] frameShape, int elementBytes) {
+
+		int scanRank  = scanShape!=null  ? scanShape.length  : 0;
+		int frameRank = frameShape!=null ? frameShape.length : 0;
+		int[] chunk   = new int[scanRank+frameRank];
+		long budget   = Math.max(1, targetBytes/Math.max(1, elementBytes));
+
+		// Frames are kept whole unless they are larger than a chunk or maps are read,
+		// then they are split along their slowest dimensions first.
+		long frameLimit = pattern==ReadPattern.MAPS && scanRank>0 ? Math.max(1, budget/MAP_POINTS) : budget;
+		for (int i = 0; i < frameRank; i++) chunk[scanRank+i] = Math.max(1, frameShape[i]);
+		for (int i = 0; i < frameRank; i++) {
+			long elements = product(chunk, scanRank);
+			if (elements<=frameLimit) break;
+			long others = elements/chunk[scanRank+i];
+			chunk[scanRank+i] = divide(chunk[scanRank+i], Math.max(1, frameLimit/others));
+		}
+		long frameElements = product(chunk, scanRank);
+		int  frameChunks   = 1;
+		for (int i = 0; i < frameRank; i++) frameChunks *= ceil(Math.max(1, frameShape[i]), chunk[scanRank+i]);
+
+		// Points are added from the fastest scan dimension. Split frames are written to
+		// several chunks at once, which would not all fit in the default cache if they
+		// were filled over several points, so they hold one point unless maps are read.
+		long room = budget/frameElements;
+		if (pattern==ReadPattern.FRAMES) room = 1;
+		if (pattern==ReadPattern.BALANCED && frameChunks>1) room = 1;
+		for (int i = 0; i < scanRank; i++) chunk[i] = 1;
+		for (int i = scanRank-1; i >= 0 && room > 1; i--) {
+			int extent = scanShape[i] > 0 ? scanShape[i] : UNKNOWN_EXTENT;
+			chunk[i] = divide(extent, room);
+			room    /= chunk[i];
+			if (chunk[i] < extent) break;
+		}
+
+		long chunkBytes = product(chunk, 0)*Math.max(1, elementBytes);
+		ChunkPlan plan = new ChunkPlan(chunk, chunkBytes, frameChunks);
+		long partial = product(chunk, 0)/frameElements>1 ? (long)frameChunks*chunkBytes : 0;
+		if (partial>DEFAULT_CACHE_BYTES) {
+			logger.info("Chunking for scan {} and frame {} fills {} bytes of chunks at once, more than the HDF5 default chunk cache, {}", Arrays.toString(scanShape), Arrays.toString(frameShape), partial, plan);
+		} else if (logger.isDebugEnabled()) {
+			logger.debug("Chunking for scan {} and frame {} is {}", Arrays.toString(scanShape), Arrays.toString(frameShape), plan);
+		}
+		return plan;
+	}
+
+	public long getTargetBytes() {
+		return targetBytes;
+	}
+
+	public ReadPattern getReadPattern() {
+		return pattern;
+	}
+
+	/**
+	 * @param clazz
+	 * @return the size in bytes of an element of the class, 8 for strings which are written as references.
+	 */
+	public static int getElementBytes(Class<?> clazz) {
+		if (clazz==Byte.class    || clazz==Boolean.class) return 1;
+		if (clazz==Short.class)                           return 2;
+		if (clazz==Integer.class || clazz==Float.class)   return 4;
+		return 8;
+	}
+
+	/**
+	 * The largest even division of extent which is no larger than the limit, so
+	 * that the last chunk along a dimension is not mostly empty.
+	 */
+	private static int divide(int extent, long limit) {
+		if (limit>=extent) return extent;
+		int chunks = ceil(extent, Math.max(1, limit));
+		return (int)Math.max(1, Math.min(limit, ceil(extent, chunks)));
+	}
+
+	private static int ceil(long a, long b) {
+		return (int)((a+b-1)/b);
+	}
+
+	private static long product(int[] shape, int from) {
+		long product = 1;
+		for (int i = from; i < shape.length; i++) product *= shape[i];
+		return product;
+	}
+
+	/**
+	 * The chunk shape and chunk cache settings for a dataset.
+	 */
+	public static final class ChunkPlan {
+
+		private final int[] chunk;
+		private final long  chunkBytes;
+		private final int   openChunks;
+
+		ChunkPlan(int[] chunk, long chunkBytes, int openChunks) {
+			this.chunk      = chunk;
+			this.chunkBytes = chunkBytes;
+			this.openChunks = openChunks;
+		}
+
+		/**
+		 * @return the chunk shape, scan dimensions then frame dimensions.
+		 */
+		public int[] getChunk() {
+			return chunk.clone();
+		}
+
+		public long getChunkBytes() {
+			return chunkBytes;
+		}
+
+		/**
+		 * @return the number of chunks which are written to at each point.
+		 */
+		public int getOpenChunks() {
+			return openChunks;
+		}
+
+		@Override
+		public String toString() {
+			return "ChunkPlan [chunk=" + Arrays.toString(chunk) + ", chunkBytes=" + chunkBytes + ", openChunks=" + openChunks + "]";
+		}
+	}
+}
@@ -17,6 +17,7 @@ import org.eclipse.dawnsci.nexus.NexusScanInfo;
 import org.eclipse.scanning.api.IConfigurable;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.sequencer.timing.PointTimer;
 
 /**
  * An interface defining a nexus scan file to managed.
@@ -62,4 +63,11 @@ public interface INexusScanFileManager extends IConfigurable<ScanModel> {
 	 * @return
 	 */
 	public Set<String> getExternalFilePaths();
+	
+	/**
+	 * Sets the timer of the scan points, which is written to the
+	 * nexus file when the scan finishes if timing output is enabled.
+	 * @param timer
+	 */
+	public void setPointTimer(PointTimer timer);
 }
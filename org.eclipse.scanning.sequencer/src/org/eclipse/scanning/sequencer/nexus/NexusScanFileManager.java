@@ -63,6 +63,7 @@ import org.eclipse.scanning.api.scan.models.ScanMetadata;
 import org.eclipse.scanning.api.scan.models.ScanMetadata.MetadataType;
 import org.eclipse.scanning.api.scan.models.ScanModel;
 import org.eclipse.scanning.sequencer.ServiceHolder;
+import org.eclipse.scanning.sequencer.timing.PointTimer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +81,7 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 	private NexusFileBuilder fileBuilder;
 	private NexusScanFile nexusScanFile;
 	private SolsticeScanMonitor solsticeScanMonitor;
+	private PointTimer pointTimer;
 	
 	// we need to cache various things as they are used more than once
 	/**
@@ -210,6 +212,11 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 		return scanInfo;
 	}
 	
+	@Override
+	public void setPointTimer(PointTimer timer) {
+		this.pointTimer = timer;
+	}
+	
 	@Override
 	public void positionPerformed(PositionEvent evt) throws ScanningException {
 		solsticeScanMonitor.setPosition(null, evt.getPosition());
@@ -217,6 +224,7 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 
 	protected SolsticeScanMonitor createSolsticeScanMonitor(ScanModel model) {
 		SolsticeScanMonitor solsticeScanMonitor = new SolsticeScanMonitor(model);
+		solsticeScanMonitor.setPointTimer(pointTimer);
 		scanDevice.addPositionListener(this);
 		return solsticeScanMonitor;
 	}
@@ -19,6 +19,7 @@ import org.eclipse.scanning.api.device.AbstractRunnableDevice;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.models.ScanModel;
 import org.eclipse.scanning.sequencer.ServiceHolder;
+import org.eclipse.scanning.sequencer.timing.PointTimer;
 
 public class NexusScanFileManagerFactory {
 	
@@ -60,6 +61,11 @@ public class NexusScanFileManagerFactory {
 			return null;
 		}
 
+		@Override
+		public void setPointTimer(PointTimer timer) {
+			// do nothing
+		}
+
 	}
 	
 	public static INexusScanFileManager createNexusScanFileManager(
@@ -27,6 +27,21 @@ public final class SolsticeConstants {
 	public static final String FIELD_NAME_SCAN_DEAD_TIME_PERCENT = "scan_dead_time_percent";
 	public static final String FIELD_NAME_SCAN_SHAPE    = "scan_shape";
 	
+	/**
+	 * The point timing collection, only written if org.eclipse.scanning.sequencer.timing.nexus is true.
+	 * Each field has a value per phase, times are in ms.
+	 */
+	public static final String GROUP_NAME_POINT_TIMING  = "point_timing";
+	public static final String FIELD_NAME_PHASE         = "phase";
+	public static final String FIELD_NAME_COUNT         = "count";
+	public static final String FIELD_NAME_MEAN_TIME     = "mean_time";
+	public static final String FIELD_NAME_MIN_TIME      = "min_time";
+	public static final String FIELD_NAME_MAX_TIME      = "max_time";
+	public static final String FIELD_NAME_MEDIAN_TIME   = "median_time";
+	public static final String FIELD_NAME_PERCENTILE_99_TIME = "percentile_99_time";
+	public static final String FIELD_NAME_HISTOGRAM     = "histogram";
+	public static final String FIELD_NAME_HISTOGRAM_LIMITS = "histogram_limits";
+	
 	/**
 	 * Property name for the path within an external (linked) nexus file to the unique keys dataset. 
 	 */
@@ -11,6 +11,15 @@
  *******************************************************************************/
 package org.eclipse.scanning.sequencer.nexus;
 
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_COUNT;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_HISTOGRAM;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_HISTOGRAM_LIMITS;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_MAX_TIME;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_MEAN_TIME;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_MEDIAN_TIME;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_MIN_TIME;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_PERCENTILE_99_TIME;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_PHASE;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_CMD;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_DEAD_TIME;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_DEAD_TIME_PERCENT;
@@ -22,6 +31,7 @@ import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_SHAPE;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_UNIQUE_KEYS;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.GROUP_NAME_KEYS;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.GROUP_NAME_POINT_TIMING;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.GROUP_NAME_SOLSTICE_SCAN;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.PROPERTY_NAME_UNIQUE_KEYS_PATH;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.SCANNABLE_NAME_SOLSTICE_SCAN_MONITOR;
@@ -63,6 +73,8 @@ import org.eclipse.scanning.api.scan.models.ScanModel;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.sequencer.ServiceHolder;
+import org.eclipse.scanning.sequencer.timing.PointTimer;
+import org.eclipse.scanning.sequencer.timing.TimingPhase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -97,6 +109,17 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 	private ILazyWriteableDataset scanDurationDataset = null;
 	private ILazyWriteableDataset scanDeadTimeDataset = null;
 	private ILazyWriteableDataset scanDeadTimePercentDataset = null;
+	
+	// point timing, only if enabled
+	private PointTimer pointTimer = null;
+	private ILazyWriteableDataset phaseDataset = null;
+	private ILazyWriteableDataset countDataset = null;
+	private ILazyWriteableDataset meanTimeDataset = null;
+	private ILazyWriteableDataset minTimeDataset = null;
+	private ILazyWriteableDataset maxTimeDataset = null;
+	private ILazyWriteableDataset medianTimeDataset = null;
+	private ILazyWriteableDataset percentile99TimeDataset = null;
+	private ILazyWriteableDataset histogramDataset = null;
 
 	// State
 	private boolean malcolmScan = false;
@@ -124,6 +147,19 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 		this.nexusObjectProviders = nexusObjectProviders;
 	}
 	
+	/**
+	 * Sets the timer of the scan points. The timing is written in a
+	 * collection if the timer is enabled and org.eclipse.scanning.sequencer.timing.nexus is true
+	 * @param pointTimer
+	 */
+	public void setPointTimer(PointTimer pointTimer) {
+		this.pointTimer = pointTimer;
+	}
+	
+	private boolean isPointTimingWritten() {
+		return pointTimer!=null && pointTimer.isEnabled() && PointTimer.isNexusEnabled();
+	}
+	
 	public void setMalcolmScan(boolean malcolmScan) {
 		this.malcolmScan = malcolmScan;
 	}
@@ -197,6 +233,11 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 				new int[] { 1 }, new int[] { -1 }, new int[] { 1 }, null);
 		scanPointsCollection.createDataNode(FIELD_NAME_SCAN_DEAD_TIME_PERCENT, scanDeadTimePercentDataset);
 		
+		// create a sub-collection for the time taken by each phase of the scan points
+		if (isPointTimingWritten()) {
+			scanPointsCollection.addGroupNode(GROUP_NAME_POINT_TIMING, createPointTimingCollection());
+		}
+		
 		// create a sub-collection for the unique keys field and keys from each external file
 		final NXcollection keysCollection = NexusNodeFactory.createNXcollection();
 		scanPointsCollection.addGroupNode(GROUP_NAME_KEYS, keysCollection);
@@ -208,7 +249,7 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 
 		// set chunking for lazy datasets
 		if (info.getRank() > 0) {
-			final int[] chunk = info.createChunk(false, 8);
+			final int[] chunk = ChunkPlanner.createChunk(info, Integer.class);
 			if (!malcolmScan) {
 				uniqueKeysDataset.setFillValue(0);
 				uniqueKeysDataset.setChunking(chunk);
@@ -221,6 +262,91 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 		return scanPointsCollection;
 	}
 	
+	private NXcollection createPointTimingCollection() {
+		
+		final NXcollection timingCollection = NexusNodeFactory.createNXcollection();
+		
+		// the number of phases is not known until the scan has run
+		phaseDataset            = createTimingDataset(timingCollection, FIELD_NAME_PHASE, String.class);
+		countDataset            = createTimingDataset(timingCollection, FIELD_NAME_COUNT, Long.class);
+		meanTimeDataset         = createTimingDataset(timingCollection, FIELD_NAME_MEAN_TIME, Double.class);
+		minTimeDataset          = createTimingDataset(timingCollection, FIELD_NAME_MIN_TIME, Double.class);
+		maxTimeDataset          = createTimingDataset(timingCollection, FIELD_NAME_MAX_TIME, Double.class);
+		medianTimeDataset       = createTimingDataset(timingCollection, FIELD_NAME_MEDIAN_TIME, Double.class);
+		percentile99TimeDataset = createTimingDataset(timingCollection, FIELD_NAME_PERCENTILE_99_TIME, Double.class);
+		
+		histogramDataset = new LazyWriteableDataset(FIELD_NAME_HISTOGRAM, Long.class,
+				new int[] { 1, TimingPhase.BUCKETS }, new int[] { -1, TimingPhase.BUCKETS }, new int[] { 1, TimingPhase.BUCKETS }, null);
+		timingCollection.createDataNode(FIELD_NAME_HISTOGRAM, histogramDataset);
+		
+		final double[] limits = new double[TimingPhase.BUCKETS];
+		for (int i = 0; i < limits.length; i++) limits[i] = TimingPhase.getBucketLimit(i);
+		timingCollection.setDataset(FIELD_NAME_HISTOGRAM_LIMITS, DatasetFactory.createFromObject(limits));
+		
+		return timingCollection;
+	}
+	
+	private static ILazyWriteableDataset createTimingDataset(NXcollection collection, String name, Class<?> clazz) {
+		ILazyWriteableDataset dataset = new LazyWriteableDataset(name, clazz,
+				new int[] { 1 }, new int[] { -1 }, new int[] { 1 }, null);
+		collection.createDataNode(name, dataset);
+		return dataset;
+	}
+	
+	/**
+	 * Writes the statistics of each phase which was timed.
+	 * @throws ScanningException
+	 */
+	private void writePointTiming() throws ScanningException {
+		
+		final List<TimingPhase> phases = pointTimer.getPhases().stream().filter(p -> p.getCount() > 0).collect(Collectors.toList());
+		final int size = phases.size();
+		if (size < 1) return;
+		
+		final String[] names   = new String[size];
+		final long[]   counts  = new long[size];
+		final double[] means   = new double[size];
+		final double[] mins    = new double[size];
+		final double[] maxes   = new double[size];
+		final double[] medians = new double[size];
+		final double[] p99s    = new double[size];
+		final long[][] histograms = new long[size][];
+		for (int i = 0; i < size; i++) {
+			TimingPhase phase = phases.get(i);
+			names[i]   = phase.getName();
+			counts[i]  = phase.getCount();
+			means[i]   = phase.getMeanTime();
+			mins[i]    = phase.getMinTime();
+			maxes[i]   = phase.getMaxTime();
+			medians[i] = phase.getPercentile(50);
+			p99s[i]    = phase.getPercentile(99);
+			histograms[i] = phase.getHistogram();
+		}
+		
+		try {
+			writeTiming(phaseDataset, names);
+			writeTiming(countDataset, counts);
+			writeTiming(meanTimeDataset, means);
+			writeTiming(minTimeDataset, mins);
+			writeTiming(maxTimeDataset, maxes);
+			writeTiming(medianTimeDataset, medians);
+			writeTiming(percentile99TimeDataset, p99s);
+			writeTiming(histogramDataset, histograms);
+		} catch (Exception e) {
+			throw new ScanningException("Could not write point timing to NeXus file", e);
+		}
+		logger.debug(pointTimer.toString());
+	}
+	
+	private static void writeTiming(ILazyWriteableDataset lazy, Object data) throws DatasetException {
+		final Dataset dataset = DatasetFactory.createFromObject(data);
+		final int[] stop  = dataset.getShape();
+		final int[] start = new int[stop.length];
+		final int[] step  = new int[stop.length];
+		Arrays.fill(step, 1);
+		lazy.setSlice(null, dataset, start, stop, step);
+	}
+	
 	private static String durationInMillisToString(Duration duration) {
 		long days = duration.toDays(); // chop off any days as formatter can't handle them
 		duration = duration.minusDays(days);
@@ -290,6 +416,8 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 		final String estimatedTimeStr = durationInMillisToString(Duration.ofMillis(scanInfo.getEstimatedScanTime()));
 		logger.info("MScan Details: scan file = {}, shape = {}, estimated time = {}, actual time = {}, dead time = {} ({}%)",
 				filePath, shapeStr, estimatedTimeStr, scanDurationStr, scanDeadTimeStr, deadTimePercentStr);
+		
+		if (isPointTimingWritten()) writePointTiming();
 	}
 
 	@Override
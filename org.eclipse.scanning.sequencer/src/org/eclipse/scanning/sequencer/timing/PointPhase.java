@@ -0,0 +1,77 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.timing;
+
+/**
+ * The phases of the scan loop which are timed for every point,
+ * in the order that they happen.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public enum PointPhase {
+
+	/**
+	 * Waiting while paused, normally very short.
+	 */
+	CHECK_PAUSED("check_paused"),
+
+	/**
+	 * Invoking the @PointStart methods.
+	 */
+	POINT_START("point_start"),
+
+	/**
+	 * Moving the scannables, each level and scannable is also timed.
+	 */
+	POSITION("position"),
+
+	/**
+	 * Changing the exposure time, most of the time this does nothing.
+	 */
+	EXPOSURE("exposure"),
+
+	/**
+	 * Waiting for the previous point to be written.
+	 */
+	WRITE_AWAIT("write_await"),
+
+	/**
+	 * Running the detectors, each level and detector is also timed.
+	 */
+	RUN("run"),
+
+	/**
+	 * Starting the writing of the point, the writing itself is timed per detector.
+	 */
+	WRITE("write"),
+
+	/**
+	 * Invoking the @PointEnd methods and publishing the position.
+	 */
+	POINT_END("point_end"),
+
+	/**
+	 * The whole point, not including time paused.
+	 */
+	POINT("point");
+
+	private final String phaseName;
+
+	private PointPhase(String phaseName) {
+		this.phaseName = phaseName;
+	}
+
+	public String getPhaseName() {
+		return phaseName;
+	}
+}
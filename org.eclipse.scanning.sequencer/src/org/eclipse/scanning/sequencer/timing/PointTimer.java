@@ -0,0 +1,156 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.timing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records how long each phase of each point of a scan takes, so that the
+ * dead time per point may be found. The scan loop times the phases in
+ * {@link PointPhase} and the level runners add a phase for each level
+ * and each device, for instance "position.level3" and "position.x".
+ * <p>
+ * Usage from the scan loop:
+ * <pre>
+ *   long time = timer.start();
+ *   ... check paused ...
+ *   time = timer.lap(PointPhase.CHECK_PAUSED, time);
+ *   ... invoke PointStart ...
+ *   time = timer.lap(PointPhase.POINT_START, time);
+ * </pre>
+ * System properties:
+ * <pre>
+ *   org.eclipse.scanning.sequencer.timing          - set to false to turn the timing off, default true.
+ *   org.eclipse.scanning.sequencer.timing.capacity - the number of recent times kept per phase for percentiles, default 1024.
+ *   org.eclipse.scanning.sequencer.timing.nexus    - set to true to write the timing to the NeXus file, default false.
+ * </pre>
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class PointTimer {
+
+	private final String              scanName;
+	private final boolean             enabled;
+	private final int                 capacity;
+	private final TimingPhase[]       pointPhases;
+	private final Map<String, TimingPhase> phases;
+
+	public PointTimer(String scanName) {
+		this(scanName, isTimingEnabled(), Integer.getInteger("org.eclipse.scanning.sequencer.timing.capacity", 1024));
+	}
+
+	public PointTimer(String scanName, boolean enabled, int capacity) {
+		this.scanName    = scanName;
+		this.enabled     = enabled;
+		this.capacity    = capacity;
+		this.phases      = new LinkedHashMap<>();
+		this.pointPhases = new TimingPhase[PointPhase.values().length];
+		for (PointPhase phase : PointPhase.values()) {
+			pointPhases[phase.ordinal()] = getPhase(phase.getPhaseName());
+		}
+	}
+
+	public static boolean isTimingEnabled() {
+		return Boolean.parseBoolean(System.getProperty("org.eclipse.scanning.sequencer.timing", "true"));
+	}
+
+	public static boolean isNexusEnabled() {
+		return Boolean.getBoolean("org.eclipse.scanning.sequencer.timing.nexus");
+	}
+
+	/**
+	 * @return the current time in ns or 0 if timing is off.
+	 */
+	public long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records the time of a phase.
+	 * @param phase
+	 * @param since the time that the phase started from start() or lap(...)
+	 * @return the time in ns that the phase ended, which is the start of the next one.
+	 */
+	public long lap(PointPhase phase, long since) {
+		if (!enabled) return 0;
+		return pointPhases[phase.ordinal()].stop(since);
+	}
+
+	/**
+	 * Gets a phase by name, creating it if it does not exist.
+	 * @param name
+	 * @return phase
+	 */
+	public synchronized TimingPhase getPhase(String name) {
+		TimingPhase phase = phases.get(name);
+		if (phase==null) {
+			phase = new TimingPhase(name, capacity);
+			phases.put(name, phase);
+		}
+		return phase;
+	}
+
+	public TimingPhase getPhase(PointPhase phase) {
+		return pointPhases[phase.ordinal()];
+	}
+
+	/**
+	 * @param name
+	 * @return the phase or null if it has not been recorded.
+	 */
+	public synchronized TimingPhase findPhase(String name) {
+		return phases.get(name);
+	}
+
+	/**
+	 * @return the phases in the order that they were created.
+	 */
+	public synchronized List<TimingPhase> getPhases() {
+		return Collections.unmodifiableList(new ArrayList<>(phases.values()));
+	}
+
+	/**
+	 * @return the number of points which have been timed.
+	 */
+	public long getPointCount() {
+		return getPhase(PointPhase.POINT).getCount();
+	}
+
+	public synchronized void reset() {
+		for (TimingPhase phase : phases.values()) phase.reset();
+	}
+
+	public String getScanName() {
+		return scanName;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buf = new StringBuilder("Point timing for ");
+		buf.append(scanName);
+		for (TimingPhase phase : getPhases()) {
+			if (phase.getCount()<1) continue;
+			buf.append("\n  ");
+			buf.append(phase);
+		}
+		return buf.toString();
+	}
+}
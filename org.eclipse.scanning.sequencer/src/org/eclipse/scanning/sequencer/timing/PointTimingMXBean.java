@@ -0,0 +1,68 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.timing;
+
+/**
+ * The point timing of a scan which is running, available over JMX
+ * as org.eclipse.scanning:type=PointTiming,name="scan name",id="unique id of the scan"
+ *
+ * All times are in ms.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public interface PointTimingMXBean {
+
+	/**
+	 * @return the name of the scan being timed.
+	 */
+	String getScanName();
+
+	/**
+	 * @return the number of points timed.
+	 */
+	long getPointCount();
+
+	/**
+	 * @return the names of the phases timed.
+	 */
+	String[] getPhaseNames();
+
+	long getCount(String phase);
+
+	double getMeanTime(String phase);
+
+	double getMaxTime(String phase);
+
+	/**
+	 * @param phase
+	 * @param percentile from 0 to 100
+	 * @return the time in ms
+	 */
+	double getPercentile(String phase, double percentile);
+
+	/**
+	 * @param phase
+	 * @return the counts in power of two buckets, see {@link TimingPhase}
+	 */
+	long[] getHistogram(String phase);
+
+	/**
+	 * @return a line for each phase with its statistics.
+	 */
+	String getSummary();
+
+	/**
+	 * Clears the times recorded.
+	 */
+	void reset();
+}
@@ -0,0 +1,154 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.timing;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the timer of a scan on the platform MBean server while the scan runs.
+ * Each scan has its own monitor, so scans which run at the same time each have theirs, named
+ * <pre>
+ *   org.eclipse.scanning:type=PointTiming,name="scan name",id="unique id of the scan"
+ * </pre>
+ * The monitor is unregistered when the scan ends.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class PointTimingMonitor implements PointTimingMXBean {
+
+	private static Logger logger = LoggerFactory.getLogger(PointTimingMonitor.class);
+
+	public static final String OBJECT_NAME = "org.eclipse.scanning:type=PointTiming";
+
+	/**
+	 * Numbers the scans which do not have a unique id.
+	 */
+	private static final AtomicLong count = new AtomicLong();
+
+	private final PointTimer timer;
+	private final ObjectName name;
+
+	private PointTimingMonitor(PointTimer timer, ObjectName name) {
+		this.timer = timer;
+		this.name  = name;
+	}
+
+	/**
+	 * Publishes the timer of a scan with JMX.
+	 * @param timer
+	 * @param id of the scan, may be null to number the scan
+	 * @return the monitor, which must be unregistered when the scan ends, or null if it cannot be registered
+	 */
+	public static PointTimingMonitor register(PointTimer timer, String id) {
+		try {
+			if (id==null) id = "scan-"+count.incrementAndGet();
+			ObjectName name = new ObjectName(OBJECT_NAME+",name="+ObjectName.quote(String.valueOf(timer.getScanName()))+",id="+ObjectName.quote(id));
+			PointTimingMonitor monitor = new PointTimingMonitor(timer, name);
+			ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, name);
+			return monitor;
+		} catch (Exception ne) {
+			logger.warn("Cannot register point timing of "+timer.getScanName()+" with JMX", ne);
+			return null;
+		}
+	}
+
+	/**
+	 * Removes the monitor from JMX.
+	 */
+	public void unregister() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(name)) server.unregisterMBean(name);
+		} catch (Exception ne) {
+			logger.warn("Cannot unregister point timing "+name, ne);
+		}
+	}
+
+	public ObjectName getObjectName() {
+		return name;
+	}
+
+	public PointTimer getTimer() {
+		return timer;
+	}
+
+	@Override
+	public String getScanName() {
+		return timer.getScanName();
+	}
+
+	@Override
+	public long getPointCount() {
+		return timer.getPointCount();
+	}
+
+	@Override
+	public String[] getPhaseNames() {
+		List<TimingPhase> phases = timer.getPhases();
+		String[] names = new String[phases.size()];
+		for (int i = 0; i < names.length; i++) names[i] = phases.get(i).getName();
+		return names;
+	}
+
+	@Override
+	public long getCount(String phase) {
+		TimingPhase p = findPhase(phase);
+		return p!=null ? p.getCount() : 0;
+	}
+
+	@Override
+	public double getMeanTime(String phase) {
+		TimingPhase p = findPhase(phase);
+		return p!=null ? p.getMeanTime() : 0;
+	}
+
+	@Override
+	public double getMaxTime(String phase) {
+		TimingPhase p = findPhase(phase);
+		return p!=null ? p.getMaxTime() : 0;
+	}
+
+	@Override
+	public double getPercentile(String phase, double percentile) {
+		TimingPhase p = findPhase(phase);
+		return p!=null ? p.getPercentile(percentile) : 0;
+	}
+
+	@Override
+	public long[] getHistogram(String phase) {
+		TimingPhase p = findPhase(phase);
+		return p!=null ? p.getHistogram() : new long[TimingPhase.BUCKETS];
+	}
+
+	@Override
+	public String getSummary() {
+		return timer.toString();
+	}
+
+	@Override
+	public void reset() {
+		timer.reset();
+	}
+
+	private TimingPhase findPhase(String phase) {
+		return timer.findPhase(phase);
+	}
+}
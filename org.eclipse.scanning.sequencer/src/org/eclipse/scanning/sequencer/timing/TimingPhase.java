@@ -0,0 +1,179 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.timing;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The times recorded for one phase of a scan point, for instance
+ * moving a given scannable or running a given detector.
+ * <p>
+ * The buffers are allocated when the phase is created so recording a
+ * time does not allocate. The last N times are kept in a ring buffer
+ * for percentiles and every time is counted in a histogram with power
+ * of two buckets:
+ * <pre>
+ *   bucket 0 - less than 1us
+ *   bucket i - from 2^(i-1)us up to 2^i us
+ * </pre>
+ * The last bucket also counts anything longer.
+ * <p>
+ * Times may be recorded from the scan thread and from the threads of
+ * the level runners so the methods are synchronized, contention is low
+ * because a phase is normally only recorded once per point.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class TimingPhase {
+
+	public static final int BUCKETS = 40;
+
+	private final String name;
+	private final long[] ring;
+	private final long[] histogram;
+
+	private int  next;
+	private long count;
+	private long total;
+	private long min = Long.MAX_VALUE;
+	private long max;
+
+	TimingPhase(String name, int capacity) {
+		this.name      = name;
+		this.ring      = new long[Math.max(1, capacity)];
+		this.histogram = new long[BUCKETS];
+	}
+
+	/**
+	 * Records the time from start until now.
+	 * @param startNanos from System.nanoTime()
+	 * @return now in ns, so that the next phase may start from it.
+	 */
+	public long stop(long startNanos) {
+		long now = System.nanoTime();
+		record(now-startNanos);
+		return now;
+	}
+
+	/**
+	 * Records a duration.
+	 * @param nanos
+	 */
+	public synchronized void record(long nanos) {
+		if (nanos<0) nanos = 0;
+		ring[next] = nanos;
+		next = (next+1) % ring.length;
+		count++;
+		total+=nanos;
+		if (nanos<min) min = nanos;
+		if (nanos>max) max = nanos;
+		histogram[bucket(nanos)]++;
+	}
+
+	static int bucket(long nanos) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		if (micros<1) return 0;
+		return Math.min(BUCKETS-1, 64-Long.numberOfLeadingZeros(micros));
+	}
+
+	public synchronized void reset() {
+		Arrays.fill(ring, 0);
+		Arrays.fill(histogram, 0);
+		next  = 0;
+		count = 0;
+		total = 0;
+		min   = Long.MAX_VALUE;
+		max   = 0;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public synchronized long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the total time in ms
+	 */
+	public synchronized double getTotalTime() {
+		return millis(total);
+	}
+
+	/**
+	 * @return the mean time in ms or 0 if nothing has been recorded.
+	 */
+	public synchronized double getMeanTime() {
+		return count<1 ? 0 : millis(total)/count;
+	}
+
+	/**
+	 * @return the shortest time in ms or 0 if nothing has been recorded.
+	 */
+	public synchronized double getMinTime() {
+		return count<1 ? 0 : millis(min);
+	}
+
+	/**
+	 * @return the longest time in ms
+	 */
+	public synchronized double getMaxTime() {
+		return millis(max);
+	}
+
+	/**
+	 * The percentile of the times held in the ring buffer, which are the most recent ones.
+	 *
+	 * @param percentile from 0 to 100
+	 * @return time in ms or 0 if nothing has been recorded.
+	 */
+	public double getPercentile(double percentile) {
+		long[] times;
+		synchronized (this) {
+			int size = (int)Math.min(count, ring.length);
+			if (size<1) return 0;
+			times = Arrays.copyOf(ring, size);
+		}
+		Arrays.sort(times);
+		int index = (int)Math.ceil(Math.max(0, Math.min(100, percentile))/100d*times.length)-1;
+		return millis(times[Math.max(0, index)]);
+	}
+
+	/**
+	 * @return a copy of the histogram counts, see the class comment for the buckets.
+	 */
+	public synchronized long[] getHistogram() {
+		return Arrays.copyOf(histogram, histogram.length);
+	}
+
+	/**
+	 * The upper bound of a histogram bucket.
+	 * @param bucket
+	 * @return time in ms
+	 */
+	public static double getBucketLimit(int bucket) {
+		return (1L<<bucket)/1000d;
+	}
+
+	private static double millis(long nanos) {
+		return nanos/(double)TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s count=%d mean=%.3fms median=%.3fms 99%%=%.3fms max=%.3fms",
+				name, getCount(), getMeanTime(), getPercentile(50), getPercentile(99), getMaxTime());
+	}
+}
@@ -75,7 +75,11 @@ class DeviceController implements IDeviceController {
 		if (device.getDeviceState()!=DeviceState.RUNNING) return; // Cannot pause it.
 		if (bean!=null&&model!=null) bean.setMessage(model.getMessage());
 		logger.debug("Controller pausing on "+getName()+" because of id "+id);
-		device.pause();
+		if (model!=null) {
+			device.pauseForWatchdog();
+		} else {
+			device.pause(); // For instance the user paused the scan
+		}
 	}
 	public void seek(String id, int stepNumber) throws ScanningException, InterruptedException {
 		
@@ -80,4 +80,11 @@ public class DeviceWatchdogService implements IDeviceWatchdogService {
 		return templates.get(name);
 	}
 
+	@Override
+	public List<IDeviceWatchdog> getWatchdogs() {
+		synchronized (templates) {
+			return new ArrayList<>(templates.values());
+		}
+	}
+
 }
@@ -28,6 +28,7 @@ import org.eclipse.scanning.api.scan.PositionEvent;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.IPositionListenable;
 import org.eclipse.scanning.api.scan.event.IPositionListener;
+import org.eclipse.scanning.sequencer.expression.CompiledExpression;
 import org.eclipse.scanning.sequencer.expression.ServerExpressionService;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceReference;
@@ -39,6 +40,10 @@ import org.slf4j.LoggerFactory;
  * 
  * Monitors an expression of scannables and if one of the values changes, reevaluates the
  * expression.
+ * 
+ * The expression is compiled once when the scan starts. Position events which do not
+ * change a variable of the expression are ignored, those that do are coalesced and
+ * the expression evaluated with the latest values on the {@link WatchdogEvaluationService}.
  * 
  
   Example XML configuration
@@ -62,8 +67,9 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 	
 	private static Logger logger = LoggerFactory.getLogger(ExpressionWatchdog.class);
 
-	private IExpressionEngine engine;
-	private IPosition         lastCompletedPoint;
+	private volatile CompiledExpression expression;
+	private volatile WatchdogEvaluator  evaluator;
+	private volatile IPosition          lastCompletedPoint;
 
 
 	private List<IScannable<?>>       scannables;
@@ -92,12 +98,20 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 
 	private void checkPosition(IPosition pos) {
 		try {
-			if (engine==null) return;
+			final CompiledExpression expr = expression;
+			final WatchdogEvaluator  eval = evaluator;
+			if (expr==null || eval==null || pos==null) return;
 			
-			if (pos.getNames().size()!=1) return;
-			String name = pos.getNames().get(0);
-			engine.addLoadedVariable(name, pos.get(name));
-			checkExpression(true);
+			boolean changed = false;
+			for (String name : pos.getNames()) {
+				if (!expr.isVariable(name)) continue;
+				changed = expr.setVariable(name, pos.get(name)) || changed;
+			}
+			if (changed) {
+				eval.request(); // Evaluated on the watchdog thread with the latest values.
+			} else {
+				eval.unchanged();
+			}
 					
 		} catch (Exception ne) {
 			logger.error("Cannot process position "+pos, ne);
@@ -105,7 +119,9 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 	}
 	
 	private boolean checkExpression(boolean requirePause) throws Exception {
-		Boolean ok = engine.evaluate();
+		final CompiledExpression expr = expression;
+		if (expr==null) return true; // Stopped
+		boolean ok = expr.evaluateBoolean();
 		
 		if (requirePause) {
 			
@@ -127,10 +143,13 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 		
 		logger.debug("Expression Watchdog starting on "+controller.getName());
 		try {
-		    this.engine = getExpressionService().getExpressionEngine();
+			IExpressionEngine engine = getExpressionService().getExpressionEngine();
 		    
 		    engine.createExpression(model.getExpression()); // Parses expression, may send exception on syntax
 		    Collection<String> names = engine.getVariableNamesFromExpression();
+		    
+		    // Compile once, the engine is not used for evaluation.
+		    this.expression = new CompiledExpression(model.getExpression(), names);
 		    this.scannables = new ArrayList<>(names.size());
 		    for (String name : names) {
 				IScannable<?> scannable = getScannable(name);
@@ -138,7 +157,7 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 				
 			    if (!(scannable instanceof IPositionListenable)) throw new ScanningException(name+" is not a position listenable!");
 
-				engine.addLoadedVariable(scannable.getName(), scannable.getPosition());
+			    expression.setVariable(scannable.getName(), scannable.getPosition());
 		    }
 		    
 		    // Check it
@@ -147,6 +166,8 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 		    	throw new ScanningException(model.getMessage()+". The expression '"+model.getExpression()+"' is false and a scan may not be run!");
 		    }
 		    
+		    this.evaluator = WatchdogEvaluationService.getInstance().createEvaluator(getId(), ()->checkExpression(true));
+		    
 		    // Listen to it
 		    for (IScannable<?> scannable : scannables) {
 			    ((IPositionListenable)scannable).addPositionListener(this);
@@ -174,8 +195,10 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 			if (scannables!=null) for (IScannable<?> scannable : scannables) {
 		    	((IPositionListenable)scannable).removePositionListener(this);
 			}
-			scannables.clear();
-			engine = null;
+			if (scannables!=null) scannables.clear();
+			if (evaluator!=null) evaluator.dispose();
+			evaluator  = null;
+			expression = null;
 		    
 		} catch (Exception ne) {
 			logger.error("Cannot stop watchdog!", ne);
@@ -11,6 +11,9 @@
  *******************************************************************************/
 package org.eclipse.scanning.sequencer.watchdog;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.eclipse.scanning.api.IScannable;
 import org.eclipse.scanning.api.annotation.scan.PointEnd;
 import org.eclipse.scanning.api.annotation.scan.ScanFinally;
@@ -22,6 +25,7 @@ import org.eclipse.scanning.api.scan.PositionEvent;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.IPositionListenable;
 import org.eclipse.scanning.api.scan.event.IPositionListener;
+import org.eclipse.scanning.sequencer.PointDurationEstimator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -117,6 +121,15 @@ it resets to time before next TopUp fill,
     
     </pre>
     
+<h3>Predictive mode</h3>
+
+If the model is predictive, the watchdog does not wait for the countdown to reach the cooloff 
+while a point is running. At the end of each point it estimates how long the next point
+will take, d, from the exposure time and the measured duration of the points so far. 
+If the point cannot finish before the cooloff, i.e. t-d &lt;= c, the scan is held between points 
+and is only resumed when a whole point fits before the next cooloff. This avoids a point
+being interrupted by the fill and then repeated.
+    
 <h3>Ring Mode</h3>
 
 The "Ring Mode" PV is SR-CS-RING-01:MODE.
@@ -139,8 +152,20 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 	private String             countdownUnit;
 	private volatile IPosition lastCompletedPoint;
 	
-	private volatile boolean busy   = false;
-	private volatile boolean rewind = false;
+	private volatile boolean           rewind = false;
+	private volatile WatchdogEvaluator evaluator;
+	private PointDurationEstimator     estimator;
+	
+	/**
+	 * The latest countdown in ms, events are coalesced so the
+	 * evaluation always works from the most recent value.
+	 */
+	private final AtomicLong countdown = new AtomicLong(Long.MIN_VALUE);
+	
+	/**
+	 * The time in ns at which the latest countdown was received.
+	 */
+	private volatile long countdownNanos;
 
 	public TopupWatchdog() {
 		super();
@@ -154,8 +179,9 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 	}
 	/**
 	 * Called on a thread when the position changes.
-	 * The coutndown is likely to report at 10Hz. TODO Check if this is ok during a scan and does not
-	 * use too much CPU.
+	 * The countdown is likely to report at 10Hz. The value is recorded
+	 * and the evaluation done on the {@link WatchdogEvaluationService}
+	 * so that the thread sending the events is not blocked.
 	 */
 	@Override
 	public void positionChanged(PositionEvent evt) {
@@ -170,13 +196,34 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 		try {
 			// Topup is currently 10Hz which is the rate that the scannable should call positionChanged(...) at.
 			long time = getValueMs(pos, model.getCountdownName(), countdownUnit);
-			//logger.info("Topup time is "+time+" ms");
-			processPosition(time);
+			
+			final WatchdogEvaluator eval = evaluator;
+			if (eval==null) return; // Not started or stopped.
+			
+			// Beam loss is latched here so that it is not missed if the
+			// event is coalesced with ones that follow it.
+			if (time<0) rewind = true; 
+			
+			countdownNanos = System.nanoTime();
+			if (countdown.getAndSet(time)==time) {
+				eval.unchanged();
+			} else {
+				eval.request();
+			}
 		} catch (Exception ne) {
 			logger.error("Cannot process position "+pos, ne);
 		}
 	}
 
+	/**
+	 * Evaluates the latest countdown, called on the evaluation service. Events
+	 * arriving while this runs are coalesced into one further evaluation rather
+	 * than being dropped.
+	 */
+	private void processLatestPosition() throws Exception {
+		processPosition(countdown.get());
+	}
+
 	/**
 	 * This method may be called at around 10Hz. In order to reduce
 	 * CPU, we could disable events at the start of topup but this may not detect
@@ -188,34 +235,26 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 	 */
 	private void processPosition(long t) throws Exception {
 		
-		// It's 10Hz, we can ignore events if we are doing something.
-		// We ignore events while processing an event. 
-		// Events are frequent and blocking is bad.
-		if (busy) { 
-			logger.info("Event '"+model.getCountdownName()+"'@"+t+" has been ignored.");
-			return;
-		}
-		
 		// It's 10Hz don't write much in here other than
 		// simple tests or FPE's
-		try {
-			busy = true;
-			if (!isPositionValid(t)) {
-				rewind = t<0; // We did not detect it before loosing beam
-				controller.pause(getId(), getModel());
-		
-			} else { // We are a valid place in the topup, see if we can resume
+		if (!isPositionValid(t)) {
+			if (t<0) rewind = true; // We did not detect it before loosing beam
+			controller.pause(getId(), getModel());
+	
+		} else if (isPredictive() && !canCompletePoint(t)) {
+			// A point running now will finish before the cooloff, the scan is 
+			// held at the end of it. If we are paused, we stay paused.
+			return;
+			
+		} else { // We are a valid place in the topup, see if we can resume
 
-				// the warmup period has ended, we can resume the scan
-				if (rewind && lastCompletedPoint!=null) {
-					controller.seek(getId(), lastCompletedPoint.getStepIndex()); // Probably only does something useful for malcolm
-					rewind = false;
-				}
-				controller.resume(getId());
-				
+			// the warmup period has ended, we can resume the scan
+			if (rewind && lastCompletedPoint!=null) {
+				controller.seek(getId(), lastCompletedPoint.getStepIndex()); // Probably only does something useful for malcolm
+				rewind = false;
 			}
-		} finally {
-			busy = false;
+			controller.resume(getId());
+			
 		}
 	}
 	
@@ -228,10 +267,37 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 		return t > c && t < ((p-Tf)-w);
 	}
 	
+	/**
+	 * 
+	 * @param t time in ms until the next topup
+	 * @return true if a point started now would complete before the cooloff.
+	 */
+	private boolean canCompletePoint(long t) {
+		long d = estimator.getEstimatedPointTime(lastCompletedPoint);
+		return t-d > model.getCooloff();
+	}
+	
+	private boolean isPredictive() {
+		return model.isPredictive() && estimator!=null;
+	}
+	
+	/**
+	 * The countdown only arrives at around 10Hz, so we work out where 
+	 * it will be now from the time since it arrived.
+	 * @return time in ms to the next topup.
+	 */
+	private long getCurrentCountdown() {
+		long t = countdown.get();
+		if (t<=0) return t; // Topup is happening or there is no beam.
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime()-countdownNanos);
+		return Math.max(0, t-elapsed);
+	}
+	
 	@ScanStart
-	public void start(ScanBean bean) throws Exception {
+	public void start(ScanBean bean, PointDurationEstimator estimator) throws Exception {
 		
 		logger.debug("Watchdog starting on "+controller.getName());
+		this.estimator = estimator;
 		
 		// A scannble may optionally be defined to check that the mode of the machine
 		// fits with this watch dog. If it does not then there will be a nice exception
@@ -250,10 +316,15 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 			if (!(topup instanceof IPositionListenable)) {
 				throw new ScanningException(model.getCountdownName()+" is not a position listenable!");
 			}
+			long t = getValueMs(((Number)topup.getPosition()).doubleValue(), countdownUnit);
+			countdown.set(t);
+			countdownNanos = System.nanoTime();
+			rewind = false;
+			this.evaluator = WatchdogEvaluationService.getInstance().createEvaluator(getId(), this::processLatestPosition);
 			((IPositionListenable)topup).addPositionListener(this);
 			
-			long t = getValueMs(((Number)topup.getPosition()).doubleValue(), countdownUnit);
 			processPosition(t); // Pauses the starting scan if topup already running.
+			holdIfPointCannotComplete();
 			
 			logger.debug("Watchdog started on "+controller.getName());
 		} catch (Exception ne) {
@@ -262,8 +333,22 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 	} 
 	
 	@PointEnd
-	public void pointEnd(IPosition done) {
+	public void pointEnd(IPosition done) throws Exception {
 		this.lastCompletedPoint = done;
+		holdIfPointCannotComplete();
+	}
+	
+	/**
+	 * Called on the scan thread between points, so pausing 
+	 * here holds the scan before the next point starts.
+	 */
+	private void holdIfPointCannotComplete() throws Exception {
+		if (!isPredictive()) return;
+		long t = getCurrentCountdown();
+		if (t>0 && !canCompletePoint(t)) {
+			logger.debug("Holding scan, "+t+"ms to topup is not enough for a point of "+estimator.getEstimatedPointTime(lastCompletedPoint)+"ms");
+			controller.pause(getId(), getModel());
+		}
 	}
 	
 	@ScanFinally
@@ -272,6 +357,8 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 		try {
 		    IScannable<?> topup = getScannable(model.getCountdownName());
 		    ((IPositionListenable)topup).removePositionListener(this);
+		    if (evaluator!=null) evaluator.dispose();
+		    evaluator = null;
 		    
 		    logger.debug("Watchdog stopped on "+controller.getName());
 		} catch (ScanningException ne) {
@@ -279,6 +366,19 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 		}
 	}
 	
+	/**
+	 * Reads the countdown in the unit set for the watchdog, or the unit of the
+	 * countdown scannable if none was set, as the watchdog does when a scan starts.
+	 */
+	@Override
+	public long getCountdown() throws Exception {
+		if (model==null || model.getCountdownName()==null) return -1;
+		IScannable<Number> topup = getScannable(model.getCountdownName());
+		if (topup==null) return -1;
+		String unit = countdownUnit!=null ? countdownUnit : topup.getUnit();
+		return getValueMs(topup.getPosition().doubleValue(), unit);
+	}
+
 	public String getCountdownUnit() {
 		return countdownUnit;
 	}
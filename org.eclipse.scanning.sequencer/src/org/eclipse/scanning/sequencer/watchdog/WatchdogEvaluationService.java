@@ -0,0 +1,93 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.watchdog;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scanning.sequencer.watchdog.WatchdogEvaluator.IEvaluation;
+
+/**
+ * Evaluates watchdogs on a dedicated thread pool so that the threads
+ * notifying position changes, for instance a 10Hz topup countdown, are
+ * never blocked by a watchdog pausing or resuming a scan.
+ * <p>
+ * The size of the pool may be set using the property
+ * org.eclipse.scanning.watchdog.evaluation.threads, the default is 2.
+ * Statistics are kept for each watchdog id and may be read to
+ * report how often watchdogs are evaluated and how long it takes.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class WatchdogEvaluationService {
+
+	private static WatchdogEvaluationService instance;
+
+	private final ExecutorService                 executor;
+	private final Map<String, WatchdogStatistics> statistics;
+
+	public WatchdogEvaluationService() {
+		this(Integer.getInteger("org.eclipse.scanning.watchdog.evaluation.threads", 2));
+	}
+
+	public WatchdogEvaluationService(int threads) {
+		final AtomicInteger count = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+			Thread thread = new Thread(r, "Watchdog evaluation "+count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.statistics = new ConcurrentHashMap<>(7);
+	}
+
+	public static synchronized WatchdogEvaluationService getInstance() {
+		if (instance==null) instance = new WatchdogEvaluationService();
+		return instance;
+	}
+
+	/**
+	 * Create an evaluator for a watchdog. Watchdogs with the same id share statistics.
+	 *
+	 * @param id
+	 * @param evaluation
+	 * @return
+	 */
+	public WatchdogEvaluator createEvaluator(String id, IEvaluation evaluation) {
+		return new WatchdogEvaluator(evaluation, executor, getStatistics(id));
+	}
+
+	/**
+	 *
+	 * @param id
+	 * @return the statistics for the watchdog with this id, never null.
+	 */
+	public WatchdogStatistics getStatistics(String id) {
+		return statistics.computeIfAbsent(id, WatchdogStatistics::new);
+	}
+
+	/**
+	 *
+	 * @return the statistics of all watchdogs evaluated by this service.
+	 */
+	public Map<String, WatchdogStatistics> getStatistics() {
+		return Collections.unmodifiableMap(statistics);
+	}
+
+	public void dispose() {
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,128 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.watchdog;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the evaluation of one watchdog on an executor, coalescing requests.
+ * <p>
+ * The watchdog stores the latest values of its inputs and then calls request().
+ * If an evaluation is already waiting to run, the request is merged with it
+ * because that evaluation will read the latest values. If an evaluation is running,
+ * one more is done after it. A given watchdog is therefore never evaluated by two
+ * threads at once and never has more than one evaluation waiting, however
+ * fast the positions change.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class WatchdogEvaluator {
+
+	private static Logger logger = LoggerFactory.getLogger(WatchdogEvaluator.class);
+
+	@FunctionalInterface
+	public interface IEvaluation {
+		void evaluate() throws Exception;
+	}
+
+	private static final int IDLE          = 0;
+	private static final int SCHEDULED     = 1;
+	private static final int RUNNING       = 2;
+	private static final int RUNNING_DIRTY = 3;
+
+	private final IEvaluation        evaluation;
+	private final Executor           executor;
+	private final WatchdogStatistics statistics;
+
+	private final AtomicInteger state     = new AtomicInteger(IDLE);
+	private final AtomicLong    requested = new AtomicLong();
+	private volatile boolean    disposed;
+
+	WatchdogEvaluator(IEvaluation evaluation, Executor executor, WatchdogStatistics statistics) {
+		this.evaluation = evaluation;
+		this.executor   = executor;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Call when an input of the watchdog has changed. Returns immediately.
+	 */
+	public void request() {
+		if (disposed) return;
+		statistics.request();
+		while(true) {
+			int current = state.get();
+			switch(current) {
+			case IDLE:
+				if (state.compareAndSet(IDLE, SCHEDULED)) {
+					requested.set(System.nanoTime());
+					executor.execute(this::run);
+					return;
+				}
+				break;
+			case RUNNING:
+				if (state.compareAndSet(RUNNING, RUNNING_DIRTY)) {
+					requested.set(System.nanoTime());
+					return;
+				}
+				break;
+			default: // SCHEDULED or RUNNING_DIRTY, the next evaluation will see this value.
+				statistics.coalesced();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Call when an input of the watchdog was notified but the value did not change.
+	 */
+	public void unchanged() {
+		statistics.unchanged();
+	}
+
+	private void run() {
+		state.set(RUNNING);
+		do {
+			if (disposed) break;
+			long start = System.nanoTime();
+			try {
+				evaluation.evaluate();
+			} catch (Exception ne) {
+				statistics.failed();
+				logger.error("Cannot evaluate watchdog "+statistics.getId(), ne);
+			}
+			long end = System.nanoTime();
+			statistics.evaluated(start-requested.get(), end-start);
+
+		} while(!state.compareAndSet(RUNNING, IDLE) && state.compareAndSet(RUNNING_DIRTY, RUNNING));
+
+		if (disposed) state.set(IDLE);
+	}
+
+	/**
+	 * Stops any further evaluations, one which is running is allowed to finish.
+	 */
+	public void dispose() {
+		disposed = true;
+		logger.debug(statistics.toString());
+	}
+
+	public WatchdogStatistics getStatistics() {
+		return statistics;
+	}
+}
@@ -0,0 +1,145 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.watchdog;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts and timings for the evaluations done by a watchdog.
+ * <pre>
+ *   requests    - input values which changed and asked for an evaluation.
+ *   unchanged   - input values which were the same as before and were ignored.
+ *   coalesced   - requests which were merged into an evaluation already waiting to run.
+ *   evaluations - the number of times the watchdog was evaluated.
+ * </pre>
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class WatchdogStatistics {
+
+	private final String id;
+
+	private final AtomicLong requests    = new AtomicLong();
+	private final AtomicLong unchanged   = new AtomicLong();
+	private final AtomicLong coalesced   = new AtomicLong();
+	private final AtomicLong evaluations = new AtomicLong();
+	private final AtomicLong failures    = new AtomicLong();
+
+	private final AtomicLong totalEvaluationNanos = new AtomicLong();
+	private final AtomicLong maxEvaluationNanos   = new AtomicLong();
+	private final AtomicLong totalLatencyNanos    = new AtomicLong();
+	private final AtomicLong maxLatencyNanos      = new AtomicLong();
+
+	public WatchdogStatistics(String id) {
+		this.id = id;
+	}
+
+	void request() {
+		requests.incrementAndGet();
+	}
+
+	void unchanged() {
+		unchanged.incrementAndGet();
+	}
+
+	void coalesced() {
+		coalesced.incrementAndGet();
+	}
+
+	void failed() {
+		failures.incrementAndGet();
+	}
+
+	/**
+	 *
+	 * @param latency nanoseconds from the request to the start of the evaluation
+	 * @param duration nanoseconds taken to evaluate
+	 */
+	void evaluated(long latency, long duration) {
+		evaluations.incrementAndGet();
+		totalLatencyNanos.addAndGet(latency);
+		totalEvaluationNanos.addAndGet(duration);
+		maxLatencyNanos.accumulateAndGet(latency, Math::max);
+		maxEvaluationNanos.accumulateAndGet(duration, Math::max);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	public long getUnchangedCount() {
+		return unchanged.get();
+	}
+
+	public long getCoalescedCount() {
+		return coalesced.get();
+	}
+
+	public long getEvaluationCount() {
+		return evaluations.get();
+	}
+
+	public long getFailureCount() {
+		return failures.get();
+	}
+
+	/**
+	 * @return mean time in microseconds to evaluate the watchdog.
+	 */
+	public double getMeanEvaluationTime() {
+		return mean(totalEvaluationNanos.get());
+	}
+
+	/**
+	 * @return max time in microseconds to evaluate the watchdog.
+	 */
+	public double getMaxEvaluationTime() {
+		return micros(maxEvaluationNanos.get());
+	}
+
+	/**
+	 * @return mean time in microseconds from a value changing to it being evaluated.
+	 */
+	public double getMeanLatency() {
+		return mean(totalLatencyNanos.get());
+	}
+
+	/**
+	 * @return max time in microseconds from a value changing to it being evaluated.
+	 */
+	public double getMaxLatency() {
+		return micros(maxLatencyNanos.get());
+	}
+
+	private double mean(long totalNanos) {
+		long count = evaluations.get();
+		if (count<1) return 0;
+		return micros(totalNanos)/count;
+	}
+
+	private static double micros(long nanos) {
+		return nanos/(double)TimeUnit.MICROSECONDS.toNanos(1);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Watchdog '%s' requests=%d, unchanged=%d, coalesced=%d, evaluations=%d, failures=%d, evaluation mean=%.1fus max=%.1fus, latency mean=%.1fus max=%.1fus",
+				id, getRequestCount(), getUnchangedCount(), getCoalescedCount(), getEvaluationCount(), getFailureCount(),
+				getMeanEvaluationTime(), getMaxEvaluationTime(), getMeanLatency(), getMaxLatency());
+	}
+}
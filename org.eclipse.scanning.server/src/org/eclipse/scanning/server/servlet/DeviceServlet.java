@@ -42,6 +42,8 @@ import org.eclipse.scanning.api.event.scan.DeviceRequest;
      
     </pre>
     
+    A request with many device names is read as one batch, see {@link org.eclipse.scanning.api.device.DeviceResponse}.
+    
     FIXME Add security via activemq layer. Anyone can run this now.
 
  * 
@@ -11,11 +11,24 @@
  *******************************************************************************/
 package org.eclipse.scanning.server.servlet;
 
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.eclipse.scanning.api.device.IDeviceWatchdog;
+import org.eclipse.scanning.api.device.IDeviceWatchdogService;
+import org.eclipse.scanning.api.device.models.DeviceWatchdogModel;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.core.IConsumerProcess;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.dry.DryRunProcess;
+import org.eclipse.scanning.api.event.dry.ScanSimulator;
+import org.eclipse.scanning.api.event.dry.VirtualDryRunProcess;
 import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.scan.ScanEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A servlet to do a dry run. Used in the XcenExample
@@ -31,10 +44,18 @@ import org.eclipse.scanning.api.event.scan.ScanBean;
     {@literal    <property name="statusSet"   value="uk.ac.diamond.p45.statusSet"   />}
     {@literal    <property name="statusTopic" value="uk.ac.diamond.p45.statusTopic" />}
     {@literal    <property name="durable"     value="true" />}
+    {@literal    <property name="virtualClock"      value="true" />}
+    {@literal    <property name="timelineDirectory" value="/dls/p45/tmp/dryrun" />}
     {@literal </bean>}
      
     </pre>
     
+    If virtualClock is true the points of the scan are made and replayed against a virtual
+    clock with the costs learned by the sequencer and the topup watchdogs which are enabled.
+    A scan of a million points is checked in seconds and the bean is completed with
+    its predicted duration, end time and pauses. If timelineDirectory is set the time
+    of each point is written there as CSV. Otherwise the dry run is a fixed countdown.
+    
     FIXME Add security via activemq layer. Anyone can run this now.
 
  * 
@@ -43,6 +64,12 @@ import org.eclipse.scanning.api.event.scan.ScanBean;
  */
 public class DryRunServlet extends AbstractConsumerServlet<ScanBean> {
 	
+	private static final Logger logger = LoggerFactory.getLogger(DryRunServlet.class);
+
+	private boolean virtualClock = false;
+	private String  timelineDirectory;
+	private long    timePerPoint = 100;
+
 	@Override
 	public String getName() {
 		return "Scan Consumer";
@@ -50,6 +77,78 @@ public class DryRunServlet extends AbstractConsumerServlet<ScanBean> {
 
 	@Override
 	public IConsumerProcess<ScanBean> createProcess(ScanBean scanBean, IPublisher<ScanBean> response) throws EventException {
-		return new DryRunProcess<ScanBean>(scanBean, response, true);
+		final ScanRequest<?> req = scanBean.getScanRequest();
+		if (!virtualClock || req==null) return new DryRunProcess<ScanBean>(scanBean, response, true);
+
+		final Collection<Object> detectors = req.getDetectors()!=null ? req.getDetectors().values() : Collections.emptyList();
+		final ScanSimulator simulator = new ScanSimulator(detectors, timePerPoint, ScanEstimator.getCostModel(), System.currentTimeMillis());
+		simulator.setMoveTimeModel(ScanEstimator.getMoveTimeModel());
+		addWatchdogs(simulator);
+
+		File timeline = null;
+		if (timelineDirectory!=null) {
+			File dir = new File(timelineDirectory);
+			dir.mkdirs();
+			timeline = new File(dir, "dryrun_"+scanBean.getUniqueId()+".csv");
+		}
+		return new VirtualDryRunProcess<ScanBean>(scanBean, response, Services.getGeneratorService(), simulator, timeline);
+	}
+
+	/**
+	 * Adds the enabled topup watchdogs with the countdown which they have now.
+	 * @param simulator
+	 */
+	private void addWatchdogs(ScanSimulator simulator) {
+		final IDeviceWatchdogService wservice = Services.getWatchdogService();
+		if (wservice==null) return;
+		for (IDeviceWatchdog dog : wservice.getWatchdogs()) {
+			if (!dog.isEnabled()) continue;
+			final DeviceWatchdogModel model = dog.getModel();
+			if (model==null) continue;
+			if (!simulator.addWatchdog(dog.getName(), model, getCountdown(dog))) {
+				logger.debug("The watchdog {} is not simulated in the dry run", dog.getName());
+			}
+		}
+	}
+
+	/**
+	 * The watchdog reads its countdown so that the unit is the one it is configured with.
+	 * @param dog
+	 * @return the countdown in ms or -1 if it cannot be read
+	 */
+	private long getCountdown(IDeviceWatchdog dog) {
+		try {
+			return dog.getCountdown();
+		} catch (Exception ne) {
+			logger.warn("Cannot read the countdown "+dog.getModel().getCountdownName()+" for the dry run", ne);
+			return -1;
+		}
+	}
+
+	public boolean isVirtualClock() {
+		return virtualClock;
+	}
+
+	public void setVirtualClock(boolean virtualClock) {
+		this.virtualClock = virtualClock;
+	}
+
+	public String getTimelineDirectory() {
+		return timelineDirectory;
+	}
+
+	public void setTimelineDirectory(String timelineDirectory) {
+		this.timelineDirectory = timelineDirectory;
+	}
+
+	public long getTimePerPoint() {
+		return timePerPoint;
+	}
+
+	/**
+	 * @param timePerPoint in ms of a point when the scan has no detectors
+	 */
+	public void setTimePerPoint(long timePerPoint) {
+		this.timePerPoint = timePerPoint;
 	}
 }
@@ -0,0 +1,157 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.server.servlet;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.core.IConsumer;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.scan.process.IPreprocessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Prepares the next scan in the submission queue while the current scan runs,
+ * so that only the hardware configure is left to do when the current scan ends.
+ * <p>
+ * There is at most one preparation pending. It is discarded if a different
+ * bean is dequeued or if the request of the bean has changed since it was
+ * prepared, in which case the scan is prepared as normal when it runs.
+ * The next scan is not prepared early unless all of the preprocessors
+ * are look-ahead safe, see {@link IPreprocessor#isLookAheadSafe()}.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+class ScanLookAhead {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ScanLookAhead.class);
+
+	private final ScanServlet     servlet;
+	private final ExecutorService executor;
+	
+	private Pending pending;
+
+	private static class Pending {
+		private volatile String         id;
+		private Future<ScanPreparation> future;
+	}
+
+	ScanLookAhead(ScanServlet servlet) {
+		this.servlet  = servlet;
+		this.executor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "Scan look-ahead "+servlet.getName());
+			thread.setDaemon(true);
+			thread.setPriority(Thread.NORM_PRIORITY-1);
+			return thread;
+		});
+	}
+
+	/**
+	 * Starts preparing the scan at the head of the submission queue, 
+	 * normally called when the current scan starts to run.
+	 */
+	synchronized void prepareNext() {
+		discard();
+		final Pending next = new Pending();
+		next.future = executor.submit(() -> prepare(next));
+		pending = next;
+	}
+
+	private ScanPreparation prepare(Pending pending) throws Exception {
+		
+		final ScanBean next = getNext();
+		if (next==null) return null;
+		pending.id = next.getUniqueId();
+		if (!servlet.isLookAheadSafe(next)) {
+			logger.debug("Not preparing {} in advance, its preprocessors must run when it does", next.getName());
+			return null;
+		}
+		
+		final long start = System.currentTimeMillis();
+		ScanPreparation preparation = new ScanPreparation(next);
+		servlet.preprocess(next);
+		preparation.prepare(next);
+		logger.debug("Prepared {} in {}ms while the previous scan runs", next.getName(), System.currentTimeMillis()-start);
+		return preparation;
+	}
+
+	private ScanBean getNext() throws EventException {
+		final IConsumer<ScanBean> consumer = servlet.getConsumer();
+		if (consumer==null) return null;
+		final List<ScanBean> queue = consumer.getSubmissionQueue();
+		if (queue==null) return null;
+		for (ScanBean bean : queue) {
+			if (bean.getScanRequest()==null) continue;
+			if (bean.getStatus()==Status.REQUEST_TERMINATE || bean.getStatus().isFinal()) continue;
+			return bean;
+		}
+		return null;
+	}
+
+	/**
+	 * Takes the preparation for a bean which has been dequeued, waiting for
+	 * it to finish if it is still running and is for the same bean.
+	 * 
+	 * @param bean as it came off the queue, before preprocessing
+	 * @return the preparation or null if there is not one which may be used.
+	 */
+	synchronized ScanPreparation take(ScanBean bean) {
+		
+		final Pending taken = pending;
+		pending = null;
+		if (taken==null) return null;
+		
+		// Do not wait for the preparation of another bean, or one which has not
+		// yet read the queue, the bean taken is prepared as normal instead.
+		if (taken.id==null || !taken.id.equals(bean.getUniqueId())) {
+			taken.future.cancel(true);
+			logger.debug("The queue changed, discarding the preparation of {}", taken.id);
+			return null;
+		}
+		try {
+			ScanPreparation preparation = taken.future.get();
+			if (preparation==null) return null;
+			if (!preparation.matches(bean)) {
+				logger.debug("The queue changed, discarding the preparation of {}", preparation.getUniqueId());
+				return null;
+			}
+			return preparation;
+			
+		} catch (ExecutionException ne) {
+			logger.debug("Cannot prepare {} in advance, it will be prepared when run", bean.getName(), ne.getCause());
+			return null;
+		} catch (InterruptedException ne) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * Discards any pending preparation.
+	 */
+	synchronized void discard() {
+		if (pending!=null) pending.future.cancel(true);
+		pending = null;
+	}
+
+	void dispose() {
+		discard();
+		executor.shutdownNow();
+	}
+}
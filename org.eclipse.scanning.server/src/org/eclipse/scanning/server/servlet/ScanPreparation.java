@@ -0,0 +1,128 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.server.servlet;
+
+import java.util.Map;
+
+import org.eclipse.scanning.api.device.models.IMalcolmModel;
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.scan.ScanEstimator;
+
+/**
+ * The part of running a scan which does not touch the hardware: creating
+ * the point generator, validating the request and estimating the size and
+ * shape. When the {@link ScanServlet} looks ahead this is done for the next
+ * scan in the queue while the current scan runs, see {@link ScanLookAhead}.
+ * <p>
+ * The preparation records the request as it was in the queue and is only
+ * used if the bean which is dequeued has the same id and the same request.
+ * The request which is run is the one the preprocessors return, which may
+ * be a new request.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+class ScanPreparation {
+
+	private final String         uniqueId;
+	private final String         submitted;
+	
+	private ScanRequest<?>       request;
+	private IPointGenerator<?>   generator;
+	private ScanEstimator        estimator;
+	private boolean              validated;
+
+	/**
+	 * Must be created before the bean is preprocessed.
+	 * @param bean
+	 * @throws EventException
+	 */
+	ScanPreparation(ScanBean bean) throws EventException {
+		this.uniqueId  = bean.getUniqueId();
+		this.submitted = marshal(bean.getScanRequest());
+	}
+
+	/**
+	 * Prepares the (preprocessed) bean. Validation is left to the scan process
+	 * if there is a malcolm device because the device must be sent the point 
+	 * generator before it validates and it may still be running the current scan.
+	 * 
+	 * @param bean
+	 * @throws Exception
+	 */
+	void prepare(ScanBean bean) throws Exception {
+		
+		// The preprocessors may have replaced the request
+		final ScanRequest<?> req = bean.getScanRequest();
+		this.request   = req;
+		this.generator = ScanProcess.getGenerator(req);
+		ScanProcess.checkMonitors(bean);
+		this.estimator = ScanProcess.createEstimator(generator, req);
+		
+		if (!isMalcolm(req.getDetectors())) {
+			ScanProcess.validateRequest(bean);
+			validated = true;
+		}
+	}
+
+	private static boolean isMalcolm(Map<String, Object> detectors) {
+		if (detectors==null) return false;
+		return detectors.values().stream().anyMatch(IMalcolmModel.class::isInstance);
+	}
+
+	/**
+	 * @param bean as it came off the queue, before preprocessing
+	 * @return true if this preparation is for the bean and its request is unchanged.
+	 */
+	boolean matches(ScanBean bean) {
+		if (!uniqueId.equals(bean.getUniqueId())) return false;
+		try {
+			return submitted.equals(marshal(bean.getScanRequest()));
+		} catch (EventException ne) {
+			return false;
+		}
+	}
+
+	private static String marshal(ScanRequest<?> req) throws EventException {
+		try {
+			return Services.getEventService().getEventConnectorService().marshal(req);
+		} catch (Exception ne) {
+			throw new EventException("Cannot marshal request "+req, ne);
+		}
+	}
+
+	String getUniqueId() {
+		return uniqueId;
+	}
+
+	/**
+	 * @return the preprocessed request, which the generator was created from.
+	 */
+	ScanRequest<?> getRequest() {
+		return request;
+	}
+
+	IPointGenerator<?> getGenerator() {
+		return generator;
+	}
+
+	ScanEstimator getEstimator() {
+		return estimator;
+	}
+
+	boolean isValidated() {
+		return validated;
+	}
+}
@@ -14,6 +14,7 @@ package org.eclipse.scanning.server.servlet;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
@@ -28,6 +29,7 @@ import org.eclipse.scanning.api.annotation.scan.PostConfigure;
 import org.eclipse.scanning.api.annotation.scan.PreConfigure;
 import org.eclipse.scanning.api.device.AbstractRunnableDevice;
 import org.eclipse.scanning.api.device.IDeviceController;
+import org.eclipse.scanning.api.device.IDeviceReservation;
 import org.eclipse.scanning.api.device.IPausableDevice;
 import org.eclipse.scanning.api.device.IRunnableDevice;
 import org.eclipse.scanning.api.device.IRunnableDeviceService;
@@ -79,12 +81,39 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 	
 	private IDeviceController          controller;
 	private boolean                    blocking;
+	
+	// Look-ahead and worker slots, may be null
+	private final ScanPreparation      preparation;
+	private final ScanLookAhead        lookAhead;
+	private final ScanWorkers          workers;
+	
+	// The devices used by the scan
+	private IDeviceReservation         reservation;
+	private volatile Thread            reserving;
+	private volatile boolean           terminated;
 
 	public ScanProcess(ScanBean scanBean, IPublisher<ScanBean> response, boolean blocking) throws EventException {
+		this(scanBean, response, blocking, null, null, null);
+	}
+	
+	/**
+	 * 
+	 * @param scanBean
+	 * @param response
+	 * @param blocking
+	 * @param preparation the work done for this scan while the previous one ran, may be null
+	 * @param lookAhead to prepare the next scan while this one runs, may be null
+	 * @param workers to run the scan in parallel with others, may be null
+	 * @throws EventException
+	 */
+	ScanProcess(ScanBean scanBean, IPublisher<ScanBean> response, boolean blocking, ScanPreparation preparation, ScanLookAhead lookAhead, ScanWorkers workers) throws EventException {
 		
 		this.bean = scanBean;
 		this.publisher = response;
 		this.blocking = blocking;
+		this.preparation = preparation;
+		this.lookAhead   = lookAhead;
+		this.workers     = workers;
 		
 		if (bean.getScanRequest().getStart()!=null || bean.getScanRequest().getEnd()!=null) {
 			try {
@@ -119,10 +148,22 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		}
 	}
 
+	@Override
+	public void start() throws EventException, InterruptedException {
+		if (workers!=null) {
+			workers.execute(this); // Returns when the scan has a worker slot.
+		} else {
+			execute();
+		}
+	}
+
 	@Override
 	public void terminate() throws EventException {
 		
 		if (bean.getStatus()==Status.COMPLETE) return; // Nothing to terminate.
+		terminated = true;
+		Thread waiting = reserving;
+		if (waiting!=null) waiting.interrupt(); // Stop waiting for devices.
 		try {
 			if (controller!=null) controller.abort(getClass().getName());
 		} catch (ScanningException  | InterruptedException e) {
@@ -135,11 +176,18 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		try {
 			logger.debug("Starting to run : {}", bean);
 			setFilePath(bean);
-			IPointGenerator<?> gen = getGenerator(bean.getScanRequest());
+			IPointGenerator<?> gen = preparation!=null ? preparation.getGenerator() : getGenerator(bean.getScanRequest());
+
+			// Reserve the devices, scans using other devices may run at the same time.
+			// This must be done before any device is configured, otherwise a scan waiting
+			// for a device would change it under the scan which is using it.
+			// The reservation is released in the finally block whatever happens.
+			if (blocking) reservation = reserve(bean, gen);
+
 			initializeMalcolmDevice(bean, gen);
 			
-			checkMonitors();
-			validateRequest(bean);
+			checkMonitors(bean);
+			if (preparation==null || !preparation.isValidated()) validateRequest(bean);
 
 			// Move to a position if they set one
 			setPosition(bean.getScanRequest().getStart(), "start");
@@ -163,6 +211,13 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 	        // Intentionally do not catch EventException, that passes straight up.
 			
 		} catch (Exception ne) {
+			if (terminated && ne instanceof InterruptedException) {
+				logger.info("Run {} {} was terminated waiting for its devices", getBean().getName(), getBean().getUniqueId());
+				bean.setStatus(Status.TERMINATED);
+				bean.setMessage("Run aborted before started");
+				broadcast(bean);
+				return;
+			}
 			logger.error("Cannot execute run "+getBean().getName()+" "+getBean().getUniqueId(), ne);
 			bean.setPreviousStatus(Status.RUNNING);
 			bean.setStatus(Status.FAILED);
@@ -171,6 +226,29 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 			
 			if (ne instanceof EventException) throw (EventException)ne;
 			throw new EventException(ne);
+			
+		} finally {
+			if (reservation!=null) reservation.release();
+			reservation = null;
+		}
+	}
+
+	private IDeviceReservation reserve(ScanBean bean, IPointGenerator<?> gen) throws ScanningException, InterruptedException {
+		
+		final ScanRequest<?>     req   = bean.getScanRequest();
+		final Collection<String> names = new LinkedHashSet<>(getScannableNames(gen));
+		if (req.getDetectors()!=null)    names.addAll(req.getDetectors().keySet());
+		if (req.getMonitorNames()!=null) names.addAll(req.getMonitorNames());
+		if (req.getStart()!=null)        names.addAll(req.getStart().getNames());
+		if (req.getEnd()!=null)          names.addAll(req.getEnd().getNames());
+		
+		final long timeout = Long.getLong("org.eclipse.scanning.server.servlet.reservationTimeout", -1);
+		reserving = Thread.currentThread();
+		try {
+			if (terminated) throw new InterruptedException("The run was terminated");
+			return Services.getRunnableDeviceService().reserve(bean.getUniqueId(), names, timeout, TimeUnit.SECONDS);
+		} finally {
+			reserving = null;
 		}
 	}
 
@@ -190,6 +268,7 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 	private void executeBlocking(IDeviceController controller, ScanBean bean) throws ScanningException, InterruptedException, TimeoutException, ExecutionException, EventException, UnsupportedLanguageException, ScriptExecutionException {
 		
 		logger.debug("Running blocking controller {}", controller.getName());
+		if (lookAhead!=null) lookAhead.prepareNext(); // While this one runs
 		controller.getDevice().run(null); // Runs until done
 	    
 		// Run a script, if any has been requested
@@ -204,7 +283,7 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		}
 	}
 
-	private void validateRequest(ScanBean bean) throws ValidationException, InstantiationException, IllegalAccessException {
+	static void validateRequest(ScanBean bean) throws ValidationException, InstantiationException, IllegalAccessException {
 		if (!Boolean.getBoolean("org.eclipse.scanning.server.servlet.scanProcess.disableValidate")) {
 			logger.debug("Validating run : {}", bean);
 			final ScanRequest<?> sr = bean.getScanRequest();
@@ -216,7 +295,7 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		}
 	}
 
-	private void checkMonitors() throws Exception {
+	static void checkMonitors(ScanBean bean) throws Exception {
 		
 		// We set any activated monitors in the request if none have been specified.
 		if (Boolean.getBoolean("org.eclipse.scanning.server.useDefaultActivatedMonitors")) {
@@ -228,7 +307,7 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		}	
 	}
 
-	private Collection<String> getMonitors() throws Exception {
+	private static Collection<String> getMonitors() throws Exception {
 		
 		final Collection<DeviceInformation<?>> scannables = Services.getConnector().getDeviceInformation();
 		final List<String> ret = new ArrayList<String>();
@@ -331,10 +410,10 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		
 		try {
 			final ScanModel scanModel = new ScanModel();
-			IPointGenerator<?> generator = getGenerator(req);
+			IPointGenerator<?> generator = preparation!=null ? preparation.getGenerator() : getGenerator(req);
 			scanModel.setPositionIterable(generator);
 			
-			ScanEstimator estimator = new ScanEstimator(Services.getGeneratorService(), bean.getScanRequest());
+			ScanEstimator estimator = preparation!=null ? preparation.getEstimator() : createEstimator(generator, req);
 			bean.setSize(estimator.getSize());
 			scanModel.setFilePath(bean.getFilePath());
 			
@@ -368,6 +447,17 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		}
 	}
 
+	/**
+	 * The server estimates scans with the costs which the sequencer has learned from the previous ones.
+	 * @param generator
+	 * @param req
+	 * @return estimator
+	 * @throws GeneratorException
+	 */
+	static ScanEstimator createEstimator(IPointGenerator<?> generator, ScanRequest<?> req) throws GeneratorException {
+		return new ScanEstimator(generator, req.getDetectors(), 0, ScanEstimator.getCostModel(), ScanEstimator.getMoveTimeModel());
+	}
+
 	private void configureDetectors(Map<String, Object> dmodels, ScanModel model, IPointGenerator<?> generator) throws Exception {
 		
 		logger.debug("Configuring detectors {}", dmodels!=null?dmodels.keySet():null);
@@ -405,7 +495,7 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		return names;   		
 	}
 
-	private IPointGenerator<?> getGenerator(ScanRequest<?> req) throws GeneratorException {
+	static IPointGenerator<?> getGenerator(ScanRequest<?> req) throws GeneratorException {
 		IPointGeneratorService service = Services.getGeneratorService();
 		if (req.getDetectors() != null) {
 			// if theres a malcolm device, set the duration of the compound model to its exposure time
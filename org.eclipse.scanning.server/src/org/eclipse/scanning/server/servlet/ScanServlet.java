@@ -35,10 +35,21 @@ import org.slf4j.LoggerFactory;
     {@literal    <property name="statusSet"   value="uk.ac.diamond.p45.statusSet"   />}
     {@literal    <property name="statusTopic" value="uk.ac.diamond.p45.statusTopic" />}
     {@literal    <property name="durable"     value="true" />}
+    {@literal    <property name="lookAhead"   value="true" />}
+    {@literal    <property name="workerSlots" value="2" />}
     {@literal </bean>}
      
     </pre>
     
+    With lookAhead set, the next scan in the queue is prepared while the current
+    one runs (see ScanLookAhead) provided that every preprocessor is look-ahead
+    safe (see IPreprocessor.isLookAheadSafe()), it may also be set with the system property
+    org.eclipse.scanning.server.servlet.lookAhead
+    
+    With workerSlots more than one, that many scans may run at once if they
+    use different scannables and detectors (see ScanWorkers), it may also be
+    set with the system property org.eclipse.scanning.server.servlet.workerSlots
+    
     FIXME Add security via activemq layer. Anyone can run this now.
 
  * 
@@ -49,8 +60,24 @@ public class ScanServlet extends AbstractConsumerServlet<ScanBean> {
 	
 	private static final Logger logger = LoggerFactory.getLogger(ScanServlet.class);
 	
+	private boolean       lookAhead;
+	private ScanLookAhead scanLookAhead;
+	private int           workerSlots;
+	private ScanWorkers   scanWorkers;
+	
 	public ScanServlet() {
 		setPauseOnStart(true);
+		setLookAhead(Boolean.getBoolean("org.eclipse.scanning.server.servlet.lookAhead"));
+		setWorkerSlots(Integer.getInteger("org.eclipse.scanning.server.servlet.workerSlots", 1));
+	}
+
+	@Override
+	public void disconnect() throws EventException {
+		if (scanLookAhead!=null) scanLookAhead.dispose();
+		scanLookAhead = null;
+		if (scanWorkers!=null) scanWorkers.dispose();
+		scanWorkers = null;
+		super.disconnect();
 	}
 	
 	@Override
@@ -66,10 +93,32 @@ public class ScanServlet extends AbstractConsumerServlet<ScanBean> {
 		// Debugging makes code messy but switching this on can prove useful.
 		// Test used because output message does work.
 		debug("Accepting bean", scanBean, response);		
-		preprocess(scanBean);
-		debug("After processing bean (normally no change)", scanBean, response);		
 		
-		return new ScanProcess(scanBean, response, isBlocking());
+		// The look-ahead may have prepared this bean while the previous scan ran.
+		ScanLookAhead   ahead       = getScanLookAhead();
+		ScanPreparation preparation = ahead!=null ? ahead.take(scanBean) : null;
+		if (preparation!=null) {
+			scanBean.setScanRequest(preparation.getRequest()); // Already preprocessed
+			debug("Using bean prepared while the previous scan ran", scanBean, response);		
+		} else {
+			preprocess(scanBean);
+			debug("After processing bean (normally no change)", scanBean, response);		
+		}
+		
+		return new ScanProcess(scanBean, response, isBlocking(), preparation, ahead, getScanWorkers());
+	}
+
+	private synchronized ScanLookAhead getScanLookAhead() {
+		// Only a blocking consumer with one slot runs one scan after another.
+		if (!lookAhead || !isBlocking() || workerSlots>1) return null;
+		if (scanLookAhead==null) scanLookAhead = new ScanLookAhead(this);
+		return scanLookAhead;
+	}
+
+	private synchronized ScanWorkers getScanWorkers() {
+		if (workerSlots<2 || !isBlocking()) return null;
+		if (scanWorkers==null) scanWorkers = new ScanWorkers(getName(), workerSlots);
+		return scanWorkers;
 	}
 
 	private void debug(String message, ScanBean scanBean, IPublisher<ScanBean> response) {
@@ -86,7 +135,7 @@ public class ScanServlet extends AbstractConsumerServlet<ScanBean> {
 		
 	}
 
-	private void preprocess(ScanBean scanBean) throws ProcessingException {
+	void preprocess(ScanBean scanBean) throws ProcessingException {
 		ScanRequest<?> req = scanBean.getScanRequest();
 		if (req.isIgnorePreprocess()) {
 			return;
@@ -96,4 +145,36 @@ public class ScanServlet extends AbstractConsumerServlet<ScanBean> {
 		}
 		scanBean.setScanRequest(req);
 	}
+
+	/**
+	 * @param scanBean
+	 * @return true if the bean may be preprocessed while another scan runs, see {@link IPreprocessor#isLookAheadSafe()}
+	 */
+	boolean isLookAheadSafe(ScanBean scanBean) {
+		if (scanBean.getScanRequest().isIgnorePreprocess()) return true;
+		for (IPreprocessor processor : Services.getPreprocessors()) {
+			if (!processor.isLookAheadSafe()) return false;
+		}
+		return true;
+	}
+
+	public boolean isLookAhead() {
+		return lookAhead;
+	}
+
+	public void setLookAhead(boolean lookAhead) {
+		this.lookAhead = lookAhead;
+	}
+
+	public int getWorkerSlots() {
+		return workerSlots;
+	}
+
+	/**
+	 * Must be set before the servlet is connected.
+	 * @param workerSlots the number of scans which may run at once, default 1.
+	 */
+	public void setWorkerSlots(int workerSlots) {
+		this.workerSlots = workerSlots;
+	}
 }
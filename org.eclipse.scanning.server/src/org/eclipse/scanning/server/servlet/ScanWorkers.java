@@ -0,0 +1,77 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.server.servlet;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Worker slots to run several scans at once. The consumer thread waits
+ * for a free slot before it takes the next scan from the queue. Scans 
+ * which use the same devices still run one after another because each
+ * scan reserves its devices, see IRunnableDeviceService.reserve(...)
+ * 
+ * @author Matthew Gerring
+ *
+ */
+class ScanWorkers {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ScanWorkers.class);
+
+	private final Semaphore       slots;
+	private final ExecutorService executor;
+
+	ScanWorkers(String name, int count) {
+		this.slots    = new Semaphore(count);
+		final AtomicInteger index = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(count, r -> {
+			Thread thread = new Thread(r, name+" worker "+index.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Waits for a free slot then runs the process in it.
+	 * @param process
+	 * @throws InterruptedException
+	 * @throws EventException
+	 */
+	void execute(ScanProcess process) throws InterruptedException, EventException {
+		slots.acquire();
+		try {
+			executor.execute(() -> {
+				try {
+					process.execute();
+				} catch (Exception ne) {
+					logger.debug("Run failed in worker {}", Thread.currentThread().getName(), ne); // The process reports its failure
+				} finally {
+					slots.release();
+				}
+			});
+		} catch (RejectedExecutionException ne) {
+			slots.release();
+			throw new EventException("The scan workers have been stopped!", ne);
+		}
+	}
+
+	void dispose() {
+		executor.shutdownNow();
+	}
+}
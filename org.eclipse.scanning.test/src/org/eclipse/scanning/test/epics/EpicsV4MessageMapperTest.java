@@ -0,0 +1,195 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.epics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
+import org.eclipse.scanning.api.malcolm.message.Type;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.connector.epics.EpicsV4MessageMapper;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.epics.pvdata.factory.FieldFactory;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.misc.BitSet;
+import org.epics.pvdata.pv.FieldCreate;
+import org.epics.pvdata.pv.PVDouble;
+import org.epics.pvdata.pv.PVString;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.Structure;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the conversion of messages to and replies and updates from a Malcolm device,
+ * with structures built here rather than received from a device.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class EpicsV4MessageMapperTest {
+
+	private EpicsV4MessageMapper mapper;
+	private Structure            structure;
+
+	@Before
+	public void create() throws Exception {
+		mapper = new EpicsV4MessageMapper();
+
+		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+		Structure inner = fieldCreate.createFieldBuilder().
+				add("value", ScalarType.pvDouble).
+				createStructure();
+		Structure block = fieldCreate.createFieldBuilder().
+				add("name", ScalarType.pvString).
+				add("inner", inner).
+				createStructure();
+		structure = fieldCreate.createFieldBuilder().
+				add("health", ScalarType.pvString).
+				add("block", block).
+				createStructure();
+	}
+
+	@Test
+	public void nestedEndpoint() throws Exception {
+		MalcolmMessage update = mapper.convertSubscribeUpdatePVStructureToMalcolmMessage(create(2.5), subscribe("block.inner.value"));
+		assertEquals(Type.UPDATE, update.getType());
+		assertEquals(2.5, ((Number)update.getValue()).doubleValue(), 0.0001);
+	}
+
+	@Test
+	public void updatesWithTheSameStructure() throws Exception {
+		MalcolmMessage subscribe = subscribe("block.inner.value");
+		for (int i = 0; i < 5; i++) {
+			MalcolmMessage update = mapper.convertSubscribeUpdatePVStructureToMalcolmMessage(create(i), subscribe);
+			assertEquals(i, ((Number)update.getValue()).doubleValue(), 0.0001);
+		}
+	}
+
+	@Test
+	public void rawValueOfUpdateIsFromTheUpdate() throws Exception {
+		PVStructure pvStructure = create(2.5);
+		MalcolmMessage update = mapper.convertSubscribeUpdatePVStructureToMalcolmMessage(pvStructure, subscribe("block.inner.value"));
+
+		// The monitor reuses the structure for the next update
+		pvStructure.getSubField(PVDouble.class, "block.inner.value").put(7.25);
+
+		String raw = (String)update.getRawValue();
+		assertTrue(raw.contains("2.5"));
+		assertFalse(raw.contains("7.25"));
+	}
+
+	@Test
+	public void rawValueOfGet() throws Exception {
+		PVStructure pvStructure = create(2.5);
+		MalcolmMessage reply = mapper.convertGetPVStructureToMalcolmMessage(pvStructure, subscribe("block.inner.value"));
+		assertEquals(pvStructure.toString(), reply.getRawValue());
+	}
+
+	@Test
+	public void blockUpdateHasChangedFields() throws Exception {
+		PVStructure pvStructure = create(2.5);
+		BitSet changed = new BitSet(pvStructure.getNumberFields());
+		changed.set(pvStructure.getSubField("block.inner.value").getFieldOffset());
+		
+		MalcolmMessage update = mapper.convertSubscribeUpdatePVStructureToMalcolmMessage(pvStructure, changed, subscribe(""));
+		assertEquals(Type.DELTA, update.getType());
+		assertEquals(Arrays.asList("block"), Arrays.asList(((Map<?,?>)update.getValue()).keySet().toArray()));
+	}
+
+	@Test
+	public void firstBlockUpdateHasEveryField() throws Exception {
+		PVStructure pvStructure = create(2.5);
+		BitSet changed = new BitSet(pvStructure.getNumberFields());
+		changed.set(0);
+		
+		MalcolmMessage update = mapper.convertSubscribeUpdatePVStructureToMalcolmMessage(pvStructure, changed, subscribe(""));
+		assertEquals(Type.UPDATE, update.getType());
+		assertEquals(2, ((Map<?,?>)update.getValue()).size());
+	}
+
+	@Test
+	public void configureParameters() throws Exception {
+		Map<String, Object> parameters = new LinkedHashMap<>();
+		parameters.put("generator", createGenerator(3));
+		parameters.put("fileDir", "/dls/first");
+		MalcolmMessage configure = new MalcolmMessage();
+		configure.setType(Type.CALL);
+		configure.setId(1);
+		configure.setMethod("configure");
+		configure.setArguments(parameters);
+
+		PVStructure pvStructure = mapper.convertMalcolmMessageToPVStructure(configure);
+		assertEquals("configure", pvStructure.getSubField(PVString.class, "method.method").get());
+		assertParameters(parameters, pvStructure);
+
+		// The same parameters changed in place and sent again are not those sent before
+		parameters.put("generator", createGenerator(5));
+		parameters.put("fileDir", "/dls/second");
+		pvStructure = mapper.convertMalcolmMessageToPVStructure(configure);
+		assertParameters(parameters, pvStructure);
+	}
+
+	private void assertParameters(Map<String, Object> parameters, PVStructure pvStructure) throws Exception {
+		PVStructure sent = pvStructure.getStructureField("parameters");
+		assertEquals(parameters.get("fileDir"), sent.getSubField(PVString.class, "fileDir").get());
+
+		PVStructure expected = mapper.pvMarshal(parameters.get("generator"));
+		assertEquals(expected.getStructure(), sent.getStructureField("generator").getStructure());
+		assertEquals(expected, sent.getStructureField("generator"));
+	}
+
+	private IPointGenerator<?> createGenerator(double stop) throws Exception {
+		IPointGeneratorService pgService = new PointGeneratorService();
+		return pgService.createCompoundGenerator(pgService.createGenerator(new StepModel("x", 0, stop, 1)));
+	}
+
+	@Test
+	public void lazyRawValue() {
+		int[] rendered = new int[1];
+		MalcolmMessage message = new MalcolmMessage();
+		message.setLazyRawValue(() -> {
+			rendered[0]++;
+			return "raw";
+		});
+		assertEquals(0, rendered[0]);
+		assertEquals("raw", message.getRawValue());
+		assertEquals("raw", message.getRawValue());
+		assertEquals(1, rendered[0]);
+
+		message.setRawValue("other");
+		assertEquals("other", message.getRawValue());
+	}
+
+	private PVStructure create(double value) {
+		PVStructure pvStructure = PVDataFactory.getPVDataCreate().createPVStructure(structure);
+		pvStructure.getSubField(PVDouble.class, "block.inner.value").put(value);
+		return pvStructure;
+	}
+
+	private MalcolmMessage subscribe(String endpoint) {
+		MalcolmMessage message = new MalcolmMessage();
+		message.setType(Type.SUBSCRIBE);
+		message.setId(1);
+		message.setEndpoint(endpoint);
+		return message;
+	}
+}
@@ -17,6 +17,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(org.junit.runners.Suite.class)
 @SuiteClasses({
 	PVDataSerializationTest.class,
+	EpicsV4MessageMapperTest.class,
 	EpicsV4ConnectorTest.class
 })
 public class Suite {
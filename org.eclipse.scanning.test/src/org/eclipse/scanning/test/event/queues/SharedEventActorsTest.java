@@ -0,0 +1,117 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event.queues;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.EventListener;
+import java.util.List;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IPublisher;
+
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.event.queues.ServicesHolder;
+import org.eclipse.scanning.event.queues.SharedEventActors;
+import org.eclipse.scanning.test.event.queues.mocks.MockEventService;
+import org.eclipse.scanning.test.event.queues.mocks.MockPublisher;
+
+import org.eclipse.scanning.test.event.queues.mocks.MockSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedEventActorsTest {
+	
+	private MockPublisher<ScanBean> mockPub;
+
+	private RecordingSubscriber mockSubsc;
+	private URI uri;
+	
+	@Before
+	public void setUp() throws Exception {
+		mockPub = new MockPublisher<>(null, null);
+
+		mockSubsc = new RecordingSubscriber();
+		
+		MockEventService mockEvServ = new MockEventService();
+		mockEvServ.setMockPublisher(mockPub);
+
+		mockEvServ.setMockSubscriber(mockSubsc);
+		ServicesHolder.setEventService(mockEvServ);
+		uri = new URI("file:///foo/bar");
+	}
+	
+	/**
+	 * Publishers are shared and only disconnected when the last user 
+	 * releases them.
+	 */
+	@Test
+	public void testPublisherShared() throws EventException {
+		IPublisher<ScanBean> pub1 = SharedEventActors.acquirePublisher(uri, "test.topic");
+		IPublisher<ScanBean> pub2 = SharedEventActors.acquirePublisher(uri, "test.topic");
+		assertSame("Publisher not shared", pub1, pub2);
+		
+		SharedEventActors.release(uri, "test.topic", pub1);
+		assertFalse("Publisher disconnected while in use", mockPub.isDisconnected());
+		
+		SharedEventActors.release(uri, "test.topic", pub2);
+		assertTrue("Publisher not disconnected", mockPub.isDisconnected());
+	}
+	
+	/**
+	 * Listeners are added to one subscriber against the uniqueId of the bean 
+	 * they wait for. The subscriber is disconnected with the last listener.
+	 */
+	@Test
+	public void testStatusListenersShareSubscriber() throws EventException {
+		IBeanListener<ScanBean> listener1 = evt -> {};
+		IBeanListener<ScanBean> listener2 = evt -> {};
+		SharedEventActors.addStatusListener(uri, "test.status", "scan-1", listener1);
+		SharedEventActors.addStatusListener(uri, "test.status", "scan-2", listener2);
+		assertEquals("Listeners not added against uniqueIds", 2, mockSubsc.ids.size());
+		assertTrue(mockSubsc.ids.contains("scan-1"));
+		assertTrue(mockSubsc.ids.contains("scan-2"));
+		
+		SharedEventActors.removeStatusListener(uri, "test.status", "scan-1", listener1);
+		assertFalse("scan-1 listener not removed", mockSubsc.ids.contains("scan-1"));
+		assertFalse("Subscriber disconnected while in use", mockSubsc.isDisconnected());
+		
+		SharedEventActors.removeStatusListener(uri, "test.status", "scan-2", listener2);
+		assertTrue("Subscriber not disconnected", mockSubsc.isDisconnected());
+	}
+	
+	private static class RecordingSubscriber extends MockSubscriber<EventListener> {
+		
+		private final List<String> ids = new ArrayList<>();
+		
+		RecordingSubscriber() {
+			super(null, null);
+		}
+		
+		@Override
+		public void addListener(String id, EventListener listener) {
+			ids.add(id);
+		}
+		
+		@Override
+		public void removeListener(String id, EventListener listener) {
+			ids.remove(id);
+		}
+	}
+
+}
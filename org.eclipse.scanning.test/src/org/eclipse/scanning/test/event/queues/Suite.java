@@ -22,7 +22,8 @@ import org.junit.runners.Suite.SuiteClasses;
 	QueueProcessFactoryTest.class,
 	QueueResponseProcessTest.class,
 	QueueServiceTest.class,
-	QueueTest.class
+	QueueTest.class,
+	SharedEventActorsTest.class
 })
 public class Suite {
 
@@ -35,6 +35,7 @@ public class MockConsumer<U extends StatusBean> implements IConsumer<U> {
 	private String name;
 	
 	private List<U> statusSet = new ArrayList<>(), submitQueue = new ArrayList<>();
+	private IProcessCreator<U> runner;
 	
 	@SuppressWarnings("unchecked")
 	public MockConsumer() {
@@ -160,8 +161,7 @@ public class MockConsumer<U extends StatusBean> implements IConsumer<U> {
 
 	@Override
 	public void setRunner(IProcessCreator<U> process) throws EventException {
-		// TODO Auto-generated method stub
-		
+		runner = process;
 	}
 
 	@Override
@@ -182,8 +182,7 @@ public class MockConsumer<U extends StatusBean> implements IConsumer<U> {
 
 	@Override
 	public IProcessCreator<U> getRunner() {
-		// TODO Auto-generated method stub
-		return null;
+		return runner;
 	}
 
 	@Override
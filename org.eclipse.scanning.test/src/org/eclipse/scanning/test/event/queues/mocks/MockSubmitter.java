@@ -31,7 +31,7 @@ public class MockSubmitter<T extends StatusBean> implements ISubmitter<T> {
 	private Map<String, List<ReorderedBean>> reorderedBeans;
 	private String uniqueId, submitQ;
 	
-	private boolean sendToConsumer = false, disconnected = false;
+	private boolean sendToConsumer = false, disconnected = false, failSubmit = false;
 	
 	public MockSubmitter() {
 		submittedBeans = new HashMap<>();
@@ -45,6 +45,7 @@ public class MockSubmitter<T extends StatusBean> implements ISubmitter<T> {
 	public void resetSubmitter() {
 		submittedBeans.clear();
 		disconnected= false;
+		failSubmit = false;
 	}
 	
 	/**
@@ -170,6 +171,7 @@ public class MockSubmitter<T extends StatusBean> implements ISubmitter<T> {
 
 	@Override
 	public void submit(T bean, boolean prepareBean) throws EventException {
+		if (failSubmit) throw new EventException("Submission of '"+bean.getName()+"' failed");
 		if (uniqueId==null) {
 			uniqueId = bean.getUniqueId()!=null ? bean.getUniqueId() : UUID.randomUUID().toString();
 		}
@@ -323,6 +325,13 @@ public class MockSubmitter<T extends StatusBean> implements ISubmitter<T> {
 		sendToConsumer = send;
 	}
 	
+	/**
+	 * Make every following submission throw an {@link EventException}.
+	 */
+	public void setFailSubmit(boolean fail) {
+		failSubmit = fail;
+	}
+	
 	class ReorderedBean {
 		protected final T bean;
 		protected final int move;
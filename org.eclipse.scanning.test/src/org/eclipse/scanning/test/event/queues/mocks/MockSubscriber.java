@@ -14,6 +14,7 @@ package org.eclipse.scanning.test.event.queues.mocks;
 import java.net.URI;
 import java.util.EventListener;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventConnectorService;
@@ -22,6 +23,7 @@ import org.eclipse.scanning.api.event.core.ISubscriber;
 public class MockSubscriber<T extends EventListener> implements ISubscriber<T> {
 	
 	private boolean disconnected = false;
+	private final List<T> listeners = new CopyOnWriteArrayList<>();
 	
 	public MockSubscriber(URI uri, String topicName) {
 		// TODO Auto-generated constructor stub
@@ -29,6 +31,15 @@ public class MockSubscriber<T extends EventListener> implements ISubscriber<T> {
 	
 	public void resetSubscriber() {
 		disconnected= false;
+		listeners.clear();
+	}
+	
+	/**
+	 * @return the listeners added to this subscriber, so that tests can 
+	 *         send them events.
+	 */
+	public List<T> getListeners() {
+		return listeners;
 	}
 
 	@Override
@@ -62,14 +73,12 @@ public class MockSubscriber<T extends EventListener> implements ISubscriber<T> {
 
 	@Override
 	public void addListener(T listener) throws EventException {
-		// TODO Auto-generated method stub
-		
+		listeners.add(listener);
 	}
 
 	@Override
 	public void removeListener(T listener) {
-		// TODO Auto-generated method stub
-		
+		listeners.remove(listener);
 	}
 
 	@Override
@@ -0,0 +1,260 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event.queues.processes;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IProcessCreator;
+import org.eclipse.scanning.api.event.queues.IQueueControllerService;
+import org.eclipse.scanning.api.event.queues.beans.QueueAtom;
+import org.eclipse.scanning.api.event.queues.beans.Queueable;
+import org.eclipse.scanning.api.event.queues.beans.SubTaskAtom;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.event.queues.QueueProcessCreator;
+import org.eclipse.scanning.event.queues.QueueService;
+import org.eclipse.scanning.event.queues.ServicesHolder;
+import org.eclipse.scanning.event.queues.processes.QueueListener;
+import org.eclipse.scanning.event.queues.processes.SubTaskAtomProcess;
+import org.eclipse.scanning.test.event.queues.dummy.DummyAtom;
+import org.eclipse.scanning.test.event.queues.mocks.MockConsumer;
+import org.eclipse.scanning.test.event.queues.mocks.MockEventService;
+import org.eclipse.scanning.test.event.queues.mocks.MockPublisher;
+import org.eclipse.scanning.test.event.queues.mocks.MockSubmitter;
+import org.eclipse.scanning.test.event.queues.mocks.MockSubscriber;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the parallel path of the AtomQueueProcessor. Atoms are not run;
+ * their progress is sent to the listeners on the active-queue subscriber
+ * by the test.
+ */
+public class AtomQueueProcessorTest {
+
+	private SubTaskAtom stAt;
+	private DummyAtom atomA, atomB, atomC;
+	private SubTaskAtomProcess<Queueable> stAtProcr;
+	private ProcessTestInfrastructure pti;
+
+	private static QueueService qServ;
+	private static MockConsumer<Queueable> mockCons;
+	private static MockPublisher<QueueAtom> mockPub;
+	private static MockSubmitter<QueueAtom> mockSub;
+	private static MockSubscriber<IBeanListener<QueueAtom>> mockSubscr;
+	private static MockEventService mockEvServ;
+	private static IQueueControllerService controller;
+
+	@BeforeClass
+	public static void setUpClass() throws EventException {
+		//Configure the processor Mock queue infrastructure
+		mockCons = new MockConsumer<>();
+		mockPub = new MockPublisher<>(null, null);
+		mockSub = new MockSubmitter<>();
+		mockEvServ = new MockEventService();
+		mockEvServ.setMockConsumer(mockCons);
+		mockEvServ.setMockPublisher(mockPub);
+		mockEvServ.setMockSubmitter(mockSub);
+		ServicesHolder.setEventService(mockEvServ);
+
+		//This is a real queue service, so we have to do some set up
+		qServ = new QueueService("fake-qserv", "file:///foo/bar");
+		qServ.init();
+		qServ.start();
+		ServicesHolder.setQueueService(qServ);
+		controller = qServ;
+		ServicesHolder.setQueueControllerService(controller);
+
+		//Only the active-queue subscriber is created after this
+		mockSubscr = new MockSubscriber<>(null, null);
+		mockEvServ.setMockSubscriber(mockSubscr);
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		ServicesHolder.unsetQueueControllerService(controller);
+		controller = null;
+
+		ServicesHolder.unsetEventService(mockEvServ);
+		mockEvServ = null;
+		mockPub = null;
+		mockSubscr = null;
+
+		ServicesHolder.unsetQueueService(qServ);
+		qServ = null;
+		mockSub = null;
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		pti = new ProcessTestInfrastructure();
+
+		//C can only start once A & B have completed
+		stAt = new SubTaskAtom("Test parallel sub task bean");
+		stAt.setBeamline("I15-1(test)");
+		stAt.setHostName("afakeserver.diamond.ac.uk");
+		stAt.setUserName(System.getProperty("user.name"));
+		stAt.setParallel(true);
+		atomA = new DummyAtom("Hildebrand", 300);
+		atomB = new DummyAtom("Yuri", 300);
+		atomC = new DummyAtom("Ingrid", 2400);
+		atomC.addDependency(atomA);
+		atomC.addDependency(atomB);
+		stAt.addAtom(atomA);
+		stAt.addAtom(atomB);
+		stAt.addAtom(atomC);
+
+		stAtProcr = new SubTaskAtomProcess<>(stAt, pti.getPublisher(), false);
+
+		//Reset queue architecture
+		mockSub.resetSubmitter();
+		mockPub.resetPublisher();
+		mockSubscr.resetSubscriber();
+
+		pti.executeProcess(stAtProcr, stAt, false, true);
+	}
+
+	@After
+	public void tearDown() {
+		pti = null;
+		mockEvServ.clearRegisteredConsumers();
+	}
+
+	/**
+	 * Atoms without dependencies are submitted together, before any of them
+	 * completes, to an active-queue whose processes do not block.
+	 */
+	@Test
+	public void independentAtomsOverlap() throws Exception {
+		List<? extends StatusBean> submitted = getSubmitted();
+		assertTrue("A should be submitted at start", submitted.contains(atomA));
+		assertTrue("B should be submitted at start", submitted.contains(atomB));
+		assertFalse("C should wait for A & B", submitted.contains(atomC));
+
+		@SuppressWarnings("unchecked")
+		IProcessCreator<QueueAtom> runner = (IProcessCreator<QueueAtom>) qServ.getQueue(getActiveQueueID()).getConsumer().getRunner();
+		assertTrue("Active-queue should run atoms with a QueueProcessCreator", runner instanceof QueueProcessCreator);
+		assertFalse("Atoms in the active-queue should not block each other", runner.createProcess(new SubTaskAtom("Probe"), mockPub).isBlocking());
+
+		pti.waitToTerminate(10l, true);
+		pti.waitForBeanFinalStatus(5000l);
+	}
+
+	/**
+	 * A dependant is only submitted once all the atoms it depends on have
+	 * completed. When it completes too, the parent completes.
+	 */
+	@Test
+	public void dependantsWait() throws Exception {
+		complete(atomA);
+		assertFalse("C should wait for B", getSubmitted().contains(atomC));
+
+		complete(atomB);
+		assertTrue("C should be submitted after A & B", getSubmitted().contains(atomC));
+
+		complete(atomC);
+		pti.waitForExecutionEnd(10000l);
+		pti.checkLastBroadcastBeanStatuses(Status.COMPLETE, false);
+	}
+
+	/**
+	 * Once an atom fails, atoms depending on it are never submitted and the
+	 * parent fails.
+	 */
+	@Test
+	public void failedAtomStopsSubmissions() throws Exception {
+		fire(atomA, Status.RUNNING, 0d);
+		fire(atomB, Status.RUNNING, 0d);
+
+		/*
+		 * The QueueListener hears of the failure last, so that the
+		 * active-queue is still registered when B completes.
+		 */
+		atomA.setStatus(Status.FAILED);
+		for (IBeanListener<QueueAtom> listener : mockSubscr.getListeners()) {
+			if (!(listener instanceof QueueListener)) listener.beanChangePerformed(new BeanEvent<QueueAtom>(atomA));
+		}
+		complete(atomB);
+		assertFalse("C should not be submitted after A failed", getSubmitted().contains(atomC));
+
+		for (IBeanListener<QueueAtom> listener : mockSubscr.getListeners()) {
+			if (listener instanceof QueueListener) listener.beanChangePerformed(new BeanEvent<QueueAtom>(atomA));
+		}
+		pti.waitForExecutionEnd(10000l);
+		pti.checkLastBroadcastBeanStatuses(Status.FAILED, false);
+		assertFalse("C should not be submitted after A failed", getSubmitted().contains(atomC));
+	}
+
+	/**
+	 * If a dependant cannot be submitted, the parent is released and fails.
+	 */
+	@Test
+	public void failedSubmitFailsParent() throws Exception {
+		complete(atomA);
+		mockSub.setFailSubmit(true);
+		complete(atomB);
+
+		pti.waitForExecutionEnd(10000l);
+		pti.checkLastBroadcastBeanStatuses(Status.FAILED, false);
+		assertFalse("C should not have been submitted", getSubmitted().contains(atomC));
+	}
+
+	/**
+	 * After termination, completing atoms starts nothing more and the parent
+	 * stays terminated.
+	 */
+	@Test
+	public void terminateStopsSubmissions() throws Exception {
+		pti.waitToTerminate(10l, true);
+		pti.waitForBeanFinalStatus(5000l);
+
+		complete(atomA);
+		complete(atomB);
+		assertFalse("C should not be submitted after termination", getSubmitted().contains(atomC));
+		pti.checkLastBroadcastBeanStatuses(Status.TERMINATED, false);
+	}
+
+	private String getActiveQueueID() {
+		return stAtProcr.getAtomQueueProcessor().getActiveQueueID();
+	}
+
+	private List<? extends StatusBean> getSubmitted() {
+		return pti.getSubmittedBeans(mockSub, getActiveQueueID());
+	}
+
+	private void complete(QueueAtom atom) {
+		fire(atom, Status.RUNNING, 0d);
+		fire(atom, Status.COMPLETE, 100d);
+	}
+
+	/**
+	 * Send the new state of an atom to the listeners on the active-queue, as
+	 * its consumer would.
+	 */
+	private void fire(QueueAtom atom, Status status, double percent) {
+		atom.setStatus(status);
+		atom.setPercentComplete(percent);
+		for (IBeanListener<QueueAtom> listener : mockSubscr.getListeners()) {
+			listener.beanChangePerformed(new BeanEvent<QueueAtom>(atom));
+		}
+	}
+
+}
@@ -0,0 +1,111 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event.queues.processes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.queues.beans.QueueAtom;
+import org.eclipse.scanning.event.queues.processes.AtomScheduler;
+import org.eclipse.scanning.test.event.queues.dummy.DummyAtom;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AtomSchedulerTest {
+	
+	private DummyAtom atomA, atomB, atomC, atomD;
+	
+	@Before
+	public void setUp() {
+		atomA = new DummyAtom("Hydrogen", 100);
+		atomB = new DummyAtom("Helium", 100);
+		atomC = new DummyAtom("Lithium", 100);
+		atomD = new DummyAtom("Beryllium", 100);
+	}
+	
+	/**
+	 * Atoms without dependencies start together, up to the limit.
+	 */
+	@Test
+	public void testIndependentAtoms() throws EventException {
+		AtomScheduler<QueueAtom> scheduler = new AtomScheduler<>(Arrays.asList(atomA, atomB, atomC, atomD), 3);
+		
+		List<QueueAtom> next = scheduler.nextAtoms();
+		assertEquals("Wrong atoms started", Arrays.asList(atomA, atomB, atomC), next);
+		assertEquals("Wrong number running", 3, scheduler.getRunningCount());
+		assertTrue("No more atoms should start at the limit", scheduler.nextAtoms().isEmpty());
+		
+		next = scheduler.completed(atomB.getUniqueId());
+		assertEquals("Wrong atom started after completion", Arrays.asList(atomD), next);
+		assertTrue("All atoms should have started", scheduler.isAllStarted());
+	}
+	
+	/**
+	 * A diamond: B & C depend on A, D depends on B & C.
+	 */
+	@Test
+	public void testDependencies() throws EventException {
+		atomB.addDependency(atomA);
+		atomC.addDependency(atomA);
+		atomD.addDependency(atomB);
+		atomD.addDependency(atomC);
+		AtomScheduler<QueueAtom> scheduler = new AtomScheduler<>(Arrays.asList(atomA, atomB, atomC, atomD), 4);
+		
+		assertEquals("Only A should start", Arrays.asList(atomA), scheduler.nextAtoms());
+		assertEquals("B & C should start after A", Arrays.asList(atomB, atomC), scheduler.completed(atomA.getUniqueId()));
+		assertTrue("D should wait for C", scheduler.completed(atomB.getUniqueId()).isEmpty());
+		assertTrue("Completing B twice should do nothing", scheduler.completed(atomB.getUniqueId()).isEmpty());
+		assertEquals("D should start after B & C", Arrays.asList(atomD), scheduler.completed(atomC.getUniqueId()));
+	}
+	
+	@Test
+	public void testStop() throws EventException {
+		atomB.addDependency(atomA);
+		AtomScheduler<QueueAtom> scheduler = new AtomScheduler<>(Arrays.asList(atomA, atomB), 4);
+		scheduler.nextAtoms();
+		scheduler.stop();
+		assertTrue("No atoms should start after stop", scheduler.completed(atomA.getUniqueId()).isEmpty());
+		assertFalse("B should not have started", scheduler.isAllStarted());
+	}
+	
+	@Test
+	public void testUnknownDependency() {
+		atomB.addDependency(atomC);
+		try {
+			new AtomScheduler<>(Arrays.asList(atomA, atomB), 4);
+			fail("Should not accept a dependency on an atom outside the queue");
+		} catch (EventException evEx) {
+			//Expected
+		}
+	}
+	
+	@Test
+	public void testCycle() {
+		atomA.addDependency(atomC);
+		atomB.addDependency(atomA);
+		atomC.addDependency(atomB);
+		try {
+			new AtomScheduler<>(Arrays.asList(atomA, atomB, atomC, atomD), 4);
+			fail("Should not accept cyclic dependencies");
+		} catch (EventException evEx) {
+			assertTrue("Cycle should be reported", evEx.getMessage().contains("Hydrogen"));
+			assertFalse("Beryllium is not in the cycle", evEx.getMessage().contains("Beryllium"));
+		}
+	}
+
+}
@@ -16,6 +16,8 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(org.junit.runners.Suite.class)
 @SuiteClasses({
+	AtomQueueProcessorTest.class,
+	AtomSchedulerTest.class,
 	MonitorAtomProcessTest.class,
 	PositionerAtomProcessTest.class,
 	QueueListenerTest.class,
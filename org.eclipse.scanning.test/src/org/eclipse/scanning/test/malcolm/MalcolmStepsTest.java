@@ -0,0 +1,256 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.malcolm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.scanning.api.device.models.MalcolmModel;
+import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
+import org.eclipse.scanning.api.malcolm.MalcolmDeviceException;
+import org.eclipse.scanning.api.malcolm.attributes.NumberAttribute;
+import org.eclipse.scanning.api.malcolm.connector.IMalcolmConnectorService;
+import org.eclipse.scanning.api.malcolm.connector.MessageGenerator;
+import org.eclipse.scanning.api.malcolm.event.IMalcolmListener;
+import org.eclipse.scanning.api.malcolm.event.MalcolmEvent;
+import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
+import org.eclipse.scanning.api.malcolm.message.Type;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.api.scan.PositionEvent;
+import org.eclipse.scanning.api.scan.event.IPositionListener;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmDevice;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmModel;
+import org.eclipse.scanning.malcolm.core.MalcolmDevice;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.sequencer.SubscanModerator;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * The completed steps of a fast Malcolm scan, the device steps at 100kHz
+ * and completedSteps is updated every 10ms, as DummyMalcolmDevice would do
+ * for a fly scan with a short exposure.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class MalcolmStepsTest {
+
+	private static final int SIDE   = 300;  // 90000 steps in the inner scan
+	private static final int UPDATE = 1000; // steps completed every 10ms
+	
+	private static IPointGeneratorService gservice;
+	
+	private StepsDevice       device;
+	private SubscanModerator  moderator;
+	private List<IPosition>   positions;
+	private CountingIterator  iterator;
+
+	@BeforeClass
+	public static void setServices() throws Exception {
+		gservice = new PointGeneratorService();
+	}
+	
+	@Before
+	public void create() throws Exception {
+		
+		GridModel gmodel = new GridModel("x", "y", SIDE, SIDE);
+		gmodel.setBoundingBox(new BoundingBox(0,0,3,3));
+		CompoundModel<?> cmodel = new CompoundModel<>(new StepModel("T", 290, 300, 5), gmodel);
+
+		final DummyMalcolmDevice det = new DummyMalcolmDevice();
+		det.setModel(new DummyMalcolmModel());
+		det.setAttributeValue("axesToMove", new String[]{"x", "y"});
+		moderator = new SubscanModerator(gservice.createCompoundGenerator(cmodel), Arrays.asList(det), gservice) {
+			@Override
+			public Iterable<IPosition> getInnerIterable() {
+				// The device is given an iterator which counts how it is used
+				iterator = new CountingIterator((ScanPointIterator)super.getInnerIterable().iterator());
+				return () -> iterator;
+			}
+		};
+		
+		positions = new ArrayList<>();
+		for (IPosition pos : moderator.getInnerIterable()) positions.add(pos);
+		assertEquals(SIDE*SIDE, positions.size());
+		
+		device = new StepsDevice();
+		device.scanPoint(moderator);
+		iterator.lookups.clear(); // The device checks that it can look up positions
+	}
+	
+	@Test
+	public void positionsAreLookedUp() throws Exception {
+		
+		final List<IPosition> fired = Collections.synchronizedList(new ArrayList<>());
+		device.addPositionListener(new IPositionListener() {
+			@Override
+			public void positionPerformed(PositionEvent evt) {
+				fired.add(evt.getPosition());
+			}
+		});
+		
+		for (int point = UPDATE; point <= positions.size(); point+=UPDATE) {
+			device.completed(point);
+			Thread.sleep(10);
+		}
+		
+		assertFalse("No positions were broadcast", fired.isEmpty());
+		for (IPosition pos : fired) {
+			IPosition expected = positions.get(pos.getStepIndex()-1);
+			assertEquals(expected.getValue("x"), pos.getValue("x"), 0.000001);
+			assertEquals(expected.getValue("y"), pos.getValue("y"), 0.000001);
+		}
+		
+		// The steps between updates are never iterated over, each position
+		// broadcast is looked up once from the index of its step.
+		assertEquals(0, iterator.nexts);
+		assertEquals(fired.size(), iterator.lookups.size());
+		for (int i = 0; i < fired.size(); i++) {
+			assertEquals(fired.get(i).getStepIndex()-1, iterator.lookups.get(i).intValue());
+		}
+	}
+	
+	@Test
+	public void slowListenersAreBroadcastLess() throws Exception {
+		
+		final List<IPosition> fired = Collections.synchronizedList(new ArrayList<>());
+		device.addPositionListener(new IPositionListener() {
+			@Override
+			public void positionPerformed(PositionEvent evt) {
+				fired.add(evt.getPosition());
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		
+		long first = device.getPositionCompleteInterval();
+		for (int point = UPDATE; point <= positions.size(); point+=UPDATE) {
+			device.completed(point);
+			Thread.sleep(10);
+		}
+		assertFalse("No positions were broadcast", fired.isEmpty());
+		
+		// 100ms for the listeners is more than 10% of the default 250ms
+		assertTrue(device.getPositionCompleteInterval() >= 1000);
+		assertTrue(device.getPositionCompleteInterval() > first);
+	}
+	
+	/**
+	 * Records the positions looked up and the number of times that it is iterated.
+	 */
+	private static final class CountingIterator implements ScanPointIterator {
+		
+		private final ScanPointIterator delegate;
+		private final List<Integer>     lookups = Collections.synchronizedList(new ArrayList<>());
+		private int                     nexts;
+		
+		CountingIterator(ScanPointIterator delegate) {
+			this.delegate = delegate;
+		}
+		@Override
+		public boolean hasNext() {
+			return delegate.hasNext();
+		}
+		@Override
+		public IPosition next() {
+			nexts++;
+			return delegate.next();
+		}
+		@Override
+		public int size() {
+			return delegate.size();
+		}
+		@Override
+		public int[] getShape() {
+			return delegate.getShape();
+		}
+		@Override
+		public int getRank() {
+			return delegate.getRank();
+		}
+		@Override
+		public IPosition getPosition(int index) {
+			lookups.add(index);
+			return delegate.getPosition(index);
+		}
+	}
+	
+	/**
+	 * Sends completedSteps as the connector does, there is no Malcolm.
+	 */
+	private static final class StepsDevice extends MalcolmDevice<MalcolmModel> {
+
+		StepsDevice() throws MalcolmDeviceException {
+			super("steps", new NoConnectorService(), null, null);
+		}
+		
+		void completed(int steps) throws Exception {
+			NumberAttribute completedSteps = new NumberAttribute();
+			completedSteps.setName("completedSteps");
+			completedSteps.setValue(steps);
+			
+			MalcolmMessage msg = new MalcolmMessage();
+			msg.setType(Type.UPDATE);
+			msg.setValue(completedSteps);
+			sendScanEvent(new MalcolmEvent<MalcolmMessage>(msg));
+		}
+	}
+	
+	private static final class NoConnectorService implements IMalcolmConnectorService<MalcolmMessage> {
+		@Override
+		public void connect(URI malcolmUri) throws MalcolmDeviceException {
+		}
+		@Override
+		public void disconnect() throws MalcolmDeviceException {
+		}
+		@Override
+		public MalcolmMessage send(IMalcolmDevice<?> device, MalcolmMessage message) throws MalcolmDeviceException {
+			return null;
+		}
+		@Override
+		public void subscribe(IMalcolmDevice<?> device, MalcolmMessage msg, IMalcolmListener<MalcolmMessage> listener) throws MalcolmDeviceException {
+		}
+		@Override
+		public MalcolmMessage unsubscribe(IMalcolmDevice<?> device, MalcolmMessage msg, IMalcolmListener<MalcolmMessage>... listeners) throws MalcolmDeviceException {
+			return null;
+		}
+		@Override
+		public MessageGenerator<MalcolmMessage> createConnection() {
+			return null;
+		}
+		@Override
+		public MessageGenerator<MalcolmMessage> createDeviceConnection(IMalcolmDevice<?> device) throws MalcolmDeviceException {
+			return null;
+		}
+		@Override
+		public void subscribeToConnectionStateChange(IMalcolmDevice<?> device, IMalcolmListener<Boolean> listener) throws MalcolmDeviceException {
+		}
+	}
+}
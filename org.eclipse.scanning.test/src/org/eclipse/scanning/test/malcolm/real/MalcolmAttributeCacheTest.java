@@ -0,0 +1,143 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.malcolm.real;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scanning.api.device.models.MalcolmModel;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
+import org.eclipse.scanning.api.malcolm.MalcolmDeviceException;
+import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
+import org.eclipse.scanning.connector.epics.EpicsV4ConnectorService;
+import org.eclipse.scanning.example.malcolm.IEPICSv4Device;
+import org.eclipse.scanning.malcolm.core.MalcolmDevice;
+import org.eclipse.scanning.test.epics.DeviceRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the state and attributes of an initialised device come from its
+ * subscription to the block rather than a round trip to the device each time.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class MalcolmAttributeCacheTest {
+	
+	private static final int READS = 100;
+
+	private CountingConnectorService connector;
+	private IEPICSv4Device           epicsv4Device;
+	
+	@Before
+	public void start() throws Exception {
+		connector     = new CountingConnectorService();
+		epicsv4Device = new DeviceRunner().start();
+	}
+	
+	@After
+	public void stop() throws Exception {
+		epicsv4Device.stop();
+		connector.disconnect();
+	}
+	
+	@Test
+	public void readsAreFromTheSubscription() throws Exception {
+		
+		MalcolmDevice<MalcolmModel> device = new MalcolmDevice<>(epicsv4Device.getRecordName(), connector, null, null);
+		device.initialize();
+		try {
+			int sent = connector.getSendCount();
+			for (int i = 0; i < READS; i++) read(device);
+			assertEquals("No round trips once initialised", sent, connector.getSendCount());
+		} finally {
+			device.dispose();
+		}
+		
+		// Without the subscription every read is a round trip
+		MalcolmDevice<MalcolmModel> uninitialised = new MalcolmDevice<>(epicsv4Device.getRecordName(), connector, null, null);
+		int sent = connector.getSendCount();
+		for (int i = 0; i < READS; i++) read(uninitialised);
+		assertTrue(connector.getSendCount()-sent >= 4*READS);
+	}
+	
+	@Test
+	public void stateChangesAreCached() throws Exception {
+		
+		MalcolmDevice<MalcolmModel> device = new MalcolmDevice<>(epicsv4Device.getRecordName(), connector, null, null);
+		device.initialize();
+		try {
+			assertEquals(DeviceState.IDLE, device.getDeviceState());
+			int sent = connector.getSendCount();
+			
+			// The record is RUNNING for 2s then READY
+			Thread runner = new Thread(()->{
+				try {
+					device.run(null);
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}, "Run "+device.getName());
+			runner.start();
+			
+			assertEquals(DeviceState.RUNNING, waitFor(device, DeviceState.RUNNING));
+			assertTrue(device.isDeviceBusy());
+			assertEquals(DeviceState.READY, waitFor(device, DeviceState.READY));
+			assertFalse(device.isDeviceBusy());
+			runner.join();
+			
+			// Hundreds of reads but only the round trip of the run
+			assertTrue(connector.getSendCount()-sent < 5);
+			
+		} finally {
+			device.dispose();
+		}
+	}
+	
+	private void read(IMalcolmDevice<?> device) throws Exception {
+		assertEquals(DeviceState.IDLE, device.getDeviceState());
+		assertFalse(device.isDeviceBusy());
+		assertNotNull(device.getDeviceHealth());
+		assertNotNull(device.getAttribute("totalSteps"));
+	}
+
+	private DeviceState waitFor(IMalcolmDevice<?> device, DeviceState state) throws Exception {
+		DeviceState current = device.getDeviceState();
+		for (int i = 0; i < 500 && current!=state; i++) {
+			Thread.sleep(10);
+			current = device.getDeviceState();
+		}
+		return current;
+	}
+
+	private static final class CountingConnectorService extends EpicsV4ConnectorService {
+		
+		private final AtomicInteger sendCount = new AtomicInteger();
+		
+		@Override
+		public MalcolmMessage send(IMalcolmDevice<?> device, MalcolmMessage message) throws MalcolmDeviceException {
+			sendCount.incrementAndGet();
+			return super.send(device, message);
+		}
+		
+		int getSendCount() {
+			return sendCount.get();
+		}
+	}
+}
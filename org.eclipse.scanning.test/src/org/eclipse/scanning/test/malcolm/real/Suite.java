@@ -16,7 +16,8 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(org.junit.runners.Suite.class)
 @SuiteClasses({
-	ExampleMalcolmDeviceTest.class
+	ExampleMalcolmDeviceTest.class,
+	MalcolmAttributeCacheTest.class
 })
 public class Suite {
 
@@ -0,0 +1,197 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.points.AbstractGenerator;
+import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.RasterModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.junit.Test;
+
+/**
+ * Tests that the size and shape are worked out once for the content of a model.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class GeneratorMemoTest extends AbstractGeneratorTest {
+
+	@Test
+	public void gridWithoutRegions() throws Exception {
+		GridModel model = new GridModel("x", "y", 1000, 2000);
+		model.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		IPointGenerator<GridModel> gen = service.createGenerator(model);
+		assertEquals(2000000, gen.size());
+		assertArrayEquals(new int[] { 2000, 1000 }, gen.getShape());
+	}
+
+	@Test
+	public void rasterWithoutRegions() throws Exception {
+		RasterModel model = new RasterModel("x", "y");
+		model.setFastAxisStep(0.5);
+		model.setSlowAxisStep(0.25);
+		model.setBoundingBox(new BoundingBox(-1, 2, 3, 2));
+		IPointGenerator<RasterModel> gen = service.createGenerator(model);
+		assertEquals(gen.createPoints().size(), gen.size());
+		assertArrayEquals(new int[] { 9, 7 }, gen.getShape());
+	}
+
+	@Test
+	public void changeToModelIsSeen() throws Exception {
+		GridModel model = new GridModel("x", "y", 20, 20);
+		model.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		IPointGenerator<GridModel> gen = service.createGenerator(model);
+		assertEquals(400, gen.size());
+		assertArrayEquals(new int[] { 20, 20 }, gen.getShape());
+		
+		model.setFastAxisPoints(30);
+		assertEquals(600, gen.size());
+		assertArrayEquals(new int[] { 20, 30 }, gen.getShape());
+	}
+
+	@Test
+	public void gridsWithTheSameHashAreNotConfused() throws Exception {
+		// 31*10+40 == 31*11+9 so these models have the same hash code
+		GridModel model1 = new GridModel("x", "y", 10, 40);
+		model1.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		GridModel model2 = new GridModel("x", "y", 11, 9);
+		model2.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		assertEquals(model1.hashCode(), model2.hashCode());
+
+		assertEquals(400, service.createGenerator(model1).size());
+		assertEquals(99,  service.createGenerator(model2).size());
+		assertArrayEquals(new int[] { 9, 11 }, service.createGenerator(model2).getShape());
+	}
+
+	@Test
+	public void sameContentIsCountedOnce() throws Exception {
+		CountingGenerator<StepModel> gen1 = new CountingGenerator<>(new StepModel("memo", 0, 10, 1));
+		CountingGenerator<StepModel> gen2 = new CountingGenerator<>(new StepModel("memo", 0, 10, 1));
+		assertEquals(11, gen1.size());
+		assertEquals(11, gen2.size());
+		assertArrayEquals(new int[] { 11 }, gen1.getShape());
+		assertArrayEquals(new int[] { 11 }, gen2.getShape());
+		assertEquals(1, gen1.counted + gen2.counted);
+		assertEquals(1, gen1.shaped + gen2.shaped);
+		
+		gen2.getModel().setStop(20);
+		assertEquals(21, gen2.size());
+		assertEquals(11, gen1.size());
+		assertEquals(2, gen1.counted + gen2.counted);
+	}
+
+	@Test
+	public void modelWithoutContentHashIsMemoisedByContent() throws Exception {
+		CountingGenerator<PlainModel> gen1 = new CountingGenerator<>(new PlainModel(5));
+		CountingGenerator<PlainModel> gen2 = new CountingGenerator<>(new PlainModel(5));
+		gen1.size();
+		gen2.size();
+		assertEquals(1, gen1.counted + gen2.counted);
+		
+		gen2.getModel().points = 6;
+		gen2.size();
+		assertEquals(2, gen1.counted + gen2.counted);
+	}
+
+	@Test
+	public void modelTooDeepToCopyIsCountedEachTime() throws Exception {
+		List<Object> model = new ArrayList<>();
+		List<Object> inner = model;
+		for (int i = 0; i < 40; i++) {
+			List<Object> next = new ArrayList<>();
+			inner.add(next);
+			inner = next;
+		}
+		CountingGenerator<Object> gen = new CountingGenerator<>(model);
+		gen.size();
+		gen.size();
+		assertEquals(2, gen.counted);
+	}
+	
+	/**
+	 * A model which does not override hashCode.
+	 */
+	private static final class PlainModel {
+		private int points;
+		PlainModel(int points) {
+			this.points = points;
+		}
+	}
+
+	@Test
+	public void compoundWithRegionOfGrid() throws Exception {
+		GridModel grid = new GridModel("x", "y", 10, 10);
+		grid.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		
+		CompoundModel<Object> cmodel = new CompoundModel<>(Arrays.asList(
+				new StepModel("T", 290, 300, 5), new StepModel("z", 0, 2, 1), grid));
+		cmodel.setRegions(Arrays.asList(new ScanRegion<>(new CircularROI(1.5, 1.5, 1.5), "x", "y")));
+		
+		IPointGenerator<?> gen = service.createCompoundGenerator(cmodel);
+		int size = gen.createPoints().size();
+		for (int i = 0; i < 10; i++) {
+			assertEquals(size, service.createCompoundGenerator(cmodel).size());
+		}
+		assertEquals(9*service.createGenerator(grid, new CircularROI(1.5, 1.5, 1.5)).size(), size);
+	}
+
+	/**
+	 * A generator which counts the times its size and shape are worked out.
+	 */
+	private static final class CountingGenerator<T> extends AbstractGenerator<T> {
+		
+		private int counted;
+		private int shaped;
+		
+		CountingGenerator(T model) {
+			setModel(model);
+		}
+		
+		@Override
+		protected void validateModel() {
+			// Nothing to validate
+		}
+		
+		@Override
+		protected int sizeOfValidModel() throws GeneratorException {
+			counted++;
+			return model instanceof StepModel ? ((StepModel)model).size() : 0;
+		}
+		
+		@Override
+		protected int[] calculateShape() throws GeneratorException {
+			shaped++;
+			return new int[] { model instanceof StepModel ? ((StepModel)model).size() : 0 };
+		}
+		
+		@Override
+		protected Iterator<IPosition> iteratorFromValidModel() {
+			return Collections.emptyIterator();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.points.IMutator;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.models.ArrayModel;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.points.mutators.PathOptimisationMutator;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PathOptimisationTest {
+
+	private IPointGeneratorService service;
+
+	@Before
+	public void before() throws Exception {
+		service = new PointGeneratorService();
+	}
+
+	@Test
+	public void arrayIsReordered() throws Exception {
+
+		ArrayModel amodel = new ArrayModel(0, 9, 1, 8, 2, 7, 3, 6, 4, 5);
+		amodel.setName("x");
+		PathOptimisationMutator mutator = new PathOptimisationMutator(1, null, null);
+
+		List<IPosition> original = points(new CompoundModel<Object>(amodel));
+		List<IPosition> ordered  = points(mutated(mutator, amodel));
+
+		assertEquals(original.size(), ordered.size());
+		assertEquals(0, ordered.get(0).getValue("x"), 0.000001); // The first point does not change
+		assertEquals(9, mutator.getMoveTime(ordered), 0.000001);  // 0 to 9 in one direction
+		assertTrue(mutator.getMoveTime(ordered) < mutator.getMoveTime(original));
+
+		// Each point keeps the index of its position in the array
+		for (IPosition pos : ordered) {
+			assertEquals(indexOf(amodel.getPositions(), pos.getValue("x")), pos.getIndex("x"));
+		}
+	}
+
+	@Test
+	public void regionIsReordered() throws Exception {
+
+		GridModel gmodel = new GridModel("x", "y", 20, 20);
+		gmodel.setBoundingBox(new BoundingBox(0, 0, 10, 10));
+		CircularROI roi = new CircularROI(4, 5, 5);
+
+		CompoundModel<Object> plain = new CompoundModel<>(gmodel);
+		plain.setRegions(Arrays.asList(new ScanRegion<Object>(roi, "x", "y")));
+		List<IPosition> original = points(plain);
+
+		Map<String, Double> speeds = new HashMap<>();
+		speeds.put("x", 2d);
+		speeds.put("y", 1d);
+		PathOptimisationMutator mutator = new PathOptimisationMutator(42, Arrays.asList("x", "y"), speeds);
+		CompoundModel<Object> optimised = mutated(mutator, gmodel);
+		optimised.setRegions(plain.getRegions());
+		List<IPosition> ordered = points(optimised);
+
+		assertEquals(original.size(), ordered.size());
+		assertTrue(mutator.getMoveTime(ordered) < mutator.getMoveTime(original));
+
+		// The same points with the same indices, in a different order
+		Map<String, Map<String, Integer>> indices = new HashMap<>();
+		for (IPosition pos : original) indices.put(key(pos), pos.getIndices());
+		for (IPosition pos : ordered) {
+			assertEquals(indices.remove(key(pos)), pos.getIndices());
+		}
+		assertTrue(indices.isEmpty());
+
+		// The step index is the order the points are visited in
+		for (int i = 0; i < ordered.size(); i++) assertEquals(i, ordered.get(i).getStepIndex());
+	}
+
+	@Test
+	public void sameSeedSameOrder() throws Exception {
+
+		GridModel gmodel = new GridModel("x", "y", 15, 15);
+		gmodel.setBoundingBox(new BoundingBox(0, 0, 10, 10));
+		List<ScanRegion<Object>> regions = Arrays.asList(new ScanRegion<Object>(new CircularROI(3, 5, 5), "x", "y"));
+
+		List<String> first = new ArrayList<>();
+		for (int run = 0; run < 2; run++) {
+			CompoundModel<Object> cmodel = mutated(new PathOptimisationMutator(7, null, null), gmodel);
+			cmodel.setRegions(regions);
+			List<String> keys = new ArrayList<>();
+			for (IPosition pos : points(cmodel)) keys.add(key(pos));
+			if (run==0) first = keys;
+			else        assertEquals(first, keys);
+		}
+	}
+
+	private static CompoundModel<Object> mutated(PathOptimisationMutator mutator, Object model) {
+		CompoundModel<Object> cmodel = new CompoundModel<>(model);
+		cmodel.setMutators(Arrays.<IMutator>asList(mutator));
+		return cmodel;
+	}
+
+	private List<IPosition> points(CompoundModel<Object> cmodel) throws Exception {
+		IPointGenerator<?> gen = service.createCompoundGenerator(cmodel);
+		List<IPosition> points = new ArrayList<>();
+		for (IPosition pos : gen) points.add(pos);
+		return points;
+	}
+
+	private static String key(IPosition pos) {
+		return pos.getValue("x")+","+pos.getValue("y");
+	}
+
+	private static int indexOf(double[] positions, double value) {
+		for (int i = 0; i < positions.length; i++) if (positions[i]==value) return i;
+		return -1;
+	}
+}
@@ -0,0 +1,147 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.PathPreview;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.RandomOffsetGridModel;
+import org.eclipse.scanning.api.points.models.RasterModel;
+import org.eclipse.scanning.api.points.models.SpiralModel;
+import org.junit.Test;
+
+public class PathPreviewTest extends AbstractGeneratorTest {
+
+	@Test
+	public void gridPreviewIsThePath() throws Exception {
+
+		GridModel model = new GridModel("x", "y", 20, 20);
+		model.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		model.setSnake(true);
+		IPointGenerator<GridModel> gen = service.createGenerator(model, new CircularROI(1.5, 1.5, 1.5));
+
+		PathPreview preview = gen.getPathPreview(null, 100);
+		assertEquals(1, preview.getStride());
+		assertFalse(preview.isCountEstimated());
+		assertPath(gen.createPoints(), preview);
+		assertEquals(3d/20, preview.getSmallestXStep(), 1e-10);
+		assertEquals(3d/20, preview.getSmallestYStep(), 1e-10);
+		assertEquals(5, preview.getOutlineX().length);
+	}
+
+	@Test
+	public void rasterPreviewIsThePath() throws Exception {
+
+		RasterModel model = new RasterModel("x", "y");
+		model.setFastAxisStep(0.5);
+		model.setSlowAxisStep(0.25);
+		model.setBoundingBox(new BoundingBox(-1, 2, 3, 2));
+		IPointGenerator<RasterModel> gen = service.createGenerator(model);
+
+		PathPreview preview = gen.getPathPreview(null, 100);
+		assertPath(gen.createPoints(), preview);
+		assertEquals(gen.size(), preview.getPointCount());
+	}
+
+	@Test
+	public void spiralPreviewIsThePath() throws Exception {
+
+		SpiralModel model = new SpiralModel("x", "y");
+		model.setBoundingBox(new BoundingBox(-10, 5, 3, 4));
+		IPointGenerator<SpiralModel> gen = service.createGenerator(model);
+
+		PathPreview preview = gen.getPathPreview(null, 100);
+		assertPath(gen.createPoints(), preview);
+		assertEquals(20, preview.getPointCount());
+	}
+
+	@Test
+	public void largeGridIsSampled() throws Exception {
+
+		// 10^7 points would take minutes to iterate
+		GridModel model = new GridModel("x", "y", 10000, 1000);
+		model.setBoundingBox(new BoundingBox(0, 0, 10, 1));
+		IPointGenerator<GridModel> gen = service.createGenerator(model);
+
+		PathPreview preview = gen.getPathPreview(null, 100);
+		assertEquals(10000000, preview.getPointCount());
+		assertFalse(preview.isCountEstimated());
+		assertEquals(100, preview.getStride());
+		assertTrue(preview.size()<=100*100);
+		assertEquals(1e-3, preview.getSmallestXStep(), 1e-10);
+	}
+
+	@Test
+	public void largeRegionCountIsEstimated() throws Exception {
+
+		GridModel model = new GridModel("x", "y", 2000, 2000);
+		model.setBoundingBox(new BoundingBox(0, 0, 2, 2));
+		IPointGenerator<GridModel> gen = service.createGenerator(model, new CircularROI(1, 1, 1));
+
+		PathPreview preview = gen.getPathPreview(null, 200);
+		assertTrue(preview.isCountEstimated());
+		double expected = Math.PI * 1000 * 1000;
+		assertEquals(expected, preview.getPointCount(), expected*0.02);
+	}
+
+	@Test
+	public void zoomingRefinesThePreview() throws Exception {
+
+		GridModel model = new GridModel("x", "y", 1000, 1000);
+		model.setBoundingBox(new BoundingBox(0, 0, 10, 10));
+		IPointGenerator<GridModel> gen = service.createGenerator(model);
+
+		assertEquals(10, gen.getPathPreview(null, 100).getStride());
+
+		// A tenth of each axis is visible, which is 100 points along each
+		double[] window = new double[]{2, 3, 5, 6};
+		PathPreview preview = gen.getPathPreview(window, 100);
+		assertEquals(1, preview.getStride());
+		assertEquals(100*100, preview.size());
+		double[] x = preview.getX();
+		double[] y = preview.getY();
+		for (int i = 0; i < preview.size(); i++) {
+			assertTrue(x[i]>=2 && x[i]<=3);
+			assertTrue(y[i]>=5 && y[i]<=6);
+		}
+		assertEquals(1000000, preview.getPointCount());
+	}
+
+	@Test
+	public void randomOffsetsAreNotPreviewed() throws Exception {
+		RandomOffsetGridModel model = new RandomOffsetGridModel("x", "y");
+		model.setFastAxisPoints(5);
+		model.setSlowAxisPoints(5);
+		model.setBoundingBox(new BoundingBox(0, 0, 1, 1));
+		assertNull(service.createGenerator(model).getPathPreview(null, 100));
+	}
+
+	private void assertPath(List<IPosition> points, PathPreview preview) {
+		assertEquals(points.size(), preview.size());
+		double[] x = preview.getX();
+		double[] y = preview.getY();
+		for (int i = 0; i < points.size(); i++) {
+			assertEquals(points.get(i).getValue("x"), x[i], 1e-10);
+			assertEquals(points.get(i).getValue("y"), y[i], 1e-10);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import org.eclipse.scanning.scisoftpy.python.PythonSubProcess;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the python subprocess with a local python3, the tests are
+ * skipped if there is not one.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class PythonSubProcessTest {
+
+	private static final String PYTHON = "python3";
+
+	@BeforeClass
+	public static void checkPython() throws Exception {
+		boolean found;
+		try {
+			found = new ProcessBuilder(PYTHON, "--version").start().waitFor()==0;
+		} catch (Exception ne) {
+			found = false;
+		}
+		assumeTrue(found);
+	}
+
+	@Test
+	public void outputAndError() throws Exception {
+		PythonSubProcess python = new PythonSubProcess(PYTHON, null);
+		try {
+			String[] reply = python.communicate("x = 21\nprint(x*2)");
+			assertEquals("42\n", reply[0]);
+			assertNull(reply[1]);
+
+			reply = python.communicate("print(x)\nraise ValueError('bad value')");
+			assertEquals("21\n", reply[0]);
+			assertTrue(reply[1], reply[1].contains("ValueError: bad value"));
+
+			// The process carries on after an error
+			reply = python.communicate("print(x+1)");
+			assertEquals("22\n", reply[0]);
+		} finally {
+			python.stop();
+		}
+	}
+
+	@Test
+	public void unicodeOutput() throws Exception {
+		PythonSubProcess python = new PythonSubProcess(PYTHON, null);
+		try {
+			String[] reply = python.communicate("import sys\nprint(u'\\u00c5ngstr\\u00f6m')\nsys.stderr.write(u'\\u00b0C\\n')");
+			assertEquals("\u00c5ngstr\u00f6m\n", reply[0]);
+			assertEquals("\u00b0C\n", reply[1]);
+		} finally {
+			python.stop();
+		}
+	}
+
+	@Test
+	public void callsMayTimeOut() throws Exception {
+		PythonSubProcess python = new PythonSubProcess(PYTHON, null);
+		try {
+			// By default a call waits for as long as it runs
+			assertEquals("1\n", python.communicate("import time\ntime.sleep(0.5)\nprint(1)")[0]);
+			try {
+				python.communicate("time.sleep(10)", 200);
+				fail("The call should have timed out");
+			} catch (IllegalStateException expected) {
+				// The worker is stopped and another one is taken
+			}
+			assertEquals("2\n", python.communicate("print(2)")[0]);
+		} finally {
+			python.stop();
+		}
+	}
+
+	@Test
+	public void globalsAreNotShared() throws Exception {
+		PythonSubProcess python = new PythonSubProcess(PYTHON, null);
+		python.communicate("secret = 1");
+		python.stop();
+
+		python = new PythonSubProcess(PYTHON, null);
+		try {
+			assertEquals("False\n", python.communicate("print('secret' in globals())")[0]);
+		} finally {
+			python.stop();
+		}
+	}
+
+	@Test
+	public void workerIsReused() throws Exception {
+		PythonSubProcess python = new PythonSubProcess(PYTHON, null);
+		String pid = python.communicate("import os\nprint(os.getpid())")[0];
+		python.stop();
+
+		for (int i = 0; i < 5; i++) {
+			python = new PythonSubProcess(PYTHON, null);
+			try {
+				assertEquals(pid, python.communicate("import os\nprint(os.getpid())")[0]);
+			} finally {
+				python.stop();
+			}
+		}
+	}
+
+	@Test
+	public void processStateIsReset() throws Exception {
+		PythonSubProcess python = new PythonSubProcess(PYTHON, null);
+		String state = "import os, sys\nprint(os.getcwd())\nprint(len(sys.path))\nprint(os.environ.get('PYTHON_WORKER_TEST'))";
+		String before = python.communicate(state)[0];
+		python.communicate("import os, sys\nos.chdir('..')\nsys.path.append('fred')\nos.environ['PYTHON_WORKER_TEST'] = 'fred'");
+		python.stop();
+
+		python = new PythonSubProcess(PYTHON, null);
+		try {
+			assertEquals(before, python.communicate(state)[0]);
+		} finally {
+			python.stop();
+		}
+	}
+
+	@Test
+	public void strayOutputDoesNotBreakReplies() throws Exception {
+		PythonSubProcess python = new PythonSubProcess(PYTHON, null);
+		try {
+			// Written past sys.stdout, as C code would
+			String[] reply = python.communicate("import os\nos.write(1, b'\\x7f\\xff\\xff\\xff stray')\nprint(1)");
+			assertEquals("1\n", reply[0]);
+			assertEquals("2\n", python.communicate("print(2)")[0]);
+		} finally {
+			python.stop();
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.PolygonalROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.points.RegionIndex;
+import org.junit.Test;
+
+/**
+ * Tests that the index of regions gives the same points as the regions.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class RegionIndexTest extends AbstractGeneratorTest {
+
+	@Test
+	public void indexAgreesWithRegions() throws Exception {
+		List<IROI> rois = Arrays.asList(createStar(), new RectangularROI(4, -1, 2, 1, 0));
+		RegionIndex index = new RegionIndex(rois);
+		for (int j = 0; j <= 200; j++) {
+			for (int i = 0; i <= 200; i++) {
+				double x = -1.5 + i*0.05;
+				double y = -2.5 + j*0.05;
+				assertEquals("At "+x+", "+y, contains(rois, x, y), index.containsPoint(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void intervalsAgreeWithPoints() throws Exception {
+		List<IROI> rois = Arrays.<IROI>asList(createStar());
+		RegionIndex index = new RegionIndex(rois);
+		for (int j = 0; j <= 50; j++) {
+			double y = -1 + j*0.13;
+			checkIntervals(rois, index.getIntervals(y, -1, 0.037, 200), y, -1, 0.037, 200);
+			checkIntervals(rois, index.getIntervals(y, 6, -0.037, 200), y, 6, -0.037, 200);
+		}
+	}
+
+	@Test
+	public void generatorUsesIndex() throws Exception {
+		PolygonalROI star = createStar();
+		GridModel model = new GridModel("x", "y", 20, 20);
+		model.setBoundingBox(new BoundingBox(0, 0, 5, 5));
+		IPointGenerator<GridModel> gen = service.createGenerator(model, star);
+		for (int j = 0; j < 20; j++) {
+			for (int i = 0; i < 20; i++) {
+				double x = i*0.25, y = j*0.25;
+				assertEquals(star.containsPoint(x, y), gen.containsPoint(new Point("x", i, x, "y", j, y)));
+			}
+		}
+	}
+
+	private static void checkIntervals(List<IROI> rois, int[] intervals, double y, double minX, double step, int n) {
+		boolean[] expected = new boolean[n];
+		for (int i = 0; i < n; i++) expected[i] = contains(rois, minX+i*step, y);
+		boolean[] actual = new boolean[n];
+		for (int p = 0; p < intervals.length; p+=2) {
+			for (int i = intervals[p]; i <= intervals[p+1]; i++) actual[i] = true;
+		}
+		for (int i = 0; i < n; i++) assertEquals("At "+(minX+i*step)+", "+y, expected[i], actual[i]);
+	}
+
+	private static boolean contains(List<IROI> rois, double x, double y) {
+		for (IROI roi : rois) if (roi.containsPoint(x, y)) return true;
+		return false;
+	}
+
+	/**
+	 * A concave polygon, so that rows cross it more than once.
+	 */
+	private static PolygonalROI createStar() {
+		PolygonalROI star = new PolygonalROI(new double[] { 2.5, 0 });
+		star.insertPoint(new double[] { 3.2, 1.8 });
+		star.insertPoint(new double[] { 5,   1.9 });
+		star.insertPoint(new double[] { 3.6, 3.1 });
+		star.insertPoint(new double[] { 4.1, 5   });
+		star.insertPoint(new double[] { 2.5, 3.9 });
+		star.insertPoint(new double[] { 0.9, 5   });
+		star.insertPoint(new double[] { 1.4, 3.1 });
+		star.insertPoint(new double[] { 0,   1.9 });
+		star.insertPoint(new double[] { 1.8, 1.8 });
+		return star;
+	}
+}
@@ -19,14 +19,19 @@ import org.junit.runners.Suite.SuiteClasses;
 
 	ArrayTest.class,
 	CompoundTest.class, 
+	GeneratorMemoTest.class,
 	GridTest.class, 
 	LinearTest.class, 
 	// LissajousTest.class, FIXME Why does this not work?
 	MultiStepTest.class, 
+	PathPreviewTest.class,
+	PathOptimisationTest.class,
 	PointServiceTest.class,
+	PythonSubProcessTest.class,
 	RandomOffsetDecoratorTest.class,
 	RandomOffsetGridTest.class,	
 	RasterTest.class, 
+	RegionIndexTest.class,
 	ScanPointGeneratorFactoryTest.class,
 	ScanRankTest.class,
 	ScanShapeTest.class,
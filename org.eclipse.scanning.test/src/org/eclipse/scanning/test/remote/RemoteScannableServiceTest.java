@@ -13,19 +13,34 @@ package org.eclipse.scanning.test.remote;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.scanning.api.IScannable;
+import org.eclipse.scanning.api.annotation.ui.DeviceType;
 import org.eclipse.scanning.api.device.IScannableDeviceService;
 import org.eclipse.scanning.api.event.EventConstants;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
 import org.eclipse.scanning.api.event.core.IDisconnectable;
+import org.eclipse.scanning.api.event.core.IRequester;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.scan.DeviceAttribute;
+import org.eclipse.scanning.api.event.scan.DeviceRequest;
 import org.eclipse.scanning.api.scan.PositionEvent;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.IPositionListenable;
@@ -186,4 +201,71 @@ public class RemoteScannableServiceTest extends BrokerTest {
         assertEquals(10, positions.size());
 	}
 
+	@Test
+	public void batchOfPositions() throws Exception {
+
+		cservice.getScannable("xNex").setPosition(1.5);
+		cservice.getScannable("yNex").setPosition(-2.5);
+
+		IRequester<DeviceRequest> requester = eservice.createRequestor(uri, IEventService.DEVICE_REQUEST_TOPIC, IEventService.DEVICE_RESPONSE_TOPIC);
+		requester.setTimeout(10, TimeUnit.SECONDS);
+		try {
+			DeviceRequest req = new DeviceRequest(Arrays.asList("xNex", "yNex", "T"), DeviceType.SCANNABLE);
+			req.setDeviceAttributes(Arrays.asList(DeviceAttribute.VALUE));
+			DeviceRequest res = requester.post(req);
+			res.checkException();
+
+			assertNull(res.getDeviceErrors());
+			assertEquals(3, res.getDeviceValues().size());
+			assertEquals(1.5,  ((Number)res.getDeviceValues().get("xNex")).doubleValue(), 0.000001);
+			assertEquals(-2.5, ((Number)res.getDeviceValues().get("yNex")).doubleValue(), 0.000001);
+			assertEquals(((Number)cservice.getScannable("T").getPosition()).doubleValue(), ((Number)res.getDeviceValues().get("T")).doubleValue(), 0.000001);
+			assertNull(res.getDevices()); // Only the values were selected
+		} finally {
+			requester.disconnect();
+		}
+	}
+
+	@Test
+	public void concurrentReadsAreBatched() throws Exception {
+
+		List<String> names = Arrays.asList("a", "b", "c", "p", "q", "r", "s", "t");
+		List<IScannable<Double>> remotes = new ArrayList<>();
+		for (int i = 0; i < names.size(); i++) {
+			cservice.getScannable(names.get(i)).setPosition(i*10d);
+			remotes.add(rservice.getScannable(names.get(i)));
+		}
+
+		// Count the batches which the device servlet is sent
+		final List<Collection<String>> batches = Collections.synchronizedList(new ArrayList<>());
+		ISubscriber<IBeanListener<DeviceRequest>> requests = eservice.createSubscriber(uri, IEventService.DEVICE_REQUEST_TOPIC);
+		requests.addListener(new IBeanListener<DeviceRequest>() {
+			@Override
+			public void beanChangePerformed(BeanEvent<DeviceRequest> evt) {
+				if (evt.getBean().getDeviceNames()!=null) batches.add(evt.getBean().getDeviceNames());
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(names.size());
+		try {
+			CyclicBarrier start = new CyclicBarrier(names.size());
+			List<Callable<Double>> reads = new ArrayList<>();
+			for (IScannable<Double> remote : remotes) reads.add(() -> {
+				start.await();
+				return remote.getPosition();
+			});
+			List<Future<Double>> positions = executor.invokeAll(reads);
+			for (int i = 0; i < names.size(); i++) {
+				assertEquals(names.get(i), i*10d, positions.get(i).get().doubleValue(), 0.000001);
+			}
+
+			Thread.sleep(200); // The subscriber may be told of the last batch after the reply.
+			assertEquals(names.size(), batches.stream().mapToInt(Collection::size).sum());
+			assertTrue("There were "+batches.size()+" batches", batches.size() < names.size());
+		} finally {
+			executor.shutdownNow();
+			requests.disconnect();
+		}
+	}
+
 }
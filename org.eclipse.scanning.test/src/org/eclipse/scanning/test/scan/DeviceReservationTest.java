@@ -0,0 +1,97 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.device.IDeviceReservation;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.sequencer.DeviceReservationManager;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeviceReservationTest {
+	
+	private DeviceReservationManager manager;
+	
+	@Before
+	public void create() {
+		manager = new DeviceReservationManager();
+	}
+
+	@Test
+	public void disjointReservations() throws Exception {
+		IDeviceReservation one = manager.reserve("scan1", Arrays.asList("x", "y", "det1"), 0, TimeUnit.SECONDS);
+		IDeviceReservation two = manager.reserve("scan2", Arrays.asList("z", "det2"), 0, TimeUnit.SECONDS);
+		assertEquals(5, manager.getReservations().size());
+		assertEquals("scan1", manager.getReservations().get("det1"));
+		assertEquals("scan2", manager.getReservations().get("det2"));
+		one.release();
+		two.release();
+		assertTrue(manager.getReservations().isEmpty());
+	}
+
+	@Test
+	public void conflictTimesOut() throws Exception {
+		try (IDeviceReservation one = manager.reserve("scan1", Arrays.asList("x", "det1"), 0, TimeUnit.SECONDS)) {
+			manager.reserve("scan2", Arrays.asList("det1", "det2"), 100, TimeUnit.MILLISECONDS);
+			fail("det1 is reserved by scan1");
+		} catch (ScanningException expected) {
+			assertTrue(expected.getMessage(), expected.getMessage().contains("det1"));
+			assertTrue(expected.getMessage(), expected.getMessage().contains("scan1"));
+		}
+		// All or nothing, det2 was not reserved
+		assertTrue(manager.getReservations().isEmpty());
+	}
+
+	@Test
+	public void conflictWaitsForRelease() throws Exception {
+		
+		final IDeviceReservation one = manager.reserve("scan1", Arrays.asList("x", "det1"), 0, TimeUnit.SECONDS);
+		final CountDownLatch reserved = new CountDownLatch(1);
+		final Thread waiter = new Thread(() -> {
+			try {
+				manager.reserve("scan2", Arrays.asList("det1"), -1, TimeUnit.SECONDS);
+				reserved.countDown();
+			} catch (Exception ne) {
+				ne.printStackTrace();
+			}
+		});
+		waiter.setDaemon(true);
+		waiter.start();
+		
+		assertFalse(reserved.await(200, TimeUnit.MILLISECONDS));
+		one.release();
+		assertTrue(reserved.await(5, TimeUnit.SECONDS));
+		assertEquals("scan2", manager.getReservations().get("det1"));
+	}
+
+	@Test
+	public void ownerMayReserveAgain() throws Exception {
+		IDeviceReservation one = manager.reserve("scan1", Arrays.asList("x", "det1"), 0, TimeUnit.SECONDS);
+		IDeviceReservation two = manager.reserve("scan1", Arrays.asList("det1", "y"), 0, TimeUnit.SECONDS);
+		assertEquals(3, manager.getReservations().size());
+		
+		one.release();
+		one.release(); // Does nothing the second time
+		assertEquals(3, manager.getReservations().size());
+		two.release();
+		assertTrue(manager.getReservations().isEmpty());
+	}
+}
@@ -0,0 +1,149 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.api.scan.ScanEstimator;
+import org.eclipse.scanning.api.scan.event.IPositioner;
+import org.eclipse.scanning.example.scannable.MockScannableConnector;
+import org.eclipse.scanning.example.simulation.SimulatedMotor;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.sequencer.MoveTimeEstimator;
+import org.eclipse.scanning.sequencer.MoveTimeEstimator.MoveStatistics;
+import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MoveTimeEstimatorTest {
+
+	private MoveTimeEstimator estimator;
+
+	@Before
+	public void before() {
+		estimator = MoveTimeEstimator.getInstance();
+		estimator.clear();
+	}
+
+	@After
+	public void after() {
+		estimator.clear();
+	}
+
+	@Test
+	public void instanceIsTheMoveTimeModel() {
+		assertSame(estimator, ScanEstimator.getMoveTimeModel());
+	}
+
+	@Test
+	public void overheadAndVelocityAreLearned() {
+		// 100ms to start and 10 units/s
+		for (int i = 0; i < 50; i++) {
+			double distance = i%5+1;
+			estimator.record("learned", 1, distance, nanos(0.1 + distance/10));
+		}
+		assertEquals(0.1, estimator.getExpectedTime("learned", 0),  0.001);
+		assertEquals(0.6, estimator.getExpectedTime("learned", 5),  0.001);
+		assertEquals(1.1, estimator.getExpectedTime("learned", 10), 0.001);
+		assertEquals(0,   estimator.getStatistics("learned").getDeviation(), 0.001);
+	}
+
+	@Test
+	public void sameDistanceMoves() {
+		for (int i = 0; i < 10; i++) estimator.record("same", 1, 2, nanos(0.5));
+		assertEquals(0.5, estimator.getExpectedTime("same", 2), 0.001);
+		assertEquals(1.0, estimator.getExpectedTime("same", 4), 0.001);
+	}
+
+	@Test
+	public void recentMovesCountMost() {
+		for (int i = 0; i < 20; i++) estimator.record("slowing", 1, 1, nanos(0.1));
+		for (int i = 0; i < 20; i++) estimator.record("slowing", 1, 1, nanos(0.3));
+		assertEquals(0.3, estimator.getExpectedTime("slowing", 1), 0.01);
+	}
+
+	@Test
+	public void unknownScannable() {
+		assertEquals(-1, estimator.getExpectedTime("unknown", 1), 0.0);
+		assertEquals(-1, estimator.getTimeout("unknown", 1));
+	}
+
+	@Test
+	public void timeoutOnlyOnceLearned() {
+		estimator.record("timed", 1, 1, nanos(4));
+		assertEquals(-1, estimator.getTimeout("timed", 1));
+		for (int i = 0; i < 10; i++) estimator.record("timed", 1, 1, nanos(4));
+		long timeout = estimator.getTimeout("timed", 1);
+		assertTrue("The timeout must allow for the move, not "+timeout, timeout > 4);
+		assertTrue("The timeout must be less than the default, not "+timeout, timeout < 3*60);
+
+		// Quick moves have the minimum timeout
+		for (int i = 0; i < 10; i++) estimator.record("quick", 1, 1, nanos(0.001));
+		assertEquals(10, estimator.getTimeout("quick", 1));
+	}
+
+	@Test
+	public void levelsMoveOneAfterTheOther() {
+		for (int i = 0; i < 5; i++) {
+			estimator.record("a", 1, 1, nanos(0.1));
+			estimator.record("b", 1, 1, nanos(0.2));
+			estimator.record("c", 2, 1, nanos(0.3));
+		}
+		MapPosition from = new MapPosition("a:0:0, b:0:0, c:0:0, unknown:0:0");
+		MapPosition to   = new MapPosition("a:1:1, b:1:1, c:1:1, unknown:1:1");
+		// a and b together then c
+		assertEquals(500, estimator.getMoveTime(from, to), 0.1);
+		assertEquals(0,   estimator.getMoveTime(null, to), 0.0);
+	}
+
+	@Test
+	public void positionerLearnsMoves() throws Exception {
+
+		MockScannableConnector connector = new MockScannableConnector(null);
+		SimulatedMotor motor = new SimulatedMotor("learningMotor", 0d, 1, "mm");
+		motor.setVelocity(1000);
+		motor.setAcceleration(100000);
+		connector.register(motor);
+
+		IRunnableDeviceService dservice = new RunnableDeviceServiceImpl(connector);
+		IPositioner positioner = dservice.createPositioner();
+		for (int i = 0; i <= 10; i++) positioner.setPosition(new MapPosition("learningMotor:"+i+":"+i));
+
+		// The first move is from an unknown position
+		MoveStatistics stats = estimator.getStatistics("learningMotor");
+		assertNotNull(stats);
+		assertEquals(10, stats.getCount());
+		assertEquals(1,  stats.getLevel());
+		assertTrue(estimator.getExpectedTime("learningMotor", 1) >= motor.getMoveTime(0, 1));
+
+		// And the scan estimate includes the moves, the scans here are estimated from their moves only
+		IPointGenerator<?> gen = new PointGeneratorService().createGenerator(new StepModel("learningMotor", 0, 100, 1));
+		ScanEstimator scanEstimator = new ScanEstimator(gen, (Map<String, Object>)null, 100, null, ScanEstimator.getMoveTimeModel());
+		assertTrue(scanEstimator.getEstimatedMoveTime() > 0);
+		assertEquals(101*100+scanEstimator.getEstimatedMoveTime(), scanEstimator.getEstimatedScanTime());
+	}
+
+	private static long nanos(double seconds) {
+		return TimeUnit.MICROSECONDS.toNanos(Math.round(seconds*1e6));
+	}
+}
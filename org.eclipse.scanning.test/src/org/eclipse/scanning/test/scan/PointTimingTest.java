@@ -0,0 +1,254 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_COUNT;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_PHASE;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.GROUP_NAME_POINT_TIMING;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.GROUP_NAME_SOLSTICE_SCAN;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.dawnsci.analysis.api.tree.TreeFile;
+import org.eclipse.dawnsci.hdf5.nexus.NexusFileFactoryHDF5;
+import org.eclipse.dawnsci.json.MarshallerService;
+import org.eclipse.dawnsci.nexus.NXcollection;
+import org.eclipse.dawnsci.nexus.NXentry;
+import org.eclipse.dawnsci.nexus.NXroot;
+import org.eclipse.dawnsci.nexus.NexusFile;
+import org.eclipse.dawnsci.nexus.NexusUtils;
+import org.eclipse.dawnsci.nexus.builder.impl.DefaultNexusBuilderFactory;
+import org.eclipse.dawnsci.remotedataset.test.mock.LoaderServiceMock;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.example.classregistry.ScanningExampleClassRegistry;
+import org.eclipse.scanning.example.detector.MandelbrotDetector;
+import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.eclipse.scanning.example.scannable.MockScannableConnector;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.points.classregistry.ScanningAPIClassRegistry;
+import org.eclipse.scanning.points.serialization.PointsModelMarshaller;
+import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
+import org.eclipse.scanning.sequencer.ServiceHolder;
+import org.eclipse.scanning.sequencer.timing.PointPhase;
+import org.eclipse.scanning.sequencer.timing.PointTimer;
+import org.eclipse.scanning.sequencer.timing.PointTimingMonitor;
+import org.eclipse.scanning.sequencer.timing.TimingPhase;
+import org.eclipse.scanning.test.ScanningTestClassRegistry;
+import org.eclipse.scanning.test.scan.mock.PointTimingRecorder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PointTimingTest {
+
+	private IRunnableDeviceService dservice;
+	private IPointGeneratorService gservice;
+
+	@Before
+	public void setup() throws Exception {
+
+		ActivemqConnectorService.setJsonMarshaller(new MarshallerService(
+				Arrays.asList(new ScanningAPIClassRegistry(),
+						new ScanningExampleClassRegistry(),
+						new ScanningTestClassRegistry()),
+				Arrays.asList(new PointsModelMarshaller())
+				));
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE
+		dservice  = new RunnableDeviceServiceImpl(new MockScannableConnector(null));
+		RunnableDeviceServiceImpl impl = (RunnableDeviceServiceImpl)dservice;
+		impl._register(MandelbrotModel.class, MandelbrotDetector.class);
+		gservice  = new PointGeneratorService();
+
+		ServiceHolder.setTestServices(new LoaderServiceMock(), new DefaultNexusBuilderFactory(), null);
+		org.eclipse.dawnsci.nexus.ServiceHolder.setNexusFileFactory(new NexusFileFactoryHDF5());
+		System.setProperty("org.eclipse.scanning.sequencer.timing.nexus", "true");
+	}
+
+	@After
+	public void clearProperty() {
+		System.clearProperty("org.eclipse.scanning.sequencer.timing.nexus");
+	}
+
+	@Test
+	public void histogramBuckets() {
+		TimingPhase phase = new PointTimer("test", true, 16).getPhase("phase");
+		phase.record(500);                                // < 1us
+		phase.record(TimeUnit.MICROSECONDS.toNanos(1));   // [1,2)us
+		phase.record(TimeUnit.MICROSECONDS.toNanos(3));   // [2,4)us
+		phase.record(TimeUnit.MILLISECONDS.toNanos(1));   // [512,1024)us
+		phase.record(TimeUnit.DAYS.toNanos(100));         // The last bucket
+
+		long[] hist = phase.getHistogram();
+		assertEquals(TimingPhase.BUCKETS, hist.length);
+		assertEquals(1, hist[0]);
+		assertEquals(1, hist[1]);
+		assertEquals(1, hist[2]);
+		assertEquals(1, hist[10]);
+		assertEquals(1, hist[TimingPhase.BUCKETS-1]);
+		assertEquals(5, phase.getCount());
+	}
+
+	@Test
+	public void percentilesUseRecentTimes() {
+		TimingPhase phase = new PointTimer("test", true, 10).getPhase("phase");
+		for (int i = 1; i <= 100; i++) phase.record(TimeUnit.MILLISECONDS.toNanos(i));
+
+		// Only the last 10 are kept, 91 to 100
+		assertEquals(91,  phase.getPercentile(0),   0.0001);
+		assertEquals(95,  phase.getPercentile(50),  0.0001);
+		assertEquals(100, phase.getPercentile(100), 0.0001);
+
+		// The other statistics are for all the times
+		assertEquals(100,  phase.getCount());
+		assertEquals(1,    phase.getMinTime(),  0.0001);
+		assertEquals(100,  phase.getMaxTime(),  0.0001);
+		assertEquals(50.5, phase.getMeanTime(), 0.0001);
+	}
+
+	@Test
+	public void disabledTimerRecordsNothing() {
+		PointTimer timer = new PointTimer("test", false, 10);
+		long time = timer.start();
+		time = timer.lap(PointPhase.CHECK_PAUSED, time);
+		timer.lap(PointPhase.POINT, time);
+		assertEquals(0, timer.getPointCount());
+		assertEquals(0, timer.getPhase(PointPhase.CHECK_PAUSED).getCount());
+	}
+
+	@Test
+	public void eachScanHasItsOwnMonitor() throws Exception {
+
+		PointTimer timer1 = new PointTimer("test", true, 10);
+		PointTimer timer2 = new PointTimer("test", true, 10);
+		PointTimingMonitor monitor1 = PointTimingMonitor.register(timer1, "1");
+		PointTimingMonitor monitor2 = PointTimingMonitor.register(timer2, "2");
+		try {
+			assertNotNull(monitor1);
+			assertNotNull(monitor2);
+			assertFalse(monitor1.getObjectName().equals(monitor2.getObjectName()));
+
+			long time = timer1.start();
+			timer1.lap(PointPhase.POINT, time);
+
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(1L, server.getAttribute(monitor1.getObjectName(), "PointCount"));
+			assertEquals(0L, server.getAttribute(monitor2.getObjectName(), "PointCount"));
+		} finally {
+			monitor1.unregister();
+			monitor2.unregister();
+		}
+		assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(monitor1.getObjectName()));
+		assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(monitor2.getObjectName()));
+	}
+
+	@Test
+	public void scanIsTimed() throws Exception {
+
+		ScanModel smodel = createGridScan(2, 3);
+		PointTimingRecorder recorder = new PointTimingRecorder();
+		smodel.setAnnotationParticipants(Arrays.asList(recorder));
+		IRunnableDevice<ScanModel> scanner = dservice.createRunnableDevice(smodel, null);
+		scanner.run(null);
+
+		PointTimer timer = recorder.getTimer();
+		assertNotNull(timer);
+		assertEquals(6, timer.getPointCount());
+		for (PointPhase phase : PointPhase.values()) {
+			assertEquals(phase.getPhaseName(), 6, timer.getPhase(phase).getCount());
+		}
+		// Each scannable and detector is timed
+		assertEquals(6, timer.findPhase("position.xNex").getCount());
+		assertEquals(6, timer.findPhase("position.yNex").getCount());
+		assertEquals(6, timer.findPhase("run.mandelbrot").getCount());
+		assertEquals(6, timer.findPhase("write.mandelbrot").getCount());
+
+		// The scan was available over JMX under its own name while it ran
+		ObjectName name = recorder.getName();
+		assertNotNull(name);
+		assertEquals(timer.getScanName(), ObjectName.unquote(name.getKeyProperty("name")));
+		assertNotNull(name.getKeyProperty("id"));
+		assertEquals(6L, recorder.getAttribute("PointCount"));
+		String[] names = (String[])recorder.getAttribute("PhaseNames");
+		assertTrue(Arrays.asList(names).contains("point"));
+
+		// And is no longer once it has ended
+		assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+		assertNull(PointTimingRecorder.findName(timer.getScanName()));
+
+		// And written to the file
+		NXentry entry = getNexusEntry(smodel.getFilePath());
+		NXcollection solstice = entry.getCollection(GROUP_NAME_SOLSTICE_SCAN);
+		NXcollection timing   = (NXcollection)solstice.getGroupNode(GROUP_NAME_POINT_TIMING);
+		assertNotNull(timing);
+
+		IDataset phases = timing.getDataNode(FIELD_NAME_PHASE).getDataset().getSlice();
+		IDataset counts = timing.getDataNode(FIELD_NAME_COUNT).getDataset().getSlice();
+		assertArrayEquals(phases.getShape(), counts.getShape());
+
+		Map<String, Long> written = new HashMap<>();
+		for (int i = 0; i < phases.getSize(); i++) written.put(phases.getString(i), counts.getLong(i));
+		assertEquals(Long.valueOf(6), written.get("point"));
+		assertEquals(Long.valueOf(6), written.get("run.mandelbrot"));
+	}
+
+	private ScanModel createGridScan(int rows, int columns) throws Exception {
+
+		GridModel gmodel = new GridModel("xNex", "yNex", columns, rows);
+		gmodel.setBoundingBox(new BoundingBox(0,0,3,3));
+		IPointGenerator<?> gen = gservice.createGenerator(gmodel);
+
+		MandelbrotModel mmodel = new MandelbrotModel("xNex", "yNex");
+		mmodel.setName("mandelbrot");
+		mmodel.setExposureTime(0.001);
+
+		final ScanModel  smodel = new ScanModel();
+		smodel.setPositionIterable(gen);
+		smodel.setDetectors(dservice.createRunnableDevice(mmodel));
+
+		File output = File.createTempFile("test_point_timing", ".nxs");
+		output.deleteOnExit();
+		smodel.setFilePath(output.getAbsolutePath());
+		return smodel;
+	}
+
+	private NXentry getNexusEntry(String filePath) throws Exception {
+		NexusFile nf = org.eclipse.dawnsci.nexus.ServiceHolder.getNexusFileFactory().newNexusFile(filePath);
+		nf.openToRead();
+		TreeFile nexusTree = NexusUtils.loadNexusTree(nf);
+		NXroot nxRoot = (NXroot) nexusTree.getGroupNode();
+		return nxRoot.getEntry();
+	}
+}
@@ -0,0 +1,123 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.eclipse.scanning.api.device.models.DeviceWatchdogModel;
+import org.eclipse.scanning.api.event.dry.DryRunTimeline;
+import org.eclipse.scanning.api.event.dry.ScanSimulator;
+import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.test.scan.mock.MockDetectorModel;
+import org.junit.Test;
+
+public class ScanSimulatorTest {
+
+	@Test
+	public void pointsAreTimed() throws Exception {
+		ScanSimulator sim = new ScanSimulator(null, 100, null, 1000);
+		for (int i = 0; i < 10; i++) sim.point(new Point(i, i, 0, 0));
+
+		DryRunTimeline timeline = sim.getTimeline();
+		assertEquals(10,   timeline.getSize());
+		assertEquals(1000, timeline.getDuration(), 0.001);
+		assertEquals(500,  timeline.getPointStart(5), 0.001);
+		assertEquals(100,  timeline.getPointDuration(5), 0.001);
+		assertEquals(1600, timeline.getPredictedEnd(5));
+		assertEquals(2000, timeline.getPredictedEnd());
+		assertEquals(0,    timeline.getPauses().size());
+
+		StringWriter writer = new StringWriter();
+		timeline.write(writer);
+		assertEquals(12, writer.toString().split("\n").length); // Two headers
+	}
+
+	@Test
+	public void detectorIsFasterThanTimePerPoint() throws Exception {
+		// The time per point is only for scans without detectors
+		MockDetectorModel dmodel = new MockDetectorModel(0.01);
+		dmodel.setName("detector");
+		ScanSimulator sim = new ScanSimulator(Arrays.<Object>asList(dmodel), 100, null, 0);
+		for (int i = 0; i < 10; i++) sim.point(new Point(i, i, 0, 0));
+
+		DryRunTimeline timeline = sim.getTimeline();
+		assertEquals(10,  timeline.getPointDuration(5), 0.001);
+		assertEquals(100, timeline.getDuration(), 0.001);
+	}
+
+	@Test
+	public void predictiveTopupHoldsPoints() {
+		ScanSimulator sim = new ScanSimulator(null, 1000, null, 0);
+		// Fills every 10s for 1s, the scan must finish 1s before the fill
+		assertTrue(sim.addWatchdog("topup", createTopup(true), 9000));
+		for (int i = 0; i < 14; i++) sim.point(new Point(i, i, 0, 0));
+
+		DryRunTimeline timeline = sim.getTimeline();
+		assertEquals(14, timeline.getSize());
+		// Seven points fit between the warmup and the cooloff, the eighth waits 3s for the fill
+		assertEquals(1,     timeline.getPauses().size());
+		assertEquals(7000,  timeline.getPauses().get(0).getStart(), 0.001);
+		assertEquals(3000,  timeline.getPauseTime(), 0.001);
+		assertEquals(0,     timeline.getRepeatTime(), 0.001);
+		assertEquals(10000, timeline.getPointStart(7), 0.001);
+		assertEquals(17000, timeline.getDuration(), 0.001);
+	}
+
+	@Test
+	public void topupInterruptsPoints() {
+		ScanSimulator sim = new ScanSimulator(null, 1500, null, 0);
+		assertTrue(sim.addWatchdog("topup", createTopup(false), 9000));
+		for (int i = 0; i < 6; i++) sim.point(new Point(i, i, 0, 0));
+
+		DryRunTimeline timeline = sim.getTimeline();
+		// The sixth point starts at 7.5s, is interrupted by the cooloff at 8s and run again after the fill
+		assertEquals(1,     timeline.getPauses().size());
+		assertEquals(8000,  timeline.getPauses().get(0).getStart(), 0.001);
+		assertEquals(500,   timeline.getRepeatTime(), 0.001);
+		assertEquals(10000, timeline.getPointStart(5), 0.001);
+		assertEquals(11500, timeline.getDuration(), 0.001);
+	}
+
+	@Test
+	public void expressionWatchdogIsNotSimulated() {
+		ScanSimulator sim = new ScanSimulator(null, 100, null, 0);
+		DeviceWatchdogModel model = new DeviceWatchdogModel();
+		model.setExpression("beamcurrent >= 1.0");
+		assertTrue(!sim.addWatchdog("expression", model, -1));
+	}
+
+	@Test
+	public void millionPoints() {
+		ScanSimulator sim = new ScanSimulator(null, 10, null, 0);
+		sim.addWatchdog("topup", createTopup(true), -1);
+
+		for (int i = 0; i < 1000000; i++) sim.point(new Point(i%1000, i%1000, i/1000, i/1000));
+
+		assertEquals(1000000, sim.getTimeline().getSize());
+		assertTrue(sim.getTimeline().getPauses().size()>1000);
+	}
+
+	private DeviceWatchdogModel createTopup(boolean predictive) {
+		DeviceWatchdogModel model = new DeviceWatchdogModel();
+		model.setCountdownName("topup");
+		model.setPeriod(10000);
+		model.setTopupTime(1000);
+		model.setCooloff(1000);
+		model.setWarmup(0);
+		model.setPredictive(predictive);
+		return model;
+	}
+}
@@ -0,0 +1,321 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.dawnsci.hdf5.nexus.NexusFileFactoryHDF5;
+import org.eclipse.dawnsci.json.MarshallerService;
+import org.eclipse.dawnsci.nexus.builder.impl.DefaultNexusBuilderFactory;
+import org.eclipse.dawnsci.remotedataset.test.mock.LoaderServiceMock;
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.device.models.DeviceWatchdogModel;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.api.scan.ScanCosts;
+import org.eclipse.scanning.api.scan.ScanEstimator;
+import org.eclipse.scanning.api.scan.ScanMoves;
+import org.eclipse.scanning.api.scan.ScanTimeEstimate;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.example.classregistry.ScanningExampleClassRegistry;
+import org.eclipse.scanning.example.detector.MandelbrotDetector;
+import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.eclipse.scanning.example.scannable.MockScannableConnector;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.points.classregistry.ScanningAPIClassRegistry;
+import org.eclipse.scanning.points.serialization.PointsModelMarshaller;
+import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
+import org.eclipse.scanning.sequencer.ScanCostCalibrator;
+import org.eclipse.scanning.sequencer.ServiceHolder;
+import org.eclipse.scanning.sequencer.timing.PointPhase;
+import org.eclipse.scanning.sequencer.timing.PointTimer;
+
+import org.eclipse.scanning.sequencer.watchdog.TopupWatchdog;
+import org.eclipse.scanning.test.ScanningTestClassRegistry;
+import org.eclipse.scanning.test.scan.mock.PointTimingRecorder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScanTimeEstimationTest {
+
+	private IRunnableDeviceService dservice;
+	private IPointGeneratorService gservice;
+
+	@Before
+	public void setup() throws Exception {
+
+		ActivemqConnectorService.setJsonMarshaller(new MarshallerService(
+				Arrays.asList(new ScanningAPIClassRegistry(),
+						new ScanningExampleClassRegistry(),
+						new ScanningTestClassRegistry()),
+				Arrays.asList(new PointsModelMarshaller())
+				));
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE
+		dservice  = new RunnableDeviceServiceImpl(new MockScannableConnector(null));
+		RunnableDeviceServiceImpl impl = (RunnableDeviceServiceImpl)dservice;
+		impl._register(MandelbrotModel.class, MandelbrotDetector.class);
+		gservice  = new PointGeneratorService();
+
+		ServiceHolder.setTestServices(new LoaderServiceMock(), new DefaultNexusBuilderFactory(), null);
+		org.eclipse.dawnsci.nexus.ServiceHolder.setNexusFileFactory(new NexusFileFactoryHDF5());
+	}
+
+	@Test
+	public void gridMovesMatchPoints() throws Exception {
+		GridModel gmodel = new GridModel("x", "y", 4, 3);
+		gmodel.setBoundingBox(new BoundingBox(0,0,4,3));
+		checkMoves(gmodel, gservice.createGenerator(gmodel));
+	}
+
+	@Test
+	public void snakeMovesMatchPoints() throws Exception {
+		GridModel gmodel = new GridModel("x", "y", 4, 3);
+		gmodel.setBoundingBox(new BoundingBox(0,0,4,3));
+		gmodel.setSnake(true);
+
+		ScanMoves moves = checkMoves(gmodel, gservice.createGenerator(gmodel));
+		assertEquals(3*3, moves.getPathLength("x"), 0.000001); // No fly back
+	}
+
+	@Test
+	public void compoundMovesMatchPoints() throws Exception {
+		GridModel gmodel = new GridModel("x", "y", 5, 2);
+		gmodel.setBoundingBox(new BoundingBox(1,1,5,4));
+		CompoundModel<Object> cmodel = new CompoundModel<>(new StepModel("T", 290, 300, 2.5), gmodel);
+		checkMoves(cmodel, gservice.createCompoundGenerator(cmodel));
+	}
+
+	@Test
+	public void regionsAreNotWorkedOut() throws Exception {
+		GridModel gmodel = new GridModel("x", "y", 5, 5);
+		gmodel.setBoundingBox(new BoundingBox(0,0,5,5));
+		CompoundModel<Object> cmodel = new CompoundModel<>(gmodel);
+		cmodel.setRegions(Arrays.asList(new ScanRegion<Object>(new CircularROI(2, 2.5, 2.5), "x", "y")));
+		assertNull(ScanMoves.of(cmodel));
+	}
+
+	@Test
+	public void largeScanIsEstimatedFromModels() throws Exception {
+		GridModel gmodel = new GridModel("x", "y", 2000, 2000);
+		gmodel.setBoundingBox(new BoundingBox(0,0,10,10));
+		CompoundModel<Object> cmodel = new CompoundModel<>(new StepModel("T", 0, 9, 1), gmodel);
+
+		ScanMoves moves = ScanMoves.of(cmodel);
+		assertEquals(10L*2000*2000, moves.getSize());
+		assertTrue(moves.getMoves().size() < 10);
+	}
+
+	@Test
+	public void estimateIncludesCosts() throws Exception {
+
+		ScanCosts costs = new ScanCosts();
+		costs.setDetectorOverhead("mandelbrot", 5);
+		costs.setPointOverhead(2);
+		costs.setPauseFraction(0.5);
+		costs.setMoveCost("x", 1, 1, 10);
+		costs.setMoveCost("y", 1, 1, 10);
+
+		GridModel gmodel = new GridModel("x", "y", 10, 10);
+		gmodel.setBoundingBox(new BoundingBox(0,0,10,10));
+		IPointGenerator<?> gen = gservice.createGenerator(gmodel);
+
+		MandelbrotModel mmodel = new MandelbrotModel("x", "y");
+		mmodel.setName("mandelbrot");
+		mmodel.setExposureTime(0.01);
+		Map<String, Object> detectors = new HashMap<>();
+		detectors.put(mmodel.getName(), mmodel);
+
+		ScanEstimator estimator = new ScanEstimator(gen, detectors, 0, costs, null);
+		ScanTimeEstimate estimate = estimator.getTimeEstimate();
+		assertNotNull(estimate);
+		assertEquals(100*10, estimate.getExposureTime());
+		assertEquals(100*5,  estimate.getDetectorOverhead());
+		assertEquals(100*2,  estimate.getPointOverhead());
+		assertTrue(estimate.getMoveTime() > 0);
+		assertEquals(estimate.getTotalTime()/2, estimate.getPauseTime(), 1);
+		assertEquals(estimate.getTotalTime(), estimator.getEstimatedScanTime());
+		assertTrue(estimate.isAnalytic());
+	}
+
+	@Test
+	public void costsAreOnlyUsedWhenGiven() throws Exception {
+
+		ScanCosts costs = new ScanCosts();
+		costs.setPointOverhead(1000);
+		ScanEstimator.setCostModel(costs);
+		try {
+			GridModel gmodel = new GridModel("x", "y", 10, 10);
+			gmodel.setBoundingBox(new BoundingBox(0,0,10,10));
+			IPointGenerator<?> gen = gservice.createGenerator(gmodel);
+
+			// The costs the sequencer has learned are not used unless the estimator is given them
+			assertEquals(100*100, new ScanEstimator(gen, (Map<String,Object>)null, 100).getEstimatedScanTime());
+			assertEquals(100*1100, new ScanEstimator(gen, (Map<String,Object>)null, 100, ScanEstimator.getCostModel(), null).getEstimatedScanTime());
+		} finally {
+			ScanEstimator.setCostModel(null);
+		}
+	}
+
+	@Test
+	public void pauseFractionIsLearnedFromWatchdogs() throws Exception {
+
+		// Ten points of 100ms each paused for 100ms
+		PointTimer timer = new PointTimer("pauses", true, 16);
+		for (int i = 0; i < 10; i++) {
+			timer.getPhase(PointPhase.POINT).record(TimeUnit.MILLISECONDS.toNanos(100));
+			timer.getPhase(PointPhase.CHECK_PAUSED).record(TimeUnit.MILLISECONDS.toNanos(100));
+		}
+		ScanCostCalibrator calibrator = new ScanCostCalibrator(null);
+		ScanCosts costs = calibrator.getCosts();
+
+		// A user paused, the pauses are not learned but the first scan is blended in
+		calibrator.calibrate(timer, null, null, true);
+		assertEquals(1,   costs.getScanCount());
+		assertEquals(0,   costs.getPauseFraction(), 0.000001);
+		assertEquals(20,  costs.getPointOverhead(), 0.000001);
+
+		calibrator.calibrate(timer, null, null, false);
+		assertEquals(0.1, costs.getPauseFraction(), 0.000001);
+		calibrator.calibrate(timer, null, null, false);
+		assertEquals(0.18, costs.getPauseFraction(), 0.000001);
+
+		// A new topup regime starts again
+		DeviceWatchdogModel model = new DeviceWatchdogModel();
+		model.setCountdownName("topup");
+		model.setPeriod(600000);
+		model.setCooloff(4000);
+		TopupWatchdog topup = new TopupWatchdog(model);
+		topup.setName("topup");
+		calibrator.calibrate(timer, null, Collections.singletonList(topup), false);
+		assertEquals(0.1, costs.getPauseFraction(), 0.000001);
+		assertNull(calibrator.getFile());
+	}
+
+	@Test
+	public void costsAreKept() throws Exception {
+
+		ScanCosts costs = new ScanCosts();
+		costs.setScanCount(3);
+		costs.setDetectorOverhead("det.1", 5);
+		costs.setPointOverhead(2);
+		costs.setPauseFraction(0.1);
+		costs.setMoveCost("x", 1, 10, 100);
+		costs.setMoveCost("y", 1, 20, 100);
+		costs.setMoveCost("T", 2, 1000, 0);
+
+		File file = File.createTempFile("scan_costs", ".properties");
+		file.deleteOnExit();
+		costs.save(file);
+
+		ScanCosts read = ScanCosts.load(file);
+		assertEquals(3,   read.getScanCount());
+		assertEquals(5,   read.getDetectorOverhead("det.1"), 0.000001);
+		assertEquals(2,   read.getPointOverhead(),   0.000001);
+		assertEquals(0.1, read.getPauseFraction(),   0.000001);
+
+		// x and y move together, then T
+		Map<String, Double> distances = new HashMap<>();
+		distances.put("x", 1d);
+		distances.put("y", 2d);
+		distances.put("T", 5d);
+		assertEquals(220+1000, read.getMoveTime(distances), 0.000001);
+	}
+
+	@Test
+	public void scanIsCalibrated() throws Exception {
+
+		GridModel gmodel = new GridModel("xNex", "yNex", 3, 2);
+		gmodel.setBoundingBox(new BoundingBox(0,0,3,3));
+		IPointGenerator<?> gen = gservice.createGenerator(gmodel);
+
+		MandelbrotModel mmodel = new MandelbrotModel("xNex", "yNex");
+		mmodel.setName("mandelbrot");
+		mmodel.setExposureTime(0.001);
+		IRunnableDevice<MandelbrotModel> detector = dservice.createRunnableDevice(mmodel);
+
+		final ScanModel  smodel = new ScanModel();
+		smodel.setPositionIterable(gen);
+		smodel.setDetectors(detector);
+		File output = File.createTempFile("test_scan_costs", ".nxs");
+		output.deleteOnExit();
+		smodel.setFilePath(output.getAbsolutePath());
+		PointTimingRecorder recorder = new PointTimingRecorder();
+		smodel.setAnnotationParticipants(Arrays.asList(recorder));
+
+		IRunnableDevice<ScanModel> scanner = dservice.createRunnableDevice(smodel, null);
+		scanner.run(null);
+
+		File file = File.createTempFile("scan_costs", ".properties");
+		file.delete();
+		file.deleteOnExit();
+		ScanCostCalibrator calibrator = new ScanCostCalibrator(file);
+		calibrator.calibrate(recorder.getTimer(), Arrays.<IRunnableDevice<?>>asList(detector));
+
+		ScanCosts costs = calibrator.getCosts();
+		assertEquals(1, costs.getScanCount());
+		assertTrue(costs.hasDetectorOverhead("mandelbrot"));
+		assertTrue(costs.getPauseFraction() >= 0);
+		assertTrue(file.exists());
+		assertEquals(costs.getDetectorOverhead("mandelbrot"), ScanCosts.load(file).getDetectorOverhead("mandelbrot"), 0.000001);
+
+		// The calibrated scan is estimated to take at least as long as the exposures
+		ScanTimeEstimate estimate = new ScanEstimator(gen, Arrays.<Object>asList(mmodel), 0, costs, null).getTimeEstimate();
+		assertTrue(estimate.getTotalTime() >= estimate.getExposureTime());
+		assertEquals(Math.round(6*costs.getPointOverhead()), estimate.getPointOverhead());
+	}
+
+	private ScanMoves checkMoves(Object model, IPointGenerator<?> gen) throws Exception {
+
+		ScanMoves moves = ScanMoves.of(model);
+		assertNotNull(moves);
+		assertEquals(gen.size(), moves.getSize());
+
+		long count = 0;
+		for (ScanMoves.Move move : moves.getMoves()) count+=move.getCount();
+		assertEquals(gen.size()-1, count);
+
+		Map<String, Double> lengths = new HashMap<>();
+		IPosition previous = null;
+		for (IPosition pos : gen) {
+			if (previous!=null) for (String name : pos.getNames()) {
+				double distance = Math.abs(pos.getValue(name)-previous.getValue(name));
+				lengths.merge(name, distance, Double::sum);
+			}
+			previous = pos;
+		}
+		for (String name : lengths.keySet()) {
+			assertEquals(name, lengths.get(name), moves.getPathLength(name), 0.000001);
+		}
+		return moves;
+	}
+}
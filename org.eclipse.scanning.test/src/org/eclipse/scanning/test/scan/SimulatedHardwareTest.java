@@ -0,0 +1,204 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.eclipse.dawnsci.hdf5.nexus.NexusFileFactoryHDF5;
+import org.eclipse.dawnsci.json.MarshallerService;
+import org.eclipse.dawnsci.nexus.builder.impl.DefaultNexusBuilderFactory;
+import org.eclipse.dawnsci.remotedataset.test.mock.LoaderServiceMock;
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.example.classregistry.ScanningExampleClassRegistry;
+import org.eclipse.scanning.example.scannable.MockScannableConnector;
+import org.eclipse.scanning.example.simulation.SimulatedDetector;
+import org.eclipse.scanning.example.simulation.SimulatedDetectorModel;
+import org.eclipse.scanning.example.simulation.SimulatedFlyScanDevice;
+import org.eclipse.scanning.example.simulation.SimulatedFlyScanModel;
+import org.eclipse.scanning.example.simulation.SimulatedMotor;
+import org.eclipse.scanning.example.simulation.SimulatedPandA;
+import org.eclipse.scanning.example.simulation.SimulatedPandAModel;
+import org.eclipse.scanning.example.simulation.SimulationClock;
+import org.eclipse.scanning.example.simulation.SoakReport;
+import org.eclipse.scanning.example.simulation.SoakTestHarness;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.points.classregistry.ScanningAPIClassRegistry;
+import org.eclipse.scanning.points.serialization.PointsModelMarshaller;
+import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
+import org.eclipse.scanning.sequencer.ServiceHolder;
+import org.eclipse.scanning.test.ScanningTestClassRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SimulatedHardwareTest {
+
+	private IRunnableDeviceService dservice;
+	private IPointGeneratorService gservice;
+
+	@Before
+	public void setup() throws Exception {
+
+		ActivemqConnectorService.setJsonMarshaller(new MarshallerService(
+				Arrays.asList(new ScanningAPIClassRegistry(),
+						new ScanningExampleClassRegistry(),
+						new ScanningTestClassRegistry()),
+				Arrays.asList(new PointsModelMarshaller())
+				));
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE
+		dservice  = new RunnableDeviceServiceImpl(new MockScannableConnector(null));
+		RunnableDeviceServiceImpl impl = (RunnableDeviceServiceImpl)dservice;
+		impl._register(SimulatedDetectorModel.class, SimulatedDetector.class);
+		impl._register(SimulatedPandAModel.class,    SimulatedPandA.class);
+		impl._register(SimulatedFlyScanModel.class,  SimulatedFlyScanDevice.class);
+		gservice  = new PointGeneratorService();
+
+		ServiceHolder.setTestServices(new LoaderServiceMock(), new DefaultNexusBuilderFactory(), null);
+		org.eclipse.dawnsci.nexus.ServiceHolder.setNexusFileFactory(new NexusFileFactoryHDF5());
+	}
+
+	@Test
+	public void clockWaitsForShortTimes() throws Exception {
+		long start = System.nanoTime();
+		for (int i = 0; i < 100; i++) SimulationClock.waitFor(0.0001); // 100us
+		long elapsed = System.nanoTime()-start;
+		assertTrue("The clock waited "+elapsed+"ns", elapsed >= SimulationClock.toNanos(0.01));
+	}
+
+	@Test
+	public void motorMoveTime() throws Exception {
+		SimulatedMotor motor = new SimulatedMotor("motor", 0d, 3, "mm");
+		motor.setVelocity(10);
+		motor.setAcceleration(100);
+
+		// Trapezoidal, 1mm accelerating and decelerating then 9mm at 10mm/s
+		assertEquals(1.1,  motor.getMoveTime(0, 10), 1e-9);
+		// Triangular, never reaches the velocity
+		assertEquals(0.02, motor.getMoveTime(0, 0.01), 1e-9);
+		assertEquals(0,    motor.getMoveTime(5, 5), 1e-9);
+
+		motor.setSettleTime(0.01);
+		assertEquals(0.03, motor.getMoveTime(0, 0.01), 1e-9);
+
+		motor.setPosition(0.01);
+		assertEquals(1, motor.getMoveCount());
+		assertTrue(motor.getMoveTime() >= 0.03);
+		assertEquals(0.01, motor.getPosition().doubleValue(), 1e-9);
+	}
+
+	@Test
+	public void detectorWritesFrames() throws Exception {
+
+		SimulatedDetectorModel dmodel = new SimulatedDetectorModel("simDetector", 32, 16, 0.001);
+		SimulatedDetector detector = (SimulatedDetector)dservice.createRunnableDevice(dmodel);
+
+		ScanModel smodel = createScan(createGrid(2, 3), detector);
+		IRunnableDevice<ScanModel> scanner = dservice.createRunnableDevice(smodel, null);
+
+		long start = System.nanoTime();
+		scanner.run(null);
+		long elapsed = System.nanoTime()-start;
+
+		assertEquals(6, detector.getFrameCount());
+		assertEquals(6*(4*32*16+8), detector.getBytesWritten());
+		assertTrue(elapsed >= SimulationClock.toNanos(0.006));
+	}
+
+	@Test
+	public void pandAStreamsPositions() throws Exception {
+
+		SimulatedPandAModel pmodel = new SimulatedPandAModel("simPandA", 10000, "xNex", "yNex");
+		pmodel.setExposureTime(0.001);
+		assertEquals(10, pmodel.getSamplesPerPoint());
+
+		SimulatedPandA panda = (SimulatedPandA)dservice.createRunnableDevice(pmodel);
+		ScanModel smodel = createScan(createGrid(2, 2), panda);
+		dservice.createRunnableDevice(smodel, null).run(null);
+
+		assertEquals(40, panda.getSampleCount());
+		assertEquals(40*2*8, panda.getBytesWritten());
+	}
+
+	@Test
+	public void flyScanKeepsFrameRate() throws Exception {
+
+		SimulatedFlyScanModel fmodel = new SimulatedFlyScanModel("simFlyScan", "flyX", 0, 1, 100, 10000);
+		SimulatedFlyScanDevice fly = (SimulatedFlyScanDevice)dservice.createRunnableDevice(fmodel);
+		assertEquals(0.01, fmodel.getExposureTime(), 1e-9);
+
+		IPointGenerator<?> gen = gservice.createGenerator(new StepModel("xNex", 0, 2, 1));
+		ScanModel smodel = createScan(gen, fly);
+
+		long start = System.nanoTime();
+		dservice.createRunnableDevice(smodel, null).run(null);
+		long elapsed = System.nanoTime()-start;
+
+		assertEquals(3,   fly.getLineCount());
+		assertEquals(300, fly.getFrameCount());
+		assertEquals(300*16, fly.getBytesWritten());
+		assertTrue(elapsed >= SimulationClock.toNanos(0.03));
+	}
+
+	@Test
+	public void soakReport() throws Exception {
+
+		GridModel gmodel = new GridModel("xNex", "yNex", 3, 3);
+		gmodel.setBoundingBox(new BoundingBox(0,0,3,3));
+
+		ScanRequest<Object> req = new ScanRequest<>();
+		req.setCompoundModel(new CompoundModel<Object>(gmodel));
+		req.putDetector("simDetector", new SimulatedDetectorModel("simDetector", 8, 8, 0.001));
+
+		SoakReport report = new SoakTestHarness(dservice, gservice).run(req, 2);
+
+		assertEquals(2,  report.getScans());
+		assertEquals(18, report.getPoints());
+		assertEquals(18*(4*8*8+8), report.getBytes());
+		assertEquals(0.001, report.getExposureTime(), 1e-9);
+		assertTrue(report.getElapsedTime() >= 0.018);
+		assertTrue(report.getPointsPerSecond() > 0);
+		assertTrue(report.getDeadTimePerPoint() >= 0);
+		assertTrue(report.toString().contains("points=18"));
+	}
+
+	private IPointGenerator<?> createGrid(int rows, int columns) throws Exception {
+		GridModel gmodel = new GridModel("xNex", "yNex", columns, rows);
+		gmodel.setBoundingBox(new BoundingBox(0,0,3,3));
+		return gservice.createGenerator(gmodel);
+	}
+
+	private ScanModel createScan(IPointGenerator<?> gen, IRunnableDevice<?> detector) throws Exception {
+		final ScanModel  smodel = new ScanModel();
+		smodel.setPositionIterable(gen);
+		smodel.setDetectors(detector);
+
+		File output = File.createTempFile("test_simulated_hardware", ".nxs");
+		output.deleteOnExit();
+		smodel.setFilePath(output.getAbsolutePath());
+		return smodel;
+	}
+}
@@ -31,7 +31,14 @@ import org.junit.runners.Suite.SuiteClasses;
 	RunnableDeviceServiceConfigureTest.class,
 	WatchdogTopupTest.class,
 	WatchdogShutterTest.class,
-	WatchdogCombinedTest.class
+	WatchdogCombinedTest.class,
+	WatchdogEvaluationTest.class,
+	PointTimingTest.class,
+	DeviceReservationTest.class,
+	SimulatedHardwareTest.class,
+	MoveTimeEstimatorTest.class,
+	ScanTimeEstimationTest.class,
+	ScanSimulatorTest.class
 	// ThreadScanTest.class  Not reliable on traivs.
 })
 public class Suite {
@@ -0,0 +1,136 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.eclipse.scanning.sequencer.expression.CompiledExpression;
+import org.eclipse.scanning.sequencer.watchdog.WatchdogEvaluationService;
+import org.eclipse.scanning.sequencer.watchdog.WatchdogEvaluator;
+import org.eclipse.scanning.sequencer.watchdog.WatchdogStatistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WatchdogEvaluationTest {
+
+	private WatchdogEvaluationService service;
+
+	@Before
+	public void create() {
+		service = new WatchdogEvaluationService(1);
+	}
+
+	@After
+	public void dispose() {
+		service.dispose();
+	}
+
+	@Test
+	public void compiledExpressionVariables() {
+		CompiledExpression expr = new CompiledExpression("beamcurrent >= 1.0 && !portshutter.equalsIgnoreCase(\"Closed\")",
+				                                         Arrays.asList("beamcurrent", "portshutter"));
+		assertTrue(expr.isVariable("beamcurrent"));
+		assertFalse(expr.isVariable("x"));
+
+		assertTrue(expr.setVariable("beamcurrent", 5d));
+		assertTrue(expr.setVariable("portshutter", "Open"));
+		assertTrue(expr.evaluateBoolean());
+
+		assertFalse("Same value is not a change", expr.setVariable("beamcurrent", 5d));
+		assertFalse("Boxed same value is not a change", expr.setVariable("beamcurrent", Integer.valueOf(5)));
+		assertFalse("Same string is not a change", expr.setVariable("portshutter", "Open"));
+		assertFalse("Unknown names are ignored", expr.setVariable("x", 1d));
+
+		assertTrue(expr.setVariable("beamcurrent", 0.1));
+		assertFalse(expr.evaluateBoolean());
+
+		assertTrue(expr.setVariable("beamcurrent", 2.1));
+		assertTrue(expr.setVariable("portshutter", "Closed"));
+		assertFalse(expr.evaluateBoolean());
+	}
+
+	@Test
+	public void compiledExpressionReadsNames() {
+		CompiledExpression expr = new CompiledExpression("a+b > c");
+		assertEquals(Arrays.asList("a", "b", "c"), expr.getVariableNames().stream().sorted().collect(Collectors.toList()));
+	}
+
+	@Test
+	public void evaluationsAreCoalesced() throws Exception {
+
+		final CountDownLatch  block  = new CountDownLatch(1);
+		final AtomicInteger   count  = new AtomicInteger();
+		final AtomicLong      latest = new AtomicLong();
+		final AtomicLong      seen   = new AtomicLong();
+
+		WatchdogEvaluator evaluator = service.createEvaluator("coalesce", ()->{
+			count.incrementAndGet();
+			block.await(); // The first evaluation is slow, all the others pile up.
+			seen.set(latest.get());
+		});
+
+		for (int i = 1; i <= 1000; i++) {
+			latest.set(i);
+			evaluator.request();
+		}
+		block.countDown();
+
+		// Wait for the evaluations to finish.
+		long start = System.currentTimeMillis();
+		while(seen.get()!=1000 && (System.currentTimeMillis()-start)<5000) Thread.sleep(10);
+		Thread.sleep(100); // Any evaluation in flight records its statistics
+
+		assertEquals("The latest value must be evaluated", 1000, seen.get());
+		assertTrue("Too many evaluations "+count.get(), count.get()<=2);
+
+		WatchdogStatistics stats = evaluator.getStatistics();
+		assertEquals(1000, stats.getRequestCount());
+		assertEquals(count.get(), stats.getEvaluationCount());
+		assertEquals(stats.getRequestCount()-stats.getEvaluationCount(), stats.getCoalescedCount());
+	}
+
+	@Test
+	public void unchangedIsNotEvaluated() throws Exception {
+
+		final CountDownLatch done = new CountDownLatch(1);
+		WatchdogEvaluator evaluator = service.createEvaluator("unchanged", ()->done.countDown());
+
+		for (int i = 0; i < 10; i++) evaluator.unchanged();
+		evaluator.request();
+		assertTrue(done.await(1, TimeUnit.SECONDS));
+
+		WatchdogStatistics stats = service.getStatistics("unchanged");
+		assertEquals(10, stats.getUnchangedCount());
+		assertEquals(1,  stats.getRequestCount());
+	}
+
+	@Test
+	public void disposedIsNotEvaluated() throws Exception {
+
+		final AtomicInteger count = new AtomicInteger();
+		WatchdogEvaluator evaluator = service.createEvaluator("disposed", ()->count.incrementAndGet());
+		evaluator.dispose();
+		evaluator.request();
+		Thread.sleep(100);
+		assertEquals(0, count.get());
+	}
+}
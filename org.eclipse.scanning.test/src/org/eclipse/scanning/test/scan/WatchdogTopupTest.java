@@ -295,6 +295,46 @@ public class WatchdogTopupTest extends AbstractWatchdogTest {
 	}
 
 	
+	@Test
+	public void predictiveHoldsBeforePoint() throws Exception {
+
+		// Stop topup, we want to controll it programmatically.
+		final IScannable<Number>   topups  = connector.getScannable("topup");
+		final MockTopupScannable   topup   = (MockTopupScannable)topups;
+		assertNotNull(topup);
+		topup.disconnect();
+		Thread.sleep(120);
+		assertTrue(topup.isDisconnected());
+		
+		// 700ms is outside the cooloff but a 250ms point would run into it.
+		topup.setPosition(700);
+		
+		DeviceWatchdogModel model = dog.getModel();
+		model.setPredictive(true);
+		try {
+			IDeviceController controller = createTestScanner(null);
+			IRunnableEventDevice<?> scanner = (IRunnableEventDevice<?>)controller.getDevice();
+			
+			scanner.start(null);
+			scanner.latch(500, TimeUnit.MILLISECONDS);
+			assertEquals(DeviceState.PAUSED, scanner.getDeviceState());
+			assertEquals("No point should be started before the topup", 0, positions.size());
+			
+			topup.setPosition(0);    // Should do nothing, device is already paused
+			topup.setPosition(5000); // Gets it ready to think it has to resume
+			topup.setPosition(4000); // Will resume it because a point fits before the cooloff
+			
+			Thread.sleep(100);
+			assertEquals(DeviceState.RUNNING, scanner.getDeviceState());
+			
+			scanner.latch();
+			assertEquals(DeviceState.READY, scanner.getDeviceState());
+			
+		} finally {
+			model.setPredictive(false);
+		}
+	}
+	
 	@Test
 	public void topupWithExternalPause() throws Exception {
 
@@ -0,0 +1,76 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan.mock;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.scanning.api.annotation.scan.ScanEnd;
+import org.eclipse.scanning.sequencer.timing.PointTimer;
+import org.eclipse.scanning.sequencer.timing.PointTimingMonitor;
+
+/**
+ * Annotation participant which records the point timer of the
+ * scan it takes part in and, while the scan is still running,
+ * the attributes of the timing bean published for that scan.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class PointTimingRecorder {
+
+	private PointTimer          timer;
+	private ObjectName          name;
+	private Map<String, Object> attributes;
+
+	@ScanEnd
+	public void scanEnd(PointTimer timer) throws Exception {
+		this.timer = timer;
+		this.name  = findName(timer.getScanName());
+		if (name!=null) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			attributes = new HashMap<>();
+			for (String attribute : new String[]{"ScanName", "PointCount", "PhaseNames"}) {
+				attributes.put(attribute, server.getAttribute(name, attribute));
+			}
+		}
+	}
+
+	/**
+	 * @param scanName
+	 * @return the name of the timing bean registered for the scan, or null if there is none.
+	 * @throws Exception
+	 */
+	public static ObjectName findName(String scanName) throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (ObjectName name : server.queryNames(new ObjectName(PointTimingMonitor.OBJECT_NAME+",*"), null)) {
+			if (scanName.equals(server.getAttribute(name, "ScanName"))) return name;
+		}
+		return null;
+	}
+
+	public PointTimer getTimer() {
+		return timer;
+	}
+
+	public ObjectName getName() {
+		return name;
+	}
+
+	public Object getAttribute(String attribute) {
+		return attributes!=null ? attributes.get(attribute) : null;
+	}
+}
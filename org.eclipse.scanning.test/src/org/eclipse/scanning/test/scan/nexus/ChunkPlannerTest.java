@@ -0,0 +1,99 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan.nexus;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.dawnsci.nexus.NexusScanInfo;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner.ChunkPlan;
+import org.eclipse.scanning.sequencer.nexus.ChunkPlanner.ReadPattern;
+import org.junit.After;
+import org.junit.Test;
+
+public class ChunkPlannerTest {
+
+	private static final long BYTES = ChunkPlanner.DEFAULT_CHUNK_BYTES;
+
+	@After
+	public void clearProperties() {
+		System.clearProperty("org.eclipse.scanning.sequencer.nexus.chunkBytes");
+		System.clearProperty("org.eclipse.scanning.sequencer.nexus.readPattern");
+	}
+
+	@Test
+	public void smallScanIsOneChunk() {
+		ChunkPlan plan = new ChunkPlanner(BYTES, ReadPattern.BALANCED).plan(new int[]{8,5}, new int[0], 4);
+		assertArrayEquals(new int[]{8,5}, plan.getChunk());
+		assertEquals(8*5*4, plan.getChunkBytes());
+		assertEquals(1, plan.getOpenChunks());
+	}
+
+	@Test
+	public void largeScanIsChunkedAlongTheFastAxis() {
+		// 65536 doubles fit, so whole rows of 1000 and 65 rows, evened out to 63
+		ChunkPlan plan = new ChunkPlanner(BYTES, ReadPattern.BALANCED).plan(new int[]{1000,1000}, new int[0], 8);
+		assertArrayEquals(new int[]{63,1000}, plan.getChunk());
+		assertTrue(plan.getChunkBytes()<=BYTES);
+	}
+
+	@Test
+	public void partialRowsAreNotSpanned() {
+		// 4 images fit but a row is 10 long, so the slow axis is not grown
+		ChunkPlan plan = new ChunkPlanner(BYTES, ReadPattern.BALANCED).plan(new int[]{10,10}, new int[]{128,128}, 8);
+		assertArrayEquals(new int[]{1,4,128,128}, plan.getChunk());
+	}
+
+	@Test
+	public void framesAreWhole() {
+		ChunkPlan plan = new ChunkPlanner(BYTES, ReadPattern.FRAMES).plan(new int[]{10,10}, new int[]{64,64}, 8);
+		assertArrayEquals(new int[]{1,1,64,64}, plan.getChunk());
+	}
+
+	@Test
+	public void largeFramesAreSplitAlongTheirSlowestAxis() {
+		ChunkPlan plan = new ChunkPlanner(BYTES, ReadPattern.BALANCED).plan(new int[]{10}, new int[]{2048,2048}, 4);
+		assertArrayEquals(new int[]{1,64,2048}, plan.getChunk());
+		assertEquals(32, plan.getOpenChunks());
+		assertEquals(BYTES, plan.getChunkBytes());
+	}
+
+	@Test
+	public void mapsSplitFramesToHoldManyPoints() {
+		// A chunk holds at least 64 points of a quarter of each spectrum.
+		ChunkPlan plan = new ChunkPlanner(BYTES, ReadPattern.MAPS).plan(new int[]{100,100}, new int[]{4096}, 8);
+		assertArrayEquals(new int[]{1,50,1024}, plan.getChunk());
+		assertEquals(4, plan.getOpenChunks());
+	}
+
+	@Test
+	public void unknownScanSizes() {
+		ChunkPlan plan = new ChunkPlanner(BYTES, ReadPattern.BALANCED).plan(new int[]{-1}, new int[0], 8);
+		assertArrayEquals(new int[]{64}, plan.getChunk());
+
+		NexusScanInfo info = new NexusScanInfo();
+		info.setRank(2);
+		assertArrayEquals(new int[]{64,64}, ChunkPlanner.createChunk(info, Double.class));
+	}
+
+
+	@Test
+	public void defaultIsConfigured() {
+		System.setProperty("org.eclipse.scanning.sequencer.nexus.chunkBytes", "4096");
+		System.setProperty("org.eclipse.scanning.sequencer.nexus.readPattern", "frames");
+		ChunkPlanner planner = ChunkPlanner.getDefault();
+		assertEquals(4096, planner.getTargetBytes());
+		assertEquals(ReadPattern.FRAMES, planner.getReadPattern());
+	}
+}
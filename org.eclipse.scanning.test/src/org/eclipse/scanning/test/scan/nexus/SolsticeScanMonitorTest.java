@@ -183,9 +183,8 @@ public class SolsticeScanMonitorTest {
 		NexusScanInfo scanInfo = new NexusScanInfo();
 		scanInfo.setRank(scanRank);
 		scanInfo.setShape(scanShape);
-		int[] expectedChunking = new int[scanInfo.getRank()];
-		Arrays.fill(expectedChunking, 1);
-		expectedChunking[expectedChunking.length-1] = 8;
+		// The whole of this small scan fits in one chunk
+		int[] expectedChunking = scanShape.clone();
 
 		// Act
 		NXcollection solsticeScanCollection = solsticeScanMonitor.createNexusObject(scanInfo);
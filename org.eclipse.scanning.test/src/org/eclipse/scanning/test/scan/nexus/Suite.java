@@ -19,6 +19,7 @@ import org.junit.runners.Suite.SuiteClasses;
 
 	AttributeTest.class,
 	BasicScanTest.class,
+	ChunkPlannerTest.class,
 	PerScanMonitorTest.class,
 	ConstantVelocityTest.class,
 	DarkCurrentTest.class,
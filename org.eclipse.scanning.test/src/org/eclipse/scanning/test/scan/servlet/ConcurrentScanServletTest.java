@@ -0,0 +1,144 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan.servlet;
+
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.server.servlet.AbstractConsumerServlet;
+import org.eclipse.scanning.server.servlet.ScanServlet;
+import org.eclipse.scanning.test.scan.mock.MockDetectorModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ConcurrentScanServletTest extends AbstractServletTest {
+	
+	@BeforeClass
+	public static void createSecondDetector() throws Exception {
+		final MockDetectorModel dmodel = new MockDetectorModel();
+		dmodel.setName("detector2");
+		dmodel.setExposureTime(0.001);
+		dservice.createRunnableDevice(dmodel);
+	}
+
+	@Override
+	protected AbstractConsumerServlet<ScanBean> createServlet() throws Exception {
+		
+		ScanServlet servlet = new ScanServlet();
+		servlet.setBroker(uri.toString());
+		servlet.setSubmitQueue("org.eclipse.scanning.test.servlet.concurrent.submitQueue");
+		servlet.setStatusSet("org.eclipse.scanning.test.servlet.concurrent.statusSet");
+		servlet.setStatusTopic("org.eclipse.scanning.test.servlet.concurrent.statusTopic");
+		servlet.setPauseOnStart(false);
+		servlet.setWorkerSlots(2);
+		servlet.connect(); // Gets called by Spring automatically
+
+		return servlet;
+	}
+
+	@Test
+	public void disjointScansRunTogether() throws Exception {
+		
+		ScanBean one = createScan("one", "a1", "detector");
+		ScanBean two = createScan("two", "a2", "detector2");
+		Map<String, long[]> times = run(one, two);
+		
+		// The second started before the first finished
+		assertTrue(times.get(two.getUniqueId())[0] < times.get(one.getUniqueId())[1]);
+	}
+
+	@Test
+	public void sharedDetectorRunsOneAfterAnother() throws Exception {
+		
+		ScanBean one = createScan("one", "b1", "detector");
+		ScanBean two = createScan("two", "b2", "detector");
+		Map<String, long[]> times = run(one, two);
+		
+		long[] first  = times.get(one.getUniqueId());
+		long[] second = times.get(two.getUniqueId());
+		assertTrue(first[1]<=second[0] || second[1]<=first[0]);
+	}
+
+	@Test
+	public void sharedScannableRunsOneAfterAnother() throws Exception {
+		
+		ScanBean one = createScan("one", "c1", "detector");
+		ScanBean two = createScan("two", "c1", "detector2");
+		Map<String, long[]> times = run(one, two);
+		
+		long[] first  = times.get(one.getUniqueId());
+		long[] second = times.get(two.getUniqueId());
+		assertTrue(first[1]<=second[0] || second[1]<=first[0]);
+	}
+
+	/**
+	 * @return the time that each scan started running and completed
+	 */
+	private Map<String, long[]> run(ScanBean... beans) throws Exception {
+		
+		final ISubscriber<IBeanListener<ScanBean>> subscriber = eservice.createSubscriber(new URI(servlet.getBroker()), servlet.getStatusTopic());
+		try {
+			final Map<String, long[]> times = new ConcurrentHashMap<>();
+			final CountDownLatch      done  = new CountDownLatch(beans.length);
+			
+			subscriber.addListener(new IBeanListener<ScanBean>() {
+				@Override
+				public void beanChangePerformed(BeanEvent<ScanBean> evt) {
+					ScanBean bean = evt.getBean();
+					if (bean.getStatus()==Status.RUNNING) {
+						times.putIfAbsent(bean.getUniqueId(), new long[]{System.nanoTime(), Long.MAX_VALUE});
+					} else if (bean.getStatus()==Status.COMPLETE && times.containsKey(bean.getUniqueId())) {
+						times.get(bean.getUniqueId())[1] = System.nanoTime();
+						done.countDown();
+					}
+				}
+			});
+			
+			for (ScanBean bean : beans) submit(servlet, bean);
+			assertTrue("The scans did not complete", done.await(30, TimeUnit.SECONDS));
+			return times;
+			
+		} finally {
+			subscriber.disconnect();
+		}
+	}
+
+	private ScanBean createScan(String name, String scannable, String detector) throws Exception {
+		
+		final ScanBean bean = new ScanBean();
+		bean.setName(name);
+		
+		final ScanRequest<?> req = new ScanRequest<>();
+		req.setCompoundModel(new CompoundModel<>(new StepModel(scannable, 1, 10, 1)));
+
+		final MockDetectorModel dmodel = new MockDetectorModel();
+		dmodel.setName(detector);
+		dmodel.setExposureTime(0.05);
+		req.putDetector(detector, dmodel);
+		
+		bean.setScanRequest(req);
+		return bean;
+	}
+}
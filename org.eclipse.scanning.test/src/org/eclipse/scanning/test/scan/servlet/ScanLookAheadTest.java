@@ -0,0 +1,212 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan.servlet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.api.scan.process.IPreprocessor;
+import org.eclipse.scanning.api.scan.process.ProcessingException;
+import org.eclipse.scanning.server.servlet.AbstractConsumerServlet;
+import org.eclipse.scanning.server.servlet.ScanServlet;
+import org.eclipse.scanning.server.servlet.Services;
+import org.eclipse.scanning.test.scan.mock.MockDetectorModel;
+import org.junit.Test;
+
+public class ScanLookAheadTest extends AbstractServletTest {
+
+	@Override
+	protected AbstractConsumerServlet<ScanBean> createServlet() throws Exception {
+		
+		ScanServlet servlet = new ScanServlet();
+		servlet.setBroker(uri.toString());
+		servlet.setSubmitQueue("org.eclipse.scanning.test.servlet.lookahead.submitQueue");
+		servlet.setStatusSet("org.eclipse.scanning.test.servlet.lookahead.statusSet");
+		servlet.setStatusTopic("org.eclipse.scanning.test.servlet.lookahead.statusTopic");
+		servlet.setPauseOnStart(false);
+		servlet.setLookAhead(true);
+		servlet.connect(); // Gets called by Spring automatically
+
+		return servlet;
+	}
+
+	@Test
+	public void backToBackScans() throws Exception {
+		
+		ScanBean[] beans = new ScanBean[3];
+		for (int i = 0; i < beans.length; i++) beans[i] = createSlowStepScan("lookahead"+i, 10, 0.05);
+		
+		Map<String, Status> last = run(beans, null);
+		for (ScanBean bean : beans) {
+			assertEquals(bean.getName(), Status.COMPLETE, last.get(bean.getUniqueId()));
+		}
+	}
+
+	@Test
+	public void queueChangedWhileScanning() throws Exception {
+		
+		ScanBean first   = createSlowStepScan("first", 10, 0.1);
+		ScanBean removed = createSlowStepScan("removed", 5, 0);
+		ScanBean last    = createSlowStepScan("last", 5, 0);
+
+		// The removed scan is prepared while the first runs, the last must still run correctly.
+		Map<String, Status> statuses = run(new ScanBean[]{first, removed}, () -> {
+			servlet.getConsumer().cleanQueue(servlet.getSubmitQueue());
+			submit(servlet, last);
+		});
+		
+		assertEquals(Status.COMPLETE, statuses.get(first.getUniqueId()));
+		assertEquals(Status.COMPLETE, statuses.get(last.getUniqueId()));
+		assertFalse(statuses.containsKey(removed.getUniqueId()));
+	}
+	
+	@Test
+	public void preprocessorReplacesRequest() throws Exception {
+		Set<String> threads = preprocess(true);
+		// The second scan is preprocessed by the look-ahead while the first runs
+		assertTrue(threads.toString(), threads.stream().anyMatch(name -> name.startsWith("Scan look-ahead")));
+	}
+
+	@Test
+	public void unsafePreprocessorRunsWithScan() throws Exception {
+		Set<String> threads = preprocess(false);
+		// The preprocessor is never run while another scan is running
+		assertFalse(threads.toString(), threads.stream().anyMatch(name -> name.startsWith("Scan look-ahead")));
+	}
+
+	/**
+	 * Runs two scans with a preprocessor which replaces their request with a scan of three points.
+	 * @param lookAheadSafe
+	 * @return the names of the threads which the preprocessor ran on.
+	 */
+	private Set<String> preprocess(boolean lookAheadSafe) throws Exception {
+
+		final Set<String> threads = ConcurrentHashMap.newKeySet();
+		IPreprocessor replacer = new IPreprocessor() {
+			@Override
+			public String getName() {
+				return "replacer";
+			}
+			@Override
+			public boolean isLookAheadSafe() {
+				return lookAheadSafe;
+			}
+			@Override
+			public <T> ScanRequest<T> preprocess(ScanRequest<T> req) throws ProcessingException {
+				threads.add(Thread.currentThread().getName());
+				ScanRequest<T> replaced = new ScanRequest<>();
+				replaced.setCompoundModel(new CompoundModel<>(new StepModel("fred", 1, 3, 1)));
+				replaced.setMonitorNames(req.getMonitorNames());
+				replaced.setDetectors(req.getDetectors());
+				return replaced;
+			}
+		};
+		Services.addPreprocessor(replacer);
+		try {
+			final Map<String, Integer> sizes = new ConcurrentHashMap<>();
+			final ISubscriber<IBeanListener<ScanBean>> subscriber = eservice.createSubscriber(new URI(servlet.getBroker()), servlet.getStatusTopic());
+			subscriber.addListener(new IBeanListener<ScanBean>() {
+				@Override
+				public void beanChangePerformed(BeanEvent<ScanBean> evt) {
+					if (evt.getBean().getStatus()==Status.COMPLETE) sizes.put(evt.getBean().getUniqueId(), evt.getBean().getSize());
+				}
+			});
+			try {
+				ScanBean[] beans = new ScanBean[] { createSlowStepScan("replaced0", 10, 0.05), createSlowStepScan("replaced1", 10, 0.05) };
+				Map<String, Status> last = run(beans, null);
+				for (int i = 0; i < 50 && sizes.size()<beans.length; i++) Thread.sleep(100); // Other subscriber
+				for (ScanBean bean : beans) {
+					assertEquals(bean.getName(), Status.COMPLETE, last.get(bean.getUniqueId()));
+					assertEquals(bean.getName(), Integer.valueOf(3), sizes.get(bean.getUniqueId()));
+				}
+			} finally {
+				subscriber.disconnect();
+			}
+		} finally {
+			Services.removePreprocessor(replacer);
+		}
+		return threads;
+	}
+
+	private interface QueueChange {
+		void change() throws Exception;
+	}
+
+	/**
+	 * Submits the scans and waits for all those which run to finish.
+	 * @param beans
+	 * @param change if not null done while the first scan runs.
+	 * @return the last status of each scan which ran.
+	 */
+	private Map<String, Status> run(ScanBean[] beans, QueueChange change) throws Exception {
+		
+		final ISubscriber<IBeanListener<ScanBean>> subscriber = eservice.createSubscriber(new URI(servlet.getBroker()), servlet.getStatusTopic());
+		try {
+			final Map<String, Status> statuses = new ConcurrentHashMap<>();
+			final Set<String>         running  = ConcurrentHashMap.newKeySet();
+			final CountDownLatch      started  = new CountDownLatch(1);
+			final CountDownLatch      done     = new CountDownLatch(change!=null ? 2 : beans.length);
+			
+			subscriber.addListener(new IBeanListener<ScanBean>() {
+				@Override
+				public void beanChangePerformed(BeanEvent<ScanBean> evt) {
+					ScanBean bean = evt.getBean();
+					if (bean.getStatus()==Status.RUNNING) {
+						running.add(bean.getUniqueId());
+						statuses.put(bean.getUniqueId(), bean.getStatus());
+						started.countDown();
+					} else if (running.contains(bean.getUniqueId())) {
+						statuses.put(bean.getUniqueId(), bean.getStatus());
+						if (bean.getStatus().isFinal()) done.countDown();
+					}
+				}
+			});
+			
+			for (ScanBean bean : beans) submit(servlet, bean);
+			
+			if (change!=null) {
+				assertTrue(started.await(10, TimeUnit.SECONDS));
+				Thread.sleep(200); // Give the look-ahead time to prepare the next scan
+				change.change();
+			}
+			assertTrue("The scans did not finish", done.await(30, TimeUnit.SECONDS));
+			return statuses;
+			
+		} finally {
+			subscriber.disconnect();
+		}
+	}
+
+	private ScanBean createSlowStepScan(String name, int size, double exposure) throws Exception {
+		ScanBean bean = createStepScan();
+		bean.setName(name);
+		bean.getScanRequest().setCompoundModel(new CompoundModel<>(new StepModel("fred", 1, size, 1)));
+		((MockDetectorModel)bean.getScanRequest().getDetectors().get("detector")).setExposureTime(exposure);
+		return bean;
+	}
+}
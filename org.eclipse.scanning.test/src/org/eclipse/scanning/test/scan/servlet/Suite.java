@@ -17,6 +17,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(org.junit.runners.Suite.class)
 @SuiteClasses({
 
+	ConcurrentScanServletTest.class,
+	ScanLookAheadTest.class,
 	ScanProcessTest.class,
 	ScanServletTest.class,
 	StartServerTest.class
@@ -0,0 +1,161 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.ValidationException;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanBounds;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.SpiralModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.example.scannable.MockScannable;
+import org.eclipse.scanning.example.scannable.MockScannableConnector;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PointValidationTest extends AbstractValidationTest {
+
+	private IPointGeneratorService gservice = new PointGeneratorService();
+	private MockScannable x, y;
+
+	@Before
+	public void limits() throws Exception {
+		MockScannableConnector connector = new MockScannableConnector(null);
+		x = new MockScannable("lim_x", 0d, 3, "mm");
+		x.setMinimum(-10d);
+		x.setMaximum(10d);
+		connector.register(x);
+		y = new MockScannable("lim_y", 0d, 3, "mm");
+		y.setMinimum(-10d);
+		y.setMaximum(10d);
+		connector.register(y);
+		validator.setScannableDeviceService(connector);
+	}
+
+	@After
+	public void clear() {
+		validator.setScannableDeviceService(null);
+		System.clearProperty("org.eclipse.scanning.points.validation.threads");
+		System.clearProperty("org.eclipse.scanning.points.validation.chunkSize");
+	}
+
+	@Test
+	public void gridBounds() throws Exception {
+		GridModel gmodel = new GridModel("lim_x", "lim_y", 10, 5);
+		gmodel.setBoundingBox(new BoundingBox(-1, 2, 10, 5));
+		ScanBounds bounds = gservice.createGenerator(gmodel).getBounds();
+		assertEquals(-1, bounds.getLower("lim_x"), 0.0001);
+		assertEquals(9,  bounds.getUpper("lim_x"), 0.0001);
+		assertEquals(2,  bounds.getLower("lim_y"), 0.0001);
+		assertEquals(7,  bounds.getUpper("lim_y"), 0.0001);
+	}
+
+	@Test
+	public void spiralBoundsContainPoints() throws Exception {
+		SpiralModel smodel = new SpiralModel("lim_x", "lim_y", 0.5, new BoundingBox(0, 0, 4, 2));
+		checkBoundsContainPoints(gservice.createGenerator(smodel));
+	}
+
+	@Test
+	public void compoundBoundsContainPoints() throws Exception {
+		GridModel gmodel = new GridModel("lim_x", "lim_y", 4, 3);
+		gmodel.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		IPointGenerator<?> gen = gservice.createCompoundGenerator(new CompoundModel<>(new StepModel("T", 290, 295, 1), gmodel));
+		ScanBounds bounds = checkBoundsContainPoints(gen);
+		assertEquals(290, bounds.getLower("T"), 0.0001);
+		assertEquals(295, bounds.getUpper("T"), 0.0001);
+	}
+
+	private ScanBounds checkBoundsContainPoints(IPointGenerator<?> gen) throws Exception {
+		ScanBounds bounds = gen.getBounds();
+		assertNotNull(bounds);
+		for (IPosition pos : gen) {
+			for (String name : pos.getNames()) {
+				assertTrue(pos.getValue(name)>=bounds.getLower(name));
+				assertTrue(pos.getValue(name)<=bounds.getUpper(name));
+			}
+		}
+		return bounds;
+	}
+
+	@Test
+	public void gridInsideLimits() throws Exception {
+		GridModel gmodel = new GridModel("lim_x", "lim_y", 10, 10);
+		gmodel.setBoundingBox(new BoundingBox(0, 0, 10, 10));
+		validator.validate(new ScanRequest<>(gmodel, null));
+	}
+
+	@Test
+	public void gridOutsideLimits() throws Exception {
+		y.setMaximum(8d);
+		GridModel gmodel = new GridModel("lim_x", "lim_y", 10, 10);
+		gmodel.setBoundingBox(new BoundingBox(0, 0, 10, 10));
+		try {
+			validator.validate(new ScanRequest<>(gmodel, null));
+			fail("The grid goes past the limit of lim_y");
+		} catch (ValidationException expected) {
+			assertTrue(expected.getMessage(), expected.getMessage().contains("lim_y"));
+		}
+	}
+
+	@Test
+	public void regionInsideLimits() throws Exception {
+
+		// The box is past the limit but the points in the region are not.
+		x.setMaximum(5d);
+		y.setMaximum(5d);
+		GridModel gmodel = new GridModel("lim_x", "lim_y", 20, 20);
+		gmodel.setBoundingBox(new BoundingBox(0, 0, 10, 10));
+		IROI roi = new CircularROI(1.5, 2, 2);
+		validator.validate(new ScanRequest<>(gmodel, roi, null));
+	}
+
+	@Test
+	public void firstPointOutsideLimitsIsReported() throws Exception {
+
+		// Many small chunks on many threads, the lowest failure must still be found.
+		System.setProperty("org.eclipse.scanning.points.validation.threads",   "4");
+		System.setProperty("org.eclipse.scanning.points.validation.chunkSize", "7");
+
+		x.setMaximum(50.5);
+		try {
+			validator.validate(new ScanRequest<>(new StepModel("lim_x", 0, 100, 1), null));
+			fail("The step goes past the limit of lim_x");
+		} catch (ValidationException expected) {
+			assertTrue(expected.getMessage(), expected.getMessage().contains("at point 51 "));
+		}
+	}
+
+	@Test(expected=ValidationException.class)
+	public void negativeExposure() throws Exception {
+		validator.validate(new ScanRequest<>(new StepModel("lim_x", 0, 5, 1, -1), null));
+	}
+
+	@Test
+	public void noLimitsNoCheck() throws Exception {
+		validator.validate(new ScanRequest<>(new StepModel("stage_x", -1000, 1000, 100), null));
+	}
+}
@@ -18,6 +18,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
     CompoundModelTest.class,
     ModelTest.class,
+    PointValidationTest.class,
     ScanRequestValidationTest.class
 })
 public class Suite {